@@ -0,0 +1,209 @@
+/******************************************************************************
+ * Copyright 2020 Paul T. Grogan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package edu.mit.collab.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.RealVector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.mit.collab.hla.HLAfloatVector;
+import edu.mit.collab.hla.HLAintegerMatrix;
+import edu.mit.collab.hla.HLAstringVector;
+import hla.rti1516e.RtiFactoryFactory;
+import hla.rti1516e.encoding.ByteWrapper;
+import hla.rti1516e.encoding.DecoderException;
+import hla.rti1516e.encoding.EncoderException;
+import hla.rti1516e.encoding.EncoderFactory;
+import hla.rti1516e.exceptions.RTIinternalError;
+
+/**
+ * Benchmarks for encoding and decoding the HLA data elements across 
+ * value sizes. Requires an RTI implementation for the encoder factory.
+ * 
+ * @author Paul T. Grogan
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CodecBenchmark {
+	private static final int numberDesigners = 3;
+	
+	@Param({"4", "16", "64", "256"})
+	public int size;
+	
+	private HLAfloatVector floatVector;
+	private HLAintegerMatrix integerMatrix;
+	private HLAstringVector stringVector;
+	private RealVector vectorValue;
+	private int[][] matrixValue;
+	private String[] stringValue;
+	private byte[] vectorBytes, matrixBytes, stringBytes;
+	private double[] vectorBuffer;
+	private ByteWrapper vectorWrapper;
+	
+	/**
+	 * Sets up the data elements, values, and encoded values.
+	 *
+	 * @throws RTIinternalError the RTI internal error
+	 * @throws EncoderException the encoder exception
+	 */
+	@Setup(Level.Trial)
+	public void setUp() throws RTIinternalError, EncoderException {
+		EncoderFactory encoderFactory = RtiFactoryFactory
+				.getRtiFactory().getEncoderFactory();
+		floatVector = new HLAfloatVector();
+		integerMatrix = new HLAintegerMatrix();
+		stringVector = new HLAstringVector(encoderFactory);
+		
+		vectorValue = new ArrayRealVector(size);
+		stringValue = new String[size];
+		for(int i = 0; i < size; i++) {
+			vectorValue.setEntry(i, i / (double) size);
+			stringValue[i] = "Label " + (i+1);
+		}
+		matrixValue = new int[numberDesigners][size / numberDesigners];
+		for(int d = 0; d < matrixValue.length; d++) {
+			for(int d_i = 0; d_i < matrixValue[d].length; d_i++) {
+				matrixValue[d][d_i] = d + d_i*numberDesigners;
+			}
+		}
+		
+		floatVector.setValue(vectorValue);
+		vectorBytes = floatVector.toByteArray();
+		vectorBuffer = new double[size];
+		vectorWrapper = new ByteWrapper(vectorBytes.length);
+		integerMatrix.setValue(matrixValue);
+		matrixBytes = integerMatrix.toByteArray();
+		stringVector.setValue(stringValue);
+		stringBytes = stringVector.toByteArray();
+	}
+	
+	/**
+	 * Benchmarks decoding a float vector.
+	 *
+	 * @return the decoded value
+	 * @throws DecoderException the decoder exception
+	 */
+	@Benchmark
+	public RealVector decodeFloatVector() throws DecoderException {
+		floatVector.decode(vectorBytes);
+		return floatVector.getValue();
+	}
+	
+	/**
+	 * Benchmarks decoding a float vector into a reused array.
+	 *
+	 * @return the decoded value
+	 * @throws DecoderException the decoder exception
+	 */
+	@Benchmark
+	public double[] decodeFloatVectorInto() throws DecoderException {
+		floatVector.decode(vectorBytes);
+		floatVector.getValue(vectorBuffer);
+		return vectorBuffer;
+	}
+	
+	/**
+	 * Benchmarks decoding an integer matrix.
+	 *
+	 * @return the decoded value
+	 * @throws DecoderException the decoder exception
+	 */
+	@Benchmark
+	public int[][] decodeIntegerMatrix() throws DecoderException {
+		integerMatrix.decode(matrixBytes);
+		return integerMatrix.getValue();
+	}
+	
+	/**
+	 * Benchmarks decoding a string vector.
+	 *
+	 * @return the decoded value
+	 * @throws DecoderException the decoder exception
+	 */
+	@Benchmark
+	public String[] decodeStringVector() throws DecoderException {
+		stringVector.decode(stringBytes);
+		return stringVector.getValue();
+	}
+	
+	/**
+	 * Benchmarks encoding a float vector.
+	 *
+	 * @return the encoded value
+	 * @throws EncoderException the encoder exception
+	 */
+	@Benchmark
+	public byte[] encodeFloatVector() throws EncoderException {
+		floatVector.setValue(vectorValue);
+		return floatVector.toByteArray();
+	}
+	
+	/**
+	 * Benchmarks encoding a float vector into a reused byte wrapper.
+	 *
+	 * @return the byte wrapper
+	 * @throws EncoderException the encoder exception
+	 */
+	@Benchmark
+	public ByteWrapper encodeFloatVectorInto() throws EncoderException {
+		floatVector.setValue(vectorValue);
+		vectorWrapper.reset();
+		floatVector.encode(vectorWrapper);
+		return vectorWrapper;
+	}
+	
+	/**
+	 * Benchmarks encoding an integer matrix.
+	 *
+	 * @return the encoded value
+	 * @throws EncoderException the encoder exception
+	 */
+	@Benchmark
+	public byte[] encodeIntegerMatrix() throws EncoderException {
+		integerMatrix.setValue(matrixValue);
+		return integerMatrix.toByteArray();
+	}
+	
+	/**
+	 * Benchmarks encoding a string vector.
+	 *
+	 * @return the encoded value
+	 * @throws EncoderException the encoder exception
+	 */
+	@Benchmark
+	public byte[] encodeStringVector() throws EncoderException {
+		stringVector.setValue(stringValue);
+		return stringVector.toByteArray();
+	}
+}
@@ -0,0 +1,117 @@
+/******************************************************************************
+ * Copyright 2020 Paul T. Grogan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package edu.mit.collab.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.openjdk.jmh.annotations.TearDown;
+
+import edu.mit.collab.core.Experiment;
+import edu.mit.collab.util.BinaryExperimentFormat;
+import edu.mit.collab.util.Utilities;
+
+/**
+ * Benchmarks for loading the bundled experiment files in JSON format and 
+ * converted to the binary format. The directory 
+ * containing the files can be set with the <code>collab.experimentDir</code>
+ * system property (default: src/generator/matlab).
+ * 
+ * @author Paul T. Grogan
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExperimentBenchmark {
+	@Param({"experiment001.json", "experiment002.json", "experiment003.json", 
+		"experiment004.json", "experiment005.json", "experiment006.json", 
+		"experiment007.json", "experiment008.json", "experiment009.json", 
+		"experiment010.json", "experiment011.json", "experiment012.json"})
+	public String fileName;
+	
+	private File file;
+	private File binaryFile;
+	
+	/**
+	 * Sets up the experiment file and converts it to a temporary binary file.
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		file = new File(System.getProperty("collab.experimentDir", 
+				"src/generator/matlab"), fileName);
+		if(!file.isFile()) {
+			throw new IllegalArgumentException(
+					"Experiment file " + file + " does not exist.");
+		}
+		binaryFile = File.createTempFile("experiment", 
+				"." + BinaryExperimentFormat.FILE_EXTENSION);
+		BinaryExperimentFormat.writeExperiment(
+				Utilities.readExperiment(file), binaryFile);
+	}
+	
+	/**
+	 * Benchmarks reading a binary experiment and materializing its 
+	 * first model.
+	 *
+	 * @return the experiment
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	@Benchmark
+	public Experiment readBinaryExperiment() throws IOException {
+		Experiment experiment = Utilities.readExperiment(binaryFile);
+		experiment.nextModel();
+		return experiment;
+	}
+	
+	/**
+	 * Benchmarks reading an experiment.
+	 *
+	 * @return the experiment
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	@Benchmark
+	public Experiment readExperiment() throws IOException {
+		return Utilities.readExperiment(file);
+	}
+	
+	/**
+	 * Deletes the temporary binary file.
+	 */
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		binaryFile.delete();
+	}
+}
@@ -0,0 +1,92 @@
+/******************************************************************************
+ * Copyright 2020 Paul T. Grogan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package edu.mit.collab.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.mit.collab.gui.ManagerFrame;
+import edu.mit.collab.util.Utilities;
+
+/**
+ * Benchmarks for formatting manager session log entries across vector sizes.
+ * 
+ * @author Paul T. Grogan
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LogBenchmark {
+	@Param({"4", "16", "64"})
+	public int size;
+	
+	private double[] inputValues, outputValues;
+	
+	/**
+	 * Sets up the input and output values.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() {
+		inputValues = new double[size];
+		outputValues = new double[size];
+		for(int i = 0; i < size; i++) {
+			inputValues[i] = i / (double) size;
+			outputValues[i] = 1 - i / (double) size;
+		}
+	}
+	
+	/**
+	 * Benchmarks formatting an input vector.
+	 *
+	 * @return the formatted string
+	 */
+	@Benchmark
+	public String formatInput() {
+		return Utilities.formatVector(inputValues, 
+				ManagerFrame.INPUT_LOG_FORMAT);
+	}
+	
+	/**
+	 * Benchmarks formatting a complete update log line as written by the 
+	 * manager for each designer input update.
+	 *
+	 * @return the formatted line
+	 */
+	@Benchmark
+	public String formatUpdateLine() {
+		return System.currentTimeMillis() + "," + "updated" + "," 
+				+ "input=" + Utilities.formatVector(inputValues, 
+						ManagerFrame.INPUT_LOG_FORMAT) 
+				+ "; output=" + Utilities.formatVector(outputValues, 
+						ManagerFrame.OUTPUT_LOG_FORMAT);
+	}
+}
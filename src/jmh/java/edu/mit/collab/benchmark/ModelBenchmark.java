@@ -0,0 +1,171 @@
+/******************************************************************************
+ * Copyright 2020 Paul T. Grogan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package edu.mit.collab.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.RealMatrix;
+import org.apache.commons.math3.linear.RealVector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.mit.collab.core.SystemModel;
+
+/**
+ * Benchmarks for the system model math (output, solution, and error 
+ * evaluation) across coupling matrix sizes.
+ * 
+ * @author Paul T. Grogan
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ModelBenchmark {
+	private static final int numberDesigners = 3;
+	private static final long seed = 1L;
+	
+	@Param({"4", "16", "64", "256"})
+	public int size;
+	
+	private SystemModel model;
+	private RealVector input;
+	private double[] inputs, outputs;
+	
+	/**
+	 * Creates a random system model with a diagonally-dominant (and therefore
+	 * non-singular) sparse coupling matrix. Inputs and outputs are assigned
+	 * to designers in round-robin order.
+	 *
+	 * @param size the number of inputs and outputs
+	 * @param numberDesigners the number of designers
+	 * @param random the random number generator
+	 * @return the system model
+	 */
+	static SystemModel createModel(int size, int numberDesigners, 
+			Random random) {
+		RealMatrix couplingMatrix = new Array2DRowRealMatrix(size, size);
+		for(int i = 0; i < size; i++) {
+			couplingMatrix.setEntry(i, i, 1.0);
+			for(int j = 0; j < size; j++) {
+				if(i != j && random.nextDouble() < 0.2) {
+					// off-diagonal entries sum to less than 0.5 in magnitude
+					couplingMatrix.setEntry(i, j, 
+							(random.nextDouble() - 0.5) / size);
+				}
+			}
+		}
+		RealVector targetVector = new ArrayRealVector(size);
+		for(int i = 0; i < size; i++) {
+			targetVector.setEntry(i, 2*random.nextDouble() - 1);
+		}
+		int[][] indices = new int[numberDesigners][];
+		for(int d = 0; d < numberDesigners; d++) {
+			indices[d] = new int[(size - d + numberDesigners - 1) / numberDesigners];
+			for(int d_i = 0; d_i < indices[d].length; d_i++) {
+				indices[d][d_i] = d + d_i*numberDesigners;
+			}
+		}
+		String[] labels = new String[size];
+		for(int i = 0; i < size; i++) {
+			labels[i] = "x" + (i+1);
+		}
+		return new SystemModel("Benchmark " + size, couplingMatrix, 
+				targetVector, indices, indices, labels, labels);
+	}
+	
+	/**
+	 * Sets up the model and input vector.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() {
+		Random random = new Random(seed);
+		model = createModel(size, numberDesigners, random);
+		inputs = new double[size];
+		for(int i = 0; i < size; i++) {
+			inputs[i] = 2*random.nextDouble() - 1;
+		}
+		input = new ArrayRealVector(inputs);
+		outputs = new double[size];
+	}
+	
+	/**
+	 * Benchmarks the allocation-free output evaluation.
+	 *
+	 * @return the outputs
+	 */
+	@Benchmark
+	public double[] evaluateInto() {
+		model.evaluateInto(inputs, outputs);
+		return outputs;
+	}
+	
+	/**
+	 * Benchmarks the output error.
+	 *
+	 * @return the output error
+	 */
+	@Benchmark
+	public double outputError() {
+		return model.getOutputError(input);
+	}
+	
+	/**
+	 * Benchmarks the output vector.
+	 *
+	 * @return the output vector
+	 */
+	@Benchmark
+	public RealVector outputVector() {
+		return model.getOutputVector(input);
+	}
+	
+	/**
+	 * Benchmarks the solution vector (computed once and then copied).
+	 *
+	 * @return the solution vector
+	 */
+	@Benchmark
+	public RealVector solutionVector() {
+		return model.getSolutionVector();
+	}
+	
+	/**
+	 * Benchmarks solving for the inputs which produce the target outputs.
+	 *
+	 * @return the solution vector
+	 */
+	@Benchmark
+	public RealVector solve() {
+		return model.solve(model.getTargetVector());
+	}
+}
@@ -0,0 +1,177 @@
+/******************************************************************************
+ * Copyright 2020 Paul T. Grogan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package edu.mit.collab;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.SwingUtilities;
+
+import org.apache.log4j.BasicConfigurator;
+import org.apache.log4j.Logger;
+
+import edu.mit.collab.agent.AgentStrategy;
+import edu.mit.collab.agent.CoordinateDescentStrategy;
+import edu.mit.collab.agent.DesignerAgent;
+import edu.mit.collab.agent.GradientStrategy;
+import edu.mit.collab.agent.HumanTimingStrategy;
+import edu.mit.collab.agent.RandomWalkStrategy;
+import edu.mit.collab.gui.ManagerFrame;
+import edu.mit.collab.hla.DesignerAmbassador;
+import edu.mit.collab.transport.DesignerTransport;
+import edu.mit.collab.transport.LoopbackDesignerTransport;
+import edu.mit.collab.transport.LoopbackFederation;
+import edu.mit.collab.transport.LoopbackManagerTransport;
+
+/**
+ * The main class to launch headless designer agents for load testing. 
+ * Agents join the RTI like the designer application (with indices 0 to 
+ * N-1) unless the loopback transport is requested, in which case a 
+ * manager GUI is also launched in the same JVM.
+ * 
+ * @author Paul T. Grogan
+ */
+public class AgentMain {
+	private static Logger logger = Logger.getLogger(AgentMain.class);
+	private static final String loopbackTransport = "loopback";
+	private static final long seed = 0L;
+	private static final long reportInterval = 10000;
+	
+	/**
+	 * Creates an agent strategy by name.
+	 *
+	 * @param name the name (random, coordinate, gradient, or human)
+	 * @param random the random number generator
+	 * @return the agent strategy
+	 */
+	private static AgentStrategy createStrategy(String name, Random random) {
+		if(name.equalsIgnoreCase("random")) {
+			return new RandomWalkStrategy(0.05, 200, random);
+		} else if(name.equalsIgnoreCase("coordinate")) {
+			return new CoordinateDescentStrategy(0.1, 0.01, 200);
+		} else if(name.equalsIgnoreCase("gradient")) {
+			return new GradientStrategy(0.05, 0.8, 0.25, 200);
+		} else if(name.equalsIgnoreCase("human")) {
+			// humans move one slider at a time with reaction delays
+			return new HumanTimingStrategy(
+					new CoordinateDescentStrategy(0.1, 0.01, 0), 
+					300, 700, random);
+		} else {
+			throw new IllegalArgumentException(
+					"Unknown strategy " + name + ".");
+		}
+	}
+	
+	/**
+	 * The main method. The first argument is the number of agents, the
+	 * optional second argument is the strategy (random, coordinate, 
+	 * gradient (default), or human), and the optional third argument is 
+	 * the transport, either "rti" (default) or "loopback".
+	 *
+	 * @param args the arguments
+	 */
+	public static void main(String[] args) {
+		BasicConfigurator.configure();
+		
+		// validate number of agents
+		final int numberAgents;
+		if(args.length < 1 || Integer.parseInt(args[0]) < 1) {
+			throw new IllegalArgumentException(
+					"Positive number of agents must be specified in args[0].");
+		} else {
+			numberAgents = Integer.parseInt(args[0]);
+		}
+		String strategyName = args.length > 1 ? args[1] : "gradient";
+		
+		// create a loopback federation (and manager) if requested
+		final LoopbackFederation federation = 
+				args.length > 2 && args[2].equalsIgnoreCase(loopbackTransport) ?
+						new LoopbackFederation() : null;
+		if(federation != null) {
+			try {
+				// start manager frame in java swing thread and wait
+				SwingUtilities.invokeAndWait(new Runnable() {
+					@Override
+					public void run() {
+						ManagerFrame m = new ManagerFrame(
+								new LoopbackManagerTransport(federation));
+						m.pack();
+						m.setVisible(true);
+					}
+				});
+			} catch (Exception ex) {
+				logger.error(ex);
+				return;
+			}
+		}
+		
+		// share one scheduler between all agents
+		ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(
+				Runtime.getRuntime().availableProcessors());
+		
+		// create and start agents
+		final List<DesignerAgent> agents = new ArrayList<DesignerAgent>();
+		for(int i = 0; i < numberAgents; i++) {
+			try {
+				DesignerTransport transport = federation == null ? 
+						new DesignerAmbassador(i) : 
+							new LoopbackDesignerTransport(federation, i);
+				DesignerAgent agent = new DesignerAgent(i, transport, 
+						createStrategy(strategyName, new Random(seed + i)), 
+						scheduler);
+				agent.start();
+				agents.add(agent);
+			} catch (Exception ex) {
+				logger.error("Could not start agent " + i + ".", ex);
+			}
+		}
+		logger.info("Started " + agents.size() + " agents using " 
+				+ strategyName + " strategy.");
+		
+		// periodically report the total number of moves and solutions
+		scheduler.scheduleAtFixedRate(new Runnable() {
+			@Override
+			public void run() {
+				long numberMoves = 0;
+				int numberSolved = 0;
+				for(DesignerAgent agent : agents) {
+					numberMoves += agent.getNumberMoves();
+					numberSolved += agent.getNumberSolved();
+				}
+				logger.info("Agents sent " + numberMoves + " moves and " 
+						+ "observed " + numberSolved + " solutions.");
+			}
+		}, reportInterval, reportInterval, TimeUnit.MILLISECONDS);
+		
+		// stop agents when the application exits
+		Runtime.getRuntime().addShutdownHook(new Thread() {
+			@Override
+			public void run() {
+				for(DesignerAgent agent : agents) {
+					try {
+						agent.stop();
+					} catch (Exception ex) {
+						logger.error(ex);
+					}
+				}
+			}
+		});
+	}
+}
@@ -27,22 +27,49 @@ import com.jgoodies.looks.plastic.Plastic3DLookAndFeel;
 
 import edu.mit.collab.gui.DesignerFrame;
 import edu.mit.collab.gui.ManagerFrame;
+import edu.mit.collab.transport.LoopbackDesignerTransport;
+import edu.mit.collab.transport.LoopbackFederation;
+import edu.mit.collab.transport.LoopbackManagerTransport;
 
 /**
- * The main class for debugging - launches one manager and three designer GUIs.
+ * The main class for debugging - launches one manager and (by default) three 
+ * designer GUIs in a single JVM. The frames are connected with an in-process 
+ * loopback federation unless the RTI transport is requested, so no RTI is 
+ * required for debugging.
  * 
  * @author Paul T. Grogan
  */
 public class DebugMain {
 	private static Logger logger = Logger.getLogger(DebugMain.class);
+	private static final int defaultNumberDesigners = 3;
+	private static final String rtiTransport = "rti";
+	
 	/**
-	 * The main method.
+	 * The main method. The optional first argument is the number of designers
+	 * (default 3) and the optional second argument is the transport, either 
+	 * "loopback" (default) or "rti".
 	 *
 	 * @param args the arguments
 	 */
 	public static void main(String[] args) {
 		BasicConfigurator.configure();
 		
+		// validate number of designers
+		final int numberDesigners;
+		if(args.length < 1) {
+			numberDesigners = defaultNumberDesigners;
+		} else if(Integer.parseInt(args[0]) < 1) {
+			throw new IllegalArgumentException(
+					"Positive number of designers must be specified in args[0].");
+		} else {
+			numberDesigners = Integer.parseInt(args[0]);
+		}
+		
+		// create a loopback federation unless the rti is requested
+		final LoopbackFederation federation = 
+				args.length > 1 && args[1].equalsIgnoreCase(rtiTransport) ? 
+						null : new LoopbackFederation();
+		
 		// set the look and feel to the jgoodies plastic 3d theme
 		// (looks better across platforms)
 		try {
@@ -55,13 +82,16 @@ public class DebugMain {
 			public void run() {
 				try {
 					// start manager frame and make visible
-					ManagerFrame m = new ManagerFrame();
+					ManagerFrame m = federation == null ? new ManagerFrame() : 
+						new ManagerFrame(new LoopbackManagerTransport(federation));
 					m.pack();
 					m.setVisible(true);
 					
-					// start three designer frames and make visible
-					for(int i = 0; i < 3; i++) {
-						DesignerFrame d = new DesignerFrame(i);
+					// start designer frames and make visible
+					for(int i = 0; i < numberDesigners; i++) {
+						DesignerFrame d = federation == null ? new DesignerFrame(i) : 
+							new DesignerFrame(i, new LoopbackDesignerTransport(
+									federation, i));
 						d.pack();
 						// position to the right of the manager frame
 						d.setLocation(new Point(
@@ -0,0 +1,66 @@
+/******************************************************************************
+ * Copyright 2020 Paul T. Grogan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package edu.mit.collab;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.log4j.BasicConfigurator;
+import org.apache.log4j.Logger;
+
+import edu.mit.collab.core.Experiment;
+import edu.mit.collab.util.BinaryExperimentFormat;
+import edu.mit.collab.util.Utilities;
+
+/**
+ * The main class to convert experiment files between the JSON and binary 
+ * formats. The input format is detected automatically; the output is 
+ * written as JSON if the output file name ends with ".json" and in the 
+ * binary format otherwise.
+ * 
+ * @author Paul T. Grogan
+ */
+public class ExperimentConverter {
+	private static Logger logger = Logger.getLogger(ExperimentConverter.class);
+	private static final String jsonExtension = ".json";
+	
+	/**
+	 * The main method. The first argument is the input file and the second 
+	 * argument is the output file.
+	 *
+	 * @param args the arguments
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public static void main(String[] args) throws IOException {
+		BasicConfigurator.configure();
+		
+		if(args.length < 2) {
+			throw new IllegalArgumentException(
+					"Input and output files must be specified in args[0] and args[1].");
+		}
+		File input = new File(args[0]);
+		File output = new File(args[1]);
+		
+		Experiment experiment = Utilities.readExperiment(input);
+		if(output.getName().toLowerCase().endsWith(jsonExtension)) {
+			Utilities.writeExperiment(experiment, output);
+		} else {
+			BinaryExperimentFormat.writeExperiment(experiment, output);
+		}
+		logger.info("Converted " + experiment.getModels().size() 
+				+ " models from " + input + " to " + output + ".");
+	}
+}
@@ -0,0 +1,197 @@
+/******************************************************************************
+ * Copyright 2020 Paul T. Grogan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package edu.mit.collab;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import org.apache.log4j.BasicConfigurator;
+import org.apache.log4j.Logger;
+
+import edu.mit.collab.core.Complexity;
+import edu.mit.collab.core.Experiment;
+import edu.mit.collab.core.SystemModel;
+import edu.mit.collab.generator.ComplexityAnalyzer;
+import edu.mit.collab.generator.ExperimentGenerator;
+import edu.mit.collab.generator.NameGenerator;
+import edu.mit.collab.generator.StandardTasks;
+import edu.mit.collab.generator.TaskFactory;
+import edu.mit.collab.util.Utilities;
+
+/**
+ * The main class to generate experiments with the standard tasks. 
+ * Experiments are generated in parallel and written in JSON format 
+ * (experiment001.json, experiment002.json, ...). Generation is 
+ * reproducible for a given seed. As in <code>experimentGenerator.m</code>, 
+ * candidate experiments are screened so the most complex tasks are not 
+ * among the first tasks, and the complexity of each task and order of 
+ * tasks in each experiment are written to experiments.txt.
+ * 
+ * @author Paul T. Grogan
+ */
+public class GeneratorMain {
+	private static Logger logger = Logger.getLogger(GeneratorMain.class);
+	private static final String experimentPrefix = "experiment";
+	private static final String reportFileName = "experiments.txt";
+	
+	// configuration options to screen candidate experiments: the maximum 
+	// total complexity of the leading experiment tasks (excludes the 4x4 
+	// technically-coupled tasks) and the number of leading tasks
+	private static final double maximumLeadingComplexity = 99;
+	private static final int numberLeadingModels = 10;
+	
+	/**
+	 * The main method. The optional first argument is the number of 
+	 * experiments (default 1), the optional second argument is the seed 
+	 * (default random), and the optional third argument is the output 
+	 * directory (default current directory).
+	 *
+	 * @param args the arguments
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public static void main(String[] args) throws IOException {
+		BasicConfigurator.configure();
+		
+		int count = args.length < 1 ? 1 : Integer.parseInt(args[0]);
+		if(count < 1) {
+			throw new IllegalArgumentException(
+					"Positive number of experiments must be specified in args[0].");
+		}
+		long seed = args.length < 2 ? 
+				new SplittableRandom().nextLong() : Long.parseLong(args[1]);
+		File directory = new File(args.length < 3 ? "." : args[2]);
+		if(!directory.isDirectory()) {
+			throw new IllegalArgumentException(
+					"Output directory " + directory + " does not exist.");
+		}
+		logger.info("Generating " + count + " experiments with seed " 
+				+ seed + ".");
+		
+		// draw labels for training tasks before experiment tasks
+		SplittableRandom random = new SplittableRandom(seed);
+		NameGenerator names = new NameGenerator(random.split());
+		List<TaskFactory> trainingFactories = 
+				StandardTasks.getTrainingFactories(names);
+		List<TaskFactory> experimentFactories = 
+				StandardTasks.getExperimentFactories(names);
+		
+		// generate and screen rounds of candidate experiments until 
+		// enough experiments are retained
+		long time = System.currentTimeMillis();
+		ExperimentGenerator generator = new ExperimentGenerator();
+		ComplexityAnalyzer analyzer = new ComplexityAnalyzer();
+		List<Experiment> experiments = new ArrayList<Experiment>();
+		int numberCandidates = 0;
+		while(experiments.size() < count) {
+			List<Experiment> candidates = generator.generate(
+					experimentPrefix, 1, count, StandardTasks.NUMBER_DESIGNERS, 
+					trainingFactories, experimentFactories, random.nextLong());
+			numberCandidates += candidates.size();
+			for(Experiment candidate : analyzer.screen(candidates, 
+					Complexity.Metric.TOTAL, 0, maximumLeadingComplexity, 
+					numberLeadingModels)) {
+				if(experiments.size() < count) {
+					experiments.add(rename(candidate, String.format(
+							"%s%03d", experimentPrefix, experiments.size() + 1)));
+				}
+			}
+		}
+		logger.info("Generated " + count + " experiments from " 
+				+ numberCandidates + " candidates in " 
+				+ (System.currentTimeMillis() - time) + " ms.");
+		
+		for(Experiment experiment : experiments) {
+			Utilities.writeExperiment(experiment, 
+					new File(directory, experiment.getName() + ".json"));
+		}
+		writeReport(experiments, experimentFactories, 
+				new File(directory, reportFileName));
+	}
+	
+	/**
+	 * Gets a copy of an experiment with a new name.
+	 *
+	 * @param experiment the experiment
+	 * @param name the name
+	 * @return the renamed experiment
+	 */
+	private static Experiment rename(Experiment experiment, String name) {
+		List<SystemModel> models = experiment.getModels();
+		int numberTrainingModels = experiment.getNumberTrainingModels();
+		return Experiment.wrap(name, experiment.getNumberDesigners(), 
+				new ArrayList<SystemModel>(
+						models.subList(0, numberTrainingModels)), 
+				new ArrayList<SystemModel>(
+						models.subList(numberTrainingModels, models.size())));
+	}
+	
+	/**
+	 * Writes a report with the complexity of each experiment task and the 
+	 * order of tasks (1-based task numbers) in each experiment.
+	 *
+	 * @param experiments the experiments
+	 * @param experimentFactories the experiment task factories
+	 * @param file the file
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private static void writeReport(List<Experiment> experiments, 
+			List<TaskFactory> experimentFactories, File file) 
+					throws IOException {
+		// task numbers by name and complexity from the first experiment
+		Map<String, Integer> numbers = new HashMap<String, Integer>();
+		for(int i = 0; i < experimentFactories.size(); i++) {
+			numbers.put(experimentFactories.get(i).getName(), i + 1);
+		}
+		Map<String, Complexity> complexities = 
+				new HashMap<String, Complexity>();
+		for(SystemModel model : experiments.get(0).getModels()) {
+			complexities.put(model.getName(), model.getComplexity());
+		}
+		
+		try(PrintWriter writer = new PrintWriter(
+				new BufferedWriter(new FileWriter(file)))) {
+			writer.println(String.format("%2s %35s %16s %4s %4s %4s", 
+					"#", "Name (Individual/Team)", "Description", 
+					"C_t", "C_s", "C"));
+			for(int i = 0; i < experimentFactories.size(); i++) {
+				TaskFactory factory = experimentFactories.get(i);
+				Complexity complexity = complexities.get(factory.getName());
+				writer.println(String.format("%2d %35s %16s %4.0f %4.0f %4.0f", 
+						i + 1, factory.getName(), factory.getDescription(), 
+						complexity.getTechnical(), complexity.getSocial(), 
+						complexity.getTotal()));
+			}
+			for(Experiment experiment : experiments) {
+				StringBuilder order = new StringBuilder();
+				List<SystemModel> models = experiment.getModels();
+				for(int i = experiment.getNumberTrainingModels(); 
+						i < models.size(); i++) {
+					order.append(' ').append(numbers.get(models.get(i).getName()));
+				}
+				writer.println();
+				writer.println(experiment.getName() + ": [" + order + " ]");
+			}
+		}
+	}
+}
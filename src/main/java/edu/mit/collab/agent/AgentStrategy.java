@@ -0,0 +1,54 @@
+/******************************************************************************
+ * Copyright 2020 Paul T. Grogan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package edu.mit.collab.agent;
+
+/**
+ * The interface for a strategy used by a designer agent to move its inputs
+ * in response to observed outputs.
+ * 
+ * @author Paul T. Grogan
+ */
+public interface AgentStrategy {
+	
+	/**
+	 * Gets the delay before the next move, i.e. the time to react to 
+	 * the latest outputs.
+	 *
+	 * @return the delay (milliseconds)
+	 */
+	public long getDelay();
+	
+	/**
+	 * Moves the inputs (in place) given the outputs observed after the 
+	 * previous move and the target outputs. Inputs are limited to the range 
+	 * between {@link DesignerAgent#MINIMUM_INPUT} and 
+	 * {@link DesignerAgent#MAXIMUM_INPUT} after each move.
+	 *
+	 * @param inputs the inputs
+	 * @param outputs the outputs
+	 * @param targets the target outputs
+	 * @return true, if any inputs were moved
+	 */
+	public boolean move(double[] inputs, double[] outputs, double[] targets);
+	
+	/**
+	 * Resets this strategy for a new model.
+	 *
+	 * @param numberInputs the number of inputs
+	 * @param numberOutputs the number of outputs
+	 */
+	public void reset(int numberInputs, int numberOutputs);
+}
@@ -0,0 +1,131 @@
+/******************************************************************************
+ * Copyright 2020 Paul T. Grogan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package edu.mit.collab.agent;
+
+/**
+ * A strategy which moves one input at a time by a fixed step, continuing 
+ * in the same direction while the distance to the target outputs decreases.
+ * Unsuccessful moves are reverted and the opposite direction (or the next 
+ * input) is tried; the step is halved (to a minimum step) after a cycle 
+ * of unsuccessful moves through all inputs.
+ * 
+ * @author Paul T. Grogan
+ */
+public class CoordinateDescentStrategy implements AgentStrategy {
+	private final double initialStepSize, minimumStepSize; // immutable
+	private final long delay; // immutable
+	
+	private double stepSize; // mutable
+	private int index, direction, failures; // mutable
+	private double lastError; // mutable
+	private double lastInput; // mutable
+	private boolean moved; // mutable
+	
+	/**
+	 * Instantiates a new coordinate descent strategy.
+	 *
+	 * @param stepSize the initial step size
+	 * @param minimumStepSize the minimum step size
+	 * @param delay the delay between moves (milliseconds)
+	 */
+	public CoordinateDescentStrategy(double stepSize, 
+			double minimumStepSize, long delay) {
+		if(minimumStepSize <= 0 || stepSize < minimumStepSize) {
+			throw new IllegalArgumentException(
+					"Step sizes must be positive with step size " +
+					"no less than minimum step size.");
+		}
+		if(delay < 0) {
+			throw new IllegalArgumentException(
+					"Delay cannot be negative.");
+		}
+		this.initialStepSize = stepSize;
+		this.minimumStepSize = minimumStepSize;
+		this.delay = delay;
+		reset(0, 0);
+	}
+	
+	@Override
+	public long getDelay() {
+		return delay;
+	}
+	
+	/**
+	 * Gets the squared distance between outputs and targets.
+	 *
+	 * @param outputs the outputs
+	 * @param targets the targets
+	 * @return the error
+	 */
+	private static double getError(double[] outputs, double[] targets) {
+		double error = 0;
+		for(int i = 0; i < Math.min(outputs.length, targets.length); i++) {
+			error += (outputs[i] - targets[i])*(outputs[i] - targets[i]);
+		}
+		return error;
+	}
+	
+	@Override
+	public boolean move(double[] inputs, double[] outputs, double[] targets) {
+		if(inputs.length == 0) {
+			return false;
+		}
+		double error = getError(outputs, targets);
+		if(moved) {
+			if(error < lastError) {
+				// keep moving in the same direction
+				lastError = error;
+				failures = 0;
+				lastInput = inputs[index];
+				inputs[index] += direction*stepSize;
+				return true;
+			}
+			// revert the unsuccessful move to the value sent before it (the 
+			// moved value may have been limited or rounded when sent)
+			inputs[index] = lastInput;
+			if(direction > 0) {
+				// try the opposite direction
+				direction = -1;
+			} else {
+				// try the next input
+				direction = 1;
+				index = (index + 1) % inputs.length;
+				if(++failures >= inputs.length) {
+					// reduce the step after a cycle without improvement
+					stepSize = Math.max(stepSize/2, minimumStepSize);
+					failures = 0;
+				}
+			}
+		} else {
+			lastError = error;
+		}
+		lastInput = inputs[index];
+		inputs[index] += direction*stepSize;
+		moved = true;
+		return true;
+	}
+	
+	@Override
+	public void reset(int numberInputs, int numberOutputs) {
+		stepSize = initialStepSize;
+		index = 0;
+		direction = 1;
+		failures = 0;
+		lastError = Double.MAX_VALUE;
+		lastInput = 0;
+		moved = false;
+	}
+}
@@ -0,0 +1,326 @@
+/******************************************************************************
+ * Copyright 2020 Paul T. Grogan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package edu.mit.collab.agent;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.log4j.Logger;
+
+import edu.mit.collab.core.Manager;
+import edu.mit.collab.event.ManagerEvent;
+import edu.mit.collab.event.ManagerListener;
+import edu.mit.collab.transport.DesignerTransport;
+
+/**
+ * A headless designer which joins like the designer application and moves 
+ * its inputs automatically using an agent strategy. Each move is sent after 
+ * the strategy delay on a (shared) scheduled executor and the next move 
+ * waits for the resulting outputs from the manager (or the output timeout, 
+ * if the manager sends no outputs for a move). Agents stop moving once 
+ * the manager's model is solved and restart for each new model. Like human 
+ * designers, agents only observe their own outputs, so tasks where those 
+ * outputs depend on other designers' inputs may not be solved.
+ * 
+ * @author Paul T. Grogan
+ */
+public class DesignerAgent implements ManagerListener {
+	private static Logger logger = Logger.getLogger(DesignerAgent.class);
+	
+	public static final double MINIMUM_INPUT = -1, MAXIMUM_INPUT = 1;
+	public static final long DEFAULT_OUTPUT_TIMEOUT = 500;
+	
+	private final int designerIndex; // immutable
+	private final DesignerTransport designerTransport; // immutable
+	private final AgentStrategy strategy; // immutable
+	private final ScheduledExecutorService scheduler; // immutable
+	private final long outputTimeout; // immutable
+	
+	private Manager manager; // mutable
+	private double[] inputs = new double[0]; // mutable
+	private double[] outputs = new double[0]; // mutable
+	private double[] targets = new double[0]; // mutable
+	private boolean running; // mutable
+	private boolean awaitingOutput; // mutable
+	private ScheduledFuture<?> pendingMove; // mutable
+	private long numberMoves; // mutable
+	private int numberSolved; // mutable
+	
+	/**
+	 * Instantiates a new designer agent with the default output timeout.
+	 *
+	 * @param designerIndex the designer index
+	 * @param designerTransport the designer transport
+	 * @param strategy the strategy
+	 * @param scheduler the scheduler used to send moves
+	 */
+	public DesignerAgent(int designerIndex, 
+			DesignerTransport designerTransport, 
+			AgentStrategy strategy, ScheduledExecutorService scheduler) {
+		this(designerIndex, designerTransport, strategy, scheduler, 
+				DEFAULT_OUTPUT_TIMEOUT);
+	}
+	
+	/**
+	 * Instantiates a new designer agent.
+	 *
+	 * @param designerIndex the designer index
+	 * @param designerTransport the designer transport
+	 * @param strategy the strategy
+	 * @param scheduler the scheduler used to send moves
+	 * @param outputTimeout the maximum time (milliseconds) to wait for 
+	 * outputs after a move before scheduling the next move
+	 */
+	public DesignerAgent(int designerIndex, 
+			DesignerTransport designerTransport, 
+			AgentStrategy strategy, ScheduledExecutorService scheduler, 
+			long outputTimeout) {
+		if(designerIndex < 0) {
+			throw new IllegalArgumentException(
+					"Designer index cannot be negative.");
+		}
+		if(designerTransport == null || strategy == null 
+				|| scheduler == null) {
+			throw new IllegalArgumentException(
+					"Transport, strategy, and scheduler cannot be null.");
+		}
+		if(outputTimeout < 1) {
+			throw new IllegalArgumentException(
+					"Output timeout must be at least 1 millisecond.");
+		}
+		this.designerIndex = designerIndex;
+		this.designerTransport = designerTransport;
+		this.strategy = strategy;
+		this.scheduler = scheduler;
+		this.outputTimeout = outputTimeout;
+	}
+	
+	/**
+	 * Cancels any pending move.
+	 */
+	private synchronized void cancelMove() {
+		if(pendingMove != null) {
+			pendingMove.cancel(false);
+			pendingMove = null;
+		}
+	}
+	
+	/**
+	 * Gets the designer index.
+	 *
+	 * @return the designer index
+	 */
+	public int getDesignerIndex() {
+		return designerIndex;
+	}
+	
+	/**
+	 * Gets the number of input moves sent by this agent.
+	 *
+	 * @return the number of moves
+	 */
+	public synchronized long getNumberMoves() {
+		return numberMoves;
+	}
+	
+	/**
+	 * Gets the number of models solved while this agent was running.
+	 *
+	 * @return the number of models solved
+	 */
+	public synchronized int getNumberSolved() {
+		return numberSolved;
+	}
+	
+	/**
+	 * Initializes this agent for the manager's active model.
+	 */
+	private synchronized void initialize() {
+		cancelMove();
+		String activeModel = manager.getActiveModel();
+		if(activeModel.equals("") || activeModel.equals("Ready...") 
+				|| activeModel.equals("Complete!")) {
+			// no model is active; wait for the next model
+			inputs = new double[0];
+			outputs = new double[0];
+			targets = new double[0];
+			running = false;
+		} else {
+			inputs = manager.getInitialInput(designerIndex).toArray();
+			targets = manager.getTargetOutput(designerIndex).toArray();
+			outputs = new double[Math.min(targets.length, 
+					manager.getNumberOutputs(designerIndex))];
+			manager.copyOutput(designerIndex, outputs);
+			strategy.reset(inputs.length, outputs.length);
+			running = inputs.length > 0;
+			awaitingOutput = false;
+			if(running) {
+				scheduleMove();
+			}
+		}
+	}
+	
+	@Override
+	public synchronized void managerAdded(ManagerEvent e) {
+		// only register one manager at a time
+		if(manager == null) {
+			manager = e.getManager();
+		}
+	}
+	
+	@Override
+	public synchronized void managerModelModified(ManagerEvent e) {
+		if(e.getManager().equals(manager)) {
+			initialize();
+		}
+	}
+	
+	@Override
+	public synchronized void managerOutputModified(ManagerEvent e) {
+		if(!e.getManager().equals(manager) || !running) {
+			return;
+		}
+		manager.copyOutput(designerIndex, outputs);
+		if(manager.isSolved()) {
+			// stop moving once the model is solved
+			cancelMove();
+			running = false;
+			numberSolved++;
+		} else if(awaitingOutput) {
+			// react to the outputs of the previous move (cancelling the 
+			// output timeout)
+			cancelMove();
+			awaitingOutput = false;
+			scheduleMove();
+		}
+	}
+	
+	@Override
+	public synchronized void managerRemoved(ManagerEvent e) {
+		if(e.getManager().equals(manager)) {
+			cancelMove();
+			running = false;
+			manager = null;
+		}
+	}
+	
+	/**
+	 * Moves the inputs using the strategy and sends the update.
+	 */
+	private synchronized void move() {
+		pendingMove = null;
+		if(!running) {
+			return;
+		}
+		boolean moved;
+		try {
+			moved = strategy.move(inputs, outputs, targets);
+		} catch(RuntimeException ex) {
+			// restart the strategy rather than silently stop moving
+			logger.error("Designer " + (designerIndex+1) 
+					+ " strategy could not move; resetting strategy.", ex);
+			strategy.reset(inputs.length, outputs.length);
+			moved = false;
+		}
+		if(!moved) {
+			// no move; check again after the next delay
+			scheduleMove();
+			return;
+		}
+		for(int i = 0; i < inputs.length; i++) {
+			inputs[i] = Math.max(MINIMUM_INPUT, 
+					Math.min(MAXIMUM_INPUT, inputs[i]));
+		}
+		try {
+			awaitingOutput = true;
+			numberMoves++;
+			designerTransport.updateInputAttribute(
+					new ArrayRealVector(inputs));
+		} catch(Exception ex) {
+			logger.error("Designer " + (designerIndex+1) 
+					+ " could not send input update.", ex);
+			running = false;
+			return;
+		}
+		
+		// schedule the next move anyway if no outputs are received, e.g. 
+		// if the move did not change any outputs or an update was lost
+		final long move = numberMoves;
+		pendingMove = scheduler.schedule(new Runnable() {
+			@Override
+			public void run() {
+				outputTimedOut(move);
+			}
+		}, outputTimeout, TimeUnit.MILLISECONDS);
+	}
+	
+	/**
+	 * Schedules the next move if still awaiting the outputs of a move 
+	 * after the output timeout.
+	 *
+	 * @param move the number of the move awaiting outputs
+	 */
+	private synchronized void outputTimedOut(long move) {
+		// ignore timeouts for earlier moves which could not be cancelled
+		if(running && awaitingOutput && move == numberMoves) {
+			pendingMove = null;
+			logger.debug("Designer " + (designerIndex+1) 
+					+ " timed out awaiting outputs.");
+			awaitingOutput = false;
+			scheduleMove();
+		}
+	}
+	
+	/**
+	 * Schedules the next move after the strategy delay.
+	 */
+	private synchronized void scheduleMove() {
+		pendingMove = scheduler.schedule(new Runnable() {
+			@Override
+			public void run() {
+				move();
+			}
+		}, strategy.getDelay(), TimeUnit.MILLISECONDS);
+	}
+	
+	/**
+	 * Starts this agent: adds it as a manager listener, starts the 
+	 * transport, and sends its index.
+	 *
+	 * @throws Exception if the transport cannot be started
+	 */
+	public void start() throws Exception {
+		designerTransport.addManagerListener(this);
+		designerTransport.startUp();
+		designerTransport.updateIndexAttribute(designerIndex);
+	}
+	
+	/**
+	 * Stops this agent and shuts down the transport.
+	 *
+	 * @throws Exception if the transport cannot be shut down
+	 */
+	public void stop() throws Exception {
+		synchronized(this) {
+			cancelMove();
+			running = false;
+		}
+		designerTransport.removeManagerListener(this);
+		designerTransport.shutDown();
+	}
+}
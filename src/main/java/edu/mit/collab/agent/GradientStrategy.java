@@ -0,0 +1,212 @@
+/******************************************************************************
+ * Copyright 2020 Paul T. Grogan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package edu.mit.collab.agent;
+
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.RealMatrix;
+import org.apache.commons.math3.linear.RealVector;
+import org.apache.commons.math3.linear.SingularValueDecomposition;
+
+/**
+ * A strategy which estimates the sensitivity (Jacobian) of the outputs to 
+ * the inputs from observed outputs and moves all inputs together towards 
+ * the target outputs. The estimate is first formed by perturbing one input 
+ * at a time and is then refined after each move with a Broyden update; 
+ * the inputs are perturbed again if a move increases the error (e.g. due 
+ * to moves by other designers).
+ * 
+ * @author Paul T. Grogan
+ */
+public class GradientStrategy implements AgentStrategy {
+	private static final double minimumStep = 1e-6;
+	
+	private final double perturbation; // immutable
+	private final double stepSize; // immutable
+	private final double maximumStep; // immutable
+	private final long delay; // immutable
+	
+	private RealMatrix jacobian; // mutable
+	private double[] lastInputs, lastOutputs; // mutable
+	private double lastError; // mutable
+	private int probeIndex; // mutable
+	private double probeInput; // mutable
+	
+	/**
+	 * Instantiates a new gradient strategy.
+	 *
+	 * @param perturbation the input perturbation used to estimate sensitivity
+	 * @param stepSize the fraction of the estimated move to take (0 to 1)
+	 * @param maximumStep the maximum change in any input for one move
+	 * @param delay the delay between moves (milliseconds)
+	 */
+	public GradientStrategy(double perturbation, double stepSize, 
+			double maximumStep, long delay) {
+		if(perturbation <= 0) {
+			throw new IllegalArgumentException(
+					"Perturbation must be positive.");
+		}
+		if(stepSize <= 0 || stepSize > 1) {
+			throw new IllegalArgumentException(
+					"Step size must be between 0 and 1.");
+		}
+		if(maximumStep <= 0) {
+			throw new IllegalArgumentException(
+					"Maximum step must be positive.");
+		}
+		if(delay < 0) {
+			throw new IllegalArgumentException(
+					"Delay cannot be negative.");
+		}
+		this.perturbation = perturbation;
+		this.stepSize = stepSize;
+		this.maximumStep = maximumStep;
+		this.delay = delay;
+		reset(0, 0);
+	}
+	
+	@Override
+	public long getDelay() {
+		return delay;
+	}
+	
+	@Override
+	public boolean move(double[] inputs, double[] outputs, double[] targets) {
+		if(inputs.length == 0 || outputs.length == 0) {
+			return false;
+		}
+		if(jacobian == null 
+				|| jacobian.getColumnDimension() != inputs.length 
+				|| jacobian.getRowDimension() != outputs.length) {
+			// start a new estimate by perturbing the first input
+			jacobian = new Array2DRowRealMatrix(outputs.length, inputs.length);
+			lastOutputs = outputs.clone();
+			probeIndex = 0;
+			probe(inputs);
+			return true;
+		}
+		
+		boolean probed = false;
+		if(probeIndex < inputs.length) {
+			// estimate the sensitivity to the perturbed input as sent (i.e. 
+			// after any limits or rounding), revert it to the value sent 
+			// before the perturbation, and perturb the next input (if any)
+			double step = inputs[probeIndex] - probeInput;
+			if(step != 0) {
+				for(int j = 0; j < outputs.length; j++) {
+					jacobian.setEntry(j, probeIndex, 
+							(outputs[j] - lastOutputs[j]) / step);
+				}
+			}
+			inputs[probeIndex] = probeInput;
+			probeIndex++;
+			if(probeIndex < inputs.length) {
+				probe(inputs);
+				return true;
+			}
+			// estimate the outputs with the last perturbation reverted
+			double[] reverted = outputs.clone();
+			for(int j = 0; j < outputs.length; j++) {
+				reverted[j] -= jacobian.getEntry(j, inputs.length - 1)*step;
+			}
+			outputs = reverted;
+			// the reverted inputs are the baseline for the next update
+			lastInputs = inputs.clone();
+			lastOutputs = outputs.clone();
+			lastError = getError(outputs, targets);
+			probed = true;
+		} else {
+			// refine the estimate using the observed change in outputs
+			double[] dx = new double[inputs.length];
+			double dxNorm = 0;
+			for(int i = 0; i < inputs.length; i++) {
+				dx[i] = inputs[i] - lastInputs[i];
+				dxNorm += dx[i]*dx[i];
+			}
+			if(dxNorm > 0) {
+				RealVector dy = new ArrayRealVector(outputs).subtract(
+						new ArrayRealVector(lastOutputs));
+				RealVector dxVector = new ArrayRealVector(dx, false);
+				RealVector correction = dy.subtract(
+						jacobian.operate(dxVector)).mapDivide(dxNorm);
+				jacobian = jacobian.add(correction.outerProduct(dxVector));
+			}
+			if(getError(outputs, targets) > lastError) {
+				// the move was unsuccessful; start a new estimate
+				lastOutputs = outputs.clone();
+				probeIndex = 0;
+				probe(inputs);
+				return true;
+			}
+		}
+		
+		// move towards the least-squares solution of the residual
+		RealVector residual = new ArrayRealVector(targets).subtract(
+				new ArrayRealVector(outputs));
+		RealVector dx = new SingularValueDecomposition(jacobian)
+				.getSolver().solve(residual).mapMultiply(stepSize);
+		if(dx.getLInfNorm() < minimumStep) {
+			// outputs are insensitive to the inputs (or already at target); 
+			// the reverted perturbation must still be sent after probing
+			return probed;
+		}
+		double scale = dx.getLInfNorm() > maximumStep ? 
+				maximumStep / dx.getLInfNorm() : 1;
+		lastInputs = inputs.clone();
+		lastOutputs = outputs.clone();
+		lastError = getError(outputs, targets);
+		for(int i = 0; i < inputs.length; i++) {
+			inputs[i] += scale*dx.getEntry(i);
+		}
+		return true;
+	}
+	
+	/**
+	 * Gets the squared distance between outputs and targets.
+	 *
+	 * @param outputs the outputs
+	 * @param targets the targets
+	 * @return the error
+	 */
+	private static double getError(double[] outputs, double[] targets) {
+		double error = 0;
+		for(int i = 0; i < Math.min(outputs.length, targets.length); i++) {
+			error += (outputs[i] - targets[i])*(outputs[i] - targets[i]);
+		}
+		return error;
+	}
+	
+	/**
+	 * Perturbs the input at the probe index, away from the nearest limit.
+	 *
+	 * @param inputs the inputs
+	 */
+	private void probe(double[] inputs) {
+		probeInput = inputs[probeIndex];
+		inputs[probeIndex] += probeInput + perturbation 
+				> DesignerAgent.MAXIMUM_INPUT ? -perturbation : perturbation;
+	}
+	
+	@Override
+	public void reset(int numberInputs, int numberOutputs) {
+		jacobian = null;
+		lastInputs = null;
+		lastOutputs = null;
+		lastError = Double.MAX_VALUE;
+		probeIndex = 0;
+		probeInput = 0;
+	}
+}
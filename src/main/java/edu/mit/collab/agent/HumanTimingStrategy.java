@@ -0,0 +1,81 @@
+/******************************************************************************
+ * Copyright 2020 Paul T. Grogan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package edu.mit.collab.agent;
+
+import java.util.Random;
+
+/**
+ * A strategy which adds human-like timing and precision to another 
+ * strategy. Each move is delayed by a fixed reaction time plus an 
+ * exponentially-distributed thinking time, and inputs are rounded to the 
+ * resolution of the input sliders.
+ * 
+ * @author Paul T. Grogan
+ */
+public class HumanTimingStrategy implements AgentStrategy {
+	public static final double SLIDER_RESOLUTION = 0.01;
+	
+	private final AgentStrategy strategy; // immutable
+	private final long reactionTime; // immutable
+	private final double meanThinkingTime; // immutable
+	private final Random random; // immutable
+	
+	/**
+	 * Instantiates a new human timing strategy.
+	 *
+	 * @param strategy the strategy used to select moves
+	 * @param reactionTime the reaction time (milliseconds)
+	 * @param meanThinkingTime the mean thinking time (milliseconds)
+	 * @param random the random number generator
+	 */
+	public HumanTimingStrategy(AgentStrategy strategy, long reactionTime, 
+			double meanThinkingTime, Random random) {
+		if(strategy == null) {
+			throw new IllegalArgumentException(
+					"Strategy cannot be null.");
+		}
+		if(reactionTime < 0 || meanThinkingTime < 0) {
+			throw new IllegalArgumentException(
+					"Reaction and thinking times cannot be negative.");
+		}
+		this.strategy = strategy;
+		this.reactionTime = reactionTime;
+		this.meanThinkingTime = meanThinkingTime;
+		this.random = random;
+	}
+	
+	@Override
+	public long getDelay() {
+		return reactionTime + Math.round(
+				-meanThinkingTime*Math.log(1 - random.nextDouble()));
+	}
+	
+	@Override
+	public boolean move(double[] inputs, double[] outputs, double[] targets) {
+		if(!strategy.move(inputs, outputs, targets)) {
+			return false;
+		}
+		for(int i = 0; i < inputs.length; i++) {
+			inputs[i] = Math.round(inputs[i]/SLIDER_RESOLUTION)*SLIDER_RESOLUTION;
+		}
+		return true;
+	}
+	
+	@Override
+	public void reset(int numberInputs, int numberOutputs) {
+		strategy.reset(numberInputs, numberOutputs);
+	}
+}
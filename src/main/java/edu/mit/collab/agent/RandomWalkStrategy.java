@@ -0,0 +1,75 @@
+/******************************************************************************
+ * Copyright 2020 Paul T. Grogan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package edu.mit.collab.agent;
+
+import java.util.Random;
+
+/**
+ * A strategy which moves one randomly-selected input by a fixed step in a 
+ * random direction, ignoring the outputs.
+ * 
+ * @author Paul T. Grogan
+ */
+public class RandomWalkStrategy implements AgentStrategy {
+	private final double stepSize; // immutable
+	private final long delay; // immutable
+	private final Random random; // immutable
+	
+	/**
+	 * Instantiates a new random walk strategy.
+	 *
+	 * @param stepSize the step size
+	 * @param delay the delay between moves (milliseconds)
+	 * @param random the random number generator
+	 */
+	public RandomWalkStrategy(double stepSize, long delay, Random random) {
+		if(stepSize <= 0) {
+			throw new IllegalArgumentException(
+					"Step size must be positive.");
+		}
+		if(delay < 0) {
+			throw new IllegalArgumentException(
+					"Delay cannot be negative.");
+		}
+		this.stepSize = stepSize;
+		this.delay = delay;
+		this.random = random;
+	}
+	
+	@Override
+	public long getDelay() {
+		return delay;
+	}
+	
+	@Override
+	public boolean move(double[] inputs, double[] outputs, double[] targets) {
+		if(inputs.length == 0) {
+			return false;
+		}
+		int i = random.nextInt(inputs.length);
+		double step = random.nextBoolean() ? stepSize : -stepSize;
+		// reverse direction rather than moving past an input limit
+		if(inputs[i] + step > DesignerAgent.MAXIMUM_INPUT
+				|| inputs[i] + step < DesignerAgent.MINIMUM_INPUT) {
+			step = -step;
+		}
+		inputs[i] += step;
+		return true;
+	}
+	
+	@Override
+	public void reset(int numberInputs, int numberOutputs) { }
+}
@@ -0,0 +1,389 @@
+/******************************************************************************
+ * Copyright 2020 Paul T. Grogan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package edu.mit.collab.core;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.SingularValueDecomposition;
+
+/**
+ * The structural complexity of a system model (a port of 
+ * <code>techComplexity.m</code>, <code>socComplexity.m</code>, and 
+ * <code>totComplexity.m</code>). Each metric has the form 
+ * <i>sum(alpha) + sum(beta .* A) * gamma * E(A)</i>, where <i>A</i> is the 
+ * off-diagonal structure (non-zero pattern) of a matrix and <i>E(A)</i> 
+ * is its graph energy (the sum of singular values):
+ * <ul>
+ * <li>technical complexity of the coupling matrix <i>M</i>;</li>
+ * <li>social complexity of the designer dependency matrix 
+ * <i>D = I M O'</i>, where <i>I</i> and <i>O</i> assign inputs and 
+ * outputs to designers;</li>
+ * <li>total complexity of the combined matrix 
+ * <i>T = [M O'; I 0]</i>.</li>
+ * </ul>
+ * 
+ * Models are decomposed into independent sub-tasks, i.e. connected 
+ * components of variables and designers. If a model has more than one 
+ * sub-task and each is assigned to a single designer (an individual 
+ * task), the metrics of the most complex sub-task are used, as the MATLAB 
+ * generator evaluates one of its identical sub-tasks; otherwise the 
+ * metrics of the whole model are used.
+ * 
+ * @author Paul T. Grogan
+ */
+public final class Complexity {
+	public static enum Metric {TECHNICAL, SOCIAL, TOTAL}
+	
+	private final double technical; // immutable
+	private final double social; // immutable
+	private final double total; // immutable
+	private final int numberSubTasks; // immutable
+	private final boolean individual; // immutable
+	
+	/**
+	 * Instantiates a new complexity.
+	 *
+	 * @param technical the technical complexity
+	 * @param social the social complexity
+	 * @param total the total complexity
+	 * @param numberSubTasks the number of sub-tasks
+	 * @param individual whether sub-tasks are individual
+	 */
+	private Complexity(double technical, double social, double total, 
+			int numberSubTasks, boolean individual) {
+		this.technical = technical;
+		this.social = social;
+		this.total = total;
+		this.numberSubTasks = numberSubTasks;
+		this.individual = individual;
+	}
+	
+	/**
+	 * Counts the non-zero entries of a structure matrix.
+	 *
+	 * @param structure the structure matrix
+	 * @return the number of non-zero entries
+	 */
+	private static int count(double[][] structure) {
+		int count = 0;
+		for(double[] row : structure) {
+			for(double value : row) {
+				if(value != 0) {
+					count++;
+				}
+			}
+		}
+		return count;
+	}
+	
+	/**
+	 * Evaluates the complexity of a system model.
+	 *
+	 * @param model the model
+	 * @return the complexity
+	 */
+	static Complexity evaluate(SystemModel model) {
+		double[][] matrix = model.getCouplingMatrix().getData();
+		int[][] inputIndices = model.getInputIndices();
+		int[][] outputIndices = model.getOutputIndices();
+		int numberVariables = matrix.length;
+		int numberDesigners = inputIndices.length;
+		
+		// find connected components of variables (0 to n-1) and designers 
+		// (n to n+d-1) linked by coupling and assignments
+		int[] parents = new int[numberVariables + numberDesigners];
+		for(int i = 0; i < parents.length; i++) {
+			parents[i] = i;
+		}
+		for(int i = 0; i < numberVariables; i++) {
+			for(int j = 0; j < numberVariables; j++) {
+				if(matrix[i][j] != 0) {
+					union(parents, i, j);
+				}
+			}
+		}
+		for(int d = 0; d < numberDesigners; d++) {
+			for(int i : inputIndices[d]) {
+				union(parents, numberVariables + d, i);
+			}
+			for(int i : outputIndices[d]) {
+				union(parents, numberVariables + d, i);
+			}
+		}
+		
+		// group variables and designers by component; designers without 
+		// variables do not form a sub-task
+		Map<Integer, List<Integer>> variables = 
+				new LinkedHashMap<Integer, List<Integer>>();
+		for(int i = 0; i < numberVariables; i++) {
+			int root = find(parents, i);
+			if(!variables.containsKey(root)) {
+				variables.put(root, new ArrayList<Integer>());
+			}
+			variables.get(root).add(i);
+		}
+		Map<Integer, List<Integer>> designers = 
+				new LinkedHashMap<Integer, List<Integer>>();
+		for(int d = 0; d < numberDesigners; d++) {
+			int root = find(parents, numberVariables + d);
+			if(variables.containsKey(root)) {
+				if(!designers.containsKey(root)) {
+					designers.put(root, new ArrayList<Integer>());
+				}
+				designers.get(root).add(d);
+			}
+		}
+		
+		boolean individual = variables.size() > 1;
+		for(Integer root : variables.keySet()) {
+			individual = individual && designers.containsKey(root) 
+					&& designers.get(root).size() == 1;
+		}
+		
+		if(!individual) {
+			List<Integer> allVariables = new ArrayList<Integer>();
+			for(int i = 0; i < numberVariables; i++) {
+				allVariables.add(i);
+			}
+			List<Integer> allDesigners = new ArrayList<Integer>();
+			for(int d = 0; d < numberDesigners; d++) {
+				allDesigners.add(d);
+			}
+			double[] values = evaluate(matrix, inputIndices, outputIndices, 
+					allVariables, allDesigners);
+			return new Complexity(values[0], values[1], values[2], 
+					variables.size(), false);
+		}
+		
+		// use the most complex individual sub-task
+		double[] maximum = null;
+		for(Integer root : variables.keySet()) {
+			double[] values = evaluate(matrix, inputIndices, outputIndices, 
+					variables.get(root), designers.get(root));
+			if(maximum == null || values[2] > maximum[2]) {
+				maximum = values;
+			}
+		}
+		return new Complexity(maximum[0], maximum[1], maximum[2], 
+				variables.size(), true);
+	}
+	
+	/**
+	 * Evaluates the technical, social, and total complexity of a set of 
+	 * variables and designers.
+	 *
+	 * @param matrix the coupling matrix
+	 * @param inputIndices the input indices of each designer
+	 * @param outputIndices the output indices of each designer
+	 * @param variables the variables
+	 * @param designers the designers
+	 * @return the technical, social, and total complexity
+	 */
+	private static double[] evaluate(double[][] matrix, int[][] inputIndices, 
+			int[][] outputIndices, List<Integer> variables, 
+			List<Integer> designers) {
+		int n = variables.size();
+		int d = designers.size();
+		int[] positions = new int[matrix.length];
+		for(int i = 0; i < n; i++) {
+			positions[variables.get(i)] = i;
+		}
+		
+		// structure of the coupling matrix and assignment matrices
+		boolean[][] coupling = new boolean[n][n];
+		for(int i = 0; i < n; i++) {
+			for(int j = 0; j < n; j++) {
+				coupling[i][j] = matrix[variables.get(i)][variables.get(j)] != 0;
+			}
+		}
+		boolean[][] inputs = new boolean[d][n];
+		boolean[][] outputs = new boolean[d][n];
+		for(int k = 0; k < d; k++) {
+			for(int i : inputIndices[designers.get(k)]) {
+				inputs[k][positions[i]] = true;
+			}
+			for(int i : outputIndices[designers.get(k)]) {
+				outputs[k][positions[i]] = true;
+			}
+		}
+		
+		// technical: alpha = ones(n), beta = ones(n,n)
+		double[][] technicalStructure = new double[n][n];
+		for(int i = 0; i < n; i++) {
+			for(int j = 0; j < n; j++) {
+				technicalStructure[i][j] = i != j && coupling[i][j] ? 1 : 0;
+			}
+		}
+		int technicalCount = count(technicalStructure);
+		double technical = n + technicalCount * getEnergy(technicalStructure);
+		
+		// social: alpha = zeros(d), beta = ones(d,d) - eye(d), with the 
+		// structure of D = I*M*O' from the structures of I, M, and O
+		double[][] socialStructure = new double[d][d];
+		for(int a = 0; a < d; a++) {
+			for(int b = 0; b < d; b++) {
+				if(a == b) {
+					continue;
+				}
+				for(int i = 0; i < n && socialStructure[a][b] == 0; i++) {
+					if(!inputs[a][i]) {
+						continue;
+					}
+					for(int j = 0; j < n; j++) {
+						if(coupling[i][j] && outputs[b][j]) {
+							socialStructure[a][b] = 1;
+							break;
+						}
+					}
+				}
+			}
+		}
+		int socialCount = count(socialStructure);
+		double social = socialCount * getEnergy(socialStructure);
+		
+		// total: alpha = [ones(n); zeros(d)], beta = [ones(n,n) zeros(n,d); 
+		// zeros(d,n) ones(d,d)-eye(d)] for T = [M O'; I zeros(d,d)], so only 
+		// the coupling structure is counted
+		double[][] totalStructure = new double[n + d][n + d];
+		for(int i = 0; i < n; i++) {
+			System.arraycopy(technicalStructure[i], 0, totalStructure[i], 0, n);
+			for(int k = 0; k < d; k++) {
+				totalStructure[i][n + k] = outputs[k][i] ? 1 : 0;
+				totalStructure[n + k][i] = inputs[k][i] ? 1 : 0;
+			}
+		}
+		double total = n + technicalCount * getEnergy(totalStructure);
+		
+		return new double[]{technical, social, total};
+	}
+	
+	/**
+	 * Finds the root of a node in a union-find forest.
+	 *
+	 * @param parents the parents
+	 * @param node the node
+	 * @return the root
+	 */
+	private static int find(int[] parents, int node) {
+		while(parents[node] != node) {
+			parents[node] = parents[parents[node]];
+			node = parents[node];
+		}
+		return node;
+	}
+	
+	/**
+	 * Gets the energy (sum of singular values) of a structure matrix.
+	 *
+	 * @param structure the structure matrix
+	 * @return the energy
+	 */
+	private static double getEnergy(double[][] structure) {
+		if(count(structure) == 0) {
+			return 0;
+		}
+		double energy = 0;
+		for(double value : new SingularValueDecomposition(
+				new Array2DRowRealMatrix(structure, false)).getSingularValues()) {
+			energy += value;
+		}
+		return energy;
+	}
+	
+	/**
+	 * Gets the number of independent sub-tasks.
+	 *
+	 * @return the number of sub-tasks
+	 */
+	public int getNumberSubTasks() {
+		return numberSubTasks;
+	}
+	
+	/**
+	 * Gets the social complexity.
+	 *
+	 * @return the social complexity
+	 */
+	public double getSocial() {
+		return social;
+	}
+	
+	/**
+	 * Gets the technical complexity.
+	 *
+	 * @return the technical complexity
+	 */
+	public double getTechnical() {
+		return technical;
+	}
+	
+	/**
+	 * Gets the total complexity.
+	 *
+	 * @return the total complexity
+	 */
+	public double getTotal() {
+		return total;
+	}
+	
+	/**
+	 * Gets the value of a metric.
+	 *
+	 * @param metric the metric
+	 * @return the value
+	 */
+	public double getValue(Metric metric) {
+		switch(metric) {
+		case TECHNICAL:
+			return technical;
+		case SOCIAL:
+			return social;
+		default:
+			return total;
+		}
+	}
+	
+	/**
+	 * Checks if the model is composed of individual sub-tasks, i.e. more 
+	 * than one sub-task, each assigned to a single designer.
+	 *
+	 * @return true, if is individual
+	 */
+	public boolean isIndividual() {
+		return individual;
+	}
+	
+	@Override
+	public String toString() {
+		return String.format("C_t=%.0f, C_s=%.0f, C=%.0f", 
+				technical, social, total);
+	}
+	
+	/**
+	 * Joins the components of two nodes in a union-find forest.
+	 *
+	 * @param parents the parents
+	 * @param a the first node
+	 * @param b the second node
+	 */
+	private static void union(int[] parents, int a, int b) {
+		parents[find(parents, a)] = find(parents, b);
+	}
+}
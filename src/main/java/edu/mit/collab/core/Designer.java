@@ -15,6 +15,10 @@
  *****************************************************************************/
 package edu.mit.collab.core;
 
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.commons.math3.linear.ArrayRealVector;
 import org.apache.commons.math3.linear.RealVector;
 
 /**
@@ -24,14 +28,75 @@ import org.apache.commons.math3.linear.RealVector;
  * however the other data members (input vector, index number, 
  * and ready status) can be modified.
  * 
+ * The modifiable data members are held in an immutable state snapshot 
+ * published through an atomic reference, so getters never block and a 
+ * consistent snapshot of all members is available using 
+ * <code>getState</code>.
+ * 
  * @author Paul T. Grogan
  */
 public class Designer {
-	private final String instanceName; // immutable
 	
-	private RealVector input; // mutable
-	private int index; // mutable, though should only be set once
-	private boolean ready; // mutable
+	/**
+	 * An immutable snapshot of the designer state.
+	 */
+	public static final class State {
+		private final int index; // immutable
+		private final RealVector input; // immutable, never modified
+		private final boolean ready; // immutable
+		
+		/**
+		 * Instantiates a new state.
+		 *
+		 * @param index the index
+		 * @param input the input vector
+		 * @param ready the ready state
+		 */
+		private State(int index, RealVector input, boolean ready) {
+			this.index = index;
+			this.input = input;
+			this.ready = ready;
+		}
+		
+		/**
+		 * Gets the zero-based designer index.
+		 *
+		 * @return the index
+		 */
+		public int getIndex() {
+			return index;
+		}
+		
+		/**
+		 * Gets the input vector.
+		 *
+		 * @return the input vector
+		 */
+		public RealVector getInputVector() {
+			// return copy of input vector to protect 
+			// against unexpected modification
+			return input == null ? null : input.copy();
+		}
+		
+		/**
+		 * Checks if is ready.
+		 *
+		 * @return true, if is ready
+		 */
+		public boolean isReady() {
+			return ready;
+		}
+		
+		@Override
+		public String toString() {
+			return "Designer " + index + " (ready: " + ready + 
+					", input: " + input + ")";
+		}
+	}
+	
+	private final String instanceName; // immutable
+	private final AtomicReference<State> state = 
+			new AtomicReference<State>(new State(-1, null, false)); // mutable
 	
 	/**
 	 * Instantiates a new designer with the provided instance name.
@@ -39,12 +104,15 @@ public class Designer {
 	 * @param instanceName the instance name
 	 */
 	public Designer(String instanceName) {
+		if(instanceName == null) {
+			throw new IllegalArgumentException(
+					"Instance name cannot be null.");
+		}
 		this.instanceName = instanceName;
-		index = -1;
 	}
 
 	@Override
-	public synchronized boolean equals(Object o) {
+	public boolean equals(Object o) {
 		// designers are equal if they have the same instance name
 		return (o instanceof Designer) 
 				&& instanceName.equals(((Designer)o).getInstanceName());
@@ -56,8 +124,8 @@ public class Designer {
 	 *
 	 * @return the index
 	 */
-	public synchronized int getIndex() {
-		return index;
+	public int getIndex() {
+		return state.get().index;
 	}
 	
 	/**
@@ -65,10 +133,8 @@ public class Designer {
 	 *
 	 * @return the input vector
 	 */
-	public synchronized RealVector getInputVector() {
-		// return copy of input vector to protect 
-		// against unexpected modification
-		return input.copy();
+	public RealVector getInputVector() {
+		return state.get().getInputVector();
 	}
 	
 	/**
@@ -76,24 +142,58 @@ public class Designer {
 	 *
 	 * @return the instance name
 	 */
-	public synchronized String getInstanceName() {
+	public String getInstanceName() {
 		return instanceName;
 	}
+	
+	/**
+	 * Gets a consistent snapshot of the index, input vector, and ready 
+	 * state.
+	 *
+	 * @return the state
+	 */
+	public State getState() {
+		return state.get();
+	}
 
 	@Override
-	public synchronized int hashCode() {
+	public int hashCode() {
 		// provide new hashcode function to conform to equals method
 		return instanceName.hashCode();
 	}
 	
+	/**
+	 * Sets the zero-based designer index if it has not yet been set. 
+	 * Only the first of several concurrent calls succeeds.
+	 *
+	 * @param index the new index
+	 * @return true, if the index was set by this call
+	 */
+	public boolean initializeIndex(int index) {
+		if(index < 0) {
+			throw new IllegalArgumentException(
+					"Index cannot be negative.");
+		}
+		while(true) {
+			State current = state.get();
+			if(current.index >= 0) {
+				return false;
+			}
+			if(state.compareAndSet(current, 
+					new State(index, current.input, current.ready))) {
+				return true;
+			}
+		}
+	}
+	
 	/**
 	 * Checks if is ready. A designer is ready if input values have 
 	 * been confirmed and he/she is ready to receive new output values.
 	 *
 	 * @return true, if is ready
 	 */
-	public synchronized boolean isReady() {
-		return ready;
+	public boolean isReady() {
+		return state.get().ready;
 	}
 	
 	/**
@@ -102,19 +202,53 @@ public class Designer {
 	 *
 	 * @param index the new index
 	 */
-	public synchronized void setIndex(int index) {
-		this.index = index;
+	public void setIndex(int index) {
+		while(true) {
+			State current = state.get();
+			if(state.compareAndSet(current, 
+					new State(index, current.input, current.ready))) {
+				return;
+			}
+		}
 	}
 
+	/**
+	 * Replaces the state with a new input vector, which is never modified.
+	 *
+	 * @param input the new input vector
+	 */
+	private void setInput(RealVector input) {
+		while(true) {
+			State current = state.get();
+			if(state.compareAndSet(current, 
+					new State(current.index, input, current.ready))) {
+				return;
+			}
+		}
+	}
+	
 	/**
 	 * Sets the input value.
 	 *
 	 * @param inputValue the new input value
 	 */
-	public synchronized void setInputVector(RealVector inputValue) {
+	public void setInputVector(RealVector inputValue) {
 		// set a copy of the specified value to protect
 		// against unexpected modification
-		this.input = inputValue.copy();
+		setInput(inputValue.copy());
+	}
+	
+	/**
+	 * Sets the input value from the leading elements of an array, such as 
+	 * a buffer reused to decode input updates.
+	 *
+	 * @param inputValues the input values
+	 * @param length the number of input values
+	 */
+	public void setInputVector(double[] inputValues, int length) {
+		// set a copy of the specified values to protect
+		// against unexpected modification
+		setInput(new ArrayRealVector(Arrays.copyOf(inputValues, length), false));
 	}
 	
 	/**
@@ -123,13 +257,18 @@ public class Designer {
 	 *
 	 * @param ready the new ready
 	 */
-	public synchronized void setReady(boolean ready) {
-		this.ready = ready;
+	public void setReady(boolean ready) {
+		while(true) {
+			State current = state.get();
+			if(state.compareAndSet(current, 
+					new State(current.index, current.input, ready))) {
+				return;
+			}
+		}
 	}
 
 	@Override
-	public synchronized String toString() {
-		return "Designer " + index + " (ready: " + ready + 
-				", input: " + input + ")";
+	public String toString() {
+		return state.get().toString();
 	}
 }
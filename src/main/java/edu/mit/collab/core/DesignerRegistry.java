@@ -0,0 +1,202 @@
+/******************************************************************************
+ * Copyright 2020 Paul T. Grogan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package edu.mit.collab.core;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A thread-safe registry of designers keyed by a handle (e.g. an HLA 
+ * object instance handle or an instance name) and by designer index. 
+ * Designers are stored in a concurrent map by handle and in an array with 
+ * one slot per designer index, so lookups never block and duplicate index 
+ * checks take constant time. An index slot is claimed by at most one 
+ * designer at a time.
+ *
+ * @param <K> the handle type
+ * @author Paul T. Grogan
+ */
+public class DesignerRegistry<K> {
+	public static final int DEFAULT_CAPACITY = 256;
+	
+	private final ConcurrentMap<K, Designer> designersByHandle = 
+			new ConcurrentHashMap<K, Designer>(); // mutable
+	private final AtomicReferenceArray<Designer> designersByIndex; // mutable
+	
+	/**
+	 * Instantiates a new designer registry with the default capacity.
+	 */
+	public DesignerRegistry() {
+		this(DEFAULT_CAPACITY);
+	}
+	
+	/**
+	 * Instantiates a new designer registry.
+	 *
+	 * @param capacity the number of designer index slots
+	 */
+	public DesignerRegistry(int capacity) {
+		if(capacity < 1) {
+			throw new IllegalArgumentException(
+					"Capacity must be positive.");
+		}
+		designersByIndex = new AtomicReferenceArray<Designer>(capacity);
+	}
+	
+	/**
+	 * Adds a designer with the specified handle. If the designer has an 
+	 * index, its index slot is also claimed. Adding a designer which is 
+	 * already registered with the handle has no effect.
+	 *
+	 * @param handle the handle
+	 * @param designer the designer
+	 * @return true, if added or already registered with the handle; false 
+	 * if the handle is registered to another designer or the index is 
+	 * claimed by another designer or outside the range of index slots
+	 */
+	public boolean add(K handle, Designer designer) {
+		if(handle == null || designer == null) {
+			throw new IllegalArgumentException(
+					"Handle and designer cannot be null.");
+		}
+		if(designersByHandle.get(handle) == designer) {
+			// already registered; leave its index slot claimed
+			return true;
+		}
+		int index = designer.getIndex();
+		boolean claimed = false;
+		if(index >= 0) {
+			if(!isValidIndex(index)) {
+				// invalid index
+				return false;
+			}
+			claimed = designersByIndex.compareAndSet(index, null, designer);
+			if(!claimed && designersByIndex.get(index) != designer) {
+				// duplicate index
+				return false;
+			}
+		}
+		if(designersByHandle.putIfAbsent(handle, designer) != null) {
+			// duplicate handle; only release an index slot claimed above
+			if(claimed) {
+				designersByIndex.compareAndSet(index, designer, null);
+			}
+			return false;
+		}
+		return true;
+	}
+	
+	/**
+	 * Claims the index slot of a designer.
+	 *
+	 * @param designer the designer
+	 * @return true, if the slot is claimed by the designer; false if it 
+	 * is claimed by another designer or the index is outside the range of 
+	 * index slots
+	 */
+	public boolean claimIndex(Designer designer) {
+		int index = designer.getIndex();
+		if(!isValidIndex(index)) {
+			return false;
+		}
+		return designersByIndex.compareAndSet(index, null, designer) 
+				|| designersByIndex.get(index) == designer;
+	}
+	
+	/**
+	 * Gets the designer with the specified handle.
+	 *
+	 * @param handle the handle
+	 * @return the designer, or null if not registered
+	 */
+	public Designer get(K handle) {
+		return designersByHandle.get(handle);
+	}
+	
+	/**
+	 * Gets the designer which claimed the specified index.
+	 *
+	 * @param index the index
+	 * @return the designer, or null if the index is not claimed
+	 */
+	public Designer getByIndex(int index) {
+		if(!isValidIndex(index)) {
+			return null;
+		}
+		return designersByIndex.get(index);
+	}
+	
+	/**
+	 * Gets an unmodifiable view of the registered designers. Iteration 
+	 * is weakly consistent and never throws a concurrent modification 
+	 * exception.
+	 *
+	 * @return the designers
+	 */
+	public Collection<Designer> getDesigners() {
+		return Collections.unmodifiableCollection(designersByHandle.values());
+	}
+	
+	/**
+	 * Checks if an index is within the range of index slots.
+	 *
+	 * @param index the index
+	 * @return true, if the index is valid
+	 */
+	public boolean isValidIndex(int index) {
+		return index >= 0 && index < designersByIndex.length();
+	}
+	
+	/**
+	 * Releases the index slot of a designer if it is claimed by the 
+	 * designer.
+	 *
+	 * @param designer the designer
+	 */
+	private void releaseIndex(Designer designer) {
+		int index = designer.getIndex();
+		if(isValidIndex(index)) {
+			designersByIndex.compareAndSet(index, designer, null);
+		}
+	}
+	
+	/**
+	 * Removes the designer with the specified handle and releases its 
+	 * index slot.
+	 *
+	 * @param handle the handle
+	 * @return the removed designer, or null if not registered
+	 */
+	public Designer remove(K handle) {
+		Designer designer = designersByHandle.remove(handle);
+		if(designer != null) {
+			releaseIndex(designer);
+		}
+		return designer;
+	}
+	
+	/**
+	 * Gets the number of registered designers.
+	 *
+	 * @return the number of designers
+	 */
+	public int size() {
+		return designersByHandle.size();
+	}
+}
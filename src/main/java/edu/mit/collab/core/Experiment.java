@@ -18,6 +18,7 @@ package edu.mit.collab.core;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -44,6 +45,9 @@ public class Experiment implements Serializable {
 	
 	private transient Mode mode = Mode.READY; // mutable
 	private transient SystemModel activeModel; // mutable
+	private transient int activeIndex = -1; // mutable, index in mode models
+	private transient SystemModel peekedModel; // mutable
+	private transient int peekedIndex = -1; // mutable, index in all models
 	
 	/**
 	 * Instantiates a new experiment with trivial parameters.
@@ -95,11 +99,33 @@ public class Experiment implements Serializable {
 		Collections.shuffle(this.experimentModels);
 	}
 	
+	/**
+	 * Instantiates a new experiment which uses the model lists directly.
+	 *
+	 * @param name the name
+	 * @param numberDesigners the number designers
+	 * @param trainingModels the training models
+	 * @param experimentModels the experiment models
+	 * @param direct distinguishes this constructor; models are not 
+	 * validated, copied, or shuffled
+	 */
+	private Experiment(String name, 
+			int numberDesigners, 
+			List<SystemModel> trainingModels, 
+			List<SystemModel> experimentModels, 
+			boolean direct) {
+		this.name = name;
+		this.numberDesigners = numberDesigners;
+		this.trainingModels = trainingModels;
+		this.experimentModels = experimentModels;
+	}
+	
 	/**
 	 * Ends the training mode and starts the experimentation mode.
 	 */
-	public void endTrainingMode() {
+	public synchronized void endTrainingMode() {
 		activeModel = null;
+		activeIndex = -1;
 		mode = Mode.EXPERIMENT;
 	}
 	
@@ -108,10 +134,65 @@ public class Experiment implements Serializable {
 	 *
 	 * @return the active model
 	 */
-	public SystemModel getActiveModel() {
+	public synchronized SystemModel getActiveModel() {
 		return activeModel;
 	}
 	
+	/**
+	 * Gets the position of the active model in the list of all models.
+	 *
+	 * @return the active model index, or -1 if there is no active model
+	 * @see #getModels()
+	 */
+	public synchronized int getActiveModelIndex() {
+		if(activeModel == null) {
+			return -1;
+		} else if(mode == Mode.TRAINING) {
+			return activeIndex;
+		} else {
+			return trainingModels.size() + activeIndex;
+		}
+	}
+	
+	/**
+	 * Gets a model by its position in the list of all models, using the 
+	 * peeked model if it is at that position.
+	 *
+	 * @param index the index
+	 * @return the model
+	 */
+	private SystemModel getModel(int index) {
+		SystemModel model = index == peekedIndex ? 
+				peekedModel : getModels().get(index);
+		peekedModel = null;
+		peekedIndex = -1;
+		return model;
+	}
+	
+	/**
+	 * Gets a read-only view of all models in the experiment: the training 
+	 * models followed by the experiment models, in order of presentation. 
+	 * Models are only retrieved from the underlying lists (which may 
+	 * materialize them lazily) when accessed.
+	 *
+	 * @return the models
+	 */
+	public List<SystemModel> getModels() {
+		return new AbstractList<SystemModel>() {
+			@Override
+			public SystemModel get(int index) {
+				return index < trainingModels.size() ? 
+						trainingModels.get(index) : 
+							experimentModels.get(index - trainingModels.size());
+			}
+			
+			@Override
+			public int size() {
+				return trainingModels.size() + experimentModels.size();
+			}
+		};
+	}
+	
 	/**
 	 * Gets the experiment name.
 	 *
@@ -130,13 +211,24 @@ public class Experiment implements Serializable {
 		return numberDesigners;
 	}
 	
+	/**
+	 * Gets the number of training models, i.e. the position of the first 
+	 * experiment model in the list of all models.
+	 *
+	 * @return the number of training models
+	 * @see #getModels()
+	 */
+	public int getNumberTrainingModels() {
+		return trainingModels.size();
+	}
+	
 	/**
 	 * Checks if the experiment is complete (i.e. all 
 	 * experimental models have been solved).
 	 *
 	 * @return true, if is complete
 	 */
-	public boolean isComplete() {
+	public synchronized boolean isComplete() {
 		return mode == Mode.COMPLETE;
 	}
 	
@@ -145,7 +237,7 @@ public class Experiment implements Serializable {
 	 *
 	 * @return true, if is ready
 	 */
-	public boolean isReady() {
+	public synchronized boolean isReady() {
 		return mode == Mode.READY;
 	}
 	
@@ -155,8 +247,8 @@ public class Experiment implements Serializable {
 	 *
 	 * @return true, if is training
 	 */
-	public boolean isTraining() {
-		return trainingModels.contains(activeModel);
+	public synchronized boolean isTraining() {
+		return mode == Mode.TRAINING && activeModel != null;
 	}
 	
 	/**
@@ -164,12 +256,13 @@ public class Experiment implements Serializable {
 	 * training set or experimentation set depending on the current
 	 * mode.
 	 */
-	public void nextModel() {
+	public synchronized void nextModel() {
 		if(mode == Mode.READY) {
 			// start experiment with first model in training set
 			if(trainingModels.size() > 0) {
 				mode = Mode.TRAINING; // set training mode (in case ready)
-				activeModel = trainingModels.get(0);
+				activeIndex = 0;
+				activeModel = getModel(activeIndex);
 			} else {
 				mode = Mode.EXPERIMENT;
 				nextModel();
@@ -177,32 +270,71 @@ public class Experiment implements Serializable {
 		} else if(mode == Mode.TRAINING) {
 			// advance to next training model, modulo the number
 			// of training models to allow repeated runs through
-			activeModel = trainingModels.get(
-					(trainingModels.indexOf(activeModel) + 1) % 
-					trainingModels.size());
+			activeIndex = (activeIndex + 1) % trainingModels.size();
+			activeModel = getModel(activeIndex);
 		} else if(mode == Mode.EXPERIMENT) {
 			// in experimentation mode
 			if(activeModel == null) {
 				// start with first experiment model
 				if(experimentModels.size() > 0) {
-					activeModel = experimentModels.get(0);
+					activeIndex = 0;
+					activeModel = getModel(trainingModels.size() + activeIndex);
 				} else {
 					mode = Mode.COMPLETE;
 				}
-			} else if(experimentModels.size() 
-					> experimentModels.indexOf(activeModel) + 1) {
+			} else if(experimentModels.size() > activeIndex + 1) {
 				// else if there is another model, move to next model
-				activeModel = experimentModels.get(
-						experimentModels.indexOf(activeModel) + 1);
+				activeIndex++;
+				activeModel = getModel(trainingModels.size() + activeIndex);
 			} else {
 				// otherwise the experiment is complete if all models have
 				// been solved
 				activeModel = null;
+				activeIndex = -1;
 				mode = Mode.COMPLETE;
 			}
 		}
 	}
 	
+	/**
+	 * Peeks at the model which the next call to {@link #nextModel()} will 
+	 * activate, without changing the experiment state. The peeked model 
+	 * is retained and becomes the active model when the experiment 
+	 * advances, so it may be prepared (e.g. solved) in advance, including 
+	 * from another thread.
+	 *
+	 * @return the next model, or <code>null</code> if the experiment will 
+	 * be complete
+	 */
+	public synchronized SystemModel peekNextModel() {
+		// determine the position of the next model in all models
+		int index = -1;
+		if(mode == Mode.READY) {
+			if(trainingModels.size() > 0) {
+				index = 0;
+			} else if(experimentModels.size() > 0) {
+				index = trainingModels.size();
+			}
+		} else if(mode == Mode.TRAINING) {
+			index = (activeIndex + 1) % trainingModels.size();
+		} else if(mode == Mode.EXPERIMENT) {
+			int next = activeModel == null ? 0 : activeIndex + 1;
+			if(next < experimentModels.size()) {
+				index = trainingModels.size() + next;
+			}
+		}
+		if(index < 0) {
+			return null;
+		}
+		
+		// retrieve (and possibly materialize) the model only once
+		if(index != peekedIndex) {
+			peekedModel = getModels().get(index);
+			peekedIndex = index;
+		}
+		return peekedModel;
+	}
+	
 	/**
 	 * Reads an object from an input stream. Used for custom serialization 
 	 * to restore transient fields.
@@ -220,13 +352,41 @@ public class Experiment implements Serializable {
 	/**
 	 * Resets an experiment to the initial state.
 	 */
-	public void reset() {
+	public synchronized void reset() {
 		mode = Mode.READY;
 		activeModel = null;
+		activeIndex = -1;
+		peekedModel = null;
+		peekedIndex = -1;
 	}
 	
 	@Override
 	public String toString() {
 		return name + " (" + numberDesigners + " designers)";
 	}
+	
+	/**
+	 * Creates an experiment which uses the specified read-only model lists 
+	 * directly. Unlike the constructor, models are not validated, copied, 
+	 * or shuffled, so the lists may materialize each model lazily when it 
+	 * is accessed (e.g. from a memory-mapped file). Models are accessed by 
+	 * position only as the experiment advances.
+	 *
+	 * @param name the name
+	 * @param numberDesigners the number designers
+	 * @param trainingModels the training models
+	 * @param experimentModels the experiment models
+	 * @return the experiment
+	 */
+	public static Experiment wrap(String name, 
+			int numberDesigners, 
+			List<SystemModel> trainingModels, 
+			List<SystemModel> experimentModels) {
+		if(trainingModels == null || experimentModels == null) {
+			throw new IllegalArgumentException(
+					"Model lists cannot be null.");
+		}
+		return new Experiment(name, numberDesigners, 
+				trainingModels, experimentModels, true);
+	}
 }
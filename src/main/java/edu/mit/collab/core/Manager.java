@@ -18,8 +18,6 @@ package edu.mit.collab.core;
 import org.apache.commons.math3.linear.ArrayRealVector;
 import org.apache.commons.math3.linear.RealVector;
 
-import edu.mit.collab.gui.OutputPanel;
-
 /**
  * The Manager class is used by a designer to maintain
  * data on a remote manager. It must be initialized with
@@ -34,12 +32,26 @@ public class Manager {
 	private String activeModel; // mutable
 	private RealVector initialInput; // mutable
 	private RealVector targetOutput; // mutable
-	private RealVector output; // mutable
 	private int[][] inputIndices; // mutable
-	private int[][] outputIndices; // mutable
 	private String[] inputLabels; // mutable
 	private String[] outputLabels; // mutable
 	
+	// output values and indices are replaced (never modified in place) so 
+	// outputs can be projected without acquiring the object monitor
+	private volatile double[] output; // mutable
+	private volatile int[][] outputIndices; // mutable
+	
+	// solved state sent by the manager, as designers may not receive the 
+	// complete outputs needed to compare against the target output
+	private volatile boolean solved; // mutable
+	
+	// per-designer projections of the initial input, target output, and 
+	// labels which are rebuilt whenever the data or indices are set
+	private double[][] initialInputSlices; // mutable
+	private double[][] targetOutputSlices; // mutable
+	private String[][] inputLabelSlices; // mutable
+	private String[][] outputLabelSlices; // mutable
+	
 	/**
 	 * Instantiates a new manager.
 	 */
@@ -48,13 +60,43 @@ public class Manager {
 		activeModel = "";
 		initialInput = new ArrayRealVector();
 		targetOutput = new ArrayRealVector();
-		output = new ArrayRealVector();
+		output = new double[0];
 		inputIndices = new int[0][0];
 		outputIndices = new int[0][0];
 		inputLabels = new String[0];
 		outputLabels = new String[0];
+		updateSlices();
 	}
 	
+	/**
+	 * Copies the outputs for a designer into a caller-owned buffer. This 
+	 * method does not acquire the object monitor or allocate any objects 
+	 * so it is suitable for repeated calls on the update path.
+	 *
+	 * @param designerIndex the designer index
+	 * @param buffer the array in which to store output values
+	 * @return the number of output values copied
+	 */
+	public int copyOutput(int designerIndex, double[] buffer) {
+		// read each volatile field once for a consistent view
+		int[][] indices = outputIndices;
+		double[] values = output;
+		
+		// if output indices are incorrectly sized, copy nothing
+		if(designerIndex < 0 || indices.length - 1 < designerIndex) {
+			return 0;
+		}
+		int[] projection = indices[designerIndex];
+		int length = Math.min(projection.length, buffer.length);
+		for(int i = 0; i < length; i++) {
+			// if outputs are incorrectly sized, copy nothing
+			if(projection[i] >= values.length) {
+				return 0;
+			}
+			buffer[i] = values[projection[i]];
+		}
+		return length;
+	}
 
 	@Override
 	public synchronized boolean equals(Object o) {
@@ -80,18 +122,12 @@ public class Manager {
 	 */
 	public synchronized RealVector getInitialInput(int designerIndex) {
 		// if input indices are incorrectly sized, return an empty vector
-		if(inputIndices.length - 1 < designerIndex) {
+		if(initialInputSlices.length - 1 < designerIndex) {
 			return new ArrayRealVector();
 		}
 		
-		// create a new vector, set the entries, and return
-		RealVector initialInputs = new ArrayRealVector(
-				inputIndices[designerIndex].length);
-		for(int i = 0; i < inputIndices[designerIndex].length; i++) {
-			initialInputs.setEntry(i, initialInput.getEntry(
-					inputIndices[designerIndex][i]));
-		}
-		return initialInputs;
+		// return a copy of the pre-computed projection
+		return new ArrayRealVector(initialInputSlices[designerIndex]);
 	}
 	
 	/**
@@ -101,15 +137,11 @@ public class Manager {
 	 * @return the input labels
 	 */
 	public synchronized String[] getInputLabels(int designerIndex) {
-		if(inputIndices.length - 1 < designerIndex) {
+		if(inputLabelSlices.length - 1 < designerIndex) {
 			return new String[0];
 		}
 		
-		String[] labels = new String[inputIndices[designerIndex].length];
-		for(int i = 0; i < inputIndices[designerIndex].length; i++) {
-			labels[i] = inputLabels[inputIndices[designerIndex][i]];
-		}
-		return labels;
+		return inputLabelSlices[designerIndex].clone();
 	}
 	
 	/**
@@ -121,26 +153,35 @@ public class Manager {
 		return instanceName;
 	}
 	
+	/**
+	 * Gets the number of outputs for a designer. This method does not 
+	 * acquire the object monitor.
+	 *
+	 * @param designerIndex the designer index
+	 * @return the number of outputs
+	 */
+	public int getNumberOutputs(int designerIndex) {
+		int[][] indices = outputIndices;
+		if(designerIndex < 0 || indices.length - 1 < designerIndex) {
+			return 0;
+		}
+		return indices[designerIndex].length;
+	}
+	
 	/**
 	 * Gets the output.
 	 *
 	 * @param designerIndex the designer index
 	 * @return the output
 	 */
-	public synchronized RealVector getOutput(int designerIndex) {
-		// if output indices are incorrectly sized, return an empty vector
-		if(outputIndices.length - 1 < designerIndex) {
+	public RealVector getOutput(int designerIndex) {
+		// copy the projected outputs into a new vector
+		double[] outputs = new double[getNumberOutputs(designerIndex)];
+		if(copyOutput(designerIndex, outputs) < outputs.length) {
+			// if outputs are incorrectly sized, return an empty vector
 			return new ArrayRealVector();
 		}
-		
-		// create a new vector, set the entries, and return
-		RealVector outputs = new ArrayRealVector(
-				outputIndices[designerIndex].length);
-		for(int i = 0; i < outputIndices[designerIndex].length; i++) {
-			outputs.setEntry(i, 
-					output.getEntry(outputIndices[designerIndex][i]));
-		}
-		return outputs;
+		return new ArrayRealVector(outputs, false);
 	}
 	
 	/**
@@ -150,15 +191,11 @@ public class Manager {
 	 * @return the output labels
 	 */
 	public synchronized String[] getOutputLabels(int designerIndex) {
-		if(outputIndices.length - 1 < designerIndex) {
+		if(outputLabelSlices.length - 1 < designerIndex) {
 			return new String[0];
 		}
 		
-		String[] labels = new String[outputIndices[designerIndex].length];
-		for(int i = 0; i < outputIndices[designerIndex].length; i++) {
-			labels[i] = outputLabels[outputIndices[designerIndex][i]];
-		}
-		return labels;
+		return outputLabelSlices[designerIndex].clone();
 	}
 	
 	/**
@@ -169,18 +206,12 @@ public class Manager {
 	 */
 	public synchronized RealVector getTargetOutput(int designerIndex) {
 		// if output indices are incorrectly sized, return an empty vector
-		if(outputIndices.length - 1 < designerIndex) {
+		if(targetOutputSlices.length - 1 < designerIndex) {
 			return new ArrayRealVector();
 		}
 		
-		// create a new vector, set the entries, and return
-		RealVector targetOutputs = new ArrayRealVector(
-				outputIndices[designerIndex].length);
-		for(int i = 0; i < outputIndices[designerIndex].length; i++) {
-			targetOutputs.setEntry(i, targetOutput.getEntry(
-					outputIndices[designerIndex][i]));
-		}
-		return targetOutputs;
+		// return a copy of the pre-computed projection
+		return new ArrayRealVector(targetOutputSlices[designerIndex]);
 	}
 	
 
@@ -191,20 +222,12 @@ public class Manager {
 	}
 	
 	/**
-	 * Checks if is solved.
+	 * Checks if is solved, as last sent by the manager. This method does 
+	 * not acquire the object monitor.
 	 *
 	 * @return true, if is solved
 	 */
-	public synchronized boolean isSolved() { 
-		// task can only be solved if there is at least one output
-		boolean solved = targetOutput.getDimension() > 0;
-		
-		// task is solved if every output is within range of target output
-		for(int i = 0; i < targetOutput.getDimension(); i++) {
-			if(Math.abs(output.getEntry(i)-targetOutput.getEntry(i)) >= OutputPanel.ERROR_ALLOWED) {
-				solved = false;
-			}
-		}
+	public boolean isSolved() { 
 		return solved;
 	}
 	
@@ -226,6 +249,7 @@ public class Manager {
 		// set a copy of the initial input to protect
 		// against unexpected modification
 		this.initialInput = initialInput.copy();
+		updateSlices();
 	}
 
 	/**
@@ -235,6 +259,7 @@ public class Manager {
 	 */
 	public synchronized void setInputIndices(int[][] inputIndices) {
 		this.inputIndices = inputIndices;
+		updateSlices();
 	}
 	
 	/**
@@ -244,6 +269,7 @@ public class Manager {
 	 */
 	public synchronized void setInputLabels(String[] inputLabels) {
 		this.inputLabels = inputLabels;
+		updateSlices();
 	}
 	
 	/**
@@ -254,7 +280,63 @@ public class Manager {
 	public synchronized void setOutput(RealVector output) {
 		// set a copy of the output to protect
 		// against unexpected modification
-		this.output = output.copy();
+		this.output = output.toArray();
+	}
+	
+	/**
+	 * Sets the output from an array, such as a buffer reused to decode 
+	 * output updates.
+	 *
+	 * @param output the new output
+	 */
+	public synchronized void setOutput(double[] output) {
+		// set a copy of the output to protect
+		// against unexpected modification
+		this.output = output.clone();
+	}
+	
+	/**
+	 * Sets the outputs for one designer, leaving all other outputs 
+	 * unchanged.
+	 *
+	 * @param designerIndex the designer index
+	 * @param output the new output at the designer's output indices
+	 * @throws IllegalArgumentException if the output does not match the 
+	 * designer's output indices
+	 */
+	public synchronized void setOutput(int designerIndex, RealVector output) {
+		setOutput(designerIndex, output.toArray());
+	}
+	
+	/**
+	 * Sets the outputs for one designer from an array, such as a buffer 
+	 * reused to decode output updates, leaving all other outputs unchanged.
+	 *
+	 * @param designerIndex the designer index
+	 * @param output the new output at the designer's output indices
+	 * @throws IllegalArgumentException if the output does not match the 
+	 * designer's output indices
+	 */
+	public synchronized void setOutput(int designerIndex, double[] output) {
+		int[][] indices = outputIndices;
+		if(designerIndex < 0 || indices.length - 1 < designerIndex 
+				|| indices[designerIndex].length != output.length) {
+			throw new IllegalArgumentException(
+					"Output does not match designer output indices.");
+		}
+		
+		// copy the outputs and replace the copy, so concurrent projections
+		// never observe a partial update
+		double[] values = this.output.clone();
+		int[] projection = indices[designerIndex];
+		for(int i = 0; i < projection.length; i++) {
+			if(projection[i] >= values.length) {
+				throw new IllegalArgumentException(
+						"Output index " + projection[i] + " out of range.");
+			}
+			values[projection[i]] = output[i];
+		}
+		this.output = values;
 	}
 
 	/**
@@ -263,7 +345,14 @@ public class Manager {
 	 * @param outputIndices the new output indices
 	 */
 	public synchronized void setOutputIndices(int[][] outputIndices) {
-		this.outputIndices = outputIndices;
+		// set a copy of the output indices to protect against 
+		// unexpected modification while being read without locking
+		int[][] indices = new int[outputIndices.length][];
+		for(int d = 0; d < outputIndices.length; d++) {
+			indices[d] = outputIndices[d].clone();
+		}
+		this.outputIndices = indices;
+		updateSlices();
 	}
 
 	/**
@@ -273,6 +362,16 @@ public class Manager {
 	 */
 	public synchronized void setOutputLabels(String[] outputLabels) {
 		this.outputLabels = outputLabels;
+		updateSlices();
+	}
+	
+	/**
+	 * Sets the solved state.
+	 *
+	 * @param solved true, if the active model is solved
+	 */
+	public void setSolved(boolean solved) {
+		this.solved = solved;
 	}
 	
 	/**
@@ -284,5 +383,64 @@ public class Manager {
 		// set a copy of the target output to protect
 		// against unexpected modification
 		this.targetOutput = targetOutput.copy();
+		updateSlices();
+	}
+	
+	/**
+	 * Projects values onto each designer's indices. The projection for a 
+	 * designer is empty if any of its indices are out of range (e.g. if 
+	 * the indices have been updated before the values).
+	 *
+	 * @param indices the indices for each designer
+	 * @param values the values
+	 * @return the projected values for each designer
+	 */
+	private static double[][] slice(int[][] indices, RealVector values) {
+		double[][] slices = new double[indices.length][];
+		for(int d = 0; d < indices.length; d++) {
+			slices[d] = new double[indices[d].length];
+			for(int i = 0; i < indices[d].length; i++) {
+				if(indices[d][i] >= values.getDimension()) {
+					slices[d] = new double[0];
+					break;
+				}
+				slices[d][i] = values.getEntry(indices[d][i]);
+			}
+		}
+		return slices;
+	}
+	
+	/**
+	 * Projects labels onto each designer's indices. The projection for a 
+	 * designer is empty if any of its indices are out of range.
+	 *
+	 * @param indices the indices for each designer
+	 * @param labels the labels
+	 * @return the projected labels for each designer
+	 */
+	private static String[][] slice(int[][] indices, String[] labels) {
+		String[][] slices = new String[indices.length][];
+		for(int d = 0; d < indices.length; d++) {
+			slices[d] = new String[indices[d].length];
+			for(int i = 0; i < indices[d].length; i++) {
+				if(indices[d][i] >= labels.length) {
+					slices[d] = new String[0];
+					break;
+				}
+				slices[d][i] = labels[indices[d][i]];
+			}
+		}
+		return slices;
+	}
+	
+	/**
+	 * Rebuilds the per-designer projections of the initial input, target 
+	 * output, and labels.
+	 */
+	private synchronized void updateSlices() {
+		initialInputSlices = slice(inputIndices, initialInput);
+		targetOutputSlices = slice(outputIndices, targetOutput);
+		inputLabelSlices = slice(inputIndices, inputLabels);
+		outputLabelSlices = slice(outputIndices, outputLabels);
 	}
 }
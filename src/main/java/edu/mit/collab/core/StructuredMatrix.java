@@ -0,0 +1,256 @@
+/******************************************************************************
+ * Copyright 2020 Paul T. Grogan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package edu.mit.collab.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.DecompositionSolver;
+import org.apache.commons.math3.linear.LUDecomposition;
+import org.apache.commons.math3.linear.RealMatrix;
+import org.apache.commons.math3.linear.RealVector;
+
+/**
+ * A compact, structured representation of a coupling matrix. Non-zero 
+ * entries are stored in compressed sparse row (CSR) and column (CSC) form 
+ * so products scale with the number of non-zeros. Independent blocks (i.e. 
+ * connected components of the row-column coupling graph, which need not be 
+ * contiguous) are factorized separately so solves scale with the block 
+ * sizes rather than the full dimension.
+ * 
+ * @author Paul T. Grogan
+ */
+final class StructuredMatrix {
+	private final int numberRows, numberColumns;
+	
+	// compressed sparse row storage
+	private final int[] rowPointers;
+	private final int[] rowColumnIndices;
+	private final double[] rowValues;
+	
+	// compressed sparse column storage
+	private final int[] columnPointers;
+	private final int[] columnRowIndices;
+	private final double[] columnValues;
+	
+	// row and column indices and solvers for each independent block; 
+	// solvers are null if the matrix is not square block-by-block, in 
+	// which case the full matrix solver is used instead
+	private final int[][] blockRows, blockColumns;
+	private final DecompositionSolver[] blockSolvers;
+	private final DecompositionSolver fullSolver;
+	
+	/**
+	 * Instantiates a new structured matrix from a (dense) matrix.
+	 *
+	 * @param matrix the matrix
+	 */
+	StructuredMatrix(RealMatrix matrix) {
+		numberRows = matrix.getRowDimension();
+		numberColumns = matrix.getColumnDimension();
+		
+		// count non-zero entries in each row and column
+		rowPointers = new int[numberRows + 1];
+		columnPointers = new int[numberColumns + 1];
+		for(int i = 0; i < numberRows; i++) {
+			for(int j = 0; j < numberColumns; j++) {
+				if(matrix.getEntry(i, j) != 0) {
+					rowPointers[i + 1]++;
+					columnPointers[j + 1]++;
+				}
+			}
+		}
+		for(int i = 0; i < numberRows; i++) {
+			rowPointers[i + 1] += rowPointers[i];
+		}
+		for(int j = 0; j < numberColumns; j++) {
+			columnPointers[j + 1] += columnPointers[j];
+		}
+		
+		// fill row and column storage, merging rows and columns 
+		// connected by a non-zero entry into a common block
+		int numberNonZeros = rowPointers[numberRows];
+		rowColumnIndices = new int[numberNonZeros];
+		rowValues = new double[numberNonZeros];
+		columnRowIndices = new int[numberNonZeros];
+		columnValues = new double[numberNonZeros];
+		int[] columnFill = Arrays.copyOf(columnPointers, numberColumns);
+		// union-find parents: rows are nodes [0, numberRows) and 
+		// columns are nodes [numberRows, numberRows + numberColumns)
+		int[] parents = new int[numberRows + numberColumns];
+		for(int k = 0; k < parents.length; k++) {
+			parents[k] = k;
+		}
+		for(int i = 0, k = 0; i < numberRows; i++) {
+			for(int j = 0; j < numberColumns; j++) {
+				double value = matrix.getEntry(i, j);
+				if(value != 0) {
+					rowColumnIndices[k] = j;
+					rowValues[k++] = value;
+					columnRowIndices[columnFill[j]] = i;
+					columnValues[columnFill[j]++] = value;
+					parents[find(parents, i)] = find(parents, numberRows + j);
+				}
+			}
+		}
+		
+		// assign rows and columns to blocks
+		int[] blockIndex = new int[parents.length];
+		Arrays.fill(blockIndex, -1);
+		List<List<Integer>> rows = new ArrayList<List<Integer>>();
+		List<List<Integer>> columns = new ArrayList<List<Integer>>();
+		for(int k = 0; k < parents.length; k++) {
+			int root = find(parents, k);
+			if(blockIndex[root] < 0) {
+				blockIndex[root] = rows.size();
+				rows.add(new ArrayList<Integer>());
+				columns.add(new ArrayList<Integer>());
+			}
+			if(k < numberRows) {
+				rows.get(blockIndex[root]).add(k);
+			} else {
+				columns.get(blockIndex[root]).add(k - numberRows);
+			}
+		}
+		blockRows = new int[rows.size()][];
+		blockColumns = new int[rows.size()][];
+		boolean blockSquare = true;
+		for(int b = 0; b < rows.size(); b++) {
+			blockRows[b] = toArray(rows.get(b));
+			blockColumns[b] = toArray(columns.get(b));
+			blockSquare = blockSquare 
+					&& blockRows[b].length == blockColumns[b].length;
+		}
+		
+		// factorize each block (or the full matrix if blocks are not square)
+		blockSolvers = new DecompositionSolver[blockRows.length];
+		if(blockSquare) {
+			for(int b = 0; b < blockRows.length; b++) {
+				blockSolvers[b] = new LUDecomposition(matrix.getSubMatrix(
+						blockRows[b], blockColumns[b])).getSolver();
+			}
+			fullSolver = null;
+		} else {
+			fullSolver = new LUDecomposition(matrix).getSolver();
+		}
+	}
+	
+	/**
+	 * Adds a scaled column of this matrix to a vector, i.e. 
+	 * <code>y += scale * A(:, column)</code>.
+	 *
+	 * @param column the column index
+	 * @param scale the scale
+	 * @param y the vector to update
+	 */
+	void addColumn(int column, double scale, double[] y) {
+		for(int k = columnPointers[column]; k < columnPointers[column + 1]; k++) {
+			y[columnRowIndices[k]] += columnValues[k]*scale;
+		}
+	}
+	
+	/**
+	 * Finds the root of a node in a union-find structure, compressing 
+	 * paths along the way.
+	 *
+	 * @param parents the parent of each node
+	 * @param node the node
+	 * @return the root node
+	 */
+	private static int find(int[] parents, int node) {
+		while(parents[node] != node) {
+			parents[node] = parents[parents[node]];
+			node = parents[node];
+		}
+		return node;
+	}
+	
+	/**
+	 * Gets the number of independent blocks.
+	 *
+	 * @return the number of blocks
+	 */
+	int getNumberBlocks() {
+		return blockRows.length;
+	}
+	
+	/**
+	 * Gets the number of non-zero entries.
+	 *
+	 * @return the number of non-zeros
+	 */
+	int getNumberNonZeros() {
+		return rowValues.length;
+	}
+	
+	/**
+	 * Multiplies this matrix by a vector, i.e. <code>y = A x</code>.
+	 *
+	 * @param x the vector to multiply
+	 * @param y the array in which to store the product
+	 */
+	void operate(double[] x, double[] y) {
+		for(int i = 0; i < numberRows; i++) {
+			double sum = 0;
+			for(int k = rowPointers[i]; k < rowPointers[i + 1]; k++) {
+				sum += rowValues[k]*x[rowColumnIndices[k]];
+			}
+			y[i] = sum;
+		}
+	}
+	
+	/**
+	 * Solves for the vector <code>x</code> such that <code>A x = b</code>
+	 * block-by-block.
+	 *
+	 * @param b the right-hand side vector
+	 * @return the solution vector
+	 */
+	RealVector solve(RealVector b) {
+		if(fullSolver != null) {
+			return fullSolver.solve(b);
+		}
+		double[] x = new double[numberColumns];
+		for(int b_i = 0; b_i < blockRows.length; b_i++) {
+			RealVector blockVector = new ArrayRealVector(blockRows[b_i].length);
+			for(int i = 0; i < blockRows[b_i].length; i++) {
+				blockVector.setEntry(i, b.getEntry(blockRows[b_i][i]));
+			}
+			RealVector blockSolution = blockSolvers[b_i].solve(blockVector);
+			for(int j = 0; j < blockColumns[b_i].length; j++) {
+				x[blockColumns[b_i][j]] = blockSolution.getEntry(j);
+			}
+		}
+		return new ArrayRealVector(x, false);
+	}
+	
+	/**
+	 * Converts a list of integers to an array.
+	 *
+	 * @param list the list
+	 * @return the array
+	 */
+	private static int[] toArray(List<Integer> list) {
+		int[] array = new int[list.size()];
+		for(int i = 0; i < array.length; i++) {
+			array[i] = list.get(i);
+		}
+		return array;
+	}
+}
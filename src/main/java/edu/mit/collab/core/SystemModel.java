@@ -17,7 +17,6 @@ package edu.mit.collab.core;
 
 import org.apache.commons.math3.linear.Array2DRowRealMatrix;
 import org.apache.commons.math3.linear.ArrayRealVector;
-import org.apache.commons.math3.linear.LUDecomposition;
 import org.apache.commons.math3.linear.RealMatrix;
 import org.apache.commons.math3.linear.RealVector;
 
@@ -29,6 +28,128 @@ import com.google.gson.Gson;
  * @author Paul T. Grogan
  */
 public class SystemModel {
+	/**
+	 * A caller-owned evaluator which incrementally updates the outputs of 
+	 * a system model. The evaluator holds the last evaluated inputs and 
+	 * outputs, so the model itself stays immutable and can be shared 
+	 * between threads. An evaluator is not thread-safe and should only be 
+	 * used by one thread at a time.
+	 */
+	public static final class Evaluator {
+		private final SystemModel model; // immutable
+		
+		// the last inputs and outputs and the number of incremental 
+		// updates since the last full evaluation (used to limit 
+		// accumulation of floating-point error)
+		private double[] lastInputs, lastOutputs; // mutable
+		private int incrementalUpdates; // mutable
+		private int refreshInterval = DEFAULT_REFRESH_INTERVAL; // mutable
+		
+		/**
+		 * Instantiates a new evaluator.
+		 *
+		 * @param model the model
+		 */
+		private Evaluator(SystemModel model) {
+			this.model = model;
+		}
+		
+		/**
+		 * Incrementally evaluates the output values for the specified 
+		 * input values, writing into a caller-owned output array. Only the 
+		 * columns of the coupling matrix corresponding to the changed input
+		 * indices are applied to the last evaluated outputs, so the cost 
+		 * scales with the number of changed inputs rather than the total 
+		 * number of inputs.
+		 * 
+		 * A full evaluation is performed on the first call (or after a 
+		 * call to <code>reset</code>), if the changed input indices are 
+		 * <code>null</code>, or every <code>refreshInterval</code> 
+		 * incremental evaluations to limit floating-point drift.
+		 *
+		 * @param changedInputs the indices of inputs which may have changed
+		 * @param inputs the input values
+		 * @param outputs the array in which to store output values
+		 */
+		public void evaluate(int[] changedInputs, 
+				double[] inputs, double[] outputs) {
+			if(changedInputs == null || lastInputs == null 
+					|| incrementalUpdates >= refreshInterval) {
+				// perform a full evaluation and store the new state
+				model.evaluateInto(inputs, outputs);
+				lastInputs = inputs.clone();
+				lastOutputs = outputs.clone();
+				incrementalUpdates = 0;
+				return;
+			}
+			if(inputs.length != lastInputs.length) {
+				throw new IllegalArgumentException(
+						"Input array must have " + lastInputs.length + " values.");
+			}
+			if(outputs.length != lastOutputs.length) {
+				throw new IllegalArgumentException(
+						"Output array must have " + lastOutputs.length + " values.");
+			}
+			StructuredMatrix matrix = model.getStructure();
+			for(int j : changedInputs) {
+				double delta = inputs[j] - lastInputs[j];
+				if(delta != 0) {
+					// apply column j of the coupling matrix scaled by the change
+					matrix.addColumn(j, delta, lastOutputs);
+					lastInputs[j] = inputs[j];
+				}
+			}
+			incrementalUpdates++;
+			System.arraycopy(lastOutputs, 0, outputs, 0, lastOutputs.length);
+		}
+		
+		/**
+		 * Gets the model.
+		 *
+		 * @return the model
+		 */
+		public SystemModel getModel() {
+			return model;
+		}
+		
+		/**
+		 * Gets the number of incremental evaluations between full 
+		 * re-evaluations.
+		 *
+		 * @return the refresh interval
+		 */
+		public int getRefreshInterval() {
+			return refreshInterval;
+		}
+		
+		/**
+		 * Resets the incremental evaluation state so the next call to 
+		 * <code>evaluate</code> performs a full evaluation.
+		 */
+		public void reset() {
+			lastInputs = null;
+			lastOutputs = null;
+			incrementalUpdates = 0;
+		}
+		
+		/**
+		 * Sets the number of incremental evaluations between full 
+		 * re-evaluations.
+		 *
+		 * @param refreshInterval the new refresh interval
+		 */
+		public void setRefreshInterval(int refreshInterval) {
+			if(refreshInterval < 0) {
+				throw new IllegalArgumentException(
+						"Refresh interval must be non-negative.");
+			}
+			this.refreshInterval = refreshInterval;
+		}
+	}
+	
+	// default number of incremental evaluations between full re-evaluations
+	public static final int DEFAULT_REFRESH_INTERVAL = 100;
+	
 	private final String name;
 	private final RealMatrix couplingMatrix;
 	private final RealVector targetVector;
@@ -36,6 +157,19 @@ public class SystemModel {
 	private final int[][] outputIndices;
 	private final String[] inputLabels;
 	private final String[] outputLabels;
+	
+	// the structured (sparse, block-factorized) coupling matrix and the 
+	// solution are derived from the (immutable) coupling matrix and target 
+	// vector so they are computed at most once. fields are transient so 
+	// they are ignored by JSON serialization. the structure and target 
+	// data are volatile so they are read without locking once computed
+	private transient volatile StructuredMatrix structure; // lazily computed
+	private transient volatile RealVector solutionVector; // lazily computed
+	private transient Complexity complexity; // lazily computed
+	
+	// primitive copy of the target vector to evaluate models without 
+	// allocating intermediate vector objects
+	private transient volatile double[] targetData; // lazily computed
 
 	/**
 	 * Instantiates a new system model with default (trivial) values.
@@ -72,7 +206,7 @@ public class SystemModel {
 			throw new IllegalArgumentException(
 					"Coupling matrix must have at least 1 output variable.");
 		}
-		if(couplingMatrix.isSquare()) {
+		if(!couplingMatrix.isSquare()) {
 			throw new IllegalArgumentException(
 					"Coupling matrix must be square for a unique solution.");
 		}
@@ -136,6 +270,69 @@ public class SystemModel {
 		this.outputLabels = outputLabels;
 	}
 	
+	/**
+	 * Evaluates the output values for the specified input values, writing
+	 * into a caller-owned output array. This method does not allocate any
+	 * objects so it is suitable for repeated calls on the update path. The
+	 * cost scales with the number of non-zero coupling matrix entries.
+	 *
+	 * @param inputs the input values
+	 * @param outputs the array in which to store output values
+	 */
+	public void evaluateInto(double[] inputs, double[] outputs) {
+		int numberInputs = getNumberInputs();
+		int numberOutputs = getNumberOutputs();
+		if(inputs.length != numberInputs) {
+			throw new IllegalArgumentException(
+					"Input array must have " + numberInputs + " values.");
+		}
+		if(outputs.length != numberOutputs) {
+			throw new IllegalArgumentException(
+					"Output array must have " + numberOutputs + " values.");
+		}
+		getStructure().operate(inputs, outputs);
+	}
+	
+	/**
+	 * Gets the cached solution vector, solving for it on first access.
+	 *
+	 * @return the solution vector
+	 */
+	private RealVector getCachedSolutionVector() {
+		RealVector result = solutionVector;
+		if(result == null) {
+			synchronized(this) {
+				result = solutionVector;
+				if(result == null) {
+					result = getStructure().solve(targetVector);
+					solutionVector = result;
+				}
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * Gets the structural complexity, evaluating it on first access.
+	 *
+	 * @return the complexity
+	 */
+	public synchronized Complexity getComplexity() {
+		if(complexity == null) {
+			complexity = Complexity.evaluate(this);
+		}
+		return complexity;
+	}
+	
+	/**
+	 * Gets the coupling matrix.
+	 *
+	 * @return the coupling matrix
+	 */
+	public RealMatrix getCouplingMatrix() {
+		return couplingMatrix.copy();
+	}
+	
 	/**
 	 * Gets the initial vector.
 	 *
@@ -152,7 +349,7 @@ public class SystemModel {
 	 * @return the input error
 	 */
 	public double getInputError(RealVector inputVector) {
-		return getSolutionVector().getDistance(inputVector);
+		return getCachedSolutionVector().getDistance(inputVector);
 	}
 	
 	/**
@@ -216,7 +413,9 @@ public class SystemModel {
 	 * @return the output error
 	 */
 	public double getOutputError(RealVector inputVector) {
-		return targetVector.getDistance(getOutputVector(inputVector));
+		double[] outputs = new double[getNumberOutputs()];
+		evaluateInto(inputVector.toArray(), outputs);
+		return getTargetError(outputs);
 	}
 	
 	/**
@@ -244,7 +443,20 @@ public class SystemModel {
 	 * @return the output vector
 	 */
 	public RealVector getOutputVector(RealVector inputVector) {
-		return couplingMatrix.operate(inputVector);
+		double[] outputs = new double[getNumberOutputs()];
+		evaluateInto(inputVector.toArray(), outputs);
+		return new ArrayRealVector(outputs, false);
+	}
+	
+	/**
+	 * Gets a single entry of the solution vector without copying the
+	 * full vector.
+	 *
+	 * @param index the input index
+	 * @return the solution value
+	 */
+	public double getSolutionEntry(int index) {
+		return getCachedSolutionVector().getEntry(index);
 	}
 	
 	/**
@@ -253,7 +465,69 @@ public class SystemModel {
 	 * @return the solution vector
 	 */
 	public RealVector getSolutionVector() {
-		return new LUDecomposition(couplingMatrix).getSolver().getInverse().operate(targetVector);
+		// return copy of solution vector to protect 
+		// against unexpected modification
+		return getCachedSolutionVector().copy();
+	}
+	
+	/**
+	 * Gets the structured form of the coupling matrix, detecting sparse 
+	 * and block-diagonal structure and factorizing each block on first 
+	 * access. The structure is re-used for all subsequent operations and 
+	 * the object monitor is only acquired while it is first built.
+	 *
+	 * @return the structured matrix
+	 */
+	private StructuredMatrix getStructure() {
+		StructuredMatrix result = structure;
+		if(result == null) {
+			synchronized(this) {
+				result = structure;
+				if(result == null) {
+					result = new StructuredMatrix(couplingMatrix);
+					structure = result;
+				}
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * Gets the target vector as an array, copying it from the vector 
+	 * object on first access. This method does not acquire the object 
+	 * monitor (a race only copies the immutable target vector twice).
+	 *
+	 * @return the target data
+	 */
+	private double[] getTargetData() {
+		double[] result = targetData;
+		if(result == null) {
+			result = targetVector.toArray();
+			targetData = result;
+		}
+		return result;
+	}
+	
+	/**
+	 * Gets the target error, i.e. the distance between the specified 
+	 * output values and the target vector. This method does not allocate 
+	 * any objects.
+	 *
+	 * @param outputs the output values
+	 * @return the target error
+	 */
+	public double getTargetError(double[] outputs) {
+		double[] target = getTargetData();
+		if(outputs.length != target.length) {
+			throw new IllegalArgumentException(
+					"Output array must have " + target.length + " values.");
+		}
+		double sum = 0;
+		for(int i = 0; i < target.length; i++) {
+			double delta = outputs[i] - target[i];
+			sum += delta*delta;
+		}
+		return Math.sqrt(sum);
 	}
 	
 	/**
@@ -265,6 +539,50 @@ public class SystemModel {
 		return targetVector.copy();
 	}
 	
+	/**
+	 * Checks if all of the specified output values are within tolerance
+	 * of the corresponding target values. This method does not allocate
+	 * any objects.
+	 *
+	 * @param outputs the output values
+	 * @param tolerance the tolerance
+	 * @return true, if is within tolerance
+	 */
+	public boolean isWithinTolerance(double[] outputs, double tolerance) {
+		double[] target = getTargetData();
+		if(outputs.length != target.length) {
+			throw new IllegalArgumentException(
+					"Output array must have " + target.length + " values.");
+		}
+		for(int i = 0; i < target.length; i++) {
+			if(Math.abs(outputs[i] - target[i]) >= tolerance) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Creates a new evaluator to incrementally evaluate this model. Each 
+	 * caller owns its evaluator, so evaluation does not modify the model.
+	 *
+	 * @return the evaluator
+	 */
+	public Evaluator newEvaluator() {
+		return new Evaluator(this);
+	}
+	
+	/**
+	 * Solves for the input vector which produces the specified output 
+	 * vector using the cached block factorization (no explicit inverse).
+	 *
+	 * @param outputVector the output vector
+	 * @return the input vector
+	 */
+	public RealVector solve(RealVector outputVector) {
+		return getStructure().solve(outputVector);
+	}
+	
 	@Override
 	public String toString() {
 		Gson gson = new Gson();
@@ -0,0 +1,38 @@
+/******************************************************************************
+ * Copyright 2020 Paul T. Grogan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package edu.mit.collab.event;
+
+import java.util.Collection;
+
+/**
+ * The listener interface for receiving batches of designer events. In 
+ * addition to the individual event methods, which are invoked for each 
+ * event in a batch, the <code>designersModified</code> method is invoked 
+ * once after all events in the batch have been delivered so that work 
+ * common to several events (e.g. re-computing outputs) is only done once.
+ *
+ * @author Paul T. Grogan
+ * @see DesignerEvent
+ */
+public interface DesignerBatchListener extends DesignerListener {
+	
+	/**
+	 * Method to notify that a batch of designer events has been delivered.
+	 *
+	 * @param events the events in the batch, in order of arrival
+	 */
+	public void designersModified(Collection<DesignerEvent> events);
+}
@@ -0,0 +1,184 @@
+/******************************************************************************
+ * Copyright 2020 Paul T. Grogan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package edu.mit.collab.generator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+import edu.mit.collab.core.Complexity;
+import edu.mit.collab.core.Experiment;
+import edu.mit.collab.core.SystemModel;
+
+/**
+ * Evaluates the complexity of the models of a library of experiments in 
+ * parallel on a fork-join pool and screens experiments by complexity 
+ * bands. Complexity is memoized by each model (see 
+ * {@link SystemModel#getComplexity()}), so models shared between 
+ * experiments are evaluated once.
+ * 
+ * @author Paul T. Grogan
+ */
+public class ComplexityAnalyzer {
+	
+	/**
+	 * A task to evaluate the complexity of a range of models; forks in 
+	 * halves down to single models.
+	 */
+	private static final class ComplexityTask extends RecursiveAction {
+		private static final long serialVersionUID = 7362513006412733493L;
+		
+		private final List<SystemModel> models; // immutable
+		private final int from, to; // immutable
+		
+		/**
+		 * Instantiates a new complexity task.
+		 *
+		 * @param models the models
+		 * @param from the first model (inclusive)
+		 * @param to the last model (exclusive)
+		 */
+		private ComplexityTask(List<SystemModel> models, int from, int to) {
+			this.models = models;
+			this.from = from;
+			this.to = to;
+		}
+		
+		@Override
+		protected void compute() {
+			if(to - from == 1) {
+				models.get(from).getComplexity();
+			} else if(to > from) {
+				int middle = (from + to) >>> 1;
+				ForkJoinTask.invokeAll(new ComplexityTask(models, from, middle), 
+						new ComplexityTask(models, middle, to));
+			}
+		}
+	}
+	
+	private final ForkJoinPool pool; // immutable
+	
+	/**
+	 * Instantiates a new complexity analyzer using the common fork-join 
+	 * pool.
+	 */
+	public ComplexityAnalyzer() {
+		this(ForkJoinPool.commonPool());
+	}
+	
+	/**
+	 * Instantiates a new complexity analyzer.
+	 *
+	 * @param pool the fork-join pool
+	 */
+	public ComplexityAnalyzer(ForkJoinPool pool) {
+		if(pool == null) {
+			throw new IllegalArgumentException("Pool cannot be null.");
+		}
+		this.pool = pool;
+	}
+	
+	/**
+	 * Evaluates the complexity of all models of a library of experiments 
+	 * in parallel.
+	 *
+	 * @param experiments the experiments
+	 * @return the complexity of each model of each experiment, in order 
+	 * of presentation (training models followed by experiment models)
+	 */
+	public Map<Experiment, List<Complexity>> analyze(
+			Collection<Experiment> experiments) {
+		// collect distinct models (models may be materialized lazily, so 
+		// each experiment's models are retrieved once)
+		Map<Experiment, List<SystemModel>> experimentModels = 
+				new LinkedHashMap<Experiment, List<SystemModel>>();
+		Map<SystemModel, Boolean> distinctModels = 
+				new IdentityHashMap<SystemModel, Boolean>();
+		for(Experiment experiment : experiments) {
+			List<SystemModel> models = 
+					new ArrayList<SystemModel>(experiment.getModels());
+			experimentModels.put(experiment, models);
+			for(SystemModel model : models) {
+				distinctModels.put(model, Boolean.TRUE);
+			}
+		}
+		
+		List<SystemModel> models = 
+				new ArrayList<SystemModel>(distinctModels.keySet());
+		pool.invoke(new ComplexityTask(models, 0, models.size()));
+		
+		Map<Experiment, List<Complexity>> complexities = 
+				new LinkedHashMap<Experiment, List<Complexity>>();
+		for(Map.Entry<Experiment, List<SystemModel>> entry : 
+				experimentModels.entrySet()) {
+			List<Complexity> values = new ArrayList<Complexity>();
+			for(SystemModel model : entry.getValue()) {
+				values.add(model.getComplexity());
+			}
+			complexities.put(entry.getKey(), values);
+		}
+		return complexities;
+	}
+	
+	/**
+	 * Screens a library of experiments by a complexity band: experiments 
+	 * are retained if the complexity of each experiment model (excluding 
+	 * training models) within a number of leading models is within the 
+	 * band.
+	 *
+	 * @param experiments the experiments
+	 * @param metric the metric
+	 * @param minimum the minimum value (inclusive)
+	 * @param maximum the maximum value (inclusive)
+	 * @param numberLeadingModels the number of leading experiment models 
+	 * to screen, or a negative number to screen all experiment models
+	 * @return the retained experiments, in order
+	 */
+	public List<Experiment> screen(Collection<Experiment> experiments, 
+			Complexity.Metric metric, double minimum, double maximum, 
+			int numberLeadingModels) {
+		if(minimum > maximum) {
+			throw new IllegalArgumentException(
+					"Minimum cannot be greater than maximum.");
+		}
+		List<Experiment> retained = new ArrayList<Experiment>();
+		for(Map.Entry<Experiment, List<Complexity>> entry : 
+				analyze(experiments).entrySet()) {
+			List<Complexity> values = entry.getValue().subList(
+					entry.getKey().getNumberTrainingModels(), 
+					entry.getValue().size());
+			if(numberLeadingModels >= 0 
+					&& numberLeadingModels < values.size()) {
+				values = values.subList(0, numberLeadingModels);
+			}
+			boolean withinBand = true;
+			for(Complexity complexity : values) {
+				double value = complexity.getValue(metric);
+				withinBand = withinBand && value >= minimum && value <= maximum;
+			}
+			if(withinBand) {
+				retained.add(entry.getKey());
+			}
+		}
+		return retained;
+	}
+}
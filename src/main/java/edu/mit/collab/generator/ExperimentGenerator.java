@@ -0,0 +1,243 @@
+/******************************************************************************
+ * Copyright 2020 Paul T. Grogan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package edu.mit.collab.generator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+import edu.mit.collab.core.Experiment;
+import edu.mit.collab.core.SystemModel;
+
+/**
+ * Generates experiments from task factories (a port of 
+ * <code>experimentGenerator.m</code>). Models, experiments, and the 
+ * rejection sampling of target vectors are generated in parallel on a 
+ * fork-join pool. Each unit of work draws from its own random stream, 
+ * split in order from a seeded stream, so generated experiments are 
+ * reproducible for a given seed regardless of the pool parallelism.
+ * 
+ * @author Paul T. Grogan
+ */
+public class ExperimentGenerator {
+	
+	/**
+	 * A task to generate one system model.
+	 */
+	private final class ModelTask extends RecursiveTask<SystemModel> {
+		private static final long serialVersionUID = 2946325838612547413L;
+		
+		private final TaskFactory factory; // immutable
+		private final SplittableRandom random; // immutable
+		
+		/**
+		 * Instantiates a new model task.
+		 *
+		 * @param factory the task factory
+		 * @param random the random number generator
+		 */
+		private ModelTask(TaskFactory factory, SplittableRandom random) {
+			this.factory = factory;
+			this.random = random;
+		}
+		
+		@Override
+		protected SystemModel compute() {
+			return factory.generate(matrixGenerator, random);
+		}
+	}
+	
+	/**
+	 * A task to generate one experiment.
+	 */
+	private final class ExperimentTask extends RecursiveTask<Experiment> {
+		private static final long serialVersionUID = -4475123829003960925L;
+		
+		private final String name; // immutable
+		private final int numberDesigners; // immutable
+		private final List<TaskFactory> trainingFactories; // immutable
+		private final List<TaskFactory> experimentFactories; // immutable
+		private final SplittableRandom random; // immutable
+		
+		/**
+		 * Instantiates a new experiment task.
+		 *
+		 * @param name the experiment name
+		 * @param numberDesigners the number of designers
+		 * @param trainingFactories the training task factories
+		 * @param experimentFactories the experiment task factories
+		 * @param random the random number generator
+		 */
+		private ExperimentTask(String name, int numberDesigners, 
+				List<TaskFactory> trainingFactories, 
+				List<TaskFactory> experimentFactories, 
+				SplittableRandom random) {
+			this.name = name;
+			this.numberDesigners = numberDesigners;
+			this.trainingFactories = trainingFactories;
+			this.experimentFactories = experimentFactories;
+			this.random = random;
+		}
+		
+		@Override
+		protected Experiment compute() {
+			// split model streams in order for reproducibility
+			List<ModelTask> trainingTasks = new ArrayList<ModelTask>();
+			for(TaskFactory factory : trainingFactories) {
+				trainingTasks.add(new ModelTask(factory, random.split()));
+			}
+			List<ModelTask> experimentTasks = new ArrayList<ModelTask>();
+			for(TaskFactory factory : experimentFactories) {
+				experimentTasks.add(new ModelTask(factory, random.split()));
+			}
+			ForkJoinTask.invokeAll(trainingTasks);
+			ForkJoinTask.invokeAll(experimentTasks);
+			
+			List<SystemModel> trainingModels = new ArrayList<SystemModel>();
+			for(ModelTask task : trainingTasks) {
+				trainingModels.add(task.join());
+			}
+			List<SystemModel> experimentModels = new ArrayList<SystemModel>();
+			for(ModelTask task : experimentTasks) {
+				experimentModels.add(task.join());
+			}
+			
+			// randomize the order of experiment models (the experiment 
+			// retains the order, so it is reproducible)
+			for(int i = experimentModels.size() - 1; i > 0; i--) {
+				int j = random.nextInt(i + 1);
+				experimentModels.set(i, experimentModels.set(j, 
+						experimentModels.get(i)));
+			}
+			return Experiment.wrap(name, numberDesigners, 
+					trainingModels, experimentModels);
+		}
+	}
+	
+	private final ForkJoinPool pool; // immutable
+	private final MatrixGenerator matrixGenerator; // immutable
+	
+	/**
+	 * Instantiates a new experiment generator using the common fork-join 
+	 * pool and default sampling parameters.
+	 */
+	public ExperimentGenerator() {
+		this(ForkJoinPool.commonPool());
+	}
+	
+	/**
+	 * Instantiates a new experiment generator using a fork-join pool and 
+	 * default sampling parameters.
+	 *
+	 * @param pool the fork-join pool
+	 */
+	public ExperimentGenerator(ForkJoinPool pool) {
+		this(pool, new MatrixGenerator(pool, 
+				MatrixGenerator.DEFAULT_MINIMUM_SOLUTION, 
+				MatrixGenerator.DEFAULT_BATCH_SIZE));
+	}
+	
+	/**
+	 * Instantiates a new experiment generator.
+	 *
+	 * @param pool the fork-join pool
+	 * @param matrixGenerator the matrix generator
+	 */
+	public ExperimentGenerator(ForkJoinPool pool, 
+			MatrixGenerator matrixGenerator) {
+		if(pool == null) {
+			throw new IllegalArgumentException("Pool cannot be null.");
+		}
+		if(matrixGenerator == null) {
+			throw new IllegalArgumentException(
+					"Matrix generator cannot be null.");
+		}
+		this.pool = pool;
+		this.matrixGenerator = matrixGenerator;
+	}
+	
+	/**
+	 * Generates an experiment.
+	 *
+	 * @param name the experiment name
+	 * @param numberDesigners the number of designers
+	 * @param trainingFactories the training task factories
+	 * @param experimentFactories the experiment task factories
+	 * @param seed the seed
+	 * @return the experiment
+	 */
+	public Experiment generate(String name, int numberDesigners, 
+			List<TaskFactory> trainingFactories, 
+			List<TaskFactory> experimentFactories, long seed) {
+		return pool.invoke(new ExperimentTask(name, numberDesigners, 
+				new ArrayList<TaskFactory>(trainingFactories), 
+				new ArrayList<TaskFactory>(experimentFactories), 
+				new SplittableRandom(seed)));
+	}
+	
+	/**
+	 * Generates a number of candidate experiments in parallel, named with 
+	 * a prefix and a three-digit number (e.g. experiment001).
+	 *
+	 * @param prefix the name prefix
+	 * @param first the number of the first experiment
+	 * @param count the number of experiments
+	 * @param numberDesigners the number of designers
+	 * @param trainingFactories the training task factories
+	 * @param experimentFactories the experiment task factories
+	 * @param seed the seed
+	 * @return the experiments
+	 */
+	public List<Experiment> generate(String prefix, int first, int count, 
+			int numberDesigners, List<TaskFactory> trainingFactories, 
+			List<TaskFactory> experimentFactories, long seed) {
+		if(count < 0) {
+			throw new IllegalArgumentException(
+					"Number of experiments cannot be negative.");
+		}
+		List<TaskFactory> training = 
+				new ArrayList<TaskFactory>(trainingFactories);
+		List<TaskFactory> experiment = 
+				new ArrayList<TaskFactory>(experimentFactories);
+		
+		// split experiment streams in order for reproducibility
+		SplittableRandom random = new SplittableRandom(seed);
+		final List<ExperimentTask> tasks = new ArrayList<ExperimentTask>();
+		for(int i = 0; i < count; i++) {
+			tasks.add(new ExperimentTask(
+					String.format("%s%03d", prefix, first + i), 
+					numberDesigners, training, experiment, random.split()));
+		}
+		pool.invoke(new RecursiveTask<Void>() {
+			private static final long serialVersionUID = -3236406125226307541L;
+			
+			@Override
+			protected Void compute() {
+				ForkJoinTask.invokeAll(tasks);
+				return null;
+			}
+		});
+		
+		List<Experiment> experiments = new ArrayList<Experiment>();
+		for(ExperimentTask task : tasks) {
+			experiments.add(task.join());
+		}
+		return experiments;
+	}
+}
@@ -0,0 +1,329 @@
+/******************************************************************************
+ * Copyright 2020 Paul T. Grogan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package edu.mit.collab.generator;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.QRDecomposition;
+import org.apache.commons.math3.linear.RealMatrix;
+import org.apache.commons.math3.linear.RealVector;
+
+/**
+ * Generates block-diagonal coupling matrices and target vectors for system 
+ * models (a port of <code>matrixGenerator.m</code>). Each sub-task is 
+ * either coupled (a random orthonormal block) or uncoupled (a diagonal 
+ * block with random signs). Target vectors are drawn by rejection 
+ * sampling until no solution value is within the initial condition.
+ * 
+ * Rejection sampling evaluates batches of candidate target vectors in 
+ * parallel on a fork-join pool. Each candidate draws from its own random 
+ * stream, split in order from the stream of the sub-task, and the first 
+ * accepted candidate (in order) is selected, so results are reproducible 
+ * for a given seed regardless of the pool parallelism.
+ * 
+ * @author Paul T. Grogan
+ */
+public class MatrixGenerator {
+	public static final double DEFAULT_MINIMUM_SOLUTION = 0.05;
+	public static final int DEFAULT_BATCH_SIZE = 64;
+	
+	/**
+	 * A block-diagonal coupling matrix and its target vector.
+	 */
+	public static final class Result {
+		private final RealMatrix matrix; // immutable
+		private final RealVector target; // immutable
+		
+		/**
+		 * Instantiates a new result.
+		 *
+		 * @param matrix the coupling matrix
+		 * @param target the target vector
+		 */
+		private Result(RealMatrix matrix, RealVector target) {
+			this.matrix = matrix;
+			this.target = target;
+		}
+		
+		/**
+		 * Gets the coupling matrix.
+		 *
+		 * @return the coupling matrix
+		 */
+		public RealMatrix getMatrix() {
+			return matrix;
+		}
+		
+		/**
+		 * Gets the target vector.
+		 *
+		 * @return the target vector
+		 */
+		public RealVector getTarget() {
+			return target;
+		}
+	}
+	
+	/**
+	 * A task to draw and test the candidate target vectors of one batch; 
+	 * forks in halves down to a few candidates tested in order.
+	 */
+	private static final class CandidateTask extends RecursiveTask<RealVector> {
+		private static final long serialVersionUID = -1850718227853052546L;
+		private static final int sequentialThreshold = 8;
+		
+		private final double[][] taskColumns; // immutable
+		private final SplittableRandom[] randoms; // immutable
+		private final int from, to; // immutable
+		private final double minimumSolution; // immutable
+		
+		/**
+		 * Instantiates a new candidate task.
+		 *
+		 * @param taskColumns the columns of the sub-task matrix
+		 * @param randoms the random streams of all candidates in the batch
+		 * @param from the first candidate (inclusive)
+		 * @param to the last candidate (exclusive)
+		 * @param minimumSolution the minimum absolute solution value
+		 */
+		private CandidateTask(double[][] taskColumns, SplittableRandom[] randoms, 
+				int from, int to, double minimumSolution) {
+			this.taskColumns = taskColumns;
+			this.randoms = randoms;
+			this.from = from;
+			this.to = to;
+			this.minimumSolution = minimumSolution;
+		}
+		
+		@Override
+		protected RealVector compute() {
+			if(to - from <= sequentialThreshold) {
+				for(int i = from; i < to; i++) {
+					RealVector vector = generateOrthonormalVector(
+							taskColumns.length, randoms[i]);
+					if(isAccepted(taskColumns, vector.toArray(), 
+							minimumSolution)) {
+						return vector;
+					}
+				}
+				return null;
+			}
+			int middle = (from + to) >>> 1;
+			CandidateTask first = new CandidateTask(
+					taskColumns, randoms, from, middle, minimumSolution);
+			CandidateTask second = new CandidateTask(
+					taskColumns, randoms, middle, to, minimumSolution);
+			second.fork();
+			RealVector vector = first.compute();
+			// join the second half in any case so no task is left running
+			RealVector other = second.join();
+			return vector != null ? vector : other;
+		}
+	}
+	
+	private final ForkJoinPool pool; // immutable
+	private final double minimumSolution; // immutable
+	private final int batchSize; // immutable
+	
+	/**
+	 * Instantiates a new matrix generator using the common fork-join pool 
+	 * and default sampling parameters.
+	 */
+	public MatrixGenerator() {
+		this(ForkJoinPool.commonPool(), DEFAULT_MINIMUM_SOLUTION, 
+				DEFAULT_BATCH_SIZE);
+	}
+	
+	/**
+	 * Instantiates a new matrix generator.
+	 *
+	 * @param pool the fork-join pool for rejection sampling
+	 * @param minimumSolution the minimum absolute solution value
+	 * @param batchSize the number of candidates evaluated per batch
+	 */
+	public MatrixGenerator(ForkJoinPool pool, double minimumSolution, 
+			int batchSize) {
+		if(pool == null) {
+			throw new IllegalArgumentException("Pool cannot be null.");
+		}
+		if(minimumSolution < 0) {
+			throw new IllegalArgumentException(
+					"Minimum solution cannot be negative.");
+		}
+		if(batchSize < 1) {
+			throw new IllegalArgumentException(
+					"Batch size must be positive.");
+		}
+		this.pool = pool;
+		this.minimumSolution = minimumSolution;
+		this.batchSize = batchSize;
+	}
+	
+	/**
+	 * Generates a block-diagonal coupling matrix and target vector.
+	 *
+	 * @param number the size (number of inputs/outputs) of each sub-task
+	 * @param coupled whether each sub-task is coupled
+	 * @param random the random number generator
+	 * @return the result
+	 */
+	public Result generate(int[] number, boolean[] coupled, 
+			SplittableRandom random) {
+		if(number.length != coupled.length) {
+			throw new IllegalArgumentException(
+					"Number and coupled must have the same length.");
+		}
+		int size = 0;
+		for(int n : number) {
+			if(n < 1) {
+				throw new IllegalArgumentException(
+						"Sub-task size must be positive.");
+			}
+			size += n;
+		}
+		
+		RealMatrix matrix = new Array2DRowRealMatrix(size, size);
+		RealVector target = new ArrayRealVector(size);
+		int offset = 0;
+		for(int i = 0; i < number.length; i++) {
+			RealMatrix taskMatrix = coupled[i] ? 
+					generateOrthonormalMatrix(number[i], random) : 
+						generateUncoupledMatrix(number[i], random);
+			RealVector taskVector = sampleTarget(taskMatrix, random.split());
+			
+			// place the sub-task on the block diagonal
+			matrix.setSubMatrix(taskMatrix.getData(), offset, offset);
+			target.setSubVector(offset, taskVector);
+			offset += number[i];
+		}
+		return new Result(matrix, target);
+	}
+	
+	/**
+	 * Generates a random orthonormal matrix from the QR decomposition of a 
+	 * uniformly-distributed random matrix.
+	 *
+	 * @param size the size
+	 * @param random the random number generator
+	 * @return the orthonormal matrix
+	 */
+	public static RealMatrix generateOrthonormalMatrix(int size, 
+			SplittableRandom random) {
+		double[][] data = new double[size][size];
+		for(int i = 0; i < size; i++) {
+			for(int j = 0; j < size; j++) {
+				data[i][j] = random.nextDouble();
+			}
+		}
+		return new QRDecomposition(
+				new Array2DRowRealMatrix(data, false)).getQ();
+	}
+	
+	/**
+	 * Generates a random unit vector from a uniformly-distributed random 
+	 * vector. As in MATLAB <code>orth</code>, the vector is negated so all 
+	 * values are negative.
+	 *
+	 * @param size the size
+	 * @param random the random number generator
+	 * @return the unit vector
+	 */
+	public static RealVector generateOrthonormalVector(int size, 
+			SplittableRandom random) {
+		double[] data = new double[size];
+		for(int i = 0; i < size; i++) {
+			data[i] = random.nextDouble();
+		}
+		RealVector vector = new ArrayRealVector(data, false);
+		return vector.mapDivideToSelf(-vector.getNorm());
+	}
+	
+	/**
+	 * Generates a diagonal matrix with random values of 1 or -1.
+	 *
+	 * @param size the size
+	 * @param random the random number generator
+	 * @return the diagonal matrix
+	 */
+	public static RealMatrix generateUncoupledMatrix(int size, 
+			SplittableRandom random) {
+		RealMatrix matrix = new Array2DRowRealMatrix(size, size);
+		for(int i = 0; i < size; i++) {
+			matrix.setEntry(i, i, random.nextBoolean() ? 1 : -1);
+		}
+		return matrix;
+	}
+	
+	/**
+	 * Checks if a candidate target vector is accepted, i.e. no solution 
+	 * value is within the minimum of the initial condition (zero).
+	 *
+	 * @param taskColumns the columns of the orthonormal sub-task matrix
+	 * @param values the candidate target vector values
+	 * @param minimumSolution the minimum absolute solution value
+	 * @return true, if is accepted
+	 */
+	private static boolean isAccepted(double[][] taskColumns, double[] values, 
+			double minimumSolution) {
+		// the inverse of an orthonormal matrix is its transpose, so each 
+		// solution value is the product of a column and the vector; 
+		// reject as soon as one value is within the minimum
+		for(int i = 0; i < taskColumns.length; i++) {
+			double solution = 0;
+			for(int j = 0; j < values.length; j++) {
+				solution += taskColumns[i][j] * values[j];
+			}
+			if(Math.abs(solution) <= minimumSolution) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Samples a target vector for a sub-task, evaluating batches of 
+	 * candidates in parallel until one is accepted.
+	 *
+	 * @param taskMatrix the orthonormal sub-task matrix
+	 * @param random the random number generator of the sub-task
+	 * @return the target vector
+	 */
+	private RealVector sampleTarget(RealMatrix taskMatrix, 
+			SplittableRandom random) {
+		double[][] taskColumns = taskMatrix.transpose().getData();
+		while(true) {
+			// split candidate streams in order for reproducibility
+			SplittableRandom[] randoms = new SplittableRandom[batchSize];
+			for(int i = 0; i < batchSize; i++) {
+				randoms[i] = random.split();
+			}
+			CandidateTask task = new CandidateTask(
+					taskColumns, randoms, 0, batchSize, minimumSolution);
+			// run in the current pool if already in a fork-join task 
+			// (e.g. when generating models in parallel)
+			RealVector vector = ForkJoinTask.inForkJoinPool() ? 
+					task.invoke() : pool.invoke(task);
+			if(vector != null) {
+				return vector;
+			}
+		}
+	}
+}
@@ -0,0 +1,123 @@
+/******************************************************************************
+ * Copyright 2020 Paul T. Grogan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package edu.mit.collab.generator;
+
+import java.util.SplittableRandom;
+
+/**
+ * Generates task names and input/output labels for system models. Names 
+ * are shuffled on construction and then issued in order, cycling when all 
+ * names have been used (a port of <code>NameGenerator.m</code>).
+ * 
+ * @author Paul T. Grogan
+ */
+public class NameGenerator {
+	private static final String[] defaultTaskNames = new String[]{
+		"Flat Sleep", "Economic Motion", "Unwritten Experience", 
+		"Noiseless Stone", "Impolite Heat", "Arrogant Flame", 
+		"Staking System", "Towering Test", "Alert Burst", "Thinkable Ink", 
+		"Better Behavior", "Hallowed Sign", "Befitting Plant", 
+		"Absorbed Copper", "Husky Verse", "Chief Government", 
+		"Chemical Rhythm", "Onerous Effect", "Wistful Act", "Wide Growth", 
+		"Muddled Reward", "Brainy Damage", "Murky Mass", "Silky Waste", 
+		"Incompetent Secretary", "Hard Development", "Crabby Example", 
+		"Illustrious Balance", "Statuesque Name", "Breezy Rain"};
+	private static final String[] defaultInputNames = new String[]{
+		"Size", "Capacity", "Mass", "Volume", "Power", "Speed", 
+		"Temperature", "Diameter", "Length", "Shielding", "Insulation", 
+		"Flux", "Resistance", "Stability", "Voltage", "Flexibility", 
+		"Stiffness", "Torque", "Acceleration"};
+	private static final String[] defaultOutputNames = new String[]{
+		"Alpha", "Beta", "Gamma", "Delta", "Epsilon", "Zeta", "Theta", 
+		"Iota", "Kappa", "Mu", "Omicron", "Pi", "Rho", "Sigma", "Tau", 
+		"Psi", "Omega"};
+	
+	private final String[] taskNames; // immutable
+	private final String[] inputNames; // immutable
+	private final String[] outputNames; // immutable
+	private int taskCounter, inputCounter, outputCounter; // mutable
+	
+	/**
+	 * Instantiates a new name generator with the default names shuffled 
+	 * by a random number generator.
+	 *
+	 * @param random the random number generator
+	 */
+	public NameGenerator(SplittableRandom random) {
+		taskNames = shuffle(defaultTaskNames, random);
+		inputNames = shuffle(defaultInputNames, random);
+		outputNames = shuffle(defaultOutputNames, random);
+	}
+	
+	/**
+	 * Gets the next input names.
+	 *
+	 * @param number the number of names
+	 * @return the input names
+	 */
+	public synchronized String[] getInputNames(int number) {
+		String[] names = new String[number];
+		for(int i = 0; i < number; i++) {
+			names[i] = inputNames[inputCounter];
+			inputCounter = (inputCounter + 1) % inputNames.length;
+		}
+		return names;
+	}
+	
+	/**
+	 * Gets the next output names.
+	 *
+	 * @param number the number of names
+	 * @return the output names
+	 */
+	public synchronized String[] getOutputNames(int number) {
+		String[] names = new String[number];
+		for(int i = 0; i < number; i++) {
+			names[i] = outputNames[outputCounter];
+			outputCounter = (outputCounter + 1) % outputNames.length;
+		}
+		return names;
+	}
+	
+	/**
+	 * Gets the next task name.
+	 *
+	 * @return the task name
+	 */
+	public synchronized String getTaskName() {
+		String name = taskNames[taskCounter];
+		taskCounter = (taskCounter + 1) % taskNames.length;
+		return name;
+	}
+	
+	/**
+	 * Gets a randomly-permuted copy of an array of names.
+	 *
+	 * @param names the names
+	 * @param random the random number generator
+	 * @return the shuffled names
+	 */
+	private static String[] shuffle(String[] names, SplittableRandom random) {
+		String[] shuffled = names.clone();
+		for(int i = shuffled.length - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			String name = shuffled[i];
+			shuffled[i] = shuffled[j];
+			shuffled[j] = name;
+		}
+		return shuffled;
+	}
+}
@@ -0,0 +1,202 @@
+/******************************************************************************
+ * Copyright 2020 Paul T. Grogan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package edu.mit.collab.generator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The task factories of the standard experiment design used in the 
+ * sample experiments (as defined in <code>experimentGenerator.m</code>). 
+ * Descriptions abbreviate the structure of each task: sub-task size, 
+ * social (S) and technical (T) structure, and whether each is uncoupled 
+ * (U), partially coupled (PC), or coupled (C).
+ * 
+ * @author Paul T. Grogan
+ */
+public abstract class StandardTasks {
+	public static final int NUMBER_DESIGNERS = 3;
+	
+	/**
+	 * Gets the experiment task factories. Labels are drawn from the name 
+	 * generator, which should previously have been used to get the 
+	 * training task factories to reproduce the standard design.
+	 *
+	 * @param names the name generator
+	 * @return the experiment task factories
+	 */
+	public static List<TaskFactory> getExperimentFactories(NameGenerator names) {
+		List<TaskFactory> factories = new ArrayList<TaskFactory>();
+		factories.add(new TaskFactory("Breezy Rain (Individual)", "3x3 SU TU", 
+				new int[]{3, 3, 3}, new boolean[]{false, false, false}, 
+				new int[][]{{0, 1, 2}, {3, 4, 5}, {6, 7, 8}}, 
+				new int[][]{{0, 1, 2}, {3, 4, 5}, {6, 7, 8}}, 
+				names.getInputNames(9), names.getOutputNames(9)));
+		factories.add(new TaskFactory("Chief Government (Individual)", "4x4 SU TU", 
+				new int[]{4, 4, 4}, new boolean[]{false, false, false}, 
+				new int[][]{{0, 1, 2, 3}, {4, 5, 6, 7}, {8, 9, 10, 11}}, 
+				new int[][]{{0, 1, 2, 3}, {4, 5, 6, 7}, {8, 9, 10, 11}}, 
+				names.getInputNames(12), names.getOutputNames(12)));
+		factories.add(new TaskFactory("Thinkable Ink (Individual)", "6x6 SU TU", 
+				new int[]{6, 6, 6}, new boolean[]{false, false, false}, 
+				new int[][]{{0, 1, 2, 3, 4, 5}, {6, 7, 8, 9, 10, 11}, {12, 13, 14, 15, 16, 17}}, 
+				new int[][]{{0, 1, 2, 3, 4, 5}, {6, 7, 8, 9, 10, 11}, {12, 13, 14, 15, 16, 17}}, 
+				names.getInputNames(18), names.getOutputNames(18)));
+		factories.add(new TaskFactory("Hallowed Sign (Individual)", "2x2 SU TC", 
+				new int[]{2, 2, 2}, new boolean[]{true, true, true}, 
+				new int[][]{{0, 1}, {2, 3}, {4, 5}}, 
+				new int[][]{{0, 1}, {2, 3}, {4, 5}}, 
+				names.getInputNames(6), names.getOutputNames(6)));
+		factories.add(new TaskFactory("Husky Verse (Individual)", "2x2 SU TC", 
+				new int[]{2, 2, 2}, new boolean[]{true, true, true}, 
+				new int[][]{{0, 1}, {2, 3}, {4, 5}}, 
+				new int[][]{{0, 1}, {2, 3}, {4, 5}}, 
+				names.getInputNames(6), names.getOutputNames(6)));
+		factories.add(new TaskFactory("Statuesque Name (Individual)", "3x3 SU TC", 
+				new int[]{3, 3, 3}, new boolean[]{true, true, true}, 
+				new int[][]{{0, 1, 2}, {3, 4, 5}, {6, 7, 8}}, 
+				new int[][]{{0, 1, 2}, {3, 4, 5}, {6, 7, 8}}, 
+				names.getInputNames(9), names.getOutputNames(9)));
+		factories.add(new TaskFactory("Flat Sleep (Individual)", "3x3 SU TC", 
+				new int[]{3, 3, 3}, new boolean[]{true, true, true}, 
+				new int[][]{{0, 1, 2}, {3, 4, 5}, {6, 7, 8}}, 
+				new int[][]{{0, 1, 2}, {3, 4, 5}, {6, 7, 8}}, 
+				names.getInputNames(9), names.getOutputNames(9)));
+		factories.add(new TaskFactory("Brainy Damage (Individual)", "4x4 SU TC", 
+				new int[]{4, 4, 4}, new boolean[]{true, true, true}, 
+				new int[][]{{0, 1, 2, 3}, {4, 5, 6, 7}, {8, 9, 10, 11}}, 
+				new int[][]{{0, 1, 2, 3}, {4, 5, 6, 7}, {8, 9, 10, 11}}, 
+				names.getInputNames(12), names.getOutputNames(12)));
+		factories.add(new TaskFactory("Silky Waste (Individual)", "4x4 SU TC", 
+				new int[]{4, 4, 4}, new boolean[]{true, true, true}, 
+				new int[][]{{0, 1, 2, 3}, {4, 5, 6, 7}, {8, 9, 10, 11}}, 
+				new int[][]{{0, 1, 2, 3}, {4, 5, 6, 7}, {8, 9, 10, 11}}, 
+				names.getInputNames(12), names.getOutputNames(12)));
+		factories.add(new TaskFactory("Murky Mass (Team)", "2x2 SPC TC (A)", 
+				new int[]{2}, new boolean[]{true}, 
+				new int[][]{{0}, {1}, {}}, 
+				new int[][]{{0}, {1}, {}}, 
+				names.getInputNames(2), names.getOutputNames(2)));
+		factories.add(new TaskFactory("Wistful Act (Team)", "2x2 SPC TC (B)", 
+				new int[]{2}, new boolean[]{true}, 
+				new int[][]{{}, {0}, {1}}, 
+				new int[][]{{}, {0}, {1}}, 
+				names.getInputNames(2), names.getOutputNames(2)));
+		factories.add(new TaskFactory("Unwritten Experience (Team)", "2x2 SPC TC (C)", 
+				new int[]{2}, new boolean[]{true}, 
+				new int[][]{{0}, {}, {1}}, 
+				new int[][]{{0}, {}, {1}}, 
+				names.getInputNames(2), names.getOutputNames(2)));
+		factories.add(new TaskFactory("Onerous Effect (Team)", "3x3 SPC TU (A)", 
+				new int[]{3}, new boolean[]{false}, 
+				new int[][]{{0}, {1}, {2}}, 
+				new int[][]{{1}, {0}, {2}}, 
+				names.getInputNames(3), names.getOutputNames(3)));
+		factories.add(new TaskFactory("Hard Development (Team)", "3x3 SPC TU (B)", 
+				new int[]{3}, new boolean[]{false}, 
+				new int[][]{{0}, {1}, {2}}, 
+				new int[][]{{0}, {2}, {1}}, 
+				names.getInputNames(3), names.getOutputNames(3)));
+		factories.add(new TaskFactory("Alert Burst (Team)", "3x3 SPC TU (C)", 
+				new int[]{3}, new boolean[]{false}, 
+				new int[][]{{0}, {1}, {2}}, 
+				new int[][]{{2}, {1}, {0}}, 
+				names.getInputNames(3), names.getOutputNames(3)));
+		factories.add(new TaskFactory("Befitting Plant (Team)", "3x3 SPC TC (A)", 
+				new int[]{3}, new boolean[]{true}, 
+				new int[][]{{0, 1}, {2}, {}}, 
+				new int[][]{{0, 1}, {2}, {}}, 
+				names.getInputNames(3), names.getOutputNames(3)));
+		factories.add(new TaskFactory("Arrogant Flame (Team)", "3x3 SPC TC (B)", 
+				new int[]{3}, new boolean[]{true}, 
+				new int[][]{{}, {0, 1}, {2}}, 
+				new int[][]{{}, {0, 1}, {2}}, 
+				names.getInputNames(3), names.getOutputNames(3)));
+		factories.add(new TaskFactory("Better Behavior (Team)", "3x3 SPC TC (C)", 
+				new int[]{3}, new boolean[]{true}, 
+				new int[][]{{0}, {}, {1, 2}}, 
+				new int[][]{{0}, {}, {1, 2}}, 
+				names.getInputNames(3), names.getOutputNames(3)));
+		factories.add(new TaskFactory("Absorbed Copper (Team)", "4x4 SPC TC", 
+				new int[]{4}, new boolean[]{true}, 
+				new int[][]{{0, 1}, {2, 3}, {}}, 
+				new int[][]{{0, 1}, {2, 3}, {}}, 
+				names.getInputNames(4), names.getOutputNames(4)));
+		factories.add(new TaskFactory("Towering Test (Team)", "3x3 SC TU (A)", 
+				new int[]{3}, new boolean[]{false}, 
+				new int[][]{{0}, {1}, {2}}, 
+				new int[][]{{2}, {0}, {1}}, 
+				names.getInputNames(3), names.getOutputNames(3)));
+		factories.add(new TaskFactory("Staking System (Team)", "3x3 SC TU (B)", 
+				new int[]{3}, new boolean[]{false}, 
+				new int[][]{{0}, {1}, {2}}, 
+				new int[][]{{1}, {2}, {0}}, 
+				names.getInputNames(3), names.getOutputNames(3)));
+		factories.add(new TaskFactory("Wide Growth (Team)", "6x6 SC TU", 
+				new int[]{6}, new boolean[]{false}, 
+				new int[][]{{0, 1}, {2, 3}, {4, 5}}, 
+				new int[][]{{2, 4}, {0, 5}, {1, 3}}, 
+				names.getInputNames(6), names.getOutputNames(6)));
+		factories.add(new TaskFactory("Economic Motion (Team)", "3x3 SC TC", 
+				new int[]{3}, new boolean[]{true}, 
+				new int[][]{{0}, {1}, {2}}, 
+				new int[][]{{0}, {1}, {2}}, 
+				names.getInputNames(3), names.getOutputNames(3)));
+		factories.add(new TaskFactory("Noiseless Stone (Team)", "4x4 SC TC", 
+				new int[]{4}, new boolean[]{true}, 
+				new int[][]{{0, 1}, {2}, {3}}, 
+				new int[][]{{0, 1}, {2}, {3}}, 
+				names.getInputNames(4), names.getOutputNames(4)));
+		return factories;
+	}
+	
+	/**
+	 * Gets the training task factories. Labels are drawn from the name 
+	 * generator.
+	 *
+	 * @param names the name generator
+	 * @return the training task factories
+	 */
+	public static List<TaskFactory> getTrainingFactories(NameGenerator names) {
+		List<TaskFactory> factories = new ArrayList<TaskFactory>();
+		factories.add(new TaskFactory("Training #1 (Individual)", "1x1 SU TU", 
+				new int[]{1, 1, 1}, new boolean[]{false, false, false}, 
+				new int[][]{{0}, {1}, {2}}, 
+				new int[][]{{0}, {1}, {2}}, 
+				names.getInputNames(3), names.getOutputNames(3)));
+		factories.add(new TaskFactory("Training #2 (Individual)", "2x2 SU TU", 
+				new int[]{2, 2, 2}, new boolean[]{false, false, false}, 
+				new int[][]{{0, 1}, {2, 3}, {4, 5}}, 
+				new int[][]{{0, 1}, {2, 3}, {4, 5}}, 
+				names.getInputNames(6), names.getOutputNames(6)));
+		factories.add(new TaskFactory("Training #3 (Individual)", "2x2 SU TC", 
+				new int[]{2, 2, 2}, new boolean[]{true, true, true}, 
+				new int[][]{{0, 1}, {2, 3}, {4, 5}}, 
+				new int[][]{{0, 1}, {2, 3}, {4, 5}}, 
+				names.getInputNames(6), names.getOutputNames(6)));
+		factories.add(new TaskFactory("Training #4 (Team)", "3x3 SC TU", 
+				new int[]{3}, new boolean[]{false}, 
+				new int[][]{{0}, {1}, {2}}, 
+				new int[][]{{2}, {0}, {1}}, 
+				names.getInputNames(3), names.getOutputNames(3)));
+		factories.add(new TaskFactory("Training #5 (Team)", "3x3 SC TC", 
+				new int[]{3}, new boolean[]{true}, 
+				new int[][]{{0}, {1}, {2}}, 
+				new int[][]{{0}, {1}, {2}}, 
+				names.getInputNames(3), names.getOutputNames(3)));
+		return factories;
+	}
+}
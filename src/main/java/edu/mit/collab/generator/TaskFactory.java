@@ -0,0 +1,152 @@
+/******************************************************************************
+ * Copyright 2020 Paul T. Grogan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package edu.mit.collab.generator;
+
+import java.util.SplittableRandom;
+
+import edu.mit.collab.core.SystemModel;
+
+/**
+ * A specification of a task from which system models are generated with 
+ * new coupling matrices and target vectors (a port of 
+ * <code>TaskFactory.m</code>). A task is composed of sub-tasks which form 
+ * the blocks of a block-diagonal coupling matrix.
+ * 
+ * @author Paul T. Grogan
+ */
+public class TaskFactory {
+	private final String name; // immutable
+	private final String description; // immutable
+	private final int[] number; // immutable
+	private final boolean[] coupled; // immutable
+	private final int[][] inputIndices; // immutable
+	private final int[][] outputIndices; // immutable
+	private final String[] inputLabels; // immutable
+	private final String[] outputLabels; // immutable
+	
+	/**
+	 * Instantiates a new task factory. Default labels (X1, X2, ... and 
+	 * Y1, Y2, ...) are used if labels are null or empty.
+	 *
+	 * @param name the name
+	 * @param description the description
+	 * @param number the size (number of inputs/outputs) of each sub-task
+	 * @param coupled whether each sub-task is coupled
+	 * @param inputIndices the input indices of each designer
+	 * @param outputIndices the output indices of each designer
+	 * @param inputLabels the input labels
+	 * @param outputLabels the output labels
+	 */
+	public TaskFactory(String name, String description, int[] number, 
+			boolean[] coupled, int[][] inputIndices, int[][] outputIndices, 
+			String[] inputLabels, String[] outputLabels) {
+		if(number.length != coupled.length) {
+			throw new IllegalArgumentException(
+					"Number and coupled must have the same length.");
+		}
+		if(inputIndices.length != outputIndices.length) {
+			throw new IllegalArgumentException(
+					"The number of designers must be consistent between " +
+					"input indices and output indices.");
+		}
+		int size = 0;
+		for(int n : number) {
+			size += n;
+		}
+		
+		this.name = name;
+		this.description = description;
+		this.number = number.clone();
+		this.coupled = coupled.clone();
+		this.inputIndices = copy(inputIndices);
+		this.outputIndices = copy(outputIndices);
+		this.inputLabels = getLabels(inputLabels, "X", size);
+		this.outputLabels = getLabels(outputLabels, "Y", size);
+	}
+	
+	/**
+	 * Copies an array of indices.
+	 *
+	 * @param indices the indices
+	 * @return the copy
+	 */
+	private static int[][] copy(int[][] indices) {
+		int[][] copy = new int[indices.length][];
+		for(int i = 0; i < indices.length; i++) {
+			copy[i] = indices[i].clone();
+		}
+		return copy;
+	}
+	
+	/**
+	 * Generates a new system model for this task.
+	 *
+	 * @param matrixGenerator the matrix generator
+	 * @param random the random number generator
+	 * @return the system model
+	 */
+	public SystemModel generate(MatrixGenerator matrixGenerator, 
+			SplittableRandom random) {
+		MatrixGenerator.Result result = matrixGenerator.generate(
+				number, coupled, random);
+		return new SystemModel(name, result.getMatrix(), result.getTarget(), 
+				copy(inputIndices), copy(outputIndices), 
+				inputLabels.clone(), outputLabels.clone());
+	}
+	
+	/**
+	 * Gets the description.
+	 *
+	 * @return the description
+	 */
+	public String getDescription() {
+		return description;
+	}
+	
+	/**
+	 * Gets labels, or default labels if none are specified.
+	 *
+	 * @param labels the labels
+	 * @param prefix the prefix for default labels
+	 * @param size the number of labels
+	 * @return the labels
+	 */
+	private static String[] getLabels(String[] labels, String prefix, 
+			int size) {
+		if(labels != null && labels.length > 0) {
+			return labels.clone();
+		}
+		String[] defaultLabels = new String[size];
+		for(int i = 0; i < size; i++) {
+			defaultLabels[i] = prefix + (i + 1);
+		}
+		return defaultLabels;
+	}
+	
+	/**
+	 * Gets the name.
+	 *
+	 * @return the name
+	 */
+	public String getName() {
+		return name;
+	}
+	
+	@Override
+	public String toString() {
+		return name + " (" + description + ")";
+	}
+}
@@ -0,0 +1,196 @@
+/******************************************************************************
+ * Copyright 2020 Paul T. Grogan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package edu.mit.collab.gui;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.swing.SwingUtilities;
+
+import edu.mit.collab.core.Designer;
+import edu.mit.collab.event.DesignerBatchListener;
+import edu.mit.collab.event.DesignerEvent;
+import edu.mit.collab.event.DesignerListener;
+
+/**
+ * A designer listener which batches events received on any thread and 
+ * delivers them to another listener on the Swing event dispatch thread. 
+ * All events which arrive before the event dispatch thread runs the batch 
+ * are delivered together by a single runnable, in order of arrival. 
+ * Repeated input modifications from the same designer are collapsed into 
+ * the newest event (designers always hold their latest input vector). 
+ * If the target listener is a <code>DesignerBatchListener</code>, it is 
+ * also notified once after each batch.
+ * 
+ * @author Paul T. Grogan
+ */
+public class DesignerEventBatcher implements DesignerListener {
+	private static enum DesignerAction {ADD, INPUT_UPDATE, 
+		STATE_UPDATE, REMOVE};
+	
+	/**
+	 * A pending event and the action which produced it.
+	 */
+	private static class PendingEvent {
+		private final DesignerAction action;
+		private DesignerEvent event;
+		
+		/**
+		 * Instantiates a new pending event.
+		 *
+		 * @param action the action
+		 * @param event the event
+		 */
+		private PendingEvent(DesignerAction action, DesignerEvent event) {
+			this.action = action;
+			this.event = event;
+		}
+	}
+	
+	private final DesignerListener listener; // immutable
+	private final Runnable deliverTask; // immutable
+	
+	// pending events and input updates by designer, guarded by this
+	private List<PendingEvent> pendingEvents = 
+			new ArrayList<PendingEvent>(); // mutable
+	private final Map<Designer, PendingEvent> pendingInputs = 
+			new HashMap<Designer, PendingEvent>(); // mutable
+	private long numberCollapsed; // mutable
+	
+	/**
+	 * Instantiates a new designer event batcher.
+	 *
+	 * @param listener the listener to receive batched events
+	 */
+	public DesignerEventBatcher(DesignerListener listener) {
+		if(listener == null) {
+			throw new IllegalArgumentException(
+					"Listener cannot be null.");
+		}
+		this.listener = listener;
+		deliverTask = new Runnable() {
+			@Override
+			public void run() {
+				deliver();
+			}
+		};
+	}
+	
+	/**
+	 * Delivers all pending events to the listener. Must be called from 
+	 * the Swing event dispatch thread.
+	 */
+	private void deliver() {
+		List<PendingEvent> batch;
+		synchronized(this) {
+			// swap lists so new events can be queued while delivering
+			batch = pendingEvents;
+			pendingEvents = new ArrayList<PendingEvent>();
+			pendingInputs.clear();
+		}
+		
+		List<DesignerEvent> events = new ArrayList<DesignerEvent>(
+				batch.size());
+		for(PendingEvent pending : batch) {
+			switch(pending.action) {
+			case ADD:
+				listener.designerAdded(pending.event);
+				break;
+			case INPUT_UPDATE:
+				listener.designerInputModified(pending.event);
+				break;
+			case STATE_UPDATE:
+				listener.designerStateModified(pending.event);
+				break;
+			case REMOVE:
+				listener.designerRemoved(pending.event);
+			}
+			events.add(pending.event);
+		}
+		
+		if(listener instanceof DesignerBatchListener) {
+			((DesignerBatchListener) listener).designersModified(
+					Collections.unmodifiableList(events));
+		}
+	}
+	
+	@Override
+	public void designerAdded(DesignerEvent e) {
+		enqueue(DesignerAction.ADD, e);
+	}
+	
+	@Override
+	public void designerInputModified(DesignerEvent e) {
+		enqueue(DesignerAction.INPUT_UPDATE, e);
+	}
+	
+	@Override
+	public void designerRemoved(DesignerEvent e) {
+		enqueue(DesignerAction.REMOVE, e);
+	}
+	
+	@Override
+	public void designerStateModified(DesignerEvent e) {
+		enqueue(DesignerAction.STATE_UPDATE, e);
+	}
+	
+	/**
+	 * Queues an event and schedules delivery if this is the first event 
+	 * of a new batch.
+	 *
+	 * @param action the action
+	 * @param event the event
+	 */
+	private synchronized void enqueue(DesignerAction action, 
+			DesignerEvent event) {
+		Designer designer = event.getDesigner();
+		if(action == DesignerAction.INPUT_UPDATE) {
+			PendingEvent pending = pendingInputs.get(designer);
+			if(pending != null) {
+				// collapse into the pending input update for this designer
+				pending.event = event;
+				numberCollapsed++;
+				return;
+			}
+		}
+		
+		PendingEvent pending = new PendingEvent(action, event);
+		if(action == DesignerAction.INPUT_UPDATE) {
+			pendingInputs.put(designer, pending);
+		} else {
+			// later input updates must be delivered after this event
+			pendingInputs.remove(designer);
+		}
+		pendingEvents.add(pending);
+		
+		if(pendingEvents.size() == 1) {
+			// first event in this batch; schedule delivery
+			SwingUtilities.invokeLater(deliverTask);
+		}
+	}
+	
+	/**
+	 * Gets the number of input updates collapsed into newer updates.
+	 *
+	 * @return the number collapsed
+	 */
+	public synchronized long getNumberCollapsed() {
+		return numberCollapsed;
+	}
+}
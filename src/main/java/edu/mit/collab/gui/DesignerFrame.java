@@ -55,6 +55,8 @@ import edu.mit.collab.event.InputListener;
 import edu.mit.collab.event.ManagerEvent;
 import edu.mit.collab.event.ManagerListener;
 import edu.mit.collab.hla.DesignerAmbassador;
+import edu.mit.collab.transport.CoalescingDesignerTransport;
+import edu.mit.collab.transport.DesignerTransport;
 import edu.mit.collab.util.Utilities;
 import hla.rti1516e.exceptions.RTIinternalError;
 
@@ -75,17 +77,41 @@ public class DesignerFrame extends JFrame
 	// not require each designer to press "update" button to receive updates
 	private static final boolean constantFeedbackMode = true;
 	
+	// configuration option for the maximum rate (frames per second) at 
+	// which output panels are re-drawn in response to manager updates
+	private static final int framesPerSecond = 30;
+	
+	// configuration option for when input updates (e.g. from key-repeat on
+	// the input sliders) are sent; superseded updates are dropped
+	private static final CoalescingDesignerTransport.CoalescingPolicy 
+			inputCoalescingPolicy = 
+			CoalescingDesignerTransport.CoalescingPolicy.ACKNOWLEDGEMENT;
+	
 	private final int designerIndex; // immutable
-	private final DesignerAmbassador designerAmbassador; // immutable
+	private final DesignerTransport designerTransport; // immutable
 	
 	private final JLabel activeModelLabel; // mutable
 	private final JPanel modelPanel; // mutable
 	private InputPanel[] inputPanels; // mutable
 	private OutputPanel[] outputPanels; // mutable
+	private double[] outputValues; // mutable, re-used per update
 
 	private Mode mode; // mutable
 	private Manager manager; // mutable
 	
+	// scheduler and task to coalesce re-drawing output panels; the output
+	// values are updated immediately for each event
+	private final RepaintScheduler repaintScheduler = 
+			new RepaintScheduler(framesPerSecond); // immutable
+	private final Runnable outputPanelsTask = new Runnable() {
+		@Override
+		public void run() {
+			for(int i = 0; i < outputPanels.length; i++) {
+				outputPanels[i].setValue(outputValues[i]);
+			}
+		}
+	};
+	
 	// action to submit a design
 	private final Action submitAction = new AbstractAction("Submit", 
 			new ImageIcon(getClass().getClassLoader()
@@ -218,12 +244,23 @@ public class DesignerFrame extends JFrame
 	};
 	
 	/**
-	 * Instantiates a new designer frame.
+	 * Instantiates a new designer frame connected to the RTI.
 	 *
 	 * @param designerIndex the designer index
 	 * @throws RTIinternalError the RTI internal error
 	 */
 	public DesignerFrame(int designerIndex) throws RTIinternalError {
+		this(designerIndex, new DesignerAmbassador(designerIndex));
+	}
+	
+	/**
+	 * Instantiates a new designer frame using a designer transport.
+	 *
+	 * @param designerIndex the designer index
+	 * @param designerTransport the designer transport
+	 */
+	public DesignerFrame(int designerIndex, 
+			DesignerTransport designerTransport) {
 		// set title and icon image
 		super("Designer " + (designerIndex+1));
 		setIconImage(Utilities.getUserIcon(designerIndex).getImage());
@@ -232,27 +269,31 @@ public class DesignerFrame extends JFrame
 		// with number of inputs and outputs)
 		setMinimumSize(new Dimension(200,300));
 
-		// initialize federate ambassador and add the frame as a listener
+		// store the transport (coalescing input updates) and add the 
+		// frame as a listener
 		this.designerIndex = designerIndex;
-		designerAmbassador = new DesignerAmbassador(designerIndex);
-		designerAmbassador.addManagerListener(this);
+		this.designerTransport = new CoalescingDesignerTransport(
+				designerTransport, inputCoalescingPolicy, 
+				CoalescingDesignerTransport.DEFAULT_MINIMUM_INTERVAL, 
+				CoalescingDesignerTransport.DEFAULT_ACKNOWLEDGEMENT_TIMEOUT);
+		this.designerTransport.addManagerListener(this);
 
-		// try to start the federate ambassador
+		// try to start the transport
 		try {
-			designerAmbassador.startUp();
+			this.designerTransport.startUp();
 			// immediately update index attribute (only time this is done)
-			designerAmbassador.updateIndexAttribute(designerIndex);
+			this.designerTransport.updateIndexAttribute(designerIndex);
 			
-			if(designerAmbassador.getInstanceName().indexOf(
+			if(this.designerTransport.getInstanceName().indexOf(
 					"HLAobjectRoot") >= 0) {
 				// format frame title for pRTI instance names, i.e. only use
 				// DesignerXYZ from HLAobjectRoot.DesignerXYZ
-				setTitle(designerAmbassador.getInstanceName().substring(
-						designerAmbassador.getInstanceName().indexOf('.') + 1, 
-						designerAmbassador.getInstanceName().length()));
+				setTitle(this.designerTransport.getInstanceName().substring(
+						this.designerTransport.getInstanceName().indexOf('.') + 1, 
+						this.designerTransport.getInstanceName().length()));
 			} else {
 				// format title for other RTI implementations
-				setTitle(designerAmbassador.getInstanceName());
+				setTitle(this.designerTransport.getInstanceName());
 			}
 		} catch (Exception e) {
 			e.printStackTrace();
@@ -365,9 +406,9 @@ public class DesignerFrame extends JFrame
 		// dispose of the frame
 		dispose();
 		
-		// try to shut down the federate ambassador
+		// try to shut down the transport
 		try {
-			designerAmbassador.shutDown();
+			designerTransport.shutDown();
 		} catch (Exception e) {
 			e.printStackTrace();
 			System.exit(1);
@@ -381,8 +422,10 @@ public class DesignerFrame extends JFrame
 	 * Initializes the window for a new model.
 	 */
 	private void initialize() {
-		// remove all existing components from the model panel
+		// remove all existing components from the model panel and cancel
+		// any pending re-draws for the previous model
 		modelPanel.removeAll();
+		repaintScheduler.cancel();
 		
 		// set the active model text to an appropriate string
 		activeModelLabel.setText((manager == null ? "" 
@@ -395,12 +438,14 @@ public class DesignerFrame extends JFrame
 			// selected, or is ready to start experiment, display mostly
 			// blank panel and set ready mode
 			outputPanels = new OutputPanel[0];
+			outputValues = new double[0];
 			inputPanels = new InputPanel[0];
 			mode = Mode.Ready;
 		} else if(manager.getActiveModel().equals("Complete!")) {
 			// if manager has completed experiment, display mostly blank
 			// panel and set complete mode
 			outputPanels = new OutputPanel[0];
+			outputValues = new double[0];
 			inputPanels = new InputPanel[0];
 			mode = Mode.Complete;
 		} else {
@@ -426,14 +471,16 @@ public class DesignerFrame extends JFrame
 			
 			// create and lay out the output panels horizontally at the top
 			// of the panel
-			outputPanels = new OutputPanel[Math.min(manager.getTargetOutput(
-					designerIndex).getDimension(), manager.getOutput(
-							designerIndex).getDimension())];
+			RealVector targetOutput = manager.getTargetOutput(designerIndex);
+			RealVector output = manager.getOutput(designerIndex);
+			String[] outputLabels = manager.getOutputLabels(designerIndex);
+			outputPanels = new OutputPanel[Math.min(
+					targetOutput.getDimension(), output.getDimension())];
+			outputValues = new double[outputPanels.length];
 			for(int i = 0; i < outputPanels.length; i++) {
 				outputPanels[i] = OutputPanelFactory.createBasicOutputPanel(designerIndex, i, 
-						manager.getTargetOutput(designerIndex).getEntry(i), 
-						manager.getOutput(designerIndex).getEntry(i), 
-						manager.getOutputLabels(designerIndex)[i]);
+						targetOutput.getEntry(i), output.getEntry(i), 
+						outputLabels[i]);
 				outputPanel.add(outputPanels[i]);
 			}
 
@@ -446,13 +493,13 @@ public class DesignerFrame extends JFrame
 			
 			// create and lay out the input panels vertically below the
 			// output panels
-			inputPanels = new InputPanel[manager.getInitialInput(
-					designerIndex).getDimension()];
+			RealVector initialInput = manager.getInitialInput(designerIndex);
+			String[] inputLabels = manager.getInputLabels(designerIndex);
+			inputPanels = new InputPanel[initialInput.getDimension()];
 			for(int i = 0; i < inputPanels.length; i++) {
 				inputPanels[i] = InputPanelFactory.createBasicInputPanelWithoutSolution(
-						designerIndex, i, 
-						manager.getInitialInput(designerIndex).getEntry(i), 
-						manager.getInputLabels(designerIndex)[i]);
+						designerIndex, i, initialInput.getEntry(i), 
+						inputLabels[i]);
 				inputPanels[i].addInputListener(this);
 				// add a key listener to listen for numeric key presses
 				for(int k = 0; k < focusActions.length; k++) {
@@ -519,9 +566,9 @@ public class DesignerFrame extends JFrame
 				inputVector.setEntry(i, inputPanels[i].getValue());
 			}
 			
-			// try to update the input attributes using the federate ambassador
+			// try to update the input attributes using the transport
 			try {
-				designerAmbassador.updateInputAttribute(inputVector);
+				designerTransport.updateInputAttribute(inputVector);
 			} catch(Exception ex) {
 				ex.printStackTrace();
 				showErrorDialog(ex.getMessage());
@@ -589,7 +636,7 @@ public class DesignerFrame extends JFrame
 	}
 	
 	/**
-	 * Sends a state update using the federate ambassador.
+	 * Sends a state update using the transport.
 	 *
 	 * @param ready if the designer is ready (i.e. the design is submitted)
 	 */
@@ -604,9 +651,9 @@ public class DesignerFrame extends JFrame
 		submitAction.setEnabled(!ready);
 		cancelAction.setEnabled(ready);
 		
-		// try to update the attribute using the federate ambassador
+		// try to update the attribute using the transport
 		try {
-			designerAmbassador.updateStateAttribute(ready);
+			designerTransport.updateStateAttribute(ready);
 		} catch(Exception ex) {
 			ex.printStackTrace();
 			showErrorDialog(ex.getMessage());
@@ -672,9 +719,11 @@ public class DesignerFrame extends JFrame
 	 * Updates the output panels.
 	 */
 	private void updateOutputs() {
-		// update each output panel value base don manager outputs
-		for(int i = 0; i < manager.getOutput(designerIndex).getDimension(); i++) {
-			outputPanels[i].setValue(manager.getOutput(designerIndex).getEntry(i));
+		// copy manager outputs into a re-used buffer (without locking the 
+		// manager) and schedule the output panels to be re-drawn
+		if(manager.copyOutput(designerIndex, outputValues) 
+				== outputValues.length) {
+			repaintScheduler.markDirty(outputPanelsTask);
 		}
 		// revert from waiting state (if necessary)
 		sendStateUpdate(false);
@@ -684,6 +733,9 @@ public class DesignerFrame extends JFrame
 			mode = Mode.Solved;
 			activeModelLabel.setText("Solved!");
 			
+			// re-draw the final outputs immediately
+			repaintScheduler.flush();
+			
 			// fix layout problems with new text
 			if(!isUndecorated()) {
 				// don't pack if in fullscreen mode
@@ -30,12 +30,14 @@ import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 import java.awt.geom.Ellipse2D;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.text.SimpleDateFormat;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.Date;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
 import javax.sound.sampled.AudioInputStream;
 import javax.sound.sampled.AudioSystem;
@@ -65,6 +67,7 @@ import javax.swing.filechooser.FileNameExtensionFilter;
 
 import org.apache.commons.math3.linear.ArrayRealVector;
 import org.apache.commons.math3.linear.RealVector;
+import org.apache.log4j.Logger;
 import org.jfree.chart.ChartFactory;
 import org.jfree.chart.ChartPanel;
 import org.jfree.chart.JFreeChart;
@@ -72,15 +75,17 @@ import org.jfree.chart.plot.PlotOrientation;
 import org.jfree.chart.plot.XYPlot;
 import org.jfree.chart.renderer.xy.StandardXYItemRenderer;
 import org.jfree.chart.renderer.xy.XYItemRenderer;
-import org.jfree.data.xy.XYSeries;
-import org.jfree.data.xy.XYSeriesCollection;
 
 import edu.mit.collab.core.Designer;
+import edu.mit.collab.core.DesignerRegistry;
 import edu.mit.collab.core.Experiment;
 import edu.mit.collab.core.SystemModel;
+import edu.mit.collab.event.DesignerBatchListener;
 import edu.mit.collab.event.DesignerEvent;
-import edu.mit.collab.event.DesignerListener;
 import edu.mit.collab.hla.ManagerAmbassador;
+import edu.mit.collab.transport.ManagerTransport;
+import edu.mit.collab.util.BinaryExperimentFormat;
+import edu.mit.collab.util.LogWriter;
 import edu.mit.collab.util.Utilities;
 import hla.rti1516e.exceptions.RTIinternalError;
 
@@ -95,33 +100,142 @@ import hla.rti1516e.exceptions.RTIinternalError;
  * 
  * @author Paul T. Grogan
  */
-public class ManagerFrame extends JFrame implements DesignerListener {
+public class ManagerFrame extends JFrame implements DesignerBatchListener {
 	private static enum Mode {Ready, Initialized, Running, Solved, Complete}
 	private static final long serialVersionUID = -4866808562296766482L;
+	private static Logger logger = Logger.getLogger(ManagerFrame.class);
+	
+	/**
+	 * The initial values, panels, and chart series to display a model, 
+	 * which can be prepared before the model becomes active. Values are 
+	 * evaluated on construction (in any thread); components are created 
+	 * by {@link ManagerFrame#layoutModel(PreparedModel)} in the swing 
+	 * event thread.
+	 */
+	private static final class PreparedModel {
+		private final SystemModel model; // immutable
+		private final SystemModel.Evaluator evaluator; // immutable
+		private final double[] inputValues, outputValues; // immutable
+		private InputPanel[] inputPanels; // mutable
+		private OutputPanel[] outputPanels; // mutable
+		private JScrollPane inputPanel, outputPanel; // mutable
+		private RingBufferXYDataset inputDataset; // mutable
+		private XYItemRenderer inputRenderer; // mutable
+		private int[] inputSeries, solutionSeries; // mutable
+		
+		/**
+		 * Instantiates a new prepared model, solving the model and 
+		 * evaluating its initial outputs.
+		 *
+		 * @param model the model
+		 */
+		private PreparedModel(SystemModel model) {
+			this.model = model;
+			
+			// solve for the (cached) solution vector
+			model.getSolutionVector();
+			
+			// allocate value buffers and evaluate the initial outputs with 
+			// a new evaluator (so no state is shared with a prior run)
+			inputValues = model.getInitialVector().toArray();
+			outputValues = new double[model.getNumberOutputs()];
+			evaluator = model.newEvaluator();
+			evaluator.evaluate(null, inputValues, outputValues);
+		}
+	}
+	
+	// format strings for input and output/target values in log entries
+	public static final String INPUT_LOG_FORMAT = "%.2f";
+	public static final String OUTPUT_LOG_FORMAT = "%.5f";
 	
 	// configuration option to allow constant feedback from designers, i.e.
 	// not require each designer to press "update" button to receive updates
 	private static final boolean constantFeedback = true;
+	
+	// configuration option for when session log entries are flushed to 
+	// disk by the background log writer
+	private static final LogWriter.FlushPolicy logFlushPolicy = 
+			LogWriter.FlushPolicy.TIME;
+	
+	// configuration option for the maximum rate (frames per second) at 
+	// which panels and charts are re-drawn in response to designer events
+	private static final int framesPerSecond = 30;
 
 	private final File logFile; // immutable
-	private final ManagerAmbassador managerAmbassador; // immutable
+	private final LogWriter logWriter; // immutable
+	private final ManagerTransport managerTransport; // immutable
 	
 	private Experiment experiment; // mutable
-	private final Set<Designer> designers = new HashSet<Designer>(); // mutable
+	private final DesignerRegistry<String> designers = 
+			new DesignerRegistry<String>(); // mutable
 	private final JPanel modelPanel; // mutable
 	private final JLabel activeModelLabel; // mutable
 	private InputPanel[] inputPanels; // mutable
 	private OutputPanel[] outputPanels; // mutable
-	private final XYSeriesCollection errorDataset; // mutable
-	private final XYSeries errorSeries; // mutable
-	private final XYSeriesCollection inputDataset; // mutable
-	private XYSeries[] inputSeries, solutionSeries; // mutable
+	private double[] inputValues, outputValues; // mutable, re-used per update
+	private SystemModel.Evaluator evaluator; // mutable
+	private final RingBufferXYDataset errorDataset; // mutable
+	private final int errorSeries; // immutable
+	private RingBufferXYDataset inputDataset; // mutable
+	private int[] inputSeries, solutionSeries; // mutable
 	private final JFreeChart errorChart, inputChart; // mutable
+	private final ChartPanel errorChartPanel, inputChartPanel; // immutable
 	private final JTextField logCommentText; // mutable
 	
 	private Mode mode; // mutable
 	private long startTime; // mutable
 	
+	// batcher to deliver designer events in the swing event thread and 
+	// inputs changed by the current batch whose outputs are pending
+	private final DesignerEventBatcher designerEventBatcher; // immutable
+	private final BitSet changedInputs = new BitSet(); // mutable
+	private boolean outputsPending, fullUpdatePending; // mutable
+	
+	// executor to prepare the next model of the experiment in the 
+	// background and the prepared model (accessed in swing event thread)
+	private final ExecutorService prefetchExecutor = 
+			Executors.newSingleThreadExecutor(new ThreadFactory() {
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread thread = new Thread(r, "Manager Prefetch");
+			thread.setDaemon(true);
+			return thread;
+		}
+	}); // immutable
+	private PreparedModel preparedModel; // mutable
+	
+	// scheduler and tasks to coalesce re-drawing panels and charts; the
+	// input and output values are updated immediately for each event
+	private final RepaintScheduler repaintScheduler = 
+			new RepaintScheduler(framesPerSecond); // immutable
+	private final Runnable inputPanelsTask = new Runnable() {
+		@Override
+		public void run() {
+			for(int i = 0; i < inputPanels.length; i++) {
+				inputPanels[i].setValue(inputValues[i]);
+			}
+		}
+	};
+	private final Runnable outputPanelsTask = new Runnable() {
+		@Override
+		public void run() {
+			for(int i = 0; i < outputPanels.length; i++) {
+				outputPanels[i].setValue(outputValues[i]);
+			}
+		}
+	};
+	private final Runnable chartsTask = new Runnable() {
+		@Override
+		public void run() {
+			// datasets do not notify charts of individual changes; 
+			// enabling notification issues a single change event
+			errorDataset.setNotify(true);
+			errorDataset.setNotify(false);
+			inputDataset.setNotify(true);
+			inputDataset.setNotify(false);
+		}
+	};
+	
 	// action to log comments
 	private final Action logCommentAction = new AbstractAction("Log", 
 			new ImageIcon(getClass().getClassLoader()
@@ -221,11 +335,20 @@ public class ManagerFrame extends JFrame implements DesignerListener {
 	};
 	
 	/**
-	 * Instantiates a new manager frame.
+	 * Instantiates a new manager frame connected to the RTI.
 	 *
 	 * @throws RTIinternalError the RTI internal error
 	 */
 	public ManagerFrame() throws RTIinternalError {
+		this(new ManagerAmbassador());
+	}
+	
+	/**
+	 * Instantiates a new manager frame using a manager transport.
+	 *
+	 * @param managerTransport the manager transport
+	 */
+	public ManagerFrame(ManagerTransport managerTransport) {
 		// set title and icon image
 		super("Manager");
 		setIconImage(new ImageIcon(getClass().getClassLoader()
@@ -235,23 +358,25 @@ public class ManagerFrame extends JFrame implements DesignerListener {
 		// with number of inputs and outputs)
 		setMinimumSize(new Dimension(800,600));
 		
-		// initialize federate ambassador and add the frame as a listener
-		managerAmbassador = new ManagerAmbassador();
-		managerAmbassador.addDesignerListener(this);
+		// store the transport and add the frame as a listener (through a 
+		// batcher so events are delivered together in swing event thread)
+		this.managerTransport = managerTransport;
+		designerEventBatcher = new DesignerEventBatcher(this);
+		managerTransport.addDesignerListener(designerEventBatcher);
 
-		// try to start the federate ambassador
+		// try to start the transport
 		try {
-			managerAmbassador.startUp();
-			if(managerAmbassador.getInstanceName().indexOf(
+			managerTransport.startUp();
+			if(managerTransport.getInstanceName().indexOf(
 					"HLAobjectRoot") >= 0) {
 				// format frame title for pRTI instance names, i.e. only use
 				// ManagerXYZ from HLAobjectRoot.ManagerXYZ
-				setTitle(managerAmbassador.getInstanceName().substring(
-						managerAmbassador.getInstanceName().indexOf('.') + 1, 
-						managerAmbassador.getInstanceName().length()));
+				setTitle(managerTransport.getInstanceName().substring(
+						managerTransport.getInstanceName().indexOf('.') + 1, 
+						managerTransport.getInstanceName().length()));
 			} else {
 				// format title for other RTI implementations
-				setTitle(managerAmbassador.getInstanceName());
+				setTitle(managerTransport.getInstanceName());
 			}
 		} catch (Exception e) {
 			e.printStackTrace();
@@ -270,9 +395,9 @@ public class ManagerFrame extends JFrame implements DesignerListener {
 		setJMenuBar(createMenuBar());
 
 		// create error plotting datasets and charts
-		errorDataset = new XYSeriesCollection();
-		errorSeries = new XYSeries(new Integer(0), false, false);
-		errorDataset.addSeries(errorSeries);
+		// (bounded ring buffers decimated for display)
+		errorDataset = new RingBufferXYDataset();
+		errorSeries = errorDataset.addSeries(new Integer(0));
 		errorChart = ChartFactory.createXYLineChart("Output Error", 
 				null, 
 				null, 
@@ -294,7 +419,10 @@ public class ManagerFrame extends JFrame implements DesignerListener {
 		}
 		
 		// create input plotting datasets and charts
-		inputDataset = new XYSeriesCollection();
+		inputDataset = new RingBufferXYDataset();
+		// chart datasets are re-drawn by the repaint scheduler
+		errorDataset.setNotify(false);
+		inputDataset.setNotify(false);
 		inputChart = ChartFactory.createXYLineChart("Input Values", 
 				null, 
 				null, 
@@ -313,6 +441,16 @@ public class ManagerFrame extends JFrame implements DesignerListener {
 					StandardXYItemRenderer.SHAPES_AND_LINES);
 			xyPlot.setRenderer(renderer);
 		}
+		
+		// create chart panels, re-used for each model
+		errorChartPanel = new ChartPanel(errorChart);
+		errorChartPanel.setOpaque(false);
+		// set preferred size to prevent large plots from being displayed
+		errorChartPanel.setPreferredSize(new Dimension(300,200));
+		inputChartPanel = new ChartPanel(inputChart);
+		inputChartPanel.setOpaque(false);
+		// set preferred size to prevent large plots from being displayed
+		inputChartPanel.setPreferredSize(new Dimension(300,200));
 
 		// create comment logging components
 		logCommentText = new JTextField(15);
@@ -331,6 +469,17 @@ public class ManagerFrame extends JFrame implements DesignerListener {
 			}
 		}
 		
+		// create log writer to write entries on a background thread
+		LogWriter writer = null;
+		try {
+			writer = new LogWriter(logFile, logFlushPolicy, 
+					LogWriter.DEFAULT_CAPACITY, LogWriter.DEFAULT_FLUSH_INTERVAL, 
+					LogWriter.DEFAULT_FLUSH_SIZE);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		logWriter = writer;
+		
 		// create manager panel
 		JPanel managerPanel = new JPanel();
 		managerPanel.setFocusable(true);
@@ -366,6 +515,15 @@ public class ManagerFrame extends JFrame implements DesignerListener {
 		setExperiment(null);
 	}
 	
+	/**
+	 * Clears inputs pending re-evaluation by the current batch.
+	 */
+	private void clearPendingOutputs() {
+		changedInputs.clear();
+		outputsPending = false;
+		fullUpdatePending = false;
+	}
+	
 	/**
 	 * Closes an experiment.
 	 */
@@ -437,108 +595,130 @@ public class ManagerFrame extends JFrame implements DesignerListener {
 	}	
 	
 	@Override
-	public void designerAdded(final DesignerEvent e) {
-		// act on event in swing event thread
-		SwingUtilities.invokeLater(new Runnable() {
-			@Override
-			public void run() {
-				// check for duplicate index values
-				for(Designer d : designers) {
-					if(d.getIndex() == e.getDesigner().getIndex()) {
-						// duplicate designer
-						showErrorDialog(e.getDesigner().getInstanceName() +
-								" has a duplicate index (" + 
-								e.getDesigner().getIndex() +
-								") and did not join.");
-						return;
-					}
-				}
-				// index is not a duplicate, add designer
-				showInformationDialog(e.getDesigner().getInstanceName() + 
-						" joined with index " + e.getDesigner().getIndex() + 
-						".");
-				// add the designer to the local set
-				designers.add(e.getDesigner());
-			}
-		});
+	public void designerAdded(DesignerEvent e) {
+		// called in swing event thread by the designer event batcher
+		if(!designers.isValidIndex(e.getDesigner().getIndex())) {
+			// index is outside the range of index slots; reject the 
+			// designer without interrupting the manager
+			logger.warn(e.getDesigner().getInstanceName() + 
+					" has an invalid index (" + 
+					e.getDesigner().getIndex() + 
+					") and did not join.");
+			return;
+		}
+		// try to add the designer to the local registry, which claims
+		// its index slot unless the index is a duplicate
+		boolean added = designers.add(e.getDesigner().getInstanceName(), 
+				e.getDesigner());
+		if(!added) {
+			// duplicate designer
+			showErrorDialog(e.getDesigner().getInstanceName() +
+					" has a duplicate index (" + 
+					e.getDesigner().getIndex() +
+					") and did not join.");
+			return;
+		}
+		// index is not a duplicate
+		showInformationDialog(e.getDesigner().getInstanceName() + 
+				" joined with index " + e.getDesigner().getIndex() + 
+				".");
 	}
 
 	@Override
-	public void designerInputModified(final DesignerEvent e) {
-		// act on event in swing event thread
-		SwingUtilities.invokeLater(new Runnable() {
-			@Override
-			public void run() {
-				// respond to input changes if model is initialized or running 
-				// and designer is in local set
-				if((mode == Mode.Initialized || mode == Mode.Running) 
-						&& designers.contains(e.getDesigner())) {
-					// determine which inputs designer has control of
-					int[] inputs = experiment.getActiveModel()
-							.getInputIndices()[e.getDesigner().getIndex()];
-					// update value of each corresponding input panel
-					for(int i = 0; i < inputs.length; i++) {
-						inputPanels[inputs[i]].setValue(
-								e.getDesigner().getInputVector().getEntry(i));
-					}
-					// if providing constant feedback, check whether to update 
-					// outputs after every input modification
-					if(constantFeedback) {
-						updateOutputs();
-					}
+	public void designerInputModified(DesignerEvent e) {
+		// called in swing event thread by the designer event batcher
+		// respond to input changes if model is initialized or running 
+		// and designer is in local registry
+		if((mode == Mode.Initialized || mode == Mode.Running) 
+				&& designers.get(e.getDesigner().getInstanceName()) != null) {
+			// determine which inputs designer has control of
+			int[] inputs = experiment.getActiveModel()
+					.getInputIndices()[e.getDesigner().getIndex()];
+			// update each corresponding input value and schedule
+			// the input panels to be re-drawn
+			RealVector inputVector = e.getDesigner().getInputVector();
+			for(int i = 0; i < inputs.length; i++) {
+				inputValues[inputs[i]] = inputVector.getEntry(i);
+			}
+			repaintScheduler.markDirty(inputPanelsTask);
+			// if providing constant feedback, mark the designer's inputs 
+			// to be re-evaluated once the batch has been delivered
+			if(constantFeedback) {
+				for(int i = 0; i < inputs.length; i++) {
+					changedInputs.set(inputs[i]);
 				}
+				outputsPending = true;
 			}
-		});
+		}
 	}
 
 	@Override
-	public void designerRemoved(final DesignerEvent e) {
-		// act on event in swing event thread
-		SwingUtilities.invokeLater(new Runnable() {
-			@Override
-			public void run() {
-				// remove the designer from the local set
-				designers.remove(e.getDesigner());
-			}
-		});
+	public void designerRemoved(DesignerEvent e) {
+		// called in swing event thread by the designer event batcher
+		// remove the designer from the local registry
+		designers.remove(e.getDesigner().getInstanceName());
 	}
 	
 	@Override
-	public void designerStateModified(final DesignerEvent e) {
-		SwingUtilities.invokeLater(new Runnable() {
-			@Override
-			public void run() {
-				// respond to state changes if model is initialized or running
-				// and designer is in local set
-				if((mode == Mode.Initialized || mode == Mode.Running) 
-						&& designers.contains(e.getDesigner())) {
-					// determine which inputs designer has control of
-					int[] inputs = experiment.getActiveModel()
-							.getInputIndices()[e.getDesigner().getIndex()];
-					// update corresponding input panels
-					for(int i = 0; i < inputs.length; i++) {
-						inputPanels[inputs[i]].setReady(e.getDesigner().isReady());
-					}
-					// if NOT constant feedback, check whether to update 
-					// outputs after every state modification
-					if(!constantFeedback) {
-						updateOutputs();
-					}
+	public void designersModified(Collection<DesignerEvent> events) {
+		// called in swing event thread once per batch of designer events;
+		// update outputs once for all inputs changed in the batch
+		if(outputsPending) {
+			if(fullUpdatePending) {
+				updateOutputs(null);
+			} else {
+				int[] inputs = new int[changedInputs.cardinality()];
+				for(int i = changedInputs.nextSetBit(0), j = 0; i >= 0; 
+						i = changedInputs.nextSetBit(i + 1), j++) {
+					inputs[j] = i;
 				}
+				updateOutputs(inputs);
 			}
-		});
+		}
+		clearPendingOutputs();
+	}
+	
+	@Override
+	public void designerStateModified(DesignerEvent e) {
+		// called in swing event thread by the designer event batcher
+		// respond to state changes if model is initialized or running
+		// and designer is in local registry
+		if((mode == Mode.Initialized || mode == Mode.Running) 
+				&& designers.get(e.getDesigner().getInstanceName()) != null) {
+			// determine which inputs designer has control of
+			int[] inputs = experiment.getActiveModel()
+					.getInputIndices()[e.getDesigner().getIndex()];
+			// update corresponding input panels
+			for(int i = 0; i < inputs.length; i++) {
+				inputPanels[inputs[i]].setReady(e.getDesigner().isReady());
+			}
+			// if NOT constant feedback, mark all inputs to be re-evaluated 
+			// once the batch has been delivered
+			if(!constantFeedback) {
+				fullUpdatePending = true;
+				outputsPending = true;
+			}
+		}
 	}
 	
 	/**
 	 * Exits the application gracefully.
 	 */
 	private void exit() {
+		// stop preparing models
+		prefetchExecutor.shutdownNow();
+		
+		// write any queued log entries and close the log file
+		if(logWriter != null) {
+			logWriter.close();
+		}
+		
 		// dispose of the frame
 		dispose();
 		
-		// try to shut down the federate ambassador
+		// try to shut down the transport
 		try {
-			managerAmbassador.shutDown();
+			managerTransport.shutDown();
 		} catch (Exception e) {
 			e.printStackTrace();
 			System.exit(1);
@@ -549,26 +729,19 @@ public class ManagerFrame extends JFrame implements DesignerListener {
 	}
 	
 	private String vectorToString(RealVector vector, boolean isInput) {
-		StringBuilder builder = new StringBuilder();
-		builder.append("{");
-		for(int i = 0; i < vector.getDimension(); i++) {
-			if(isInput) {
-				// format input vectors like 0.00
-				builder.append(String.format("%.2f",vector.getEntry(i)));
-			} else {
-				// format output/target vectors like 0.00000
-				builder.append(String.format("%.5f",vector.getEntry(i)));
-			}
-			if(i < vector.getDimension() - 1) {
-				builder.append("; ");
-			}
-		}
-		builder.append("}");
-		return builder.toString();
+		return vectorToString(vector.toArray(), isInput);
+	}
+	
+	private String vectorToString(double[] values, boolean isInput) {
+		// format input vectors like 0.00 and output/target vectors like 0.00000
+		return Utilities.formatVector(values, isInput ? 
+				INPUT_LOG_FORMAT : OUTPUT_LOG_FORMAT);
 	}
 
 	/**
-	 * Initializes the window for a new system model.
+	 * Initializes the window for a new system model. If the model was 
+	 * prepared in the background while the previous model was active, its 
+	 * components are installed directly; otherwise they are prepared now.
 	 *
 	 * @param model the model
 	 */
@@ -577,8 +750,16 @@ public class ManagerFrame extends JFrame implements DesignerListener {
 			"name=\"" + model.getName() + "\"; target=" 
 				+ vectorToString(model.getTargetVector(), false));
 		
-		// remove all existing components from model panel
+		// remove all existing components from model panel and cancel any
+		// pending re-draws for the previous model
 		modelPanel.removeAll();
+		repaintScheduler.cancel();
+		clearPendingOutputs();
+		
+		// take the prepared model, if any, for this model
+		PreparedModel prepared = preparedModel != null 
+				&& preparedModel.model == model ? preparedModel : null;
+		preparedModel = null;
 		
 		if(model == null) {
 			// a null model could mean that no experiment is loaded, an 
@@ -600,15 +781,34 @@ public class ManagerFrame extends JFrame implements DesignerListener {
 			// define zero-length arrays for all other components
 			outputPanels = new OutputPanel[0];
 			inputPanels = new InputPanel[0];
-			inputSeries = new XYSeries[0];
-			solutionSeries = new XYSeries[0];
+			inputValues = new double[0];
+			outputValues = new double[0];
+			evaluator = null;
+			inputSeries = new int[0];
+			solutionSeries = new int[0];
 		} else {
 			// set model label
 			activeModelLabel.setText("Task: " + model.getName());
 			
-			JPanel outputPanel = new JPanel();
-			outputPanel.setLayout(new BoxLayout(outputPanel, 
-					BoxLayout.PAGE_AXIS));
+			if(prepared == null) {
+				// prepare the model in this thread
+				prepared = new PreparedModel(model);
+				layoutModel(prepared);
+			}
+			
+			// swap in the prepared value buffers, panels, and datasets
+			inputValues = prepared.inputValues;
+			outputValues = prepared.outputValues;
+			evaluator = prepared.evaluator;
+			outputPanels = prepared.outputPanels;
+			inputPanels = prepared.inputPanels;
+			inputSeries = prepared.inputSeries;
+			solutionSeries = prepared.solutionSeries;
+			inputDataset = prepared.inputDataset;
+			XYPlot xyPlot = (XYPlot) inputChart.getPlot();
+			xyPlot.setDataset(inputDataset);
+			xyPlot.setRenderer(prepared.inputRenderer);
+			errorDataset.clear();
 			
 			// create default grid bag constraints
 			GridBagConstraints c = new GridBagConstraints();
@@ -620,104 +820,20 @@ public class ManagerFrame extends JFrame implements DesignerListener {
 			c.weightx = 1;
 			c.weighty = 1;
 			
-			// create and lay out output panels horizontally on the left
-			// side of the panel
-			outputPanels = new OutputPanel[model.getNumberOutputs()];
-			for(int d = 0; d < model.getOutputIndices().length; d++) {
-				// for each designer: handle outputs
-				for(int d_o = 0; 
-						d_o < model.getOutputIndices()[d].length; d_o++) {
-					// for each designer output: create and add 
-					// corresponding output panel
-					int i = model.getOutputIndices()[d][d_o];
-					outputPanels[i] = OutputPanelFactory.createBasicOutputPanel(d, d_o, 
-							model.getTargetVector().getEntry(i),
-							model.getOutputVector(
-									model.getInitialVector()).getEntry(i),
-									model.getOutputLabels()[i]);
-					outputPanel.add(outputPanels[i]);
-				}
-			}
-
-			// lay out output panels
-			modelPanel.add(new JScrollPane(outputPanel), c);
-
-			// lay out input panels
-			
-			JPanel inputPanel = new JPanel();
-			inputPanel.setLayout(new BoxLayout(inputPanel, BoxLayout.LINE_AXIS));
-
-			// create and lay out input panels vertically to the right of the
-			// output panels
-			inputPanels = new InputPanel[model.getNumberInputs()];
-			// clear out input dataset and other plotting data
-			inputDataset.removeAllSeries();
-			inputSeries = new XYSeries[model.getNumberInputs()];
-			solutionSeries = new XYSeries[model.getNumberInputs()];
-			errorSeries.clear();
-			XYPlot xyPlot = (XYPlot) inputChart.getPlot();
-			XYItemRenderer renderer = xyPlot.getRenderer();
-			for(int d = 0; d < model.getInputIndices().length; d++) {
-				// for each designer: handle inputs
-				for(int d_i = 0; 
-						d_i < model.getInputIndices()[d].length; d_i++) {
-					// for each designer input: create and add 
-					// corresponding input panel
-					int i = model.getInputIndices()[d][d_i];
-					inputPanels[i] = InputPanelFactory.createBasicInputPanelWithSolution(
-							d, d_i, 
-							model.getInitialVector().getEntry(i),
-							model.getSolutionVector().getEntry(i),
-							model.getInputLabels()[i]);
-					inputPanel.add(inputPanels[i]);
-					
-					// also create and add series for input and solutions
-					inputSeries[i] = new XYSeries(
-							"X_" + (d+1) + "," + (d_i+1), 
-							false, false);
-					solutionSeries[i] = new XYSeries(
-							"X_" + (d+1) + "," + (d_i+1) + "*", 
-							false, false);
-					inputDataset.addSeries(inputSeries[i]);
-					inputDataset.addSeries(solutionSeries[i]);
-					renderer.setSeriesShape(2*i + 0, 
-							Utilities.getSeriesShape(d_i));
-					renderer.setSeriesPaint(2*i + 0, 
-							Utilities.getUserColor(d));
-					renderer.setSeriesStroke(2*i + 0, 
-							new BasicStroke(2f));
-					renderer.setSeriesShape(2*i + 1, 
-							new Ellipse2D.Double());
-					renderer.setSeriesPaint(2*i + 1, 
-							Utilities.getUserColor(d));
-					renderer.setSeriesStroke(2*i + 1, 
-							new BasicStroke(1f, 
-									BasicStroke.CAP_SQUARE, 
-									BasicStroke.JOIN_MITER, 
-									10f, 
-									new float[]{5f, 10f}, 
-									0f));
-				}
-			}
-
+			// lay out output panels on the left side of the panel and input 
+			// panels to the right of the output panels
+			modelPanel.add(prepared.outputPanel, c);
 			c.gridx++;
-			modelPanel.add(new JScrollPane(inputPanel), c);
+			modelPanel.add(prepared.inputPanel, c);
 
-			// add error chart in new panel
-			ChartPanel distanceChartPanel = new ChartPanel(errorChart);
-			distanceChartPanel.setOpaque(false);
-			// set preferred size to prevent large plots from being displayed
-			distanceChartPanel.setPreferredSize(new Dimension(300,200));
+			// add error chart and input chart in new row
 			c.gridy++;
 			c.gridx = 0;
-			modelPanel.add(distanceChartPanel, c);
-			// add input chart in new panel
-			ChartPanel inputChartPanel = new ChartPanel(inputChart);
-			inputChartPanel.setOpaque(false);
-			// set preferred size to prevent large plots from being displayed
-			inputChartPanel.setPreferredSize(new Dimension(300,200));
+			modelPanel.add(errorChartPanel, c);
 			c.gridx++;
 			modelPanel.add(inputChartPanel, c);
+			// re-draw charts for the cleared datasets
+			chartsTask.run();
 			mode = Mode.Initialized;
 		}
 		
@@ -738,14 +854,103 @@ public class ManagerFrame extends JFrame implements DesignerListener {
 		endTrainingAction.setEnabled(experiment != null 
 				&& experiment.isTraining());
 		
-		// tell the federate ambassador to update model attributes to reflect
+		// tell the transport to update model attributes to reflect
 		// the newly-loaded system model
 		try {
-			managerAmbassador.updateModelAttributes(experiment);
+			managerTransport.updateModelAttributes(experiment);
 		} catch (Exception e) {
 			showErrorDialog(e.getMessage());
 			e.printStackTrace();
 		}
+		
+		// prepare the next model while this model is active
+		prefetchNextModel();
+	}
+	
+	/**
+	 * Lays out the panels and chart series for a prepared model. Must be 
+	 * called in the swing event thread.
+	 *
+	 * @param prepared the prepared model
+	 */
+	private void layoutModel(PreparedModel prepared) {
+		SystemModel model = prepared.model;
+		
+		// create and lay out output panels vertically
+		JPanel outputPanel = new JPanel();
+		outputPanel.setLayout(new BoxLayout(outputPanel, 
+				BoxLayout.PAGE_AXIS));
+		prepared.outputPanels = new OutputPanel[model.getNumberOutputs()];
+		for(int d = 0; d < model.getOutputIndices().length; d++) {
+			// for each designer: handle outputs
+			for(int d_o = 0; 
+					d_o < model.getOutputIndices()[d].length; d_o++) {
+				// for each designer output: create and add 
+				// corresponding output panel
+				int i = model.getOutputIndices()[d][d_o];
+				prepared.outputPanels[i] = OutputPanelFactory.createBasicOutputPanel(d, d_o, 
+						model.getTargetVector().getEntry(i),
+						prepared.outputValues[i],
+						model.getOutputLabels()[i]);
+				outputPanel.add(prepared.outputPanels[i]);
+			}
+		}
+		prepared.outputPanel = new JScrollPane(outputPanel);
+		
+		// create and lay out input panels horizontally
+		JPanel inputPanel = new JPanel();
+		inputPanel.setLayout(new BoxLayout(inputPanel, BoxLayout.LINE_AXIS));
+		prepared.inputPanels = new InputPanel[model.getNumberInputs()];
+		// create a new input dataset and renderer for the series of 
+		// inputs and solutions (datasets are re-drawn by the scheduler)
+		prepared.inputDataset = new RingBufferXYDataset();
+		prepared.inputDataset.setNotify(false);
+		prepared.inputRenderer = new StandardXYItemRenderer(
+				StandardXYItemRenderer.SHAPES_AND_LINES);
+		prepared.inputSeries = new int[model.getNumberInputs()];
+		prepared.solutionSeries = new int[model.getNumberInputs()];
+		XYItemRenderer renderer = prepared.inputRenderer;
+		for(int d = 0; d < model.getInputIndices().length; d++) {
+			// for each designer: handle inputs
+			for(int d_i = 0; 
+					d_i < model.getInputIndices()[d].length; d_i++) {
+				// for each designer input: create and add 
+				// corresponding input panel
+				int i = model.getInputIndices()[d][d_i];
+				prepared.inputPanels[i] = InputPanelFactory.createBasicInputPanelWithSolution(
+						d, d_i, 
+						prepared.inputValues[i],
+						model.getSolutionEntry(i),
+						model.getInputLabels()[i]);
+				inputPanel.add(prepared.inputPanels[i]);
+				
+				// also create and add series for input and solutions
+				int inputSeries = prepared.inputDataset.addSeries(
+						"X_" + (d+1) + "," + (d_i+1));
+				int solutionSeries = prepared.inputDataset.addSeries(
+						"X_" + (d+1) + "," + (d_i+1) + "*");
+				prepared.inputSeries[i] = inputSeries;
+				prepared.solutionSeries[i] = solutionSeries;
+				renderer.setSeriesShape(inputSeries, 
+						Utilities.getSeriesShape(d_i));
+				renderer.setSeriesPaint(inputSeries, 
+						Utilities.getUserColor(d));
+				renderer.setSeriesStroke(inputSeries, 
+						new BasicStroke(2f));
+				renderer.setSeriesShape(solutionSeries, 
+						new Ellipse2D.Double());
+				renderer.setSeriesPaint(solutionSeries, 
+						Utilities.getUserColor(d));
+				renderer.setSeriesStroke(solutionSeries, 
+						new BasicStroke(1f, 
+								BasicStroke.CAP_SQUARE, 
+								BasicStroke.JOIN_MITER, 
+								10f, 
+								new float[]{5f, 10f}, 
+								0f));
+			}
+		}
+		prepared.inputPanel = new JScrollPane(inputPanel);
 	}
 
 	/**
@@ -754,17 +959,9 @@ public class ManagerFrame extends JFrame implements DesignerListener {
 	 * @param message the message to log
 	 */
 	private void log(String label, String data) {
-		try {
-			// create writer objects
-			FileWriter fw = new FileWriter(logFile, true);
-			// write line with time, message, and newline
-			fw.write(System.currentTimeMillis() + "," + label + "," 
-					+ data + System.getProperty("line.separator"));
-			// close the writer
-			fw.close();
-			System.out.println("Manager Log: " + data);
-		} catch(IOException ex) {
-			ex.printStackTrace();
+		// queue line with time and message to be written in the background
+		if(logWriter != null) {
+			logWriter.log(System.currentTimeMillis() + "," + label + "," + data);
 		}
 	}
 
@@ -790,10 +987,11 @@ public class ManagerFrame extends JFrame implements DesignerListener {
 		closeExperiment();
 		
 		if(experiment == null) {
-			// create file chooser to browse for json file
+			// create file chooser to browse for json or binary file
 			JFileChooser fileChooser = new JFileChooser(".");
 			fileChooser.setFileFilter(
-					new FileNameExtensionFilter("JSON files","json"));
+					new FileNameExtensionFilter("Experiment files (JSON, binary)",
+							"json", BinaryExperimentFormat.FILE_EXTENSION));
 			if(JFileChooser.APPROVE_OPTION == fileChooser.showOpenDialog(this)) {
 				// load experiment from file
 				try {
@@ -808,6 +1006,40 @@ public class ManagerFrame extends JFrame implements DesignerListener {
 		}
 	}
 	
+	/**
+	 * Prepares the next model of the experiment in the background: the 
+	 * model is retrieved, solved, and evaluated in the prefetch thread and 
+	 * its components are laid out in the swing event thread, so advancing 
+	 * to it only swaps components and updates the model attributes.
+	 */
+	private void prefetchNextModel() {
+		final Experiment experiment = this.experiment;
+		if(experiment == null) {
+			return;
+		}
+		prefetchExecutor.execute(new Runnable() {
+			@Override
+			public void run() {
+				final SystemModel model = experiment.peekNextModel();
+				if(model == null) {
+					return;
+				}
+				final PreparedModel prepared = new PreparedModel(model);
+				SwingUtilities.invokeLater(new Runnable() {
+					@Override
+					public void run() {
+						// discard if the experiment has since changed
+						if(experiment == ManagerFrame.this.experiment 
+								&& model == experiment.peekNextModel()) {
+							layoutModel(prepared);
+							preparedModel = prepared;
+						}
+					}
+				});
+			}
+		});
+	}
+	
 	/**
 	 * Resets the experiment.
 	 */
@@ -883,12 +1115,15 @@ public class ManagerFrame extends JFrame implements DesignerListener {
 	
 	/**
 	 * Updates outputs if the correct conditions are observed.
+	 *
+	 * @param changedInputs the indices of inputs which changed since the 
+	 * last update, or <code>null</code> to re-evaluate all inputs
 	 */
-	private void updateOutputs() {
+	private void updateOutputs(int[] changedInputs) {
 		boolean sendUpdates = true;
 		// if not in constant feedback mode, only send updates 
 		// if all designers are ready
-		for(Designer designer : designers) {
+		for(Designer designer : designers.getDesigners()) {
 			sendUpdates = sendUpdates 
 					&& designer.isReady() || constantFeedback;
 		}
@@ -899,47 +1134,41 @@ public class ManagerFrame extends JFrame implements DesignerListener {
 		}
 		// if updates should be sent and in running mode:
 		if(sendUpdates && mode == Mode.Running) {
-			// aggregate all inputs from designers
-			RealVector inputVector = new ArrayRealVector(inputPanels.length);
-			for(int i = 0; i < inputPanels.length; i++) {
-				inputVector.setEntry(i, inputPanels[i].getValue());
-			}
+			// calculate outputs (re-using the output buffer and only 
+			// applying the changed inputs)
+			evaluator.evaluate(changedInputs, inputValues, outputValues);
 			
-			// calculate outputs
-			RealVector outputVector = experiment.getActiveModel().
-					getOutputVector(inputVector);
-			
-			// update output panels and determine if task is solved
-			boolean solved = true;
-			for(int i = 0; i < outputPanels.length; i++) {
-				outputPanels[i].setValue(outputVector.getEntry(i));
-				// task is solved if all outputs are within range
-				solved = solved && outputPanels[i].isWithinRange();
-			}
+			// schedule output panels to be re-drawn and determine if task 
+			// is solved, i.e. if all outputs are within range
+			repaintScheduler.markDirty(outputPanelsTask);
+			boolean solved = experiment.getActiveModel().isWithinTolerance(
+					outputValues, OutputPanel.ERROR_ALLOWED);
 			
 			double eventTime = (new Date().getTime()-startTime)/1000d;
 			
 			// add new entry to error series
-			errorSeries.addOrUpdate(eventTime, 
-					experiment.getActiveModel().getOutputError(inputVector));
+			errorDataset.add(errorSeries, eventTime, 
+					experiment.getActiveModel().getTargetError(outputValues));
 			for(int i = 0; 
 					i < experiment.getActiveModel().getNumberInputs(); 
 					i++) {
 				// add new entry to input series
-				inputSeries[i].addOrUpdate(eventTime, 
-						inputVector.getEntry(i));
+				inputDataset.add(inputSeries[i], eventTime, inputValues[i]);
 				// add new entry to solution series
-				solutionSeries[i].addOrUpdate(eventTime, 
-						experiment.getActiveModel().getSolutionVector()
-								.getEntry(i));
+				inputDataset.add(solutionSeries[i], eventTime, 
+						experiment.getActiveModel().getSolutionEntry(i));
 			}
+			repaintScheduler.markDirty(chartsTask);
 			
-			log("updated", "input=" + vectorToString(inputVector, true) 
-					+ "; output=" + vectorToString(outputVector, false));
+			log("updated", "input=" + vectorToString(inputValues, true) 
+					+ "; output=" + vectorToString(outputValues, false));
 			
-			// issue update call to federate ambassador
+			// issue update call to transport with the solved state (wraps 
+			// the output buffer without copying; the transport copies values 
+			// before sending)
 			try {
-				managerAmbassador.updateOutputAttributes(outputVector);
+				managerTransport.updateOutputAttributes(
+						new ArrayRealVector(outputValues, false), solved);
 			} catch(Exception ex) {
 				ex.printStackTrace();
 			}
@@ -980,6 +1209,9 @@ public class ManagerFrame extends JFrame implements DesignerListener {
 				
 				log("solved", experiment.getActiveModel().getName());
 				mode = Mode.Solved;
+				
+				// re-draw the final state immediately
+				repaintScheduler.flush();
 			}
 		}
 	}
@@ -0,0 +1,105 @@
+/******************************************************************************
+ * Copyright 2020 Paul T. Grogan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package edu.mit.collab.gui;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.swing.Timer;
+
+/**
+ * A scheduler which coalesces user interface updates. Components (panels, 
+ * labels, charts) are marked dirty by registering an update task and all 
+ * dirty tasks are run together at most once per frame from a single Swing 
+ * timer. Marking a task dirty several times before the next frame runs it 
+ * only once. Model state should be updated immediately; only rendering is 
+ * deferred to the next frame.
+ * 
+ * All methods must be called from the Swing event dispatch thread.
+ * 
+ * @author Paul T. Grogan
+ */
+public class RepaintScheduler {
+	public static final int DEFAULT_FRAMES_PER_SECOND = 30;
+	
+	private final Timer timer; // immutable
+	private final Set<Runnable> dirtyTasks = new LinkedHashSet<Runnable>(); // mutable
+	
+	/**
+	 * Instantiates a new repaint scheduler with the default frame rate.
+	 */
+	public RepaintScheduler() {
+		this(DEFAULT_FRAMES_PER_SECOND);
+	}
+	
+	/**
+	 * Instantiates a new repaint scheduler.
+	 *
+	 * @param framesPerSecond the maximum number of frames per second
+	 */
+	public RepaintScheduler(int framesPerSecond) {
+		if(framesPerSecond < 1) {
+			throw new IllegalArgumentException(
+					"Frame rate must be at least 1 frame per second.");
+		}
+		// the timer only runs (once) when there are dirty tasks so an idle 
+		// user interface does not generate any timer events
+		timer = new Timer(1000/framesPerSecond, new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				flush();
+			}
+		});
+		timer.setRepeats(false);
+		timer.setCoalesce(true);
+	}
+	
+	/**
+	 * Cancels all pending update tasks without running them.
+	 */
+	public void cancel() {
+		timer.stop();
+		dirtyTasks.clear();
+	}
+	
+	/**
+	 * Runs all pending update tasks immediately.
+	 */
+	public void flush() {
+		timer.stop();
+		// copy tasks so tasks may mark other tasks dirty for the next frame
+		List<Runnable> tasks = new ArrayList<Runnable>(dirtyTasks);
+		dirtyTasks.clear();
+		for(Runnable task : tasks) {
+			task.run();
+		}
+	}
+	
+	/**
+	 * Marks an update task dirty so it runs in the next frame.
+	 *
+	 * @param task the update task
+	 */
+	public void markDirty(Runnable task) {
+		if(dirtyTasks.add(task) && !timer.isRunning()) {
+			timer.start();
+		}
+	}
+}
@@ -0,0 +1,290 @@
+/******************************************************************************
+ * Copyright 2020 Paul T. Grogan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package edu.mit.collab.gui;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jfree.data.DomainOrder;
+import org.jfree.data.xy.AbstractXYDataset;
+
+/**
+ * An XY dataset for time series plots backed by primitive ring buffers.
+ * Each series stores at most a fixed number of the most recent points and
+ * is presented to the chart as a decimated view of at most a fixed number
+ * of items (the first and last points plus the minimum and maximum points 
+ * in each of a number of equal-width buckets), so rendering cost is bounded 
+ * by the display resolution rather than the length of the session.
+ * 
+ * Points must be added with non-decreasing x-values; adding a point with 
+ * the same x-value as the last point replaces the last point.
+ * 
+ * @author Paul T. Grogan
+ */
+public class RingBufferXYDataset extends AbstractXYDataset {
+	private static final long serialVersionUID = 6102489823167432095L;
+	
+	public static final int DEFAULT_CAPACITY = 8192;
+	public static final int DEFAULT_MAXIMUM_ITEM_COUNT = 600;
+	
+	/**
+	 * A single series of points stored in a ring buffer.
+	 */
+	private static class Series {
+		private final Comparable<?> key; // immutable
+		private final double[] x, y; // mutable
+		private int start, size; // mutable
+		
+		// decimated view of the points which is rebuilt when stale
+		private final double[] viewX, viewY; // mutable
+		private int viewSize; // mutable
+		private boolean viewStale; // mutable
+		
+		/**
+		 * Instantiates a new series.
+		 *
+		 * @param key the series key
+		 * @param capacity the ring buffer capacity
+		 * @param maximumItemCount the maximum number of items in the view
+		 */
+		private Series(Comparable<?> key, int capacity, int maximumItemCount) {
+			this.key = key;
+			x = new double[capacity];
+			y = new double[capacity];
+			viewX = new double[maximumItemCount];
+			viewY = new double[maximumItemCount];
+		}
+		
+		/**
+		 * Adds a point, replacing the last point if it has the same x-value.
+		 *
+		 * @param xValue the x-value
+		 * @param yValue the y-value
+		 */
+		private void add(double xValue, double yValue) {
+			if(size > 0 && x[index(size - 1)] == xValue) {
+				y[index(size - 1)] = yValue;
+			} else if(size < x.length) {
+				x[index(size)] = xValue;
+				y[index(size)] = yValue;
+				size++;
+			} else {
+				// buffer is full: overwrite the oldest point
+				x[start] = xValue;
+				y[start] = yValue;
+				start = (start + 1) % x.length;
+			}
+			viewStale = true;
+		}
+		
+		/**
+		 * Removes all points.
+		 */
+		private void clear() {
+			start = 0;
+			size = 0;
+			viewSize = 0;
+			viewStale = false;
+		}
+		
+		/**
+		 * Gets the buffer index of the i-th oldest point.
+		 *
+		 * @param i the point number
+		 * @return the buffer index
+		 */
+		private int index(int i) {
+			return (start + i) % x.length;
+		}
+		
+		/**
+		 * Rebuilds the decimated view if it is stale.
+		 */
+		private void updateView() {
+			if(!viewStale) {
+				return;
+			}
+			viewStale = false;
+			viewSize = 0;
+			if(size <= viewX.length) {
+				// no decimation required
+				for(int i = 0; i < size; i++) {
+					addView(i);
+				}
+				return;
+			}
+			
+			// keep the first and last points and the minimum and maximum 
+			// points (in order) of each bucket of interior points
+			int buckets = (viewX.length - 2)/2;
+			int interior = size - 2;
+			addView(0);
+			for(int b = 0; b < buckets; b++) {
+				int from = 1 + (int)((long)b*interior/buckets);
+				int to = 1 + (int)((long)(b + 1)*interior/buckets);
+				if(from >= to) {
+					continue;
+				}
+				int min = from, max = from;
+				for(int i = from + 1; i < to; i++) {
+					if(y[index(i)] < y[index(min)]) {
+						min = i;
+					}
+					if(y[index(i)] > y[index(max)]) {
+						max = i;
+					}
+				}
+				addView(Math.min(min, max));
+				if(min != max) {
+					addView(Math.max(min, max));
+				}
+			}
+			addView(size - 1);
+		}
+		
+		/**
+		 * Adds the i-th oldest point to the decimated view.
+		 *
+		 * @param i the point number
+		 */
+		private void addView(int i) {
+			viewX[viewSize] = x[index(i)];
+			viewY[viewSize] = y[index(i)];
+			viewSize++;
+		}
+	}
+	
+	private final int capacity; // immutable
+	private final int maximumItemCount; // immutable
+	private final List<Series> series = new ArrayList<Series>(); // mutable
+	
+	/**
+	 * Instantiates a new ring buffer XY dataset with default capacity 
+	 * and maximum item count.
+	 */
+	public RingBufferXYDataset() {
+		this(DEFAULT_CAPACITY, DEFAULT_MAXIMUM_ITEM_COUNT);
+	}
+	
+	/**
+	 * Instantiates a new ring buffer XY dataset.
+	 *
+	 * @param capacity the maximum number of points stored per series
+	 * @param maximumItemCount the maximum number of items displayed per series
+	 */
+	public RingBufferXYDataset(int capacity, int maximumItemCount) {
+		if(capacity < 1) {
+			throw new IllegalArgumentException(
+					"Capacity must be at least 1.");
+		}
+		if(maximumItemCount < 4) {
+			throw new IllegalArgumentException(
+					"Maximum item count must be at least 4.");
+		}
+		this.capacity = capacity;
+		this.maximumItemCount = maximumItemCount;
+	}
+	
+	/**
+	 * Adds a point to a series. If the point has the same x-value as the 
+	 * last point in the series, the last point is replaced.
+	 *
+	 * @param seriesIndex the series index
+	 * @param x the x-value
+	 * @param y the y-value
+	 */
+	public void add(int seriesIndex, double x, double y) {
+		series.get(seriesIndex).add(x, y);
+		fireDatasetChanged();
+	}
+	
+	/**
+	 * Adds a new (empty) series.
+	 *
+	 * @param key the series key
+	 * @return the series index
+	 */
+	public int addSeries(Comparable<?> key) {
+		series.add(new Series(key, capacity, maximumItemCount));
+		fireDatasetChanged();
+		return series.size() - 1;
+	}
+	
+	/**
+	 * Removes all points from all series.
+	 */
+	public void clear() {
+		for(Series s : series) {
+			s.clear();
+		}
+		fireDatasetChanged();
+	}
+	
+	@Override
+	public DomainOrder getDomainOrder() {
+		return DomainOrder.ASCENDING;
+	}
+	
+	@Override
+	public int getItemCount(int seriesIndex) {
+		Series s = series.get(seriesIndex);
+		s.updateView();
+		return s.viewSize;
+	}
+	
+	@Override
+	public int getSeriesCount() {
+		return series.size();
+	}
+	
+	@SuppressWarnings("rawtypes")
+	@Override
+	public Comparable getSeriesKey(int seriesIndex) {
+		return series.get(seriesIndex).key;
+	}
+	
+	@Override
+	public Number getX(int seriesIndex, int item) {
+		return getXValue(seriesIndex, item);
+	}
+	
+	@Override
+	public double getXValue(int seriesIndex, int item) {
+		Series s = series.get(seriesIndex);
+		s.updateView();
+		return s.viewX[item];
+	}
+	
+	@Override
+	public Number getY(int seriesIndex, int item) {
+		return getYValue(seriesIndex, item);
+	}
+	
+	@Override
+	public double getYValue(int seriesIndex, int item) {
+		Series s = series.get(seriesIndex);
+		s.updateView();
+		return s.viewY[item];
+	}
+	
+	/**
+	 * Removes all series.
+	 */
+	public void removeAllSeries() {
+		series.clear();
+		fireDatasetChanged();
+	}
+}
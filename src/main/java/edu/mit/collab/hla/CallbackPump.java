@@ -0,0 +1,254 @@
+/******************************************************************************
+ * Copyright 2020 Paul T. Grogan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package edu.mit.collab.hla;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Logger;
+
+import hla.rti1516e.RTIambassador;
+import hla.rti1516e.exceptions.CallNotAllowedFromWithinCallback;
+import hla.rti1516e.exceptions.RTIinternalError;
+
+/**
+ * A callback pump for federates connected with the 
+ * <code>HLA_EVOKED</code> callback model. A dedicated pump thread evokes 
+ * RTI callbacks, which decode updates and enqueue listener notifications 
+ * in a bounded queue. A dedicated dispatch thread runs the queued 
+ * notifications in order. If listeners fall behind and the queue fills, 
+ * the pump thread blocks and stops evoking callbacks so the RTI buffers 
+ * further messages. Queue depth and blocking are recorded so they can be 
+ * monitored.
+ * 
+ * @author Paul T. Grogan
+ */
+public class CallbackPump {
+	private static Logger logger = Logger.getLogger(CallbackPump.class);
+	
+	private final String name; // immutable
+	private final RTIambassador rtiAmbassador; // immutable
+	private final double minimumWait, maximumWait; // immutable
+	private final BlockingQueue<Runnable> queue; // mutable
+	private Thread pumpThread, dispatchThread; // mutable
+	private volatile boolean running; // mutable
+	
+	private final AtomicLong numberDispatched = new AtomicLong(); // mutable
+	private final AtomicLong numberBlocked = new AtomicLong(); // mutable
+	private final AtomicLong blockedNanos = new AtomicLong(); // mutable
+	private volatile int maximumQueueDepth; // mutable
+	
+	/**
+	 * Instantiates a new callback pump.
+	 *
+	 * @param name the name used for the pump and dispatch threads
+	 * @param rtiAmbassador the RTI ambassador
+	 * @param minimumWait the minimum time (seconds) to wait for callbacks 
+	 * in each evocation
+	 * @param maximumWait the maximum time (seconds) to wait for callbacks 
+	 * in each evocation
+	 * @param queueCapacity the capacity of the notification queue
+	 */
+	public CallbackPump(String name, RTIambassador rtiAmbassador, 
+			double minimumWait, double maximumWait, int queueCapacity) {
+		if(minimumWait < 0 || maximumWait < minimumWait) {
+			throw new IllegalArgumentException(
+					"Invalid minimum or maximum wait.");
+		}
+		if(queueCapacity < 1) {
+			throw new IllegalArgumentException(
+					"Queue capacity must be positive.");
+		}
+		this.name = name;
+		this.rtiAmbassador = rtiAmbassador;
+		this.minimumWait = minimumWait;
+		this.maximumWait = maximumWait;
+		queue = new ArrayBlockingQueue<Runnable>(queueCapacity);
+	}
+	
+	/**
+	 * Enqueues a notification to be run on the dispatch thread. Blocks 
+	 * if the queue is full. This method is called from RTI callbacks on 
+	 * the pump thread.
+	 *
+	 * @param notification the notification
+	 */
+	public void dispatch(Runnable notification) {
+		try {
+			if(!queue.offer(notification)) {
+				// queue is full; block the pump thread until there is space
+				long start = System.nanoTime();
+				queue.put(notification);
+				numberBlocked.incrementAndGet();
+				blockedNanos.addAndGet(System.nanoTime() - start);
+			}
+		} catch(InterruptedException ex) {
+			// pump is stopping; drop the notification
+			Thread.currentThread().interrupt();
+			return;
+		}
+		
+		int depth = queue.size();
+		if(depth > maximumQueueDepth) {
+			// only the pump thread updates the maximum depth
+			maximumQueueDepth = depth;
+		}
+	}
+	
+	/**
+	 * Runs queued notifications until stopped.
+	 */
+	private void drain() {
+		while(running || !queue.isEmpty()) {
+			try {
+				Runnable notification = queue.poll(
+						(long) (maximumWait*1000), TimeUnit.MILLISECONDS);
+				if(notification != null) {
+					notification.run();
+					numberDispatched.incrementAndGet();
+				}
+			} catch(InterruptedException ex) {
+				return;
+			} catch(RuntimeException ex) {
+				// keep dispatching if a listener fails
+				logger.error("Error dispatching callback.", ex);
+			}
+		}
+	}
+	
+	/**
+	 * Gets the total time (milliseconds) the pump thread has been blocked 
+	 * by a full queue.
+	 *
+	 * @return the blocked time
+	 */
+	public long getBlockedTime() {
+		return TimeUnit.NANOSECONDS.toMillis(blockedNanos.get());
+	}
+	
+	/**
+	 * Gets the maximum observed queue depth.
+	 *
+	 * @return the maximum queue depth
+	 */
+	public int getMaximumQueueDepth() {
+		return maximumQueueDepth;
+	}
+	
+	/**
+	 * Gets the number of times the pump thread blocked on a full queue.
+	 *
+	 * @return the number of blocked dispatches
+	 */
+	public long getNumberBlocked() {
+		return numberBlocked.get();
+	}
+	
+	/**
+	 * Gets the number of notifications dispatched to listeners.
+	 *
+	 * @return the number dispatched
+	 */
+	public long getNumberDispatched() {
+		return numberDispatched.get();
+	}
+	
+	/**
+	 * Gets the current queue depth.
+	 *
+	 * @return the queue depth
+	 */
+	public int getQueueDepth() {
+		return queue.size();
+	}
+	
+	/**
+	 * Evokes callbacks until stopped.
+	 */
+	private void pump() {
+		while(running) {
+			try {
+				rtiAmbassador.evokeMultipleCallbacks(minimumWait, maximumWait);
+			} catch(CallNotAllowedFromWithinCallback ex) {
+				logger.error("Cannot evoke callbacks.", ex);
+				return;
+			} catch(RTIinternalError ex) {
+				// errors are expected while disconnecting
+				if(running) {
+					logger.error("Error evoking callbacks.", ex);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Starts the pump and dispatch threads. Must be called after 
+	 * connecting to the RTI.
+	 */
+	public synchronized void start() {
+		if(running) {
+			// already started
+			return;
+		}
+		running = true;
+		
+		// create new threads so the pump can be restarted after stopping
+		dispatchThread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				drain();
+			}
+		}, name + " Dispatch");
+		dispatchThread.setDaemon(true);
+		dispatchThread.start();
+		
+		pumpThread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				pump();
+			}
+		}, name + " Callbacks");
+		pumpThread.setDaemon(true);
+		pumpThread.start();
+	}
+	
+	/**
+	 * Stops evoking callbacks and waits for the threads to finish 
+	 * dispatching queued notifications.
+	 */
+	public synchronized void stop() {
+		if(!running) {
+			// not started
+			return;
+		}
+		running = false;
+		try {
+			pumpThread.join((long) (2*maximumWait*1000) + 1000);
+			dispatchThread.join((long) (2*maximumWait*1000) + 1000);
+		} catch(InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	@Override
+	public String toString() {
+		return "depth " + getQueueDepth() + " (max " + maximumQueueDepth 
+				+ "), dispatched " + getNumberDispatched() + ", blocked " 
+				+ getNumberBlocked() + " (" + getBlockedTime() + " ms)";
+	}
+}
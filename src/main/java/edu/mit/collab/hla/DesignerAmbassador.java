@@ -21,14 +21,17 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.MalformedURLException;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
 
 import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
 import javax.swing.event.EventListenerList;
 
+import org.apache.commons.math3.linear.ArrayRealVector;
 import org.apache.commons.math3.linear.RealVector;
 import org.apache.log4j.Logger;
 
@@ -37,16 +40,22 @@ import com.google.gson.Gson;
 import edu.mit.collab.core.Manager;
 import edu.mit.collab.event.ManagerEvent;
 import edu.mit.collab.event.ManagerListener;
+import edu.mit.collab.hla.HandleRegistry.Attribute;
+import edu.mit.collab.hla.HandleRegistry.Parameter;
+import edu.mit.collab.transport.DesignerTransport;
+import hla.rti1516e.AttributeHandle;
 import hla.rti1516e.AttributeHandleSet;
 import hla.rti1516e.AttributeHandleValueMap;
 import hla.rti1516e.CallbackModel;
 import hla.rti1516e.FederateHandle;
+import hla.rti1516e.InteractionClassHandle;
 import hla.rti1516e.LogicalTime;
 import hla.rti1516e.MessageRetractionHandle;
 import hla.rti1516e.NullFederateAmbassador;
 import hla.rti1516e.ObjectClassHandle;
 import hla.rti1516e.ObjectInstanceHandle;
 import hla.rti1516e.OrderType;
+import hla.rti1516e.ParameterHandleValueMap;
 import hla.rti1516e.RTIambassador;
 import hla.rti1516e.ResignAction;
 import hla.rti1516e.RtiFactory;
@@ -71,12 +80,19 @@ import hla.rti1516e.exceptions.FederateIsExecutionMember;
 import hla.rti1516e.exceptions.FederateNameAlreadyInUse;
 import hla.rti1516e.exceptions.FederateNotExecutionMember;
 import hla.rti1516e.exceptions.FederateOwnsAttributes;
+import hla.rti1516e.exceptions.FederateServiceInvocationsAreBeingReportedViaMOM;
 import hla.rti1516e.exceptions.FederatesCurrentlyJoined;
 import hla.rti1516e.exceptions.FederationExecutionAlreadyExists;
 import hla.rti1516e.exceptions.FederationExecutionDoesNotExist;
 import hla.rti1516e.exceptions.InconsistentFDD;
+import hla.rti1516e.exceptions.InteractionClassNotDefined;
+import hla.rti1516e.exceptions.InvalidDimensionHandle;
+import hla.rti1516e.exceptions.InvalidInteractionClassHandle;
 import hla.rti1516e.exceptions.InvalidLocalSettingsDesignator;
 import hla.rti1516e.exceptions.InvalidObjectClassHandle;
+import hla.rti1516e.exceptions.InvalidRangeBound;
+import hla.rti1516e.exceptions.InvalidRegion;
+import hla.rti1516e.exceptions.InvalidRegionContext;
 import hla.rti1516e.exceptions.InvalidResignAction;
 import hla.rti1516e.exceptions.NameNotFound;
 import hla.rti1516e.exceptions.NotConnected;
@@ -85,6 +101,8 @@ import hla.rti1516e.exceptions.ObjectClassNotPublished;
 import hla.rti1516e.exceptions.ObjectInstanceNotKnown;
 import hla.rti1516e.exceptions.OwnershipAcquisitionPending;
 import hla.rti1516e.exceptions.RTIinternalError;
+import hla.rti1516e.exceptions.RegionDoesNotContainSpecifiedDimension;
+import hla.rti1516e.exceptions.RegionNotCreatedByThisFederate;
 import hla.rti1516e.exceptions.RestoreInProgress;
 import hla.rti1516e.exceptions.SaveInProgress;
 import hla.rti1516e.exceptions.UnsupportedCallbackModel;
@@ -97,38 +115,55 @@ import hla.rti1516e.exceptions.UnsupportedCallbackModel;
  * 
  * @author Paul T. Grogan
  */
-public class DesignerAmbassador extends NullFederateAmbassador {
+public class DesignerAmbassador extends NullFederateAmbassador 
+		implements DesignerTransport {
 	private static Logger logger = Logger.getLogger(DesignerAmbassador.class);
 	private static enum ManagerAction {ADD, MODEL_UPDATE, 
 		OUTPUT_UPDATE, REMOVE};
 		
 	// the variables below define configuration strings for various
-	// commands issued to the RTI ambassador
+	// commands issued to the RTI ambassador (object class and attribute
+	// names are defined in the handle registry)
 	private static final String federateType = "designer";
-	private static final String managerClassName = "HLAobjectRoot.Manager";
-	private static final String outputAttributeName = "Output";
-	private static final String initialInputAttributeName = "InitialInput";
-	private static final String targetOutputAttributeName = "TargetOutput";
-	private static final String activeModelAttributeName = "ActiveModel";
-	private static final String inputIndicesAttributeName = "InputIndices";
-	private static final String outputIndicesAttributeName = "OutputIndices";
-	private static final String inputLabelsAttributeName = "InputLabels";
-	private static final String outputLabelsAttributeName = "OutputLabels";
-	private static final String designerClassName = "HLAobjectRoot.Designer";
-	private static final String inputAttributeName = "Input";
-	private static final String indexAttributeName = "Index";
-	private static final String readyAttributeName = "Ready";
+	
+	/**
+	 * The reconstructed output vector of a manager and the sequence number
+	 * of the last output delta applied to it.
+	 */
+	private static class OutputSequence {
+		private int sequenceNumber; // mutable
+		private double[] output = new double[0]; // mutable
+		private boolean resyncPending = true; // mutable
+	}
 	
 	private transient String objectInstanceName;  // set upon connection to RTI
+	private transient ObjectInstanceHandle objectInstanceHandle; // set upon connection to RTI
+	private transient HandleRegistry handles; // set upon connection to RTI
 
 	private final RTIambassador rtiAmbassador; // immutable
 	private final EncoderFactory encoderFactory; // immutable
 	private final String federationName; //immutable
 	private final String fomPath; // immutable
+	private final boolean routeOutputs; // immutable
+	private final CallbackModel callbackModel; // immutable
+	private final CallbackPump callbackPump; // immutable (null if immediate)
 	
 	private final HLAfloatVector input; // mutable
 	private final HLAinteger32BE index; // mutable
 	private final HLAboolean ready; // mutable
+	
+	// data elements reused to decode reflected attributes and received 
+	// interactions, which the RTI delivers on a single callback thread
+	private final HLAfloatVector decodedVector = new HLAfloatVector(); // mutable
+	private final HLAintegerMatrix decodedMatrix = new HLAintegerMatrix(); // mutable
+	private final HLAstringVector decodedStrings; // mutable
+	private final HLAoutputDelta decodedDelta; // mutable
+	
+	// buffers reused to copy decoded vectors, which are only replaced when 
+	// the size of the vectors changes with the active model
+	private double[] initialInputValues = new double[0]; // mutable
+	private double[] targetOutputValues = new double[0]; // mutable
+	private double[] routedOutputValues = new double[0]; // mutable
 	private final EventListenerList listenerList = new EventListenerList(); // mutable
 
 	// synchronized mutable map to support multi-threaded application
@@ -136,6 +171,11 @@ public class DesignerAmbassador extends NullFederateAmbassador {
 			Collections.synchronizedMap(
 					new HashMap<ObjectInstanceHandle, Manager>());
 	
+	// synchronized mutable map of output sequences for discovered managers
+	private final Map<ObjectInstanceHandle, OutputSequence> outputSequences = 
+			Collections.synchronizedMap(
+					new HashMap<ObjectInstanceHandle, OutputSequence>());
+	
 	/**
 	 * Instantiates a new designer ambassador.
 	 *
@@ -152,6 +192,11 @@ public class DesignerAmbassador extends NullFederateAmbassador {
 	    String rtiName = properties.getProperty("rtiName", null);
 	    federationName = properties.getProperty("federationName", "collab");
 	    fomPath = properties.getProperty("fomPath", "collab.xml");
+	    routeOutputs = Boolean.parseBoolean(
+	    		properties.getProperty("routeOutputs", "true"));
+	    callbackModel = "evoked".equalsIgnoreCase(properties.getProperty(
+	    		"callbackModel", "immediate")) ? CallbackModel.HLA_EVOKED 
+	    				: CallbackModel.HLA_IMMEDIATE;
 	    
         // create the RTI factory and store ambassador and encoder objects
         RtiFactory rtiFactory;
@@ -163,10 +208,25 @@ public class DesignerAmbassador extends NullFederateAmbassador {
 		rtiAmbassador = rtiFactory.getRtiAmbassador();
 		encoderFactory = rtiFactory.getEncoderFactory();
 		
+		// create a callback pump to evoke callbacks on a dedicated thread
+		if(callbackModel == CallbackModel.HLA_EVOKED) {
+			callbackPump = new CallbackPump("Designer " + designerIndex, rtiAmbassador, 
+					Double.parseDouble(properties.getProperty(
+							"evokeMinimumWait", "0.01")), 
+					Double.parseDouble(properties.getProperty(
+							"evokeMaximumWait", "0.1")), 
+					Integer.parseInt(properties.getProperty(
+							"callbackQueueCapacity", "1024")));
+		} else {
+			callbackPump = null;
+		}
+		
 		// create hla-compatible data elements for encoding/decoding values
-		input = new HLAfloatVector(encoderFactory);
+		input = new HLAfloatVector();
 		index = encoderFactory.createHLAinteger32BE(designerIndex);
 		ready = encoderFactory.createHLAboolean();
+		decodedStrings = new HLAstringVector(encoderFactory);
+		decodedDelta = new HLAoutputDelta(encoderFactory);
 	}
 	
 	/**
@@ -179,6 +239,22 @@ public class DesignerAmbassador extends NullFederateAmbassador {
 		listenerList.add(ManagerListener.class, listener);
 	}
 	
+	/**
+	 * Copies the value of a decoded vector into a reused buffer, which is 
+	 * only replaced if its length does not match the vector size.
+	 *
+	 * @param vector the decoded vector
+	 * @param buffer the buffer
+	 * @return the buffer holding the value
+	 */
+	private static double[] copyValue(HLAfloatVector vector, double[] buffer) {
+		if(buffer.length != vector.size()) {
+			buffer = new double[vector.size()];
+		}
+		vector.getValue(buffer);
+		return buffer;
+	}
+	
 	@Override
 	public void discoverObjectInstance(ObjectInstanceHandle theObject,
 			ObjectClassHandle theObjectClass, 
@@ -197,8 +273,7 @@ public class DesignerAmbassador extends NullFederateAmbassador {
 		// to the list of discovered managers and request attribute updates
 		try {
 			// check if object is a designer (shouldn't be anything else!)
-			if(theObjectClass.equals(
-					rtiAmbassador.getObjectClassHandle(managerClassName))) {
+			if(theObjectClass.equals(handles.getManagerClass())) {
 				// create new object model
 				Manager manager = new Manager(objectName);
 				
@@ -207,43 +282,32 @@ public class DesignerAmbassador extends NullFederateAmbassador {
 				synchronized(managers) {
 					managers.put(theObject, manager);
 				}
+				
+				// await the keyframe provided in response to the request below
+				outputSequences.put(theObject, new OutputSequence());
 
 				// create a new attribute handle set to request updates of the
 				// manager's attributes
 				AttributeHandleSet attributes = rtiAmbassador
 						.getAttributeHandleSetFactory().create();
 				// add initial input attribute
-				attributes.add(rtiAmbassador.getAttributeHandle(
-						rtiAmbassador.getObjectClassHandle(managerClassName), 
-						initialInputAttributeName));
+				attributes.add(handles.get(Attribute.INITIAL_INPUT));
 				// add target output attribute
-				attributes.add(rtiAmbassador.getAttributeHandle(
-						rtiAmbassador.getObjectClassHandle(managerClassName), 
-						targetOutputAttributeName));
-				// add output attribute
-				attributes.add(rtiAmbassador.getAttributeHandle(
-						rtiAmbassador.getObjectClassHandle(managerClassName), 
-						outputAttributeName));
+				attributes.add(handles.get(Attribute.TARGET_OUTPUT));
+				// add output delta attribute
+				attributes.add(handles.get(Attribute.OUTPUT_DELTA));
+				// add solved attribute
+				attributes.add(handles.get(Attribute.SOLVED));
 				// add active model attribute
-				attributes.add(rtiAmbassador.getAttributeHandle(
-						rtiAmbassador.getObjectClassHandle(managerClassName), 
-						activeModelAttributeName));
+				attributes.add(handles.get(Attribute.ACTIVE_MODEL));
 				// add input indices attribute
-				attributes.add(rtiAmbassador.getAttributeHandle(
-						rtiAmbassador.getObjectClassHandle(managerClassName), 
-						inputIndicesAttributeName));
+				attributes.add(handles.get(Attribute.INPUT_INDICES));
 				// add output indices attribute
-				attributes.add(rtiAmbassador.getAttributeHandle(
-						rtiAmbassador.getObjectClassHandle(managerClassName), 
-						outputIndicesAttributeName));
+				attributes.add(handles.get(Attribute.OUTPUT_INDICES));
 				// add input labels attribute
-				attributes.add(rtiAmbassador.getAttributeHandle(
-						rtiAmbassador.getObjectClassHandle(managerClassName), 
-						inputLabelsAttributeName));
+				attributes.add(handles.get(Attribute.INPUT_LABELS));
 				// add output labels attribute
-				attributes.add(rtiAmbassador.getAttributeHandle(
-						rtiAmbassador.getObjectClassHandle(managerClassName), 
-						outputLabelsAttributeName));
+				attributes.add(handles.get(Attribute.OUTPUT_LABELS));
 				// issue request attribute value update service call
 				rtiAmbassador.requestAttributeValueUpdate(theObject, 
 						attributes, new byte[0]);
@@ -256,20 +320,61 @@ public class DesignerAmbassador extends NullFederateAmbassador {
 			// in the case of an exception (from the request attribute value
 			// update call), print stack trace and show error message
 			ex.printStackTrace();
-			JOptionPane.showMessageDialog(null, "An exception of type " + 
+			showErrorMessage("An exception of type " + 
 					ex.getMessage() + " occurred while discovering an object. " +
-					"See stack trace for more information.", 
-					"Error", JOptionPane.ERROR_MESSAGE);
+					"See stack trace for more information.");
 		}
 	}
 	
 	/**
-	 * Fires a manager event corresponding to an observed action.
+	 * Fires a manager event corresponding to an observed action. If callbacks 
+	 * are evoked by a callback pump, listeners are notified on its 
+	 * dispatch thread; otherwise, listeners are notified on the calling 
+	 * RTI callback thread.
+	 *
+	 * @param action the action
+	 * @param event the event
+	 */
+	private void fireManagerEvent(final ManagerAction action, 
+			final ManagerEvent event) {
+		if(callbackPump == null) {
+			notifyManagerListeners(action, event);
+		} else {
+			callbackPump.dispatch(new Runnable() {
+				@Override
+				public void run() {
+					notifyManagerListeners(action, event);
+				}
+			});
+		}
+	}
+	
+	/**
+	 * Gets the callback pump used to evoke callbacks.
+	 *
+	 * @return the callback pump, or null if callbacks are immediate
+	 */
+	public CallbackPump getCallbackPump() {
+		return callbackPump;
+	}
+	
+	/**
+	 * Gets the instance name issued by the RTI.
+	 *
+	 * @return the instance name
+	 */
+	public String getInstanceName() {
+		return objectInstanceName;
+	}
+	
+	/**
+	 * Notifies manager listeners of an observed action.
 	 *
 	 * @param action the action
 	 * @param event the event
 	 */
-	private void fireManagerEvent(ManagerAction action, ManagerEvent event) {
+	private void notifyManagerListeners(ManagerAction action, 
+			ManagerEvent event) {
 		// get the list of manager listeners
 		ManagerListener[] listeners = listenerList.getListeners(
 				ManagerListener.class);
@@ -291,15 +396,6 @@ public class DesignerAmbassador extends NullFederateAmbassador {
 			}
 		}
 	}
-	
-	/**
-	 * Gets the instance name issued by the RTI.
-	 *
-	 * @return the instance name
-	 */
-	public String getInstanceName() {
-		return objectInstanceName;
-	}
 
 	public void provideAttributeValueUpdate(ObjectInstanceHandle theObject,
 			AttributeHandleSet theAttributes, 
@@ -310,52 +406,46 @@ public class DesignerAmbassador extends NullFederateAmbassador {
 		// of the manager
 		try {
 			// check to make sure that the object requested is this manager
-			if(theObject.equals(rtiAmbassador.getObjectInstanceHandle(
-					objectInstanceName))) {
+			if(theObject.equals(objectInstanceHandle)) {
 				// create an attribute handle value map to store data
 				AttributeHandleValueMap attributes = rtiAmbassador.
 						getAttributeHandleValueMapFactory().create(3);
 				
-				// if the input is requested, add it to the map
-				if(theAttributes.contains(rtiAmbassador.getAttributeHandle(
-						rtiAmbassador.getObjectClassHandle(designerClassName), 
-						inputAttributeName))) {
-					attributes.put(rtiAmbassador.getAttributeHandle(
-							rtiAmbassador.getObjectClassHandle(designerClassName), 
-							inputAttributeName), input.toByteArray());
-				}
-				
-				// if the index is requested, add it to the map
-				if(theAttributes.contains(rtiAmbassador.getAttributeHandle(
-						rtiAmbassador.getObjectClassHandle(designerClassName), 
-						indexAttributeName))) {
-					attributes.put(rtiAmbassador.getAttributeHandle(
-							rtiAmbassador.getObjectClassHandle(designerClassName), 
-							indexAttributeName), index.toByteArray());
-				}
-				
-				// if the ready state is requested, add it to the map
-				if(theAttributes.contains(rtiAmbassador.getAttributeHandle(
-						rtiAmbassador.getObjectClassHandle(designerClassName), 
-						readyAttributeName))) {
-					attributes.put(rtiAmbassador.getAttributeHandle(
-							rtiAmbassador.getObjectClassHandle(designerClassName),
-							readyAttributeName), ready.toByteArray());
+				// add each requested attribute to the map, dispatching on the
+				// registered attribute for each requested handle
+				for(AttributeHandle handle : theAttributes) {
+					Attribute attribute = handles.getAttribute(handle);
+					if(attribute == null) {
+						// ignore handles which are not registered
+						continue;
+					}
+					switch(attribute) {
+					case INPUT:
+						attributes.put(handle, input.toByteArray());
+						break;
+					case INDEX:
+						attributes.put(handle, index.toByteArray());
+						break;
+					case READY:
+						attributes.put(handle, ready.toByteArray());
+						break;
+					default:
+						// ignore manager attributes
+					}
 				}
 				
 				// use the rti's update attribute value service to issue updates
 				rtiAmbassador.updateAttributeValues(
-						rtiAmbassador.getObjectInstanceHandle(objectInstanceName),
+						objectInstanceHandle,
 						attributes, new byte[0]);
 			}
 		} catch (Exception ex) {
 			// in the case of an exception (from the update attribute value
 			// call), print stack trace and show error message
 			ex.printStackTrace();
-			JOptionPane.showMessageDialog(null, "An exception of type " + 
+			showErrorMessage("An exception of type " + 
 					ex.getMessage() + " occurred while providing attribute " +
-					"updates. See stack trace for more information.", 
-					"Error", JOptionPane.ERROR_MESSAGE);
+					"updates. See stack trace for more information.");
 		}
 	}
 	
@@ -380,20 +470,14 @@ public class DesignerAmbassador extends NullFederateAmbassador {
 		AttributeHandleSet attributeHandleSet = rtiAmbassador.
 				getAttributeHandleSetFactory().create();
 		// add the input to the set
-		attributeHandleSet.add(rtiAmbassador.getAttributeHandle(
-				rtiAmbassador.getObjectClassHandle(designerClassName), 
-				inputAttributeName));
+		attributeHandleSet.add(handles.get(Attribute.INPUT));
 		// add the index to the set
-		attributeHandleSet.add(rtiAmbassador.getAttributeHandle(
-				rtiAmbassador.getObjectClassHandle(designerClassName), 
-				indexAttributeName));
+		attributeHandleSet.add(handles.get(Attribute.INDEX));
 		// add the ready state to the set
-		attributeHandleSet.add(rtiAmbassador.getAttributeHandle(
-				rtiAmbassador.getObjectClassHandle(designerClassName), 
-				readyAttributeName));
+		attributeHandleSet.add(handles.get(Attribute.READY));
 		// use the RTI service to publish object class attributes
 		rtiAmbassador.publishObjectClassAttributes(
-				rtiAmbassador.getObjectClassHandle(designerClassName),
+				handles.getDesignerClass(),
 				attributeHandleSet);
 	}
 
@@ -428,10 +512,7 @@ public class DesignerAmbassador extends NullFederateAmbassador {
 			
 			// get the data corresponding to the active model attribute
 			ByteWrapper wrapper = theAttributes.getValueReference(
-					rtiAmbassador.getAttributeHandle(
-							rtiAmbassador.getObjectClassHandle(
-									managerClassName), 
-									activeModelAttributeName));
+					handles.get(Attribute.ACTIVE_MODEL));
 			
 			if(wrapper != null) {
 				// active model has changed -- start a complete model update
@@ -449,163 +530,178 @@ public class DesignerAmbassador extends NullFederateAmbassador {
 				
 				// get the data corresponding to the initial input attribute
 				wrapper = theAttributes.getValueReference(
-						rtiAmbassador.getAttributeHandle(
-								rtiAmbassador.getObjectClassHandle(
-										managerClassName), 
-								initialInputAttributeName));
+						handles.get(Attribute.INITIAL_INPUT));
 				
 				if(wrapper != null) {
 					// wrapper has data; decode into an HLA data element
-					HLAfloatVector vector = new HLAfloatVector(encoderFactory);
-					vector.decode(wrapper);
+					decodedVector.decode(wrapper);
+					initialInputValues = copyValue(
+							decodedVector, initialInputValues);
+					RealVector initialInput = new ArrayRealVector(
+							initialInputValues, false);
 					System.out.println("Designer " + (index.getValue()+1) +
 							" Log: setting manager initial input to " + 
-							vector.getValue());
+							initialInput);
 					
 					// update manager object
-					manager.setInitialInput(vector.getValue());
+					manager.setInitialInput(initialInput);
 				}
 				
 				// get the data corresponding to the target output attribute
 				wrapper = theAttributes.getValueReference(
-						rtiAmbassador.getAttributeHandle(
-								rtiAmbassador.getObjectClassHandle(
-										managerClassName), 
-										targetOutputAttributeName));
+						handles.get(Attribute.TARGET_OUTPUT));
 				
 				if(wrapper != null) {
 					// wrapper has data; decode into an HLA data element
-					HLAfloatVector vector = new HLAfloatVector(encoderFactory);
-					vector.decode(wrapper);
+					decodedVector.decode(wrapper);
+					targetOutputValues = copyValue(
+							decodedVector, targetOutputValues);
+					RealVector targetOutput = new ArrayRealVector(
+							targetOutputValues, false);
 					System.out.println("Designer " + (index.getValue()+1) +
 							" Log: setting manager target output to " + 
-							vector.getValue());
+							targetOutput);
 
 					// update manager object
-					manager.setTargetOutput(vector.getValue());
+					manager.setTargetOutput(targetOutput);
 				}
 				
 
-				// get the data corresponding to the output attribute
+				// get the data corresponding to the output delta attribute
 				wrapper = theAttributes.getValueReference(
-						rtiAmbassador.getAttributeHandle(
-								rtiAmbassador.getObjectClassHandle(
-										managerClassName), 
-										outputAttributeName));
+						handles.get(Attribute.OUTPUT_DELTA));
 				if(wrapper != null) {
 					// wrapper has data; decode into an HLA data element
-					HLAfloatVector vector = 
-							new HLAfloatVector(encoderFactory);
-					vector.decode(wrapper);
-					System.out.println("Designer " + (index.getValue()+1) +
-							" Log: setting manager output to " + 
-							vector.getValue());
-
+					decodedDelta.decode(wrapper);
+					double[] output = reconstructOutput(
+							theObject, decodedDelta);
+					
+					if(output != null) {
+						System.out.println("Designer " + (index.getValue()+1) +
+								" Log: setting manager output to " + 
+								Arrays.toString(output));
+						
+						// update manager object
+						manager.setOutput(output);
+					}
+				}
+				
+				// get the data corresponding to the solved attribute
+				wrapper = theAttributes.getValueReference(
+						handles.get(Attribute.SOLVED));
+				if(wrapper != null) {
+					// wrapper has data; decode into an HLA data element
+					HLAboolean solved = encoderFactory.createHLAboolean();
+					solved.decode(wrapper);
+					
 					// update manager object
-					manager.setOutput(vector.getValue());
+					manager.setSolved(solved.getValue());
 				}
 
 				// get the data corresponding to the input indices attribute
 				wrapper = theAttributes.getValueReference(
-						rtiAmbassador.getAttributeHandle(
-								rtiAmbassador.getObjectClassHandle(
-										managerClassName),
-										inputIndicesAttributeName));
+						handles.get(Attribute.INPUT_INDICES));
 				if(wrapper != null) {
 					// wrapper has data; decode into an HLA data element
-					HLAintegerMatrix matrix = 
-							new HLAintegerMatrix(encoderFactory);
-					matrix.decode(wrapper);
+					decodedMatrix.decode(wrapper);
 					System.out.println("Designer " + (index.getValue()+1) +
 							" Log: setting manager input indices to " + 
-							gson.toJson(matrix.getValue()));
+							gson.toJson(decodedMatrix.getValue()));
 
 					// update manager object
-					manager.setInputIndices(matrix.getValue());
+					manager.setInputIndices(decodedMatrix.getValue());
 				}
 
 				// get the data corresponding to the output indices attribute
 				wrapper = theAttributes.getValueReference(
-						rtiAmbassador.getAttributeHandle(
-								rtiAmbassador.getObjectClassHandle(
-										managerClassName), 
-										outputIndicesAttributeName));
+						handles.get(Attribute.OUTPUT_INDICES));
 				
 				if(wrapper != null) {
 					// wrapper has data; decode into an HLA data element
-					HLAintegerMatrix matrix = 
-							new HLAintegerMatrix(encoderFactory);
-					matrix.decode(wrapper);
+					decodedMatrix.decode(wrapper);
 					System.out.println("Designer " + (index.getValue()+1) + 
 							" Log: setting manager output indices to " + 
-							gson.toJson(matrix.getValue()));
+							gson.toJson(decodedMatrix.getValue()));
 
 					// update manager object
-					manager.setOutputIndices(matrix.getValue());
+					manager.setOutputIndices(decodedMatrix.getValue());
 				}
 
 				// get the data corresponding to the input labels attribute
 				wrapper = theAttributes.getValueReference(
-						rtiAmbassador.getAttributeHandle(
-								rtiAmbassador.getObjectClassHandle(
-										managerClassName), 
-										inputLabelsAttributeName));
+						handles.get(Attribute.INPUT_LABELS));
 				
 				if(wrapper != null) {
 					// wrapper has data; decode into an HLA data element
-					HLAstringVector vector = 
-							new HLAstringVector(encoderFactory);
-					vector.decode(wrapper);
+					decodedStrings.decode(wrapper);
 					System.out.println("Designer " + (index.getValue()+1) + 
 							" Log: setting manager input labels to " + 
-							gson.toJson(vector.getValue()));
+							gson.toJson(decodedStrings.getValue()));
 
 					// update manager object
-					manager.setInputLabels(vector.getValue());
+					manager.setInputLabels(decodedStrings.getValue());
 				}
 
 				// get the data corresponding to the output labels attribute
 				wrapper = theAttributes.getValueReference(
-						rtiAmbassador.getAttributeHandle(
-								rtiAmbassador.getObjectClassHandle(
-										managerClassName), 
-										outputLabelsAttributeName));
+						handles.get(Attribute.OUTPUT_LABELS));
 				
 				if(wrapper != null) {
 					// wrapper has data; decode into an HLA data element
-					HLAstringVector vector = 
-							new HLAstringVector(encoderFactory);
-					vector.decode(wrapper);
+					decodedStrings.decode(wrapper);
 					System.out.println("Designer " + (index.getValue()+1) + 
 							" Log: setting manager output labels to " + 
-							gson.toJson(vector.getValue()));
+							gson.toJson(decodedStrings.getValue()));
 
 					// update manager object
-					manager.setOutputLabels(vector.getValue());
+					manager.setOutputLabels(decodedStrings.getValue());
 				}
 
 				// update manager model
 				fireManagerEvent(ManagerAction.MODEL_UPDATE, 
 						new ManagerEvent(this, manager));
 			} else {
-				// get the data corresponding to the output attribute
+				boolean updated = false;
+				
+				// get the data corresponding to the output delta attribute
+				wrapper = theAttributes.getValueReference(
+						handles.get(Attribute.OUTPUT_DELTA));
+				if(wrapper != null) {
+					// wrapper has data; decode into an HLA data element
+					decodedDelta.decode(wrapper);
+					double[] output = reconstructOutput(
+							theObject, decodedDelta);
+					
+					// deltas which are stale or await a resync are ignored
+					if(output != null) {
+						if(logger.isDebugEnabled()) {
+							logger.debug("Designer " + (index.getValue()+1) 
+									+ " setting manager output to " 
+									+ Arrays.toString(output));
+						}
+						
+						// update manager object and set flag to update output
+						manager.setOutput(output);
+						updated = true;
+					}
+				}
+				
+				// get the data corresponding to the solved attribute
 				wrapper = theAttributes.getValueReference(
-						rtiAmbassador.getAttributeHandle(
-								rtiAmbassador.getObjectClassHandle(
-										managerClassName), 
-										outputAttributeName));
+						handles.get(Attribute.SOLVED));
 				if(wrapper != null) {
 					// wrapper has data; decode into an HLA data element
-					HLAfloatVector vector = 
-							new HLAfloatVector(encoderFactory);
-					vector.decode(wrapper);
+					HLAboolean solved = encoderFactory.createHLAboolean();
+					solved.decode(wrapper);
 					System.out.println("Designer " + (index.getValue()+1) +
-							" Log: setting manager output to " + 
-							vector.getValue());
-
-					// update manager object and set flag to update output
-					manager.setOutput(vector.getValue());
+							" Log: setting manager solved to " + solved.getValue());
 					
+					// update manager object and set flag to update output
+					manager.setSolved(solved.getValue());
+					updated = true;
+				}
+				
+				if(updated) {
 					// fire update event
 					fireManagerEvent(ManagerAction.OUTPUT_UPDATE, 
 							new ManagerEvent(this, manager));
@@ -615,10 +711,9 @@ public class DesignerAmbassador extends NullFederateAmbassador {
 			// in the case of an exception (from the various RTI calls), 
 			// print stack trace and show error message
 			ex.printStackTrace();
-			JOptionPane.showMessageDialog(null, "An exception of type " + 
+			showErrorMessage("An exception of type " + 
 					ex.getMessage() + " occurred while decoding an " +
-					"attribute update. See stack trace for more information.", 
-					"Error", JOptionPane.ERROR_MESSAGE);
+					"attribute update. See stack trace for more information.");
 		}
 	}
 
@@ -649,6 +744,187 @@ public class DesignerAmbassador extends NullFederateAmbassador {
 				sentOrdering, theTransport, null, null, reflectInfo);
 	}
 
+	@Override
+	public void receiveInteraction(InteractionClassHandle interactionClass,
+			ParameterHandleValueMap theParameters,
+			byte[] userSuppliedTag,
+			OrderType sentOrdering,
+			TransportationTypeHandle theTransport,
+			LogicalTime theTime,
+			OrderType receivedOrdering,
+			MessageRetractionHandle retractionHandle,
+			SupplementalReceiveInfo receiveInfo) {
+		// this method is called by the RTI when an interaction is received.
+		// in this case, we are only expecting outputs routed by a manager
+		// to the region bounding this designer's index
+		try {
+			// check if interaction is a designer output
+			if(!interactionClass.equals(handles.getDesignerOutputClass())) {
+				return;
+			}
+			
+			// get the data corresponding to the designer index parameter
+			ByteWrapper wrapper = theParameters.getValueReference(
+					handles.get(Parameter.DESIGNER_INDEX));
+			if(wrapper == null) {
+				return;
+			}
+			HLAinteger32BE designerIndex = 
+					encoderFactory.createHLAinteger32BE();
+			designerIndex.decode(wrapper);
+			
+			// the RTI may deliver interactions for overlapping regions; 
+			// ignore outputs routed to other designers
+			if(designerIndex.getValue() != index.getValue()) {
+				return;
+			}
+			
+			// get the data corresponding to the output parameter
+			wrapper = theParameters.getValueReference(
+					handles.get(Parameter.OUTPUT));
+			if(wrapper == null) {
+				return;
+			}
+			decodedVector.decode(wrapper);
+			routedOutputValues = copyValue(decodedVector, routedOutputValues);
+			if(logger.isDebugEnabled()) {
+				logger.debug("Designer " + (index.getValue()+1) 
+						+ " setting manager output to " 
+						+ Arrays.toString(routedOutputValues));
+			}
+			
+			// interactions are not associated with an object instance, so 
+			// update each discovered manager (normally only one)
+			Manager[] targets;
+			synchronized(managers) {
+				targets = managers.values().toArray(
+						new Manager[managers.size()]);
+			}
+			for(Manager manager : targets) {
+				try {
+					manager.setOutput(index.getValue(), routedOutputValues);
+				} catch(IllegalArgumentException ex) {
+					// outputs do not match the manager's active model
+					logger.warn(ex.getMessage());
+					continue;
+				}
+				
+				// fire update event
+				fireManagerEvent(ManagerAction.OUTPUT_UPDATE, 
+						new ManagerEvent(this, manager));
+			}
+		} catch (Exception ex) {
+			// in the case of an exception (from the various RTI calls), 
+			// print stack trace and show error message
+			ex.printStackTrace();
+			showErrorMessage("An exception of type " + 
+					ex.getMessage() + " occurred while decoding an " +
+					"interaction. See stack trace for more information.");
+		}
+	}
+
+	@Override
+	public void receiveInteraction(InteractionClassHandle interactionClass,
+			ParameterHandleValueMap theParameters,
+			byte[] userSuppliedTag,
+			OrderType sentOrdering,
+			TransportationTypeHandle theTransport,
+			LogicalTime theTime,
+			OrderType receivedOrdering,
+			SupplementalReceiveInfo receiveInfo) {
+		// re-direct method to single method signature
+		receiveInteraction(interactionClass, theParameters, userSuppliedTag, 
+				sentOrdering, theTransport, theTime, receivedOrdering, 
+				null, receiveInfo);
+	}
+
+	@Override
+	public void receiveInteraction(InteractionClassHandle interactionClass,
+			ParameterHandleValueMap theParameters,
+			byte[] userSuppliedTag,
+			OrderType sentOrdering,
+			TransportationTypeHandle theTransport,
+			SupplementalReceiveInfo receiveInfo) {
+		// re-direct method to single method signature
+		receiveInteraction(interactionClass, theParameters, userSuppliedTag, 
+				sentOrdering, theTransport, null, null, null, receiveInfo);
+	}
+	
+	/**
+	 * Reconstructs the complete output vector of a manager from an output 
+	 * delta. If a gap in sequence numbers is detected, requests a keyframe 
+	 * from the manager and ignores further deltas until it arrives.
+	 *
+	 * @param theObject the manager object instance handle
+	 * @param delta the output delta
+	 * @return the reconstructed output vector (a buffer which is updated in 
+	 * place by later deltas), or null if the delta was not applied
+	 * @throws Exception the exception (from the request attribute value 
+	 * update call)
+	 */
+	private double[] reconstructOutput(ObjectInstanceHandle theObject, 
+			HLAoutputDelta delta) throws Exception {
+		double[] output = null;
+		boolean requestResync = false;
+		
+		synchronized(outputSequences) {
+			OutputSequence sequence = outputSequences.get(theObject);
+			if(sequence == null) {
+				return null;
+			}
+			
+			// compare by difference to tolerate sequence number overflow
+			int gap = delta.getSequenceNumber() - sequence.sequenceNumber;
+			if(delta.isKeyframe()) {
+				// apply any newer keyframe, or any keyframe if resyncing
+				if(sequence.resyncPending || gap > 0) {
+					if(sequence.output.length != delta.size()) {
+						// replace the buffer for the outputs of a new model
+						sequence.output = new double[delta.size()];
+					}
+					delta.getValue(sequence.output);
+					output = sequence.output;
+				}
+			} else if(!sequence.resyncPending) {
+				if(gap == 1) {
+					try {
+						// apply the delta to the reconstructed outputs in 
+						// place, which are unchanged if it does not match
+						delta.getValue(sequence.output);
+						output = sequence.output;
+					} catch(IllegalArgumentException ex) {
+						// delta does not match the reconstructed outputs
+						requestResync = true;
+					}
+				} else if(gap > 1) {
+					// one or more deltas were missed
+					requestResync = true;
+				}
+			}
+			
+			if(output != null) {
+				sequence.sequenceNumber = delta.getSequenceNumber();
+				sequence.resyncPending = false;
+			} else if(requestResync) {
+				sequence.resyncPending = true;
+			}
+		}
+		
+		if(requestResync) {
+			logger.warn("Output sequence gap at " + delta.getSequenceNumber() 
+					+ "; requesting resync.");
+			
+			// request the output delta attribute which the manager 
+			// provides as a keyframe
+			AttributeHandleSet attributes = rtiAmbassador
+					.getAttributeHandleSetFactory().create();
+			attributes.add(handles.get(Attribute.OUTPUT_DELTA));
+			rtiAmbassador.requestAttributeValueUpdate(theObject, 
+					attributes, new byte[0]);
+		}
+		return output;
+	}
+	
 	/**
 	 * Removes the designer listener.
 	 *
@@ -672,6 +948,7 @@ public class DesignerAmbassador extends NullFederateAmbassador {
 		synchronized(managers) {
 			manager = managers.remove(theObject);
 		}
+		outputSequences.remove(theObject);
 		if(manager != null) {
 			// notify listeners that manager has been removed
 			fireManagerEvent(ManagerAction.REMOVE, 
@@ -701,6 +978,22 @@ public class DesignerAmbassador extends NullFederateAmbassador {
 				null, null, null, removeInfo);
 	}
 
+	/**
+	 * Shows an error message dialog on the event dispatch thread so the 
+	 * calling RTI callback thread is not blocked.
+	 *
+	 * @param message the message
+	 */
+	private static void showErrorMessage(final String message) {
+		SwingUtilities.invokeLater(new Runnable() {
+			@Override
+			public void run() {
+				JOptionPane.showMessageDialog(null, message, 
+						"Error", JOptionPane.ERROR_MESSAGE);
+			}
+		});
+	}
+	
 	/**
 	 * Shut down.
 	 *
@@ -716,6 +1009,11 @@ public class DesignerAmbassador extends NullFederateAmbassador {
 			FederateOwnsAttributes, CallNotAllowedFromWithinCallback, 
 			RTIinternalError, FederateIsExecutionMember {
 		
+		// stop evoking callbacks before resigning
+		if(callbackPump != null) {
+			callbackPump.stop();
+		}
+		
 		// try to resign from the federation execution; ignore
 		// exceptions if already resigned or not connected
 		try {
@@ -763,6 +1061,15 @@ public class DesignerAmbassador extends NullFederateAmbassador {
 	 * @throws ObjectClassNotDefined the object class not defined
 	 * @throws ObjectInstanceNotKnown the object instance not known
 	 * @throws ObjectClassNotPublished the object class not published
+	 * @throws FederateServiceInvocationsAreBeingReportedViaMOM the federate service invocations are being reported via MOM
+	 * @throws InvalidInteractionClassHandle the invalid interaction class handle
+	 * @throws InteractionClassNotDefined the interaction class not defined
+	 * @throws InvalidDimensionHandle the invalid dimension handle
+	 * @throws InvalidRangeBound the invalid range bound
+	 * @throws RegionDoesNotContainSpecifiedDimension the region does not contain specified dimension
+	 * @throws RegionNotCreatedByThisFederate the region not created by this federate
+	 * @throws InvalidRegion the invalid region
+	 * @throws InvalidRegionContext the invalid region context
 	 */
 	public void startUp() 
 			throws ConnectionFailed, InvalidLocalSettingsDesignator, 
@@ -774,11 +1081,18 @@ public class DesignerAmbassador extends NullFederateAmbassador {
 			RestoreInProgress, FederateNotExecutionMember, NameNotFound, 
 			InvalidObjectClassHandle, AttributeNotDefined, 
 			ObjectClassNotDefined, ObjectInstanceNotKnown, 
-			ObjectClassNotPublished {
+			ObjectClassNotPublished, 
+			FederateServiceInvocationsAreBeingReportedViaMOM, 
+			InvalidInteractionClassHandle, InteractionClassNotDefined, 
+			InvalidDimensionHandle, InvalidRangeBound, 
+			RegionDoesNotContainSpecifiedDimension, 
+			RegionNotCreatedByThisFederate, InvalidRegion, 
+			InvalidRegionContext {
 		// try to connect to the RTI; ignore if already connected
 		try {
-			// use the HLA_Evoked model to require explicit callbacks
-			rtiAmbassador.connect(this, CallbackModel.HLA_IMMEDIATE);
+			// use the configured callback model; the HLA_EVOKED model 
+			// requires explicit callbacks from the callback pump
+			rtiAmbassador.connect(this, callbackModel);
 		} catch(AlreadyConnected ignored) { }
 	    
 		// try to create the federation execution using the FOM file;
@@ -796,15 +1110,24 @@ public class DesignerAmbassador extends NullFederateAmbassador {
 					federateType, federationName);
 		} catch(FederateAlreadyExecutionMember ignored) { }
 		
+		// resolve all object class and attribute handles once so they are
+		// not looked up by name in callbacks or updates
+		handles = new HandleRegistry(rtiAmbassador);
+		
 		// publish and subscribe to object class attributes
 		publish();
 		subscribe();
 
-		// register the object instance name
+		// register the object instance and store its handle and name
+		objectInstanceHandle = rtiAmbassador.registerObjectInstance(
+				handles.getDesignerClass());
 		objectInstanceName = rtiAmbassador.getObjectInstanceName(
-				rtiAmbassador.registerObjectInstance(
-						rtiAmbassador.getObjectClassHandle(
-								designerClassName)));
+				objectInstanceHandle);
+		
+		// start evoking callbacks once handles are resolved
+		if(callbackPump != null) {
+			callbackPump.start();
+		}
 	}
 	
 	/**
@@ -819,51 +1142,59 @@ public class DesignerAmbassador extends NullFederateAmbassador {
 	 * @throws RTIinternalError the RTI internal error
 	 * @throws NameNotFound the name not found
 	 * @throws InvalidObjectClassHandle the invalid object class handle
+	 * @throws FederateServiceInvocationsAreBeingReportedViaMOM the federate service invocations are being reported via MOM
+	 * @throws InteractionClassNotDefined the interaction class not defined
+	 * @throws InvalidDimensionHandle the invalid dimension handle
+	 * @throws InvalidRangeBound the invalid range bound
+	 * @throws RegionDoesNotContainSpecifiedDimension the region does not contain specified dimension
+	 * @throws RegionNotCreatedByThisFederate the region not created by this federate
+	 * @throws InvalidRegion the invalid region
+	 * @throws InvalidRegionContext the invalid region context
 	 */
 	private void subscribe() 
 			throws FederateNotExecutionMember, NotConnected, 
 			AttributeNotDefined, ObjectClassNotDefined, SaveInProgress, 
 			RestoreInProgress, RTIinternalError, NameNotFound, 
-			InvalidObjectClassHandle {
+			InvalidObjectClassHandle, 
+			FederateServiceInvocationsAreBeingReportedViaMOM, 
+			InteractionClassNotDefined, InvalidDimensionHandle, 
+			InvalidRangeBound, RegionDoesNotContainSpecifiedDimension, 
+			RegionNotCreatedByThisFederate, InvalidRegion, 
+			InvalidRegionContext {
 		// create an attribute handle set
 		AttributeHandleSet attributeHandleSet = rtiAmbassador
 				.getAttributeHandleSetFactory().create();
 		// add the initial input attribute
-		attributeHandleSet.add(rtiAmbassador.getAttributeHandle(
-				rtiAmbassador.getObjectClassHandle(managerClassName), 
-				initialInputAttributeName));
+		attributeHandleSet.add(handles.get(Attribute.INITIAL_INPUT));
 		// add the target output attribute
-		attributeHandleSet.add(rtiAmbassador.getAttributeHandle(
-				rtiAmbassador.getObjectClassHandle(managerClassName), 
-				targetOutputAttributeName));
-		// add the output attribute
-		attributeHandleSet.add(rtiAmbassador.getAttributeHandle(
-				rtiAmbassador.getObjectClassHandle(managerClassName), 
-				outputAttributeName));
+		attributeHandleSet.add(handles.get(Attribute.TARGET_OUTPUT));
+		// add the output delta attribute
+		attributeHandleSet.add(handles.get(Attribute.OUTPUT_DELTA));
+		// add the solved attribute
+		attributeHandleSet.add(handles.get(Attribute.SOLVED));
 		// add the active model attribute
-		attributeHandleSet.add(rtiAmbassador.getAttributeHandle(
-				rtiAmbassador.getObjectClassHandle(managerClassName), 
-				activeModelAttributeName));
+		attributeHandleSet.add(handles.get(Attribute.ACTIVE_MODEL));
 		// add the input indices attribute
-		attributeHandleSet.add(rtiAmbassador.getAttributeHandle(
-				rtiAmbassador.getObjectClassHandle(managerClassName), 
-				inputIndicesAttributeName));
+		attributeHandleSet.add(handles.get(Attribute.INPUT_INDICES));
 		// add the output indices attribute
-		attributeHandleSet.add(rtiAmbassador.getAttributeHandle(
-				rtiAmbassador.getObjectClassHandle(managerClassName), 
-				outputIndicesAttributeName));
+		attributeHandleSet.add(handles.get(Attribute.OUTPUT_INDICES));
 		// add the input labels indices attribute
-		attributeHandleSet.add(rtiAmbassador.getAttributeHandle(
-				rtiAmbassador.getObjectClassHandle(managerClassName), 
-				inputLabelsAttributeName));
+		attributeHandleSet.add(handles.get(Attribute.INPUT_LABELS));
 		// add the output labels attribute
-		attributeHandleSet.add(rtiAmbassador.getAttributeHandle(
-				rtiAmbassador.getObjectClassHandle(managerClassName), 
-				outputLabelsAttributeName));
+		attributeHandleSet.add(handles.get(Attribute.OUTPUT_LABELS));
 		// use the RTI service to subscribe to the defined attributes
 		rtiAmbassador.subscribeObjectClassAttributes(
-				rtiAmbassador.getObjectClassHandle(managerClassName), 
+				handles.getManagerClass(), 
 				attributeHandleSet);
+		
+		if(routeOutputs) {
+			// use the RTI service to subscribe to designer outputs routed
+			// to the region bounding this designer's index
+			rtiAmbassador.subscribeInteractionClassWithRegions(
+					handles.getDesignerOutputClass(), 
+					handles.createDesignerRegion(rtiAmbassador, 
+							index.getValue()));
+		}
 	}
 	
 	/**
@@ -893,15 +1224,13 @@ public class DesignerAmbassador extends NullFederateAmbassador {
 		
 		// set HLA data element value and add to map
 		index.setValue(indexValue);
-		attributes.put(rtiAmbassador.getAttributeHandle(
-				rtiAmbassador.getObjectClassHandle(designerClassName), 
-				indexAttributeName), index.toByteArray());
+		attributes.put(handles.get(Attribute.INDEX), index.toByteArray());
 		System.out.println("Designer " + (index.getValue()+1) + 
 				" Log: setting index value to " + index.getValue());
 		
 		// use RTI service to update attribute values using map
 		rtiAmbassador.updateAttributeValues(
-				rtiAmbassador.getObjectInstanceHandle(objectInstanceName), 
+				objectInstanceHandle, 
 				attributes, new byte[0]);
 	}
 	
@@ -932,15 +1261,13 @@ public class DesignerAmbassador extends NullFederateAmbassador {
 		
 		// set HLA data element value and add to map
 		input.setValue(inputValue);
-		attributes.put(rtiAmbassador.getAttributeHandle(
-				rtiAmbassador.getObjectClassHandle(designerClassName), 
-				inputAttributeName), input.toByteArray());
+		attributes.put(handles.get(Attribute.INPUT), input.toByteArray());
 		System.out.println("Designer " + (index.getValue()+1) + 
 				" Log: setting input value to " + input.getValue());
 		
 		// use RTI service to update attribute values using map
 		rtiAmbassador.updateAttributeValues(
-				rtiAmbassador.getObjectInstanceHandle(objectInstanceName), 
+				objectInstanceHandle, 
 				attributes, new byte[0]);
 	}
 	
@@ -971,15 +1298,13 @@ public class DesignerAmbassador extends NullFederateAmbassador {
 		
 		// set HLA data element value and add to map
 		ready.setValue(readyValue);
-		attributes.put(rtiAmbassador.getAttributeHandle(
-				rtiAmbassador.getObjectClassHandle(designerClassName), 
-				readyAttributeName), ready.toByteArray());
+		attributes.put(handles.get(Attribute.READY), ready.toByteArray());
 		System.out.println("Designer " + (index.getValue()+1) + 
 				" Log: setting ready value to " + ready.getValue());
 		
 		// use RTI service to update attribute values using map
 		rtiAmbassador.updateAttributeValues(
-				rtiAmbassador.getObjectInstanceHandle(objectInstanceName), 
+				objectInstanceHandle, 
 				attributes, new byte[0]);
 	}
 }
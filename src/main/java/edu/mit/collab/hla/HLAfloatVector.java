@@ -15,78 +15,109 @@
  *****************************************************************************/
 package edu.mit.collab.hla;
 
+import java.util.Arrays;
+
 import hla.rti1516e.encoding.ByteWrapper;
 import hla.rti1516e.encoding.DataElement;
-import hla.rti1516e.encoding.DataElementFactory;
 import hla.rti1516e.encoding.DecoderException;
 import hla.rti1516e.encoding.EncoderException;
-import hla.rti1516e.encoding.EncoderFactory;
-import hla.rti1516e.encoding.HLAfloat64BE;
-import hla.rti1516e.encoding.HLAvariableArray;
 
 import org.apache.commons.math3.linear.ArrayRealVector;
 import org.apache.commons.math3.linear.RealVector;
 
 /**
- * <code>HLAfloatVector</code> is a wrapper around the HLAvariableArray class 
- * to provide improved functionality for storing real vectors (i.e. arrays with
- * 64-bit floating point elements) in HLA data types. In particular, it 
- * provides <code>getValue</code> and <code>setValue</code> functions to 
- * automatically transform data to and from the <code>RealVector</code> object 
- * classes.
+ * <code>HLAfloatVector</code> encodes real vectors (i.e. arrays with 64-bit 
+ * floating point elements) as HLA variable arrays of HLAfloat64BE elements: 
+ * a big-endian 32-bit element count followed by the big-endian elements. 
+ * Values are stored in a primitive array which is reused across calls, and 
+ * are encoded to and decoded from byte wrappers directly without creating 
+ * per-element data elements. In particular, it provides 
+ * <code>getValue</code> and <code>setValue</code> functions to transform 
+ * data to and from <code>RealVector</code> objects or caller-owned arrays.
  * 
  * @author Paul T. Grogan
  */
 public class HLAfloatVector implements DataElement {
-	private final HLAvariableArray<HLAfloat64BE> hlaArray;
+	private static final int elementLength = 8;
 	
-	/**
-	 * Instantiates a new HLAfloatVector object.
-	 *
-	 * @param encoderFactory the HLA encoder factory
-	 */
-	public HLAfloatVector(final EncoderFactory encoderFactory) {
-		// initialize the underlying HLA data type, which is a
-		// variable array of floating point values in this case
-		hlaArray = encoderFactory.createHLAvariableArray(
-				// define a data element factory to generate floating point
-				// data elements on demand
-				new DataElementFactory<HLAfloat64BE>() {
-					@Override
-					public HLAfloat64BE createElement(int index) {
-						return encoderFactory.createHLAfloat64BE();
-					}
-				});
-	}
+	private double[] values = new double[0]; // mutable
+	private int size; // mutable
 	
 	@Override
 	public void decode(byte[] bytes) throws DecoderException {
-		// access built-in function of underlying data type
-		hlaArray.decode(bytes);
+		decode(new ByteWrapper(bytes));
 	}
 
 	@Override
 	public void decode(ByteWrapper byteWrapper) throws DecoderException {
-		// access built-in function of underlying data type
-		hlaArray.decode(byteWrapper);
+		try {
+			int length = byteWrapper.getInt();
+			if(length < 0 || length > byteWrapper.remaining()/elementLength) {
+				throw new DecoderException("Invalid array length " + length);
+			}
+			ensureCapacity(length);
+			for(int i = 0; i < length; i++) {
+				// read each element as two big-endian 32-bit words
+				long bits = ((long) byteWrapper.getInt() << 32) 
+						| (byteWrapper.getInt() & 0xFFFFFFFFL);
+				values[i] = Double.longBitsToDouble(bits);
+			}
+			size = length;
+		} catch(ArrayIndexOutOfBoundsException ex) {
+			throw new DecoderException("Insufficient data to decode", ex);
+		}
 	}
 
 	@Override
 	public void encode(ByteWrapper byteWrapper) throws EncoderException {
-		// access built-in function of underlying data type
-		hlaArray.encode(byteWrapper);
+		try {
+			byteWrapper.putInt(size);
+			for(int i = 0; i < size; i++) {
+				// write each element as two big-endian 32-bit words
+				long bits = Double.doubleToLongBits(values[i]);
+				byteWrapper.putInt((int) (bits >>> 32));
+				byteWrapper.putInt((int) bits);
+			}
+		} catch(ArrayIndexOutOfBoundsException ex) {
+			throw new EncoderException("Insufficient space to encode", ex);
+		}
+	}
+	
+	/**
+	 * Ensures the value array can hold a number of elements, growing it 
+	 * if necessary.
+	 *
+	 * @param capacity the required capacity
+	 */
+	private void ensureCapacity(int capacity) {
+		if(values.length < capacity) {
+			values = Arrays.copyOf(values, Math.max(capacity, 2*values.length));
+		}
+	}
+
+	/**
+	 * Gets an element of the value without allocating.
+	 *
+	 * @param index the element index
+	 * @return the element
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 */
+	public double get(int index) {
+		if(index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException(
+					"Index " + index + " out of range.");
+		}
+		return values[index];
 	}
 
 	@Override
 	public int getEncodedLength() {
-		// access built-in function of underlying data type
-		return hlaArray.getEncodedLength();
+		return 4 + elementLength*size;
 	}
 
 	@Override
 	public int getOctetBoundary() {
-		// access built-in function of underlying data type
-		return hlaArray.getOctetBoundary();
+		return elementLength;
 	}
 
 	/**
@@ -95,14 +126,34 @@ public class HLAfloatVector implements DataElement {
 	 * @return the value
 	 */
 	public RealVector getValue() {
-		// create a vector of real values with the same size as the
-		// underlying HLA array variable
-		RealVector vector = new ArrayRealVector(hlaArray.size());
-		for(int i = 0; i < hlaArray.size(); i++) {
-			// set each vector entry from the HLA array
-			vector.setEntry(i, hlaArray.get(i).getValue());
+		return new ArrayRealVector(Arrays.copyOf(values, size), false);
+	}
+	
+	/**
+	 * Copies the value into a caller-owned array without allocating.
+	 *
+	 * @param buffer the array in which to store the values, which must 
+	 * have a length of at least <code>size()</code>
+	 * @return the number of values copied
+	 */
+	public int getValue(double[] buffer) {
+		if(buffer.length < size) {
+			throw new IllegalArgumentException(
+					"Buffer length is less than vector size.");
 		}
-		return vector;
+		System.arraycopy(values, 0, buffer, 0, size);
+		return size;
+	}
+	
+	/**
+	 * Sets the value from an array.
+	 *
+	 * @param values the new value
+	 */
+	public void setValue(double[] values) {
+		ensureCapacity(values.length);
+		System.arraycopy(values, 0, this.values, 0, values.length);
+		size = values.length;
 	}
 	
 	/**
@@ -111,17 +162,27 @@ public class HLAfloatVector implements DataElement {
 	 * @param vector the new value
 	 */
 	public void setValue(RealVector vector) {
-		// resize the HLA array to match the vector size
-		hlaArray.resize(vector.getDimension());
+		ensureCapacity(vector.getDimension());
 		for(int i = 0; i < vector.getDimension(); i++) {
-			// set each array entry from the vector
-			hlaArray.get(i).setValue(vector.getEntry(i));
+			values[i] = vector.getEntry(i);
 		}
+		size = vector.getDimension();
+	}
+	
+	/**
+	 * Gets the number of elements in the value.
+	 *
+	 * @return the size
+	 */
+	public int size() {
+		return size;
 	}
 	
 	@Override
 	public byte[] toByteArray() throws EncoderException {
-		// access built-in function of underlying data type
-		return hlaArray.toByteArray();
+		// allocate a single array of the exact encoded length
+		ByteWrapper byteWrapper = new ByteWrapper(getEncodedLength());
+		encode(byteWrapper);
+		return byteWrapper.array();
 	}
 }
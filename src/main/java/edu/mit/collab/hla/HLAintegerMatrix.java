@@ -17,69 +17,80 @@ package edu.mit.collab.hla;
 
 import hla.rti1516e.encoding.ByteWrapper;
 import hla.rti1516e.encoding.DataElement;
-import hla.rti1516e.encoding.DataElementFactory;
 import hla.rti1516e.encoding.DecoderException;
 import hla.rti1516e.encoding.EncoderException;
-import hla.rti1516e.encoding.EncoderFactory;
-import hla.rti1516e.encoding.HLAvariableArray;
 
 /**
- * <code>HLAfloatVector</code> is a wrapper around the HLAvariableArray class 
- * to provide improved functionality for storing integer matrices in HLA data 
- * types. In particular, it provides <code>getValue</code> and 
- * <code>setValue </code> functions to automatically transform data to and 
- * from the <code>int[][]</code> object classes.
+ * <code>HLAintegerMatrix</code> encodes integer matrices as HLA variable 
+ * arrays of integer vectors: a big-endian 32-bit row count followed by each 
+ * row encoded as an <code>HLAintegerVector</code>. Rows are encoded to and 
+ * decoded from byte wrappers directly without creating per-element data 
+ * elements. In particular, it provides <code>getValue</code> and 
+ * <code>setValue </code> functions to transform data to and from 
+ * <code>int[][]</code> objects.
  * 
  * @author Paul T. Grogan
  */
 public class HLAintegerMatrix implements DataElement {
-	private final HLAvariableArray<HLAintegerVector> intMatrix;
-	
-	/**
-	 * Instantiates a new HLAintegerMatrix object.
-	 *
-	 * @param encoderFactory the HLA encoder factory
-	 */
-	public HLAintegerMatrix(final EncoderFactory encoderFactory) {
-		// initialize the underlying HLA data type, which is a
-		// variable array of integer vectors in this case
-		intMatrix = encoderFactory.createHLAvariableArray(
-				new DataElementFactory<HLAintegerVector>() {
-					@Override
-					public HLAintegerVector createElement(int index) {
-						return new HLAintegerVector(encoderFactory);
-					}
-				});
-	}
+	private int[][] matrix = new int[0][0]; // mutable
 	
 	@Override
 	public void decode(byte[] bytes) throws DecoderException {
-		// access built-in function of underlying data type
-		intMatrix.decode(bytes);
+		decode(new ByteWrapper(bytes));
 	}
 
 	@Override
 	public void decode(ByteWrapper byteWrapper) throws DecoderException {
-		// access built-in function of underlying data type
-		intMatrix.decode(byteWrapper);
+		try {
+			int rows = byteWrapper.getInt();
+			if(rows < 0 || rows > byteWrapper.remaining()/4) {
+				throw new DecoderException("Invalid array length " + rows);
+			}
+			int[][] value = new int[rows][];
+			for(int i = 0; i < rows; i++) {
+				int columns = byteWrapper.getInt();
+				if(columns < 0 || columns > byteWrapper.remaining()/4) {
+					throw new DecoderException(
+							"Invalid array length " + columns);
+				}
+				value[i] = new int[columns];
+				for(int j = 0; j < columns; j++) {
+					value[i][j] = byteWrapper.getInt();
+				}
+			}
+			matrix = value;
+		} catch(ArrayIndexOutOfBoundsException ex) {
+			throw new DecoderException("Insufficient data to decode", ex);
+		}
 	}
 
 	@Override
 	public void encode(ByteWrapper byteWrapper) throws EncoderException {
-		// access built-in function of underlying data type
-		intMatrix.encode(byteWrapper);
+		try {
+			byteWrapper.putInt(matrix.length);
+			for(int i = 0; i < matrix.length; i++) {
+				byteWrapper.putInt(matrix[i].length);
+				for(int j = 0; j < matrix[i].length; j++) {
+					byteWrapper.putInt(matrix[i][j]);
+				}
+			}
+		} catch(ArrayIndexOutOfBoundsException ex) {
+			throw new EncoderException("Insufficient space to encode", ex);
+		}
 	}
 
 	@Override
 	public int getEncodedLength() {
-		// access built-in function of underlying data type
-		return intMatrix.getEncodedLength();
+		int length = 4;
+		for(int i = 0; i < matrix.length; i++) {
+			length += 4 + 4*matrix[i].length;
+		}
+		return length;
 	}
 
 	@Override
 	public int getOctetBoundary() {
-		// access built-in function of underlying data type
-		return intMatrix.getOctetBoundary();
+		return 4;
 	}
 
 	/**
@@ -88,33 +99,32 @@ public class HLAintegerMatrix implements DataElement {
 	 * @return the value
 	 */
 	public int[][] getValue() {
-		// create an integer matrix with the same size as the
-		// underlying HLA array variable
-		int[][] matrix = new int[intMatrix.size()][];
-		for(int i = 0; i < intMatrix.size(); i++) {
-			// set each vector entry from the HLA array
-			matrix[i] = intMatrix.get(i).getValue();
+		int[][] value = new int[matrix.length][];
+		for(int i = 0; i < matrix.length; i++) {
+			value[i] = matrix[i].clone();
 		}
-		return matrix;
+		return value;
 	}
-	
+
 	/**
 	 * Sets the value.
 	 *
 	 * @param matrix the new value
 	 */
 	public void setValue(int[][] matrix) {
-		// resize the HLA array to match the matrix size
-		intMatrix.resize(matrix.length);
+		// store a copy to protect against unexpected modification
+		int[][] value = new int[matrix.length][];
 		for(int i = 0; i < matrix.length; i++) {
-			// set each array entry from the matrix
-			intMatrix.get(i).setValue(matrix[i]);
+			value[i] = matrix[i].clone();
 		}
+		this.matrix = value;
 	}
 	
 	@Override
 	public byte[] toByteArray() throws EncoderException {
-		// access built-in function of underlying data type
-		return intMatrix.toByteArray();
+		// allocate a single array of the exact encoded length
+		ByteWrapper byteWrapper = new ByteWrapper(getEncodedLength());
+		encode(byteWrapper);
+		return byteWrapper.array();
 	}
 }
@@ -15,74 +15,89 @@
  *****************************************************************************/
 package edu.mit.collab.hla;
 
+import java.util.Arrays;
+
 import hla.rti1516e.encoding.ByteWrapper;
 import hla.rti1516e.encoding.DataElement;
-import hla.rti1516e.encoding.DataElementFactory;
 import hla.rti1516e.encoding.DecoderException;
 import hla.rti1516e.encoding.EncoderException;
-import hla.rti1516e.encoding.EncoderFactory;
-import hla.rti1516e.encoding.HLAinteger32BE;
-import hla.rti1516e.encoding.HLAvariableArray;
 
 /**
- * <code>HLAintegerVector</code> is a wrapper around the HLAvariableArray class 
- * to provide improved functionality for storing integer arrays in HLA data 
- * types. In particular, it provides <code>getValue</code> and 
- * <code>setValue</code> functions to automatically transform data to and from 
- * the <code>int[]</code> object classes.
+ * <code>HLAintegerVector</code> encodes integer arrays as HLA variable 
+ * arrays of HLAinteger32BE elements: a big-endian 32-bit element count 
+ * followed by the big-endian elements. Values are stored in a primitive 
+ * array which is reused across calls, and are encoded to and decoded from 
+ * byte wrappers directly without creating per-element data elements. In 
+ * particular, it provides <code>getValue</code> and <code>setValue</code> 
+ * functions to transform data to and from <code>int[]</code> objects.
  * 
  * @author Paul T. Grogan
  */
 public class HLAintegerVector implements DataElement {
-	private final HLAvariableArray<HLAinteger32BE> hlaArray;
+	private static final int elementLength = 4;
 	
-	/**
-	 * Instantiates a new HLAintegerVector object.
-	 *
-	 * @param encoderFactory the HLA encoder factory
-	 */
-	public HLAintegerVector(final EncoderFactory encoderFactory) {
-		// initialize the underlying HLA data type, which is a
-		// variable array of integer values in this case
-		hlaArray = encoderFactory.createHLAvariableArray(
-				// define a data element factory to generate integer
-				// data elements on demand
-				new DataElementFactory<HLAinteger32BE>() {
-					@Override
-					public HLAinteger32BE createElement(int index) {
-						return encoderFactory.createHLAinteger32BE();
-					}
-				});
-	}
+	private int[] values = new int[0]; // mutable
+	private int size; // mutable
 	
 	@Override
 	public void decode(byte[] bytes) throws DecoderException {
-		// access built-in function of underlying data type
-		hlaArray.decode(bytes);
+		decode(new ByteWrapper(bytes));
 	}
 
 	@Override
 	public void decode(ByteWrapper byteWrapper) throws DecoderException {
-		// access built-in function of underlying data type
-		hlaArray.decode(byteWrapper);
+		try {
+			int length = byteWrapper.getInt();
+			if(length < 0 || length > byteWrapper.remaining()/elementLength) {
+				throw new DecoderException("Invalid array length " + length);
+			}
+			if(values.length < length) {
+				values = Arrays.copyOf(values, Math.max(length, 2*values.length));
+			}
+			for(int i = 0; i < length; i++) {
+				values[i] = byteWrapper.getInt();
+			}
+			size = length;
+		} catch(ArrayIndexOutOfBoundsException ex) {
+			throw new DecoderException("Insufficient data to decode", ex);
+		}
 	}
 
 	@Override
 	public void encode(ByteWrapper byteWrapper) throws EncoderException {
-		// access built-in function of underlying data type
-		hlaArray.encode(byteWrapper);
+		try {
+			byteWrapper.putInt(size);
+			for(int i = 0; i < size; i++) {
+				byteWrapper.putInt(values[i]);
+			}
+		} catch(ArrayIndexOutOfBoundsException ex) {
+			throw new EncoderException("Insufficient space to encode", ex);
+		}
+	}
+
+	/**
+	 * Gets an element of the value without allocating.
+	 *
+	 * @param index the element index
+	 * @return the element
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 */
+	public int get(int index) {
+		if(index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException(
+					"Index " + index + " out of range.");
+		}
+		return values[index];
 	}
 
 	@Override
 	public int getEncodedLength() {
-		// access built-in function of underlying data type
-		return hlaArray.getEncodedLength();
+		return 4 + elementLength*size;
 	}
 
 	@Override
 	public int getOctetBoundary() {
-		// access built-in function of underlying data type
-		return hlaArray.getOctetBoundary();
+		return elementLength;
 	}
 
 	/**
@@ -91,14 +106,7 @@ public class HLAintegerVector implements DataElement {
 	 * @return the value
 	 */
 	public int[] getValue() {
-		// create an integer array with the same size as the
-		// underlying HLA array variable
-		int[] vector = new int[hlaArray.size()];
-		for(int i = 0; i < hlaArray.size(); i++) {
-			// set each array entry from the HLA array
-			vector[i] = hlaArray.get(i).getValue();
-		}
-		return vector;
+		return Arrays.copyOf(values, size);
 	}
 	
 	/**
@@ -107,17 +115,27 @@ public class HLAintegerVector implements DataElement {
 	 * @param vector the new value
 	 */
 	public void setValue(int[] vector) {
-		// resize the HLA array to match the vector size
-		hlaArray.resize(vector.length);
-		for(int i = 0; i < vector.length; i++) {
-			// set each array entry from the array
-			hlaArray.get(i).setValue(vector[i]);
+		if(values.length < vector.length) {
+			values = new int[vector.length];
 		}
+		System.arraycopy(vector, 0, values, 0, vector.length);
+		size = vector.length;
+	}
+	
+	/**
+	 * Gets the number of elements in the value.
+	 *
+	 * @return the size
+	 */
+	public int size() {
+		return size;
 	}
 	
 	@Override
 	public byte[] toByteArray() throws EncoderException {
-		// access built-in function of underlying data type
-		return hlaArray.toByteArray();
+		// allocate a single array of the exact encoded length
+		ByteWrapper byteWrapper = new ByteWrapper(getEncodedLength());
+		encode(byteWrapper);
+		return byteWrapper.array();
 	}
 }
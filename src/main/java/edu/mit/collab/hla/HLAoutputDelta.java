@@ -0,0 +1,214 @@
+/******************************************************************************
+ * Copyright 2020 Paul T. Grogan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package edu.mit.collab.hla;
+
+import hla.rti1516e.encoding.ByteWrapper;
+import hla.rti1516e.encoding.DataElement;
+import hla.rti1516e.encoding.DecoderException;
+import hla.rti1516e.encoding.EncoderException;
+import hla.rti1516e.encoding.EncoderFactory;
+import hla.rti1516e.encoding.HLAboolean;
+import hla.rti1516e.encoding.HLAfixedRecord;
+import hla.rti1516e.encoding.HLAinteger32BE;
+
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.RealVector;
+
+/**
+ * <code>HLAoutputDelta</code> is a wrapper around the HLAfixedRecord class 
+ * to store incremental updates to an output vector in HLA data types. Each 
+ * record carries a sequence number, a keyframe flag, and parallel arrays of 
+ * output indices and values. A keyframe carries the complete output vector 
+ * (with no indices) while a delta carries only the changed entries relative 
+ * to the record with the preceding sequence number.
+ * 
+ * @author Paul T. Grogan
+ */
+public class HLAoutputDelta implements DataElement {
+	private final HLAfixedRecord hlaRecord;
+	private final HLAinteger32BE sequenceNumber;
+	private final HLAboolean keyframe;
+	private final HLAintegerVector indices;
+	private final HLAfloatVector values;
+	
+	/**
+	 * Instantiates a new HLAoutputDelta object.
+	 *
+	 * @param encoderFactory the HLA encoder factory
+	 */
+	public HLAoutputDelta(EncoderFactory encoderFactory) {
+		// initialize the record fields in the order defined by the FOM
+		sequenceNumber = encoderFactory.createHLAinteger32BE();
+		keyframe = encoderFactory.createHLAboolean();
+		indices = new HLAintegerVector();
+		values = new HLAfloatVector();
+		
+		// initialize the underlying HLA data type, which is a
+		// fixed record of the fields above in this case
+		hlaRecord = encoderFactory.createHLAfixedRecord();
+		hlaRecord.add(sequenceNumber);
+		hlaRecord.add(keyframe);
+		hlaRecord.add(indices);
+		hlaRecord.add(values);
+	}
+	
+	@Override
+	public void decode(byte[] bytes) throws DecoderException {
+		// access built-in function of underlying data type
+		hlaRecord.decode(bytes);
+	}
+
+	@Override
+	public void decode(ByteWrapper byteWrapper) throws DecoderException {
+		// access built-in function of underlying data type
+		hlaRecord.decode(byteWrapper);
+	}
+
+	@Override
+	public void encode(ByteWrapper byteWrapper) throws EncoderException {
+		// access built-in function of underlying data type
+		hlaRecord.encode(byteWrapper);
+	}
+
+	@Override
+	public int getEncodedLength() {
+		// access built-in function of underlying data type
+		return hlaRecord.getEncodedLength();
+	}
+
+	@Override
+	public int getOctetBoundary() {
+		// access built-in function of underlying data type
+		return hlaRecord.getOctetBoundary();
+	}
+	
+	/**
+	 * Gets the sequence number.
+	 *
+	 * @return the sequence number
+	 */
+	public int getSequenceNumber() {
+		return sequenceNumber.getValue();
+	}
+	
+	/**
+	 * Gets the complete output vector by applying this record to the 
+	 * output vector of the preceding sequence number. A keyframe ignores 
+	 * the previous vector.
+	 *
+	 * @param previous the previous output vector
+	 * @return the value
+	 * @throws IllegalArgumentException if an index is out of range of the 
+	 * previous output vector
+	 */
+	public RealVector getValue(RealVector previous) {
+		double[] output = keyframe.getValue() ? 
+				new double[values.size()] : previous.toArray();
+		getValue(output);
+		return new ArrayRealVector(output, false);
+	}
+	
+	/**
+	 * Applies this record in place to a caller-owned buffer holding the 
+	 * output vector of the preceding sequence number, without allocating. 
+	 * A keyframe overwrites the first <code>size()</code> entries of the 
+	 * buffer. The buffer is not modified if the record does not match it.
+	 *
+	 * @param buffer the output vector buffer
+	 * @return the number of entries set
+	 * @throws IllegalArgumentException if a keyframe is larger than the 
+	 * buffer or an index is out of range of the buffer
+	 */
+	public int getValue(double[] buffer) {
+		if(keyframe.getValue()) {
+			return values.getValue(buffer);
+		}
+		
+		if(indices.size() != values.size()) {
+			throw new IllegalArgumentException(
+					"Number of indices does not match number of values.");
+		}
+		
+		// check every index before overwriting any changed entry
+		for(int i = 0; i < indices.size(); i++) {
+			if(indices.get(i) < 0 || indices.get(i) >= buffer.length) {
+				throw new IllegalArgumentException(
+						"Output index " + indices.get(i) + " out of range.");
+			}
+		}
+		for(int i = 0; i < indices.size(); i++) {
+			buffer[indices.get(i)] = values.get(i);
+		}
+		return indices.size();
+	}
+	
+	/**
+	 * Checks if this record is a keyframe.
+	 *
+	 * @return true, if this record is a keyframe
+	 */
+	public boolean isKeyframe() {
+		return keyframe.getValue();
+	}
+	
+	/**
+	 * Sets the value as a delta of changed output entries.
+	 *
+	 * @param sequenceNumber the sequence number
+	 * @param changedIndices the indices of changed outputs
+	 * @param changedValues the values of changed outputs
+	 */
+	public void setValue(int sequenceNumber, 
+			int[] changedIndices, double[] changedValues) {
+		if(changedIndices.length != changedValues.length) {
+			throw new IllegalArgumentException(
+					"Number of indices does not match number of values.");
+		}
+		this.sequenceNumber.setValue(sequenceNumber);
+		keyframe.setValue(false);
+		indices.setValue(changedIndices);
+		values.setValue(changedValues);
+	}
+	
+	/**
+	 * Sets the value as a keyframe of the complete output vector.
+	 *
+	 * @param sequenceNumber the sequence number
+	 * @param output the complete output vector
+	 */
+	public void setValue(int sequenceNumber, double[] output) {
+		this.sequenceNumber.setValue(sequenceNumber);
+		keyframe.setValue(true);
+		indices.setValue(new int[0]);
+		values.setValue(output);
+	}
+	
+	/**
+	 * Gets the number of outputs in a keyframe or the number of changed 
+	 * outputs in a delta.
+	 *
+	 * @return the size
+	 */
+	public int size() {
+		return values.size();
+	}
+	
+	@Override
+	public byte[] toByteArray() throws EncoderException {
+		// access built-in function of underlying data type
+		return hlaRecord.toByteArray();
+	}
+}
@@ -0,0 +1,295 @@
+/******************************************************************************
+ * Copyright 2020 Paul T. Grogan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package edu.mit.collab.hla;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import hla.rti1516e.AttributeHandle;
+import hla.rti1516e.DimensionHandle;
+import hla.rti1516e.DimensionHandleSet;
+import hla.rti1516e.InteractionClassHandle;
+import hla.rti1516e.ObjectClassHandle;
+import hla.rti1516e.ParameterHandle;
+import hla.rti1516e.RTIambassador;
+import hla.rti1516e.RangeBounds;
+import hla.rti1516e.RegionHandle;
+import hla.rti1516e.RegionHandleSet;
+import hla.rti1516e.exceptions.FederateNotExecutionMember;
+import hla.rti1516e.exceptions.InvalidDimensionHandle;
+import hla.rti1516e.exceptions.InvalidInteractionClassHandle;
+import hla.rti1516e.exceptions.InvalidObjectClassHandle;
+import hla.rti1516e.exceptions.InvalidRangeBound;
+import hla.rti1516e.exceptions.InvalidRegion;
+import hla.rti1516e.exceptions.NameNotFound;
+import hla.rti1516e.exceptions.NotConnected;
+import hla.rti1516e.exceptions.RTIinternalError;
+import hla.rti1516e.exceptions.RegionDoesNotContainSpecifiedDimension;
+import hla.rti1516e.exceptions.RegionNotCreatedByThisFederate;
+import hla.rti1516e.exceptions.RestoreInProgress;
+import hla.rti1516e.exceptions.SaveInProgress;
+
+/**
+ * A registry of the object class, attribute, interaction class, parameter, 
+ * and dimension handles used by the manager and designer ambassadors. All 
+ * handles are resolved by name once after joining a federation execution 
+ * so callbacks and updates can look up handles (and dispatch on received 
+ * handles) without calling the RTI.
+ * 
+ * @author Paul T. Grogan
+ */
+final class HandleRegistry {
+	// the variables below define the object class names in the FOM
+	static final String managerClassName = "HLAobjectRoot.Manager";
+	static final String designerClassName = "HLAobjectRoot.Designer";
+	
+	// the variables below define the interaction class and dimension
+	// names in the FOM
+	static final String designerOutputClassName = 
+			"HLAinteractionRoot.DesignerOutput";
+	static final String designerIndexDimensionName = "DesignerIndex";
+	
+	/**
+	 * The attributes of the manager and designer object classes.
+	 */
+	static enum Attribute {
+		OUTPUT_DELTA(managerClassName, "OutputDelta"),
+		SOLVED(managerClassName, "Solved"),
+		INITIAL_INPUT(managerClassName, "InitialInput"),
+		TARGET_OUTPUT(managerClassName, "TargetOutput"),
+		ACTIVE_MODEL(managerClassName, "ActiveModel"),
+		INPUT_INDICES(managerClassName, "InputIndices"),
+		OUTPUT_INDICES(managerClassName, "OutputIndices"),
+		INPUT_LABELS(managerClassName, "InputLabels"),
+		OUTPUT_LABELS(managerClassName, "OutputLabels"),
+		INPUT(designerClassName, "Input"),
+		INDEX(designerClassName, "Index"),
+		READY(designerClassName, "Ready");
+		
+		private final String className; // immutable
+		private final String attributeName; // immutable
+		
+		/**
+		 * Instantiates a new attribute.
+		 *
+		 * @param className the object class name
+		 * @param attributeName the attribute name
+		 */
+		private Attribute(String className, String attributeName) {
+			this.className = className;
+			this.attributeName = attributeName;
+		}
+	};
+	
+	/**
+	 * The parameters of the designer output interaction class.
+	 */
+	static enum Parameter {
+		DESIGNER_INDEX("DesignerIndex"),
+		OUTPUT("Output");
+		
+		private final String parameterName; // immutable
+		
+		/**
+		 * Instantiates a new parameter.
+		 *
+		 * @param parameterName the parameter name
+		 */
+		private Parameter(String parameterName) {
+			this.parameterName = parameterName;
+		}
+	};
+	
+	private final ObjectClassHandle managerClass; // immutable
+	private final ObjectClassHandle designerClass; // immutable
+	private final InteractionClassHandle designerOutputClass; // immutable
+	private final DimensionHandle designerIndexDimension; // immutable
+	
+	// attribute handles indexed by attribute ordinal and the reverse
+	// mapping from handles to attributes used to dispatch callbacks
+	private final AttributeHandle[] attributeHandles; // immutable
+	private final Map<AttributeHandle, Attribute> attributes; // immutable
+	
+	// parameter handles indexed by parameter ordinal and the reverse
+	// mapping from handles to parameters used to dispatch callbacks
+	private final ParameterHandle[] parameterHandles; // immutable
+	private final Map<ParameterHandle, Parameter> parameters; // immutable
+	
+	/**
+	 * Instantiates a new handle registry, resolving all handles.
+	 *
+	 * @param rtiAmbassador the RTI ambassador
+	 * @throws NameNotFound the name not found
+	 * @throws InvalidObjectClassHandle the invalid object class handle
+	 * @throws InvalidInteractionClassHandle the invalid interaction class handle
+	 * @throws FederateNotExecutionMember the federate not execution member
+	 * @throws NotConnected the not connected
+	 * @throws RTIinternalError the RTI internal error
+	 */
+	HandleRegistry(RTIambassador rtiAmbassador) 
+			throws NameNotFound, InvalidObjectClassHandle, 
+			InvalidInteractionClassHandle, FederateNotExecutionMember, 
+			NotConnected, RTIinternalError {
+		managerClass = rtiAmbassador.getObjectClassHandle(managerClassName);
+		designerClass = rtiAmbassador.getObjectClassHandle(designerClassName);
+		
+		Attribute[] values = Attribute.values();
+		attributeHandles = new AttributeHandle[values.length];
+		attributes = new HashMap<AttributeHandle, Attribute>();
+		for(Attribute attribute : values) {
+			AttributeHandle handle = rtiAmbassador.getAttributeHandle(
+					attribute.className.equals(managerClassName) ? 
+							managerClass : designerClass, 
+					attribute.attributeName);
+			attributeHandles[attribute.ordinal()] = handle;
+			attributes.put(handle, attribute);
+		}
+		
+		designerOutputClass = rtiAmbassador.getInteractionClassHandle(
+				designerOutputClassName);
+		designerIndexDimension = rtiAmbassador.getDimensionHandle(
+				designerIndexDimensionName);
+		
+		Parameter[] parameterValues = Parameter.values();
+		parameterHandles = new ParameterHandle[parameterValues.length];
+		parameters = new HashMap<ParameterHandle, Parameter>();
+		for(Parameter parameter : parameterValues) {
+			ParameterHandle handle = rtiAmbassador.getParameterHandle(
+					designerOutputClass, parameter.parameterName);
+			parameterHandles[parameter.ordinal()] = handle;
+			parameters.put(handle, parameter);
+		}
+	}
+	
+	/**
+	 * Creates and commits a region spanning a single designer index. Output 
+	 * interactions sent with this region are only delivered to designers 
+	 * which subscribed with an overlapping region.
+	 *
+	 * @param rtiAmbassador the RTI ambassador
+	 * @param designerIndex the designer index
+	 * @return the region handle set containing the new region
+	 * @throws InvalidDimensionHandle the invalid dimension handle
+	 * @throws InvalidRangeBound the invalid range bound
+	 * @throws RegionDoesNotContainSpecifiedDimension the region does not contain specified dimension
+	 * @throws RegionNotCreatedByThisFederate the region not created by this federate
+	 * @throws InvalidRegion the invalid region
+	 * @throws SaveInProgress the save in progress
+	 * @throws RestoreInProgress the restore in progress
+	 * @throws FederateNotExecutionMember the federate not execution member
+	 * @throws NotConnected the not connected
+	 * @throws RTIinternalError the RTI internal error
+	 */
+	RegionHandleSet createDesignerRegion(RTIambassador rtiAmbassador, 
+			int designerIndex) 
+			throws InvalidDimensionHandle, InvalidRangeBound, 
+			RegionDoesNotContainSpecifiedDimension, 
+			RegionNotCreatedByThisFederate, InvalidRegion, SaveInProgress, 
+			RestoreInProgress, FederateNotExecutionMember, NotConnected, 
+			RTIinternalError {
+		// create a region over the designer index dimension
+		DimensionHandleSet dimensions = rtiAmbassador
+				.getDimensionHandleSetFactory().create();
+		dimensions.add(designerIndexDimension);
+		RegionHandle region = rtiAmbassador.createRegion(dimensions);
+		
+		// bound the region to the half-open range [index, index + 1)
+		rtiAmbassador.setRangeBounds(region, designerIndexDimension, 
+				new RangeBounds(designerIndex, designerIndex + 1));
+		
+		RegionHandleSet regions = rtiAmbassador
+				.getRegionHandleSetFactory().create();
+		regions.add(region);
+		rtiAmbassador.commitRegionModifications(regions);
+		return regions;
+	}
+	
+	/**
+	 * Gets the handle for an attribute.
+	 *
+	 * @param attribute the attribute
+	 * @return the attribute handle
+	 */
+	AttributeHandle get(Attribute attribute) {
+		return attributeHandles[attribute.ordinal()];
+	}
+	
+	/**
+	 * Gets the handle for a parameter.
+	 *
+	 * @param parameter the parameter
+	 * @return the parameter handle
+	 */
+	ParameterHandle get(Parameter parameter) {
+		return parameterHandles[parameter.ordinal()];
+	}
+	
+	/**
+	 * Gets the attribute for a handle.
+	 *
+	 * @param handle the attribute handle
+	 * @return the attribute, or null if the handle is not registered
+	 */
+	Attribute getAttribute(AttributeHandle handle) {
+		return attributes.get(handle);
+	}
+	
+	/**
+	 * Gets the designer object class handle.
+	 *
+	 * @return the designer class handle
+	 */
+	ObjectClassHandle getDesignerClass() {
+		return designerClass;
+	}
+	
+	/**
+	 * Gets the designer index dimension handle.
+	 *
+	 * @return the designer index dimension handle
+	 */
+	DimensionHandle getDesignerIndexDimension() {
+		return designerIndexDimension;
+	}
+	
+	/**
+	 * Gets the designer output interaction class handle.
+	 *
+	 * @return the designer output class handle
+	 */
+	InteractionClassHandle getDesignerOutputClass() {
+		return designerOutputClass;
+	}
+	
+	/**
+	 * Gets the manager object class handle.
+	 *
+	 * @return the manager class handle
+	 */
+	ObjectClassHandle getManagerClass() {
+		return managerClass;
+	}
+	
+	/**
+	 * Gets the parameter for a handle.
+	 *
+	 * @param handle the parameter handle
+	 * @return the parameter, or null if the handle is not registered
+	 */
+	Parameter getParameter(ParameterHandle handle) {
+		return parameters.get(handle);
+	}
+}
@@ -21,22 +21,34 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.MalformedURLException;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
 
 import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
 import javax.swing.event.EventListenerList;
 
 import org.apache.commons.math3.linear.RealVector;
 import org.apache.log4j.Logger;
 
 import edu.mit.collab.core.Designer;
+import edu.mit.collab.core.DesignerRegistry;
 import edu.mit.collab.core.Experiment;
 import edu.mit.collab.core.SystemModel;
 import edu.mit.collab.event.DesignerEvent;
 import edu.mit.collab.event.DesignerListener;
+import edu.mit.collab.hla.HandleRegistry.Attribute;
+import edu.mit.collab.hla.HandleRegistry.Parameter;
+import edu.mit.collab.transport.ManagerTransport;
+import hla.rti1516e.AttributeHandle;
 import hla.rti1516e.AttributeHandleSet;
 import hla.rti1516e.AttributeHandleValueMap;
 import hla.rti1516e.CallbackModel;
@@ -47,7 +59,9 @@ import hla.rti1516e.NullFederateAmbassador;
 import hla.rti1516e.ObjectClassHandle;
 import hla.rti1516e.ObjectInstanceHandle;
 import hla.rti1516e.OrderType;
+import hla.rti1516e.ParameterHandleValueMap;
 import hla.rti1516e.RTIambassador;
+import hla.rti1516e.RegionHandleSet;
 import hla.rti1516e.ResignAction;
 import hla.rti1516e.RtiFactory;
 import hla.rti1516e.RtiFactoryFactory;
@@ -57,7 +71,6 @@ import hla.rti1516e.encoding.EncoderException;
 import hla.rti1516e.encoding.EncoderFactory;
 import hla.rti1516e.encoding.HLAboolean;
 import hla.rti1516e.encoding.HLAinteger32BE;
-import hla.rti1516e.encoding.HLAunicodeString;
 import hla.rti1516e.exceptions.AlreadyConnected;
 import hla.rti1516e.exceptions.AttributeNotDefined;
 import hla.rti1516e.exceptions.AttributeNotOwned;
@@ -75,8 +88,16 @@ import hla.rti1516e.exceptions.FederatesCurrentlyJoined;
 import hla.rti1516e.exceptions.FederationExecutionAlreadyExists;
 import hla.rti1516e.exceptions.FederationExecutionDoesNotExist;
 import hla.rti1516e.exceptions.InconsistentFDD;
+import hla.rti1516e.exceptions.InteractionClassNotDefined;
+import hla.rti1516e.exceptions.InteractionClassNotPublished;
+import hla.rti1516e.exceptions.InteractionParameterNotDefined;
+import hla.rti1516e.exceptions.InvalidDimensionHandle;
+import hla.rti1516e.exceptions.InvalidInteractionClassHandle;
 import hla.rti1516e.exceptions.InvalidLocalSettingsDesignator;
 import hla.rti1516e.exceptions.InvalidObjectClassHandle;
+import hla.rti1516e.exceptions.InvalidRangeBound;
+import hla.rti1516e.exceptions.InvalidRegion;
+import hla.rti1516e.exceptions.InvalidRegionContext;
 import hla.rti1516e.exceptions.InvalidResignAction;
 import hla.rti1516e.exceptions.NameNotFound;
 import hla.rti1516e.exceptions.NotConnected;
@@ -85,6 +106,8 @@ import hla.rti1516e.exceptions.ObjectClassNotPublished;
 import hla.rti1516e.exceptions.ObjectInstanceNotKnown;
 import hla.rti1516e.exceptions.OwnershipAcquisitionPending;
 import hla.rti1516e.exceptions.RTIinternalError;
+import hla.rti1516e.exceptions.RegionDoesNotContainSpecifiedDimension;
+import hla.rti1516e.exceptions.RegionNotCreatedByThisFederate;
 import hla.rti1516e.exceptions.RestoreInProgress;
 import hla.rti1516e.exceptions.SaveInProgress;
 import hla.rti1516e.exceptions.UnsupportedCallbackModel;
@@ -97,45 +120,63 @@ import hla.rti1516e.exceptions.UnsupportedCallbackModel;
  * 
  * @author Paul T. Grogan
  */
-public class ManagerAmbassador extends NullFederateAmbassador {
+public class ManagerAmbassador extends NullFederateAmbassador 
+		implements ManagerTransport {
 	private static Logger logger = Logger.getLogger(ManagerAmbassador.class);
 	private static enum DesignerAction {ADD, INPUT_UPDATE, 
 		STATE_UPDATE, REMOVE};
 	
 	// the variables below define configuration strings for various
-	// commands issued to the RTI ambassador
+	// commands issued to the RTI ambassador (object class and attribute
+	// names are defined in the handle registry)
 	private static final String federateType = "manager";
-	private static final String managerClassName = "HLAobjectRoot.Manager";
-	private static final String outputAttributeName = "Output";
-	private static final String initialInputAttributeName = "InitialInput";
-	private static final String targetOutputAttributeName = "TargetOutput";
-	private static final String activeModelAttributeName = "ActiveModel";
-	private static final String inputIndicesAttributeName = "InputIndices";
-	private static final String outputIndicesAttributeName = "OutputIndices";
-	private static final String inputLabelsAttributeName = "InputLabels";
-	private static final String outputLabelsAttributeName = "OutputLabels";
-	private static final String designerClassName = "HLAobjectRoot.Designer";
-	private static final String inputAttributeName = "Input";
-	private static final String indexAttributeName = "Index";
-	private static final String readyAttributeName = "Ready";
+	
+	// the maximum number of output deltas sent between full keyframes
+	private static final int keyframeInterval = 20;
 	
 	private transient String objectInstanceName; // set upon connection to RTI
+	private transient ObjectInstanceHandle objectInstanceHandle; // set upon connection to RTI
+	private transient HandleRegistry handles; // set upon connection to RTI
 
 	private final RTIambassador rtiAmbassador; // immutable
 	private final EncoderFactory encoderFactory; // immutable
 	private final String federationName; //immutable
 	private final String fomPath; // immutable
-
-	private final HLAfloatVector initialInput, targetOutput, outputs; // mutable
-	private final HLAintegerMatrix inputIndices, outputIndices; // mutable
-	private final HLAunicodeString activeModel; // mutable
-	private final HLAstringVector inputLabels, outputLabels; // mutable
+	private final boolean routeOutputs; // immutable
+	private final CallbackModel callbackModel; // immutable
+	private final CallbackPump callbackPump; // immutable (null if immediate)
+	
+	// encoded model attribute payloads for the active model and a task 
+	// encoding the payloads for the next model in the background (accessed 
+	// in the thread updating model attributes), so at most two models are 
+	// encoded and retained rather than every model of the experiment
+	private volatile ModelPayloads modelPayloads; // mutable
+	private FutureTask<ModelPayloads> nextPayloads; // mutable
+	private final ExecutorService payloadExecutor; // immutable
+	private final HLAoutputDelta outputDelta; // mutable
+	private volatile boolean solved; // mutable
+	
+	// data element and buffer reused to decode reflected inputs, which the 
+	// RTI delivers on a single callback thread; the buffer only grows when 
+	// a model has more inputs than any previous model
+	private final HLAfloatVector decodedInput = new HLAfloatVector(); // mutable
+	private double[] inputValues = new double[0]; // mutable
+	private double[] lastOutput = new double[0]; // mutable
+	private int outputSequenceNumber; // mutable
+	private int deltasSinceKeyframe; // mutable
+	
+	// output indices and regions used to route outputs to each designer
+	private final HLAinteger32BE routedIndex; // mutable
+	private final HLAfloatVector routedOutput; // mutable
+	private int[][] routedOutputIndices = new int[0][0]; // mutable
+	private double[][] routedOutputValues = new double[0][0]; // mutable
+	private final Map<Integer, RegionHandleSet> designerRegions = 
+			new HashMap<Integer, RegionHandleSet>(); // mutable
 	private final EventListenerList listenerList = new EventListenerList(); // mutable
 	
-	// synchronized mutable map to support multi-threaded application
-	private final Map<ObjectInstanceHandle, Designer> designers = 
-			Collections.synchronizedMap(
-					new HashMap<ObjectInstanceHandle, Designer>());
+	// concurrent registry so callbacks look up designers without blocking
+	private final DesignerRegistry<ObjectInstanceHandle> designers = 
+			new DesignerRegistry<ObjectInstanceHandle>(); // mutable
 	
 	/**
 	 * Instantiates a new manager ambassador.
@@ -152,6 +193,11 @@ public class ManagerAmbassador extends NullFederateAmbassador {
 	    String rtiName = properties.getProperty("rtiName", null);
 	    federationName = properties.getProperty("federationName", "collab");
 	    fomPath = properties.getProperty("fomPath", "collab.xml");
+	    routeOutputs = Boolean.parseBoolean(
+	    		properties.getProperty("routeOutputs", "true"));
+	    callbackModel = "evoked".equalsIgnoreCase(properties.getProperty(
+	    		"callbackModel", "immediate")) ? CallbackModel.HLA_EVOKED 
+	    				: CallbackModel.HLA_IMMEDIATE;
       
 		// create the RTI factory and store ambassador and encoder objects
 	    RtiFactory rtiFactory = null;
@@ -163,15 +209,40 @@ public class ManagerAmbassador extends NullFederateAmbassador {
 		rtiAmbassador = rtiFactory.getRtiAmbassador();
 		encoderFactory = rtiFactory.getEncoderFactory();
 		
+		// create a callback pump to evoke callbacks on a dedicated thread
+		if(callbackModel == CallbackModel.HLA_EVOKED) {
+			callbackPump = new CallbackPump("Manager", rtiAmbassador, 
+					Double.parseDouble(properties.getProperty(
+							"evokeMinimumWait", "0.01")), 
+					Double.parseDouble(properties.getProperty(
+							"evokeMaximumWait", "0.1")), 
+					Integer.parseInt(properties.getProperty(
+							"callbackQueueCapacity", "1024")));
+		} else {
+			callbackPump = null;
+		}
+		
 		// create hla-compatible data elements for encoding/decoding values
-		initialInput = new HLAfloatVector(encoderFactory);
-		targetOutput = new HLAfloatVector(encoderFactory);
-		outputs = new HLAfloatVector(encoderFactory);
-		activeModel = encoderFactory.createHLAunicodeString();
-		inputIndices = new HLAintegerMatrix(encoderFactory);
-		outputIndices = new HLAintegerMatrix(encoderFactory);
-		inputLabels = new HLAstringVector(encoderFactory);
-		outputLabels = new HLAstringVector(encoderFactory);
+		outputDelta = new HLAoutputDelta(encoderFactory);
+		routedIndex = encoderFactory.createHLAinteger32BE();
+		routedOutput = new HLAfloatVector();
+		
+		// encode the payloads for no experiment and create an executor to 
+		// prepare the payloads of the next model in the background
+		try {
+			modelPayloads = new ModelPayloads(null, null, encoderFactory);
+		} catch(EncoderException ex) {
+			throw new RTIinternalError("Could not encode model attributes.", ex);
+		}
+		payloadExecutor = Executors.newSingleThreadExecutor(
+				new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "Manager Payloads");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
 	}
 	
 	/**
@@ -204,33 +275,24 @@ public class ManagerAmbassador extends NullFederateAmbassador {
 		// to the list of discovered designers and request attribute updates
 		try {
 			// check if object is a designer (shouldn't be anything else!)
-			if(theObjectClass.equals(
-					rtiAmbassador.getObjectClassHandle(designerClassName))) {
+			if(theObjectClass.equals(handles.getDesignerClass())) {
 				// create new designer object
 				Designer design = new Designer(objectName);
 				
-				// add object class handle and designer object to 
-				// thread-safe map using a synchronized block
-				synchronized(designers) {
-					designers.put(theObject, design);
-				}
+				// add object instance handle and designer object to 
+				// the thread-safe registry
+				designers.add(theObject, design);
 				
 				// create a new attribute handle set to request updates of the
 				// designer's attributes
 				AttributeHandleSet attributes = rtiAmbassador
 						.getAttributeHandleSetFactory().create();
 				// add index attribute
-				attributes.add(rtiAmbassador.getAttributeHandle(
-						rtiAmbassador.getObjectClassHandle(designerClassName),
-						indexAttributeName));
+				attributes.add(handles.get(Attribute.INDEX));
 				// add ready attribute
-				attributes.add(rtiAmbassador.getAttributeHandle(
-						rtiAmbassador.getObjectClassHandle(designerClassName),
-						readyAttributeName));
+				attributes.add(handles.get(Attribute.READY));
 				// add input attribute
-				attributes.add(rtiAmbassador.getAttributeHandle(
-						rtiAmbassador.getObjectClassHandle(designerClassName),
-						inputAttributeName));
+				attributes.add(handles.get(Attribute.INPUT));
 				// issue request attribute value update service call
 				rtiAmbassador.requestAttributeValueUpdate(theObject, 
 						attributes, new byte[0]);
@@ -239,20 +301,190 @@ public class ManagerAmbassador extends NullFederateAmbassador {
 			// in the case of an exception (from the request attribute value
 			// update call), print stack trace and show error message
 			ex.printStackTrace();
-			JOptionPane.showMessageDialog(null, "An exception of type " + 
+			showErrorMessage("An exception of type " + 
 					ex.getMessage() + " occurred while discovering an object. " +
-					"See stack trace for more information.", 
-					"Error", JOptionPane.ERROR_MESSAGE);
+					"See stack trace for more information.");
+		}
+	}
+	
+	/**
+	 * Encodes an output update as a delta against the last sent outputs, 
+	 * falling back to a keyframe if requested, if the output dimension 
+	 * changes, if the delta would not be smaller than a keyframe, or if 
+	 * the keyframe interval has elapsed. A <code>null</code> output 
+	 * re-encodes the last sent outputs as a keyframe without advancing the 
+	 * sequence number to resynchronize designers which detected a gap. 
+	 * Unless a keyframe is required, no delta is encoded (or sequenced) if 
+	 * no outputs changed.
+	 *
+	 * @param output the output values, or null to resynchronize
+	 * @param forceKeyframe true, if a keyframe is required
+	 * @return the encoded output delta, or null if no outputs changed
+	 * @throws EncoderException the encoder exception
+	 */
+	private byte[] encodeOutputDelta(double[] output, boolean forceKeyframe) 
+			throws EncoderException {
+		synchronized(outputDelta) {
+			if(output == null) {
+				outputDelta.setValue(outputSequenceNumber, lastOutput);
+				return outputDelta.toByteArray();
+			}
+			
+			// find the outputs which changed since the last update
+			int numberChanged = 0;
+			int[] changedIndices = new int[output.length];
+			if(output.length == lastOutput.length) {
+				for(int i = 0; i < output.length; i++) {
+					if(output[i] != lastOutput[i]) {
+						changedIndices[numberChanged++] = i;
+					}
+				}
+			}
+			if(!forceKeyframe && output.length == lastOutput.length 
+					&& numberChanged == 0) {
+				// nothing to send
+				return null;
+			}
+			
+			outputSequenceNumber++;
+			if(forceKeyframe || output.length != lastOutput.length 
+					|| (numberChanged > 0 && 2*numberChanged >= output.length)
+					|| ++deltasSinceKeyframe >= keyframeInterval) {
+				// send the complete output vector
+				outputDelta.setValue(outputSequenceNumber, output);
+				deltasSinceKeyframe = 0;
+			} else {
+				// send only the changed entries
+				double[] changedValues = new double[numberChanged];
+				for(int i = 0; i < numberChanged; i++) {
+					changedValues[i] = output[changedIndices[i]];
+				}
+				outputDelta.setValue(outputSequenceNumber, Arrays.copyOf(
+						changedIndices, numberChanged), changedValues);
+			}
+			lastOutput = output;
+			return outputDelta.toByteArray();
 		}
 	}
 	
 	/**
-	 * Fires a designer event corresponding to an observed action.
+	 * Fires a designer event corresponding to an observed action. If callbacks 
+	 * are evoked by a callback pump, listeners are notified on its 
+	 * dispatch thread; otherwise, listeners are notified on the calling 
+	 * RTI callback thread.
 	 *
 	 * @param action the action
 	 * @param event the event
 	 */
-	private void fireDesignerEvent(DesignerAction action, 
+	private void fireDesignerEvent(final DesignerAction action, 
+			final DesignerEvent event) {
+		if(callbackPump == null) {
+			notifyDesignerListeners(action, event);
+		} else {
+			callbackPump.dispatch(new Runnable() {
+				@Override
+				public void run() {
+					notifyDesignerListeners(action, event);
+				}
+			});
+		}
+	}
+	
+	/**
+	 * Gets the callback pump used to evoke callbacks.
+	 *
+	 * @return the callback pump, or null if callbacks are immediate
+	 */
+	public CallbackPump getCallbackPump() {
+		return callbackPump;
+	}
+	
+	/**
+	 * Gets the region bounding a designer index, creating it if necessary.
+	 *
+	 * @param designerIndex the designer index
+	 * @return the region handle set
+	 * @throws InvalidDimensionHandle the invalid dimension handle
+	 * @throws InvalidRangeBound the invalid range bound
+	 * @throws RegionDoesNotContainSpecifiedDimension the region does not contain specified dimension
+	 * @throws RegionNotCreatedByThisFederate the region not created by this federate
+	 * @throws InvalidRegion the invalid region
+	 * @throws SaveInProgress the save in progress
+	 * @throws RestoreInProgress the restore in progress
+	 * @throws FederateNotExecutionMember the federate not execution member
+	 * @throws NotConnected the not connected
+	 * @throws RTIinternalError the RTI internal error
+	 */
+	private RegionHandleSet getDesignerRegion(int designerIndex) 
+			throws InvalidDimensionHandle, InvalidRangeBound, 
+			RegionDoesNotContainSpecifiedDimension, 
+			RegionNotCreatedByThisFederate, InvalidRegion, SaveInProgress, 
+			RestoreInProgress, FederateNotExecutionMember, NotConnected, 
+			RTIinternalError {
+		// regions are retained for the life of the federate so each 
+		// designer index is only committed to the RTI once
+		RegionHandleSet regions = designerRegions.get(designerIndex);
+		if(regions == null) {
+			regions = handles.createDesignerRegion(
+					rtiAmbassador, designerIndex);
+			designerRegions.put(designerIndex, regions);
+		}
+		return regions;
+	}
+	
+	/**
+	 * Gets the instance name issued by the RTI.
+	 *
+	 * @return the instance name
+	 */
+	public String getInstanceName() {
+		return objectInstanceName;
+	}
+	
+	/**
+	 * Gets the encoded model attribute payloads for the active model of an 
+	 * experiment. The payloads prepared in the background for the next 
+	 * model are used if they are complete and were prepared for the active 
+	 * model; otherwise the payloads are encoded in the calling thread.
+	 *
+	 * @param experiment the experiment
+	 * @return the model payloads
+	 * @throws EncoderException the encoder exception
+	 */
+	private ModelPayloads getModelPayloads(Experiment experiment) 
+			throws EncoderException {
+		SystemModel model = experiment==null ? 
+				null : experiment.getActiveModel();
+		
+		// take the payloads prepared for the next model, if any
+		FutureTask<ModelPayloads> task = nextPayloads;
+		nextPayloads = null;
+		if(task != null && task.isDone() && !task.isCancelled()) {
+			try {
+				ModelPayloads payloads = task.get();
+				if(model != null && payloads != null 
+						&& payloads.getModel() == model) {
+					return payloads;
+				}
+			} catch(InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			} catch(ExecutionException ex) {
+				logger.warn("Could not prepare model payloads.", ex.getCause());
+			}
+		} else if(task != null) {
+			// discard an incomplete task rather than wait for it
+			task.cancel(false);
+		}
+		return new ModelPayloads(experiment, model, encoderFactory);
+	}
+	
+	/**
+	 * Notifies designer listeners of an observed action.
+	 *
+	 * @param action the action
+	 * @param event the event
+	 */
+	private void notifyDesignerListeners(DesignerAction action, 
 			DesignerEvent event) {
 		// get the list of designer listeners
 		DesignerListener[] listeners = listenerList.getListeners(
@@ -277,12 +509,29 @@ public class ManagerAmbassador extends NullFederateAmbassador {
 	}
 	
 	/**
-	 * Gets the instance name issued by the RTI.
+	 * Prepares the encoded model attribute payloads for the next model of 
+	 * an experiment on a background thread, so advancing to it only sends 
+	 * cached payloads. The next model is peeked from the experiment, so a 
+	 * lazily materialized model is shared with (rather than duplicated by) 
+	 * the manager application preparing it.
 	 *
-	 * @return the instance name
+	 * @param experiment the experiment
 	 */
-	public String getInstanceName() {
-		return objectInstanceName;
+	private void prepareNextPayloads(final Experiment experiment) {
+		if(experiment == null) {
+			return;
+		}
+		FutureTask<ModelPayloads> task = new FutureTask<ModelPayloads>(
+				new Callable<ModelPayloads>() {
+			@Override
+			public ModelPayloads call() throws EncoderException {
+				SystemModel model = experiment.peekNextModel();
+				return model == null ? null : 
+					new ModelPayloads(experiment, model, encoderFactory);
+			}
+		});
+		nextPayloads = task;
+		payloadExecutor.execute(task);
 	}
 	
 	@Override
@@ -295,105 +544,57 @@ public class ManagerAmbassador extends NullFederateAmbassador {
 		// of the manager
 		try {
 			// check to make sure that the object requested is this manager
-			if(theObject.equals(rtiAmbassador.getObjectInstanceHandle(
-					objectInstanceName))) {
+			if(theObject.equals(objectInstanceHandle)) {
 				// create an attribute handle value map to store data
 				AttributeHandleValueMap attributes = rtiAmbassador.
 						getAttributeHandleValueMapFactory().create(6);
 
-				// if the initial input is requested, add it to the map
-				if(theAttributes.contains(rtiAmbassador.getAttributeHandle(
-						rtiAmbassador.getObjectClassHandle(managerClassName), 
-						initialInputAttributeName))) {
-					attributes.put(rtiAmbassador.getAttributeHandle(
-							rtiAmbassador.getObjectClassHandle(managerClassName), 
-							initialInputAttributeName), 
-							initialInput.toByteArray());
-				}
-				
-				// if the target output is requested, add it to the map
-				if(theAttributes.contains(rtiAmbassador.getAttributeHandle(
-						rtiAmbassador.getObjectClassHandle(managerClassName), 
-						targetOutputAttributeName))) {
-					attributes.put(rtiAmbassador.getAttributeHandle(
-							rtiAmbassador.getObjectClassHandle(managerClassName), 
-							targetOutputAttributeName), 
-							targetOutput.toByteArray());
-				}
-
-				// if the outputs are requested, add it to the map
-				if(theAttributes.contains(rtiAmbassador.getAttributeHandle(
-						rtiAmbassador.getObjectClassHandle(managerClassName), 
-						outputAttributeName))) {
-					attributes.put(rtiAmbassador.getAttributeHandle(
-							rtiAmbassador.getObjectClassHandle(managerClassName), 
-							outputAttributeName), 
-							outputs.toByteArray());
-				}
-
-				// if the active model is requested, add it to the map
-				if(theAttributes.contains(rtiAmbassador.getAttributeHandle(
-						rtiAmbassador.getObjectClassHandle(managerClassName), 
-						activeModelAttributeName))) {
-					attributes.put(rtiAmbassador.getAttributeHandle(
-							rtiAmbassador.getObjectClassHandle(managerClassName), 
-							activeModelAttributeName), 
-							activeModel.toByteArray());
-				}
-
-				// if the input indices are requested, add it to the map
-				if(theAttributes.contains(rtiAmbassador.getAttributeHandle(
-						rtiAmbassador.getObjectClassHandle(managerClassName), 
-						inputIndicesAttributeName))) {
-					attributes.put(rtiAmbassador.getAttributeHandle(
-							rtiAmbassador.getObjectClassHandle(managerClassName), 
-							inputIndicesAttributeName), 
-							inputIndices.toByteArray());
-				}
-
-				// if the output indices are requested, add it to the map
-				if(theAttributes.contains(rtiAmbassador.getAttributeHandle(
-						rtiAmbassador.getObjectClassHandle(managerClassName), 
-						outputIndicesAttributeName))) {
-					attributes.put(rtiAmbassador.getAttributeHandle(
-							rtiAmbassador.getObjectClassHandle(managerClassName), 
-							outputIndicesAttributeName), 
-							outputIndices.toByteArray());
-				}
-
-				// if the input labels are requested, add it to the map
-				if(theAttributes.contains(rtiAmbassador.getAttributeHandle(
-						rtiAmbassador.getObjectClassHandle(managerClassName), 
-						inputLabelsAttributeName))) {
-					attributes.put(rtiAmbassador.getAttributeHandle(
-							rtiAmbassador.getObjectClassHandle(managerClassName), 
-							inputLabelsAttributeName), 
-							inputLabels.toByteArray());
-				}
-
-				// if the output labels are requested, add it to the map
-				if(theAttributes.contains(rtiAmbassador.getAttributeHandle(
-						rtiAmbassador.getObjectClassHandle(managerClassName), 
-						outputLabelsAttributeName))) {
-					attributes.put(rtiAmbassador.getAttributeHandle(
-							rtiAmbassador.getObjectClassHandle(managerClassName), 
-							outputLabelsAttributeName), 
-							outputLabels.toByteArray());
+				// add each requested attribute to the map, dispatching on the
+				// registered attribute for each requested handle
+				for(AttributeHandle handle : theAttributes) {
+					Attribute attribute = handles.getAttribute(handle);
+					if(attribute == null) {
+						// ignore handles which are not registered
+						continue;
+					}
+					switch(attribute) {
+					case OUTPUT_DELTA:
+						// a request for the delta signals a gap; resend 
+						// the current outputs as a keyframe
+						attributes.put(handle, encodeOutputDelta(null, true));
+						break;
+					case SOLVED:
+						attributes.put(handle, encoderFactory
+								.createHLAboolean(solved).toByteArray());
+						break;
+					case INITIAL_INPUT:
+					case TARGET_OUTPUT:
+					case ACTIVE_MODEL:
+					case INPUT_INDICES:
+					case OUTPUT_INDICES:
+					case INPUT_LABELS:
+					case OUTPUT_LABELS:
+						// send the cached payloads of the active model
+						attributes.put(handle, 
+								modelPayloads.getPayload(attribute));
+						break;
+					default:
+						// ignore designer attributes
+					}
 				}
 				
 				// use the rti's update attribute value service to issue updates
 				rtiAmbassador.updateAttributeValues(
-						rtiAmbassador.getObjectInstanceHandle(objectInstanceName), 
+						objectInstanceHandle, 
 						attributes, new byte[0]);
 			}
 		}  catch (Exception ex) {
 			// in the case of an exception (from the update attribute value
 			// call), print stack trace and show error message
 			ex.printStackTrace();
-			JOptionPane.showMessageDialog(null, "An exception of type " + 
+			showErrorMessage("An exception of type " + 
 					ex.getMessage() + " occurred while providing attribute " +
-					"updates. See stack trace for more information.", 
-					"Error", JOptionPane.ERROR_MESSAGE);
+					"updates. See stack trace for more information.");
 		}
 	}
 
@@ -409,51 +610,44 @@ public class ManagerAmbassador extends NullFederateAmbassador {
 	 * @throws ObjectClassNotDefined the object class not defined
 	 * @throws SaveInProgress the save in progress
 	 * @throws RestoreInProgress the restore in progress
+	 * @throws InteractionClassNotDefined the interaction class not defined
 	 */
 	private void publish() 
 			throws FederateNotExecutionMember, NotConnected, 
 			NameNotFound, InvalidObjectClassHandle, RTIinternalError, 
 			AttributeNotDefined, ObjectClassNotDefined, SaveInProgress, 
-			RestoreInProgress {
+			RestoreInProgress, InteractionClassNotDefined {
 		// create a new attribute handle set to store attributes
 		AttributeHandleSet attributeHandleSet = rtiAmbassador
 				.getAttributeHandleSetFactory().create();
-		// add the outputs to the set
-		attributeHandleSet.add(rtiAmbassador.getAttributeHandle(
-				rtiAmbassador.getObjectClassHandle(managerClassName), 
-				outputAttributeName));
+		// add the output deltas to the set
+		attributeHandleSet.add(handles.get(Attribute.OUTPUT_DELTA));
+		// add the solved state to the set
+		attributeHandleSet.add(handles.get(Attribute.SOLVED));
 		// add the initial input to the set
-		attributeHandleSet.add(rtiAmbassador.getAttributeHandle(
-				rtiAmbassador.getObjectClassHandle(managerClassName), 
-				initialInputAttributeName));
+		attributeHandleSet.add(handles.get(Attribute.INITIAL_INPUT));
 		// add the target output to the set
-		attributeHandleSet.add(rtiAmbassador.getAttributeHandle(
-				rtiAmbassador.getObjectClassHandle(managerClassName), 
-				targetOutputAttributeName));
+		attributeHandleSet.add(handles.get(Attribute.TARGET_OUTPUT));
 		// add the active model to the set
-		attributeHandleSet.add(rtiAmbassador.getAttributeHandle(
-				rtiAmbassador.getObjectClassHandle(managerClassName), 
-				activeModelAttributeName));
+		attributeHandleSet.add(handles.get(Attribute.ACTIVE_MODEL));
 		// add the input indices to the set
-		attributeHandleSet.add(rtiAmbassador.getAttributeHandle(
-				rtiAmbassador.getObjectClassHandle(managerClassName), 
-				inputIndicesAttributeName));
+		attributeHandleSet.add(handles.get(Attribute.INPUT_INDICES));
 		// add the output indices to the set
-		attributeHandleSet.add(rtiAmbassador.getAttributeHandle(
-				rtiAmbassador.getObjectClassHandle(managerClassName), 
-				outputIndicesAttributeName));
+		attributeHandleSet.add(handles.get(Attribute.OUTPUT_INDICES));
 		// add the input labels to the set
-		attributeHandleSet.add(rtiAmbassador.getAttributeHandle(
-				rtiAmbassador.getObjectClassHandle(managerClassName), 
-				inputLabelsAttributeName));
+		attributeHandleSet.add(handles.get(Attribute.INPUT_LABELS));
 		// add the output labels to the set
-		attributeHandleSet.add(rtiAmbassador.getAttributeHandle(
-				rtiAmbassador.getObjectClassHandle(managerClassName), 
-				outputLabelsAttributeName));
+		attributeHandleSet.add(handles.get(Attribute.OUTPUT_LABELS));
 		// use the RTI service to publish object class attributes
 		rtiAmbassador.publishObjectClassAttributes(
-				rtiAmbassador.getObjectClassHandle(managerClassName),
+				handles.getManagerClass(),
 				attributeHandleSet);
+		
+		if(routeOutputs) {
+			// use the RTI service to publish the designer output interaction
+			rtiAmbassador.publishInteractionClass(
+					handles.getDesignerOutputClass());
+		}
 	}
 	
 	@Override
@@ -471,30 +665,37 @@ public class ManagerAmbassador extends NullFederateAmbassador {
 		// remote objects to reflect the processed updates
 		try {
 			// check whether the object has been previously discovered
-			Designer designer = null;
-			synchronized(designers) {
-				designer = designers.get(theObject);
-			}
+			Designer designer = designers.get(theObject);
 			
 			if(designer != null) {
 				// get the data corresponding to the index attribute
 				ByteWrapper wrapper = theAttributes.getValueReference(
-						rtiAmbassador.getAttributeHandle(
-								rtiAmbassador.getObjectClassHandle(
-										designerClassName), 
-								indexAttributeName));
+						handles.get(Attribute.INDEX));
 				if(wrapper != null) {
 					// wrapper has data; decode into an HLA data element
 					HLAinteger32BE index = encoderFactory.createHLAinteger32BE();
 					index.decode(wrapper);
 					
 					// designers can only update their index once; process
-					// update only if the current index is < 0 (uninitialized)
-					if(designer.getIndex() < 0) {
-						// update index value and fire event to notify
-						// listeners that a designer has been "added" 
-						// now that its index is defined
-						designer.setIndex(index.getValue());
+					// update only if the current index is uninitialized
+					if(designer.initializeIndex(index.getValue())) {
+						if(!designers.isValidIndex(index.getValue())) {
+							// reject the designer without notifying 
+							// listeners, so its updates are ignored
+							logger.warn(designer.getInstanceName() 
+									+ " has an invalid index " 
+									+ index.getValue() + " and did not join.");
+							return;
+						}
+						// claim the index slot; duplicates are still 
+						// reported to listeners to be rejected
+						if(!designers.claimIndex(designer)) {
+							logger.warn(designer.getInstanceName() 
+									+ " has a duplicate index " 
+									+ index.getValue() + ".");
+						}
+						// fire event to notify listeners that a designer 
+						// has been "added" now that its index is defined
 						fireDesignerEvent(DesignerAction.ADD, 
 								new DesignerEvent(this, designer));
 					}
@@ -502,27 +703,24 @@ public class ManagerAmbassador extends NullFederateAmbassador {
 				
 				// get the data corresponding to the input attribute
 				wrapper = theAttributes.getValueReference(
-						rtiAmbassador.getAttributeHandle(
-								rtiAmbassador.getObjectClassHandle(
-										designerClassName), 
-								inputAttributeName));
+						handles.get(Attribute.INPUT));
 				if(wrapper != null) {
 					// wrapper has data; decode into an HLA data element
-					HLAfloatVector input = new HLAfloatVector(encoderFactory);
-					input.decode(wrapper);
+					decodedInput.decode(wrapper);
+					if(inputValues.length < decodedInput.size()) {
+						inputValues = new double[decodedInput.size()];
+					}
 					
 					// update input value and fire event to notify listeners
-					designer.setInputVector(input.getValue());
+					designer.setInputVector(inputValues, 
+							decodedInput.getValue(inputValues));
 					fireDesignerEvent(DesignerAction.INPUT_UPDATE, 
 							new DesignerEvent(this, designer));
 				}
 				
 				// get the data corresponding to the ready attribute
 				wrapper = theAttributes.getValueReference(
-						rtiAmbassador.getAttributeHandle(
-								rtiAmbassador.getObjectClassHandle(
-										designerClassName), 
-								readyAttributeName));
+						handles.get(Attribute.READY));
 				if(wrapper != null) {
 					// wrapper has data; decode into an HLA data element
 					HLAboolean ready = encoderFactory.createHLAboolean();
@@ -538,10 +736,9 @@ public class ManagerAmbassador extends NullFederateAmbassador {
 			// in the case of an exception (from the various RTI calls), 
 			// print stack trace and show error message
 			ex.printStackTrace();
-			JOptionPane.showMessageDialog(null, "An exception of type " + 
+			showErrorMessage("An exception of type " + 
 					ex.getMessage() + " occurred while decoding an " +
-					"attribute update. See stack trace for more information.", 
-					"Error", JOptionPane.ERROR_MESSAGE);
+					"attribute update. See stack trace for more information.");
 		}
 	}
 
@@ -590,11 +787,8 @@ public class ManagerAmbassador extends NullFederateAmbassador {
 			OrderType receivedOrdering,
 			MessageRetractionHandle retractionHandle,
 			SupplementalRemoveInfo removeInfo) {
-		// try to remove designer from the designer map
-		Designer designer = null;
-		synchronized(designers) {
-			designer = designers.remove(theObject);
-		}
+		// try to remove designer from the designer registry
+		Designer designer = designers.remove(theObject);
 		if(designer != null) {
 			// notify listeners that designer has been removed
 			fireDesignerEvent(DesignerAction.REMOVE, 
@@ -624,6 +818,92 @@ public class ManagerAmbassador extends NullFederateAmbassador {
 				null, null, null, removeInfo);
 	}
 	
+	/**
+	 * Sends the outputs projected onto each designer's output indices as 
+	 * a designer output interaction bounded to that designer's region, so 
+	 * each designer only receives and decodes its own outputs. Nothing is 
+	 * sent to designers whose outputs did not change since last sent.
+	 *
+	 * @param outputVector the output vector
+	 * @throws FederateNotExecutionMember the federate not execution member
+	 * @throws NotConnected the not connected
+	 * @throws InvalidDimensionHandle the invalid dimension handle
+	 * @throws InvalidRangeBound the invalid range bound
+	 * @throws RegionDoesNotContainSpecifiedDimension the region does not contain specified dimension
+	 * @throws RegionNotCreatedByThisFederate the region not created by this federate
+	 * @throws InvalidRegion the invalid region
+	 * @throws InvalidRegionContext the invalid region context
+	 * @throws InteractionClassNotPublished the interaction class not published
+	 * @throws InteractionParameterNotDefined the interaction parameter not defined
+	 * @throws InteractionClassNotDefined the interaction class not defined
+	 * @throws SaveInProgress the save in progress
+	 * @throws RestoreInProgress the restore in progress
+	 * @throws RTIinternalError the RTI internal error
+	 * @throws EncoderException the encoder exception
+	 */
+	private void sendDesignerOutputs(RealVector outputVector) 
+			throws FederateNotExecutionMember, NotConnected, 
+			InvalidDimensionHandle, InvalidRangeBound, 
+			RegionDoesNotContainSpecifiedDimension, 
+			RegionNotCreatedByThisFederate, InvalidRegion, 
+			InvalidRegionContext, InteractionClassNotPublished, 
+			InteractionParameterNotDefined, InteractionClassNotDefined, 
+			SaveInProgress, RestoreInProgress, RTIinternalError, 
+			EncoderException {
+		int[][] indices = routedOutputIndices;
+		for(int d = 0; d < indices.length; d++) {
+			// compare the projection of the outputs onto the designer's 
+			// output indices with the outputs last sent to the designer 
+			// (exactly, as for output deltas)
+			double[] values = routedOutputValues[d];
+			boolean changed = false;
+			for(int i = 0; i < values.length; i++) {
+				if(outputVector.getEntry(indices[d][i]) != values[i]) {
+					changed = true;
+					break;
+				}
+			}
+			if(!changed) {
+				// send nothing to designers whose outputs did not change
+				continue;
+			}
+			for(int i = 0; i < values.length; i++) {
+				values[i] = outputVector.getEntry(indices[d][i]);
+			}
+			
+			// create a parameter handle value map to store data
+			ParameterHandleValueMap parameters = rtiAmbassador
+					.getParameterHandleValueMapFactory().create(2);
+			routedIndex.setValue(d);
+			parameters.put(handles.get(Parameter.DESIGNER_INDEX), 
+					routedIndex.toByteArray());
+			routedOutput.setValue(values);
+			parameters.put(handles.get(Parameter.OUTPUT), 
+					routedOutput.toByteArray());
+			
+			// use RTI service to send the interaction to the designer region
+			rtiAmbassador.sendInteractionWithRegions(
+					handles.getDesignerOutputClass(), 
+					parameters, getDesignerRegion(d), new byte[0]);
+		}
+	}
+	
+	/**
+	 * Shows an error message dialog on the event dispatch thread so the 
+	 * calling RTI callback thread is not blocked.
+	 *
+	 * @param message the message
+	 */
+	private static void showErrorMessage(final String message) {
+		SwingUtilities.invokeLater(new Runnable() {
+			@Override
+			public void run() {
+				JOptionPane.showMessageDialog(null, message, 
+						"Error", JOptionPane.ERROR_MESSAGE);
+			}
+		});
+	}
+	
 	/**
 	 * Shuts down the application. Resigns from the federation execution, 
 	 * attempts to destroy federation execution, and disconnects from the RTI.
@@ -640,6 +920,11 @@ public class ManagerAmbassador extends NullFederateAmbassador {
 			FederateOwnsAttributes, CallNotAllowedFromWithinCallback, 
 			RTIinternalError, FederateIsExecutionMember {
 		
+		// stop evoking callbacks before resigning
+		if(callbackPump != null) {
+			callbackPump.stop();
+		}
+		
 		// try to resign from the federation execution; ignore
 		// exceptions if already resigned or not connected
 		try {
@@ -689,6 +974,8 @@ public class ManagerAmbassador extends NullFederateAmbassador {
 	 * @throws ObjectClassNotDefined the object class not defined
 	 * @throws ObjectClassNotPublished 
 	 * @throws ObjectInstanceNotKnown 
+	 * @throws InvalidInteractionClassHandle the invalid interaction class handle
+	 * @throws InteractionClassNotDefined the interaction class not defined
 	 */
 	public void startUp() 
 			throws ConnectionFailed, InvalidLocalSettingsDesignator, 
@@ -700,11 +987,13 @@ public class ManagerAmbassador extends NullFederateAmbassador {
 			RestoreInProgress, FederateNotExecutionMember, NameNotFound, 
 			InvalidObjectClassHandle, AttributeNotDefined, 
 			ObjectClassNotDefined, ObjectInstanceNotKnown, 
-			ObjectClassNotPublished {
+			ObjectClassNotPublished, InvalidInteractionClassHandle, 
+			InteractionClassNotDefined {
 		// try to connect to the RTI; ignore if already connected
 		try {
-			// use the HLA_Evoked model to require explicit callbacks
-			rtiAmbassador.connect(this, CallbackModel.HLA_IMMEDIATE);
+			// use the configured callback model; the HLA_EVOKED model 
+			// requires explicit callbacks from the callback pump
+			rtiAmbassador.connect(this, callbackModel);
 		} catch(AlreadyConnected ignored) { }
 
 		// try to create the federation execution using the FOM file;
@@ -718,15 +1007,24 @@ public class ManagerAmbassador extends NullFederateAmbassador {
 			rtiAmbassador.joinFederationExecution(federateType, federationName);
 		} catch(FederateAlreadyExecutionMember ignored) { }
 		
+		// resolve all object class and attribute handles once so they are
+		// not looked up by name in callbacks or updates
+		handles = new HandleRegistry(rtiAmbassador);
+		
 		// publish and subscribe to object class attributes
 		publish();
 		subscribe();
 		
-		// register the object instance name
+		// register the object instance and store its handle and name
+		objectInstanceHandle = rtiAmbassador.registerObjectInstance(
+				handles.getManagerClass());
 		objectInstanceName = rtiAmbassador.getObjectInstanceName(
-				rtiAmbassador.registerObjectInstance(
-						rtiAmbassador.getObjectClassHandle(
-								managerClassName)));
+				objectInstanceHandle);
+		
+		// start evoking callbacks once handles are resolved
+		if(callbackPump != null) {
+			callbackPump.start();
+		}
 	}
 	
 	/**
@@ -751,20 +1049,14 @@ public class ManagerAmbassador extends NullFederateAmbassador {
 		AttributeHandleSet attributeHandleSet = rtiAmbassador
 				.getAttributeHandleSetFactory().create();
 		// add the input attribute
-		attributeHandleSet.add(rtiAmbassador.getAttributeHandle(
-				rtiAmbassador.getObjectClassHandle(designerClassName), 
-				inputAttributeName));
+		attributeHandleSet.add(handles.get(Attribute.INPUT));
 		// add the index attribute
-		attributeHandleSet.add(rtiAmbassador.getAttributeHandle(
-				rtiAmbassador.getObjectClassHandle(designerClassName), 
-				indexAttributeName));
+		attributeHandleSet.add(handles.get(Attribute.INDEX));
 		// add the ready attribute
-		attributeHandleSet.add(rtiAmbassador.getAttributeHandle(
-				rtiAmbassador.getObjectClassHandle(designerClassName), 
-				readyAttributeName));
+		attributeHandleSet.add(handles.get(Attribute.READY));
 		// use the RTI service to subscribe to the defined attributes
 		rtiAmbassador.subscribeObjectClassAttributes(
-				rtiAmbassador.getObjectClassHandle(designerClassName), 
+				handles.getDesignerClass(), 
 				attributeHandleSet);
 	}
 	
@@ -789,132 +1081,66 @@ public class ManagerAmbassador extends NullFederateAmbassador {
 			InvalidObjectClassHandle, RTIinternalError, EncoderException, 
 			AttributeNotOwned, AttributeNotDefined, ObjectInstanceNotKnown, 
 			SaveInProgress, RestoreInProgress {
-		// get the active model from the experiment
-		SystemModel model = experiment==null ? 
-				null : experiment.getActiveModel();
+		// get the payloads for the active model and store them to answer 
+		// later attribute requests, then prepare the next model's payloads
+		ModelPayloads payloads = getModelPayloads(experiment);
+		modelPayloads = payloads;
+		prepareNextPayloads(experiment);
+		
 		// create an attribute handle value map to store data
 		AttributeHandleValueMap attributes = 
-				rtiAmbassador.getAttributeHandleValueMapFactory().create(6);
-		
-		// initial input
-		if(model != null) {
-			// if model is not null, set initial input
-			initialInput.setValue(model.getInitialVector());
-		}
-		// add initial input to map
-		attributes.put(rtiAmbassador.getAttributeHandle(
-				rtiAmbassador.getObjectClassHandle(managerClassName), 
-				initialInputAttributeName), 
-				initialInput.toByteArray());
+				rtiAmbassador.getAttributeHandleValueMapFactory().create(8);
 		
-		// target output
-		if(model != null) {
-			// if model is not null, set target output
-			targetOutput.setValue(model.getTargetVector());
+		// add the cached model attribute payloads to the map
+		for(Attribute attribute : new Attribute[] {
+				Attribute.INITIAL_INPUT, Attribute.TARGET_OUTPUT, 
+				Attribute.INPUT_LABELS, Attribute.OUTPUT_LABELS, 
+				Attribute.ACTIVE_MODEL, Attribute.INPUT_INDICES, 
+				Attribute.OUTPUT_INDICES}) {
+			attributes.put(handles.get(attribute), 
+					payloads.getPayload(attribute));
 		}
-		// add target output to map
-		attributes.put(rtiAmbassador.getAttributeHandle(
-				rtiAmbassador.getObjectClassHandle(managerClassName), 
-				targetOutputAttributeName), 
-				targetOutput.toByteArray());
 		
 		// output
-		if(model != null) {
+		double[] output = lastOutput;
+		if(payloads.getInitialOutput() != null) {
 			// if model is not null, set output to output of initial inputs
-			outputs.setValue(model.getOutputVector(model.getInitialVector()));
+			output = payloads.getInitialOutput();
 		}
-		// add output to map
-		attributes.put(rtiAmbassador.getAttributeHandle(
-				rtiAmbassador.getObjectClassHandle(managerClassName), 
-				outputAttributeName), 
-				outputs.toByteArray());
+		// add output keyframe to map, starting a new delta sequence
+		attributes.put(handles.get(Attribute.OUTPUT_DELTA), 
+				encodeOutputDelta(output, true));
 		
-		// input labels
-		if(model != null) {
-			// if model is not null, set input labels
-			inputLabels.setValue(model.getInputLabels());
-		}
-		// add input labels to map
-		attributes.put(rtiAmbassador.getAttributeHandle(
-				rtiAmbassador.getObjectClassHandle(managerClassName), 
-				inputLabelsAttributeName), 
-				inputLabels.toByteArray());
+		// a new model is not solved until its outputs are updated
+		solved = false;
+		attributes.put(handles.get(Attribute.SOLVED), 
+				encoderFactory.createHLAboolean(solved).toByteArray());
 		
-		// output labels
-		if(model != null) {
-			// if model is not null, set output labels
-			outputLabels.setValue(model.getOutputLabels());
-		}
-		// add output labels to map
-		attributes.put(rtiAmbassador.getAttributeHandle(
-				rtiAmbassador.getObjectClassHandle(managerClassName), 
-				outputLabelsAttributeName), 
-				outputLabels.toByteArray());
-		
-		// active model
-		if(experiment == null) {
-			// if experiment is null, set active model to empty string
-			activeModel.setValue("");
-		} else if(experiment.isReady()) {
-			// if experiment is ready, set active model string
-			activeModel.setValue("Ready...");
-		} else if(experiment.isComplete()) {
-			// if experiment is complete, set active model string
-			activeModel.setValue("Complete!");
-		} else {
-			// otherwise, set active model to model name
-			activeModel.setValue(model.getName());
-		}
-		// add active model to map
-		attributes.put(rtiAmbassador.getAttributeHandle(
-				rtiAmbassador.getObjectClassHandle(managerClassName), 
-				activeModelAttributeName), 
-				activeModel.toByteArray());
-		
-		// input indices
-		if(experiment==null) {
-			// if experiment is null, use trivial input indices
-			inputIndices.setValue(new int[0][0]);
-		} else if(model == null) {
-			// if model is null, use nearly-trivial input indices
-			inputIndices.setValue(new int[experiment.getNumberDesigners()][0]);
-		} else {
-			// otherwise use model input indices
-			inputIndices.setValue(model.getInputIndices());
-		}
-		// add input indices to map
-		attributes.put(rtiAmbassador.getAttributeHandle(
-				rtiAmbassador.getObjectClassHandle(managerClassName), 
-				inputIndicesAttributeName), 
-				inputIndices.toByteArray());
-		
-		// output indices
-		if(experiment==null) {
-			// if experiment is null, use trivial output indices
-			outputIndices.setValue(new int[0][0]);
-		} else if(model == null) {
-			// if model is null, use nearly-trivial output indices
-			outputIndices.setValue(new int[experiment.getNumberDesigners()][0]);
-		} else {
-			// otherwise use model output indices
-			outputIndices.setValue(model.getOutputIndices());
+		// output indices used to route outputs to each designer and the 
+		// outputs last sent to each designer, i.e. those in the keyframe
+		routedOutputIndices = payloads.getOutputIndices();
+		routedOutputValues = new double[routedOutputIndices.length][];
+		for(int d = 0; d < routedOutputIndices.length; d++) {
+			routedOutputValues[d] = new double[routedOutputIndices[d].length];
+			for(int i = 0; i < routedOutputValues[d].length; i++) {
+				routedOutputValues[d][i] = routedOutputIndices[d][i] 
+						< output.length ? output[routedOutputIndices[d][i]] 
+								: Double.NaN;
+			}
 		}
-		// add output indices to map
-		attributes.put(rtiAmbassador.getAttributeHandle(
-				rtiAmbassador.getObjectClassHandle(managerClassName), 
-				outputIndicesAttributeName), 
-				outputIndices.toByteArray());
 		
 		// use RTI service to update attribute values using map
 		rtiAmbassador.updateAttributeValues(
-				rtiAmbassador.getObjectInstanceHandle(objectInstanceName), 
+				objectInstanceHandle, 
 				attributes, new byte[0]);
 	}
 	
 	/**
-	 * Updates the output attribute.
+	 * Updates the output and solved attributes. Outputs are only sent if 
+	 * they changed and the solved state is only sent if it changed.
 	 *
 	 * @param outputVector the output vector
+	 * @param solved true, if the outputs solve the active model
 	 * @throws FederateNotExecutionMember the federate not execution member
 	 * @throws NotConnected the not connected
 	 * @throws NameNotFound the name not found
@@ -926,25 +1152,62 @@ public class ManagerAmbassador extends NullFederateAmbassador {
 	 * @throws ObjectInstanceNotKnown the object instance not known
 	 * @throws SaveInProgress the save in progress
 	 * @throws RestoreInProgress the restore in progress
+	 * @throws InvalidDimensionHandle the invalid dimension handle
+	 * @throws InvalidRangeBound the invalid range bound
+	 * @throws RegionDoesNotContainSpecifiedDimension the region does not contain specified dimension
+	 * @throws RegionNotCreatedByThisFederate the region not created by this federate
+	 * @throws InvalidRegion the invalid region
+	 * @throws InvalidRegionContext the invalid region context
+	 * @throws InteractionClassNotPublished the interaction class not published
+	 * @throws InteractionParameterNotDefined the interaction parameter not defined
+	 * @throws InteractionClassNotDefined the interaction class not defined
 	 */
-	public void updateOutputAttributes(RealVector outputVector) 
+	public void updateOutputAttributes(RealVector outputVector, boolean solved) 
 			throws FederateNotExecutionMember, NotConnected, NameNotFound, 
 			InvalidObjectClassHandle, RTIinternalError, EncoderException, 
 			AttributeNotOwned, AttributeNotDefined, ObjectInstanceNotKnown, 
-			SaveInProgress, RestoreInProgress {
+			SaveInProgress, RestoreInProgress, InvalidDimensionHandle, 
+			InvalidRangeBound, RegionDoesNotContainSpecifiedDimension, 
+			RegionNotCreatedByThisFederate, InvalidRegion, 
+			InvalidRegionContext, InteractionClassNotPublished, 
+			InteractionParameterNotDefined, InteractionClassNotDefined {
+		// record the solved state for later requests
+		boolean solvedChanged = solved != this.solved;
+		this.solved = solved;
+		
 		// create an attribute handle value map to store data
-		AttributeHandleValueMap attributes = 
-				rtiAmbassador.getAttributeHandleValueMapFactory().create(1);
-		// set HLA data element to output value
-		outputs.setValue(outputVector);
-		// add outputs to map
-		attributes.put(rtiAmbassador.getAttributeHandle(
-				rtiAmbassador.getObjectClassHandle(managerClassName), 
-				outputAttributeName), 
-				outputs.toByteArray());
-		// use HLA service to update attribute values using map
-		rtiAmbassador.updateAttributeValues(
-				rtiAmbassador.getObjectInstanceHandle(objectInstanceName), 
-				attributes, new byte[0]);
+		AttributeHandleValueMap attributes = rtiAmbassador
+				.getAttributeHandleValueMapFactory().create(2);
+		if(routeOutputs) {
+			// record the outputs for keyframes provided on request
+			double[] output = outputVector.toArray();
+			boolean outputChanged;
+			synchronized(outputDelta) {
+				outputChanged = !Arrays.equals(output, lastOutput);
+				lastOutput = output;
+			}
+			if(outputChanged) {
+				// send each designer only its own outputs (before the 
+				// solved state, which depends on all outputs)
+				sendDesignerOutputs(outputVector);
+			}
+		} else {
+			byte[] delta = encodeOutputDelta(outputVector.toArray(), false);
+			if(delta != null) {
+				// add output changes to map
+				attributes.put(handles.get(Attribute.OUTPUT_DELTA), delta);
+			}
+		}
+		if(solvedChanged) {
+			// add solved state to map
+			attributes.put(handles.get(Attribute.SOLVED), 
+					encoderFactory.createHLAboolean(solved).toByteArray());
+		}
+		if(!attributes.isEmpty()) {
+			// use HLA service to update attribute values using map
+			rtiAmbassador.updateAttributeValues(
+					objectInstanceHandle, 
+					attributes, new byte[0]);
+		}
 	}
 }
@@ -0,0 +1,161 @@
+/******************************************************************************
+ * Copyright 2020 Paul T. Grogan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package edu.mit.collab.hla;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import edu.mit.collab.core.Experiment;
+import edu.mit.collab.core.SystemModel;
+import edu.mit.collab.hla.HandleRegistry.Attribute;
+import hla.rti1516e.encoding.EncoderException;
+import hla.rti1516e.encoding.EncoderFactory;
+import hla.rti1516e.encoding.HLAunicodeString;
+
+/**
+ * An immutable set of encoded manager model attribute payloads (all 
+ * attributes except the outputs) for one system model of an experiment. 
+ * Payloads are encoded once, using data elements local to the instance, 
+ * so they can be prepared on a background thread and sent unchanged 
+ * whenever the model becomes active or a designer requests the values.
+ * 
+ * @author Paul T. Grogan
+ */
+final class ModelPayloads {
+	private final Map<Attribute, byte[]> payloads = 
+			new EnumMap<Attribute, byte[]>(Attribute.class); // immutable
+	private final SystemModel model; // immutable
+	private final double[] initialOutput; // immutable
+	private final int[][] outputIndices; // immutable
+	
+	/**
+	 * Instantiates and encodes new model payloads.
+	 *
+	 * @param experiment the experiment (null for no experiment)
+	 * @param model the model (null for no active model)
+	 * @param encoderFactory the encoder factory
+	 * @throws EncoderException the encoder exception
+	 */
+	ModelPayloads(Experiment experiment, SystemModel model, 
+			EncoderFactory encoderFactory) throws EncoderException {
+		this.model = model;
+		HLAfloatVector initialInput = new HLAfloatVector();
+		HLAfloatVector targetOutput = new HLAfloatVector();
+		HLAstringVector inputLabels = new HLAstringVector(encoderFactory);
+		HLAstringVector outputLabels = new HLAstringVector(encoderFactory);
+		HLAintegerMatrix inputIndices = new HLAintegerMatrix();
+		HLAintegerMatrix outputIndices = new HLAintegerMatrix();
+		HLAunicodeString activeModel = 
+				encoderFactory.createHLAunicodeString();
+		
+		if(model == null) {
+			// if model is null, use empty vectors and labels
+			initialOutput = null;
+			initialInput.setValue(new double[0]);
+			targetOutput.setValue(new double[0]);
+			inputLabels.setValue(new String[0]);
+			outputLabels.setValue(new String[0]);
+		} else {
+			// otherwise use the model vectors and labels; the output is 
+			// the output of the initial inputs (payloads are only encoded 
+			// for the active and next models, which are evaluated by the 
+			// manager anyway, so the structure built here is re-used)
+			initialOutput = model.getOutputVector(
+					model.getInitialVector()).toArray();
+			initialInput.setValue(model.getInitialVector());
+			targetOutput.setValue(model.getTargetVector());
+			inputLabels.setValue(model.getInputLabels());
+			outputLabels.setValue(model.getOutputLabels());
+		}
+		
+		if(model != null) {
+			// if model is not null, set active model to model name (this 
+			// does not depend on the experiment state, which may change 
+			// while payloads are prepared in the background)
+			activeModel.setValue(model.getName());
+		} else if(experiment != null && experiment.isReady()) {
+			// if experiment is ready, set active model string
+			activeModel.setValue("Ready...");
+		} else if(experiment != null && experiment.isComplete()) {
+			// if experiment is complete, set active model string
+			activeModel.setValue("Complete!");
+		} else {
+			// otherwise, set active model to empty string
+			activeModel.setValue("");
+		}
+		
+		if(experiment == null) {
+			// if experiment is null, use trivial indices
+			this.outputIndices = new int[0][0];
+			inputIndices.setValue(new int[0][0]);
+		} else if(model == null) {
+			// if model is null, use nearly-trivial indices
+			this.outputIndices = new int[experiment.getNumberDesigners()][0];
+			inputIndices.setValue(new int[experiment.getNumberDesigners()][0]);
+		} else {
+			// otherwise use model indices
+			this.outputIndices = model.getOutputIndices();
+			inputIndices.setValue(model.getInputIndices());
+		}
+		outputIndices.setValue(this.outputIndices);
+		
+		payloads.put(Attribute.INITIAL_INPUT, initialInput.toByteArray());
+		payloads.put(Attribute.TARGET_OUTPUT, targetOutput.toByteArray());
+		payloads.put(Attribute.INPUT_LABELS, inputLabels.toByteArray());
+		payloads.put(Attribute.OUTPUT_LABELS, outputLabels.toByteArray());
+		payloads.put(Attribute.ACTIVE_MODEL, activeModel.toByteArray());
+		payloads.put(Attribute.INPUT_INDICES, inputIndices.toByteArray());
+		payloads.put(Attribute.OUTPUT_INDICES, outputIndices.toByteArray());
+	}
+	
+	/**
+	 * Gets the output of the initial inputs.
+	 *
+	 * @return the initial output, or null if there is no active model
+	 */
+	double[] getInitialOutput() {
+		return initialOutput;
+	}
+	
+	/**
+	 * Gets the model for which these payloads were encoded.
+	 *
+	 * @return the model, or null if there is no active model
+	 */
+	SystemModel getModel() {
+		return model;
+	}
+	
+	/**
+	 * Gets the output indices for each designer.
+	 *
+	 * @return the output indices
+	 */
+	int[][] getOutputIndices() {
+		return outputIndices;
+	}
+	
+	/**
+	 * Gets the encoded payload for a model attribute. Payloads are shared 
+	 * and must not be modified.
+	 *
+	 * @param attribute the attribute
+	 * @return the payload, or null if the attribute is not a model attribute
+	 */
+	byte[] getPayload(Attribute attribute) {
+		return payloads.get(attribute);
+	}
+}
@@ -0,0 +1,289 @@
+/******************************************************************************
+ * Copyright 2020 Paul T. Grogan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package edu.mit.collab.transport;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.math3.linear.RealVector;
+import org.apache.log4j.Logger;
+
+import edu.mit.collab.event.ManagerEvent;
+import edu.mit.collab.event.ManagerListener;
+
+/**
+ * A designer transport which coalesces input updates before passing them to
+ * another transport. Only the latest pending input value is kept: it is 
+ * sent in the background once a minimum interval has elapsed since the 
+ * previous input update or, depending on the policy, once the previous 
+ * update has been acknowledged by an output reflection from the manager. 
+ * Superseded values are dropped but the final value is always sent. Index 
+ * and state updates (and shut down) first send any pending input so their 
+ * order relative to input updates is preserved. Calls to the underlying 
+ * transport are made without holding the lock used by acknowledgements so 
+ * that RTI callbacks are never blocked by an update in progress.
+ * 
+ * @author Paul T. Grogan
+ */
+public class CoalescingDesignerTransport implements DesignerTransport {
+	private static Logger logger = Logger.getLogger(
+			CoalescingDesignerTransport.class);
+	
+	/**
+	 * The policy used to decide when a pending input update can be sent.
+	 */
+	public static enum CoalescingPolicy {
+		/** send when the minimum interval has elapsed since the last update */
+		INTERVAL, 
+		/** send when the last update is acknowledged by an output reflection
+		 * (or the acknowledgement timeout has elapsed) */
+		ACKNOWLEDGEMENT
+	};
+	
+	public static final long DEFAULT_MINIMUM_INTERVAL = 50;
+	public static final long DEFAULT_ACKNOWLEDGEMENT_TIMEOUT = 500;
+	
+	private final DesignerTransport designerTransport; // immutable
+	private final CoalescingPolicy coalescingPolicy; // immutable
+	private final long minimumInterval; // immutable
+	private final long acknowledgementTimeout; // immutable
+	private final ScheduledExecutorService scheduler; // immutable
+	private final Object sendLock = new Object(); // immutable
+	
+	private RealVector pendingInput; // mutable
+	private ScheduledFuture<?> pendingSend; // mutable
+	private long lastSendTime; // mutable
+	private boolean awaitingAcknowledgement; // mutable
+	private long numberReceived, numberSent; // mutable
+	
+	/**
+	 * Instantiates a new coalescing designer transport with an 
+	 * acknowledgement policy and default timeout.
+	 *
+	 * @param designerTransport the designer transport
+	 */
+	public CoalescingDesignerTransport(DesignerTransport designerTransport) {
+		this(designerTransport, CoalescingPolicy.ACKNOWLEDGEMENT, 
+				DEFAULT_MINIMUM_INTERVAL, DEFAULT_ACKNOWLEDGEMENT_TIMEOUT);
+	}
+	
+	/**
+	 * Instantiates a new coalescing designer transport.
+	 *
+	 * @param designerTransport the designer transport
+	 * @param coalescingPolicy the coalescing policy
+	 * @param minimumInterval the minimum interval (milliseconds) between 
+	 * input updates for the interval policy
+	 * @param acknowledgementTimeout the maximum time (milliseconds) to wait 
+	 * for an acknowledgement for the acknowledgement policy
+	 */
+	public CoalescingDesignerTransport(DesignerTransport designerTransport, 
+			CoalescingPolicy coalescingPolicy, long minimumInterval, 
+			long acknowledgementTimeout) {
+		if(designerTransport == null) {
+			throw new IllegalArgumentException(
+					"Designer transport cannot be null.");
+		}
+		if(minimumInterval < 0) {
+			throw new IllegalArgumentException(
+					"Minimum interval cannot be negative.");
+		}
+		if(acknowledgementTimeout < 1) {
+			throw new IllegalArgumentException(
+					"Acknowledgement timeout must be at least 1 millisecond.");
+		}
+		this.designerTransport = designerTransport;
+		this.coalescingPolicy = coalescingPolicy;
+		this.minimumInterval = minimumInterval;
+		this.acknowledgementTimeout = acknowledgementTimeout;
+		scheduler = Executors.newSingleThreadScheduledExecutor(
+				new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "CoalescingDesignerTransport");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		
+		// treat output reflections as acknowledgements of input updates
+		designerTransport.addManagerListener(new ManagerListener() {
+			@Override
+			public void managerAdded(ManagerEvent e) { }
+			
+			@Override
+			public void managerModelModified(ManagerEvent e) {
+				acknowledge();
+			}
+			
+			@Override
+			public void managerOutputModified(ManagerEvent e) {
+				acknowledge();
+			}
+			
+			@Override
+			public void managerRemoved(ManagerEvent e) { }
+		});
+	}
+	
+	/**
+	 * Acknowledges the last input update and sends any pending input.
+	 */
+	private synchronized void acknowledge() {
+		if(awaitingAcknowledgement) {
+			awaitingAcknowledgement = false;
+			// re-schedule any send which was waiting for the timeout
+			if(pendingSend != null) {
+				pendingSend.cancel(false);
+				pendingSend = null;
+			}
+			schedule();
+		}
+	}
+	
+	@Override
+	public void addManagerListener(ManagerListener listener) {
+		designerTransport.addManagerListener(listener);
+	}
+	
+	/**
+	 * Sends any pending input update immediately.
+	 *
+	 * @throws Exception if the update cannot be sent
+	 */
+	public void flush() throws Exception {
+		// serialize calls to the underlying transport
+		synchronized(sendLock) {
+			RealVector input;
+			synchronized(this) {
+				if(pendingSend != null) {
+					pendingSend.cancel(false);
+					pendingSend = null;
+				}
+				input = pendingInput;
+				pendingInput = null;
+				if(input != null) {
+					lastSendTime = System.currentTimeMillis();
+					awaitingAcknowledgement = coalescingPolicy 
+							== CoalescingPolicy.ACKNOWLEDGEMENT;
+					numberSent++;
+				}
+			}
+			if(input != null) {
+				designerTransport.updateInputAttribute(input);
+			}
+		}
+	}
+	
+	@Override
+	public String getInstanceName() {
+		return designerTransport.getInstanceName();
+	}
+	
+	/**
+	 * Gets the number of input updates received from the application.
+	 *
+	 * @return the number received
+	 */
+	public synchronized long getNumberReceived() {
+		return numberReceived;
+	}
+	
+	/**
+	 * Gets the number of input updates sent to the underlying transport.
+	 *
+	 * @return the number sent
+	 */
+	public synchronized long getNumberSent() {
+		return numberSent;
+	}
+	
+	@Override
+	public void removeManagerListener(ManagerListener listener) {
+		designerTransport.removeManagerListener(listener);
+	}
+	
+	/**
+	 * Schedules the pending input (if any) to be sent as soon as the 
+	 * coalescing policy allows.
+	 */
+	private synchronized void schedule() {
+		if(pendingInput == null || pendingSend != null) {
+			// nothing to send or already scheduled
+			return;
+		}
+		long delay;
+		if(coalescingPolicy == CoalescingPolicy.ACKNOWLEDGEMENT) {
+			// wait for an acknowledgement up to the timeout
+			delay = awaitingAcknowledgement ? acknowledgementTimeout - 
+					(System.currentTimeMillis() - lastSendTime) : 0;
+		} else {
+			delay = minimumInterval - 
+					(System.currentTimeMillis() - lastSendTime);
+		}
+		pendingSend = scheduler.schedule(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					flush();
+				} catch (Exception ex) {
+					logger.error("Could not send input update.", ex);
+				}
+			}
+		}, Math.max(0, delay), TimeUnit.MILLISECONDS);
+	}
+	
+	@Override
+	public void shutDown() throws Exception {
+		synchronized(sendLock) {
+			flush();
+			scheduler.shutdown();
+			designerTransport.shutDown();
+		}
+	}
+	
+	@Override
+	public void startUp() throws Exception {
+		designerTransport.startUp();
+	}
+	
+	@Override
+	public void updateIndexAttribute(int indexValue) throws Exception {
+		synchronized(sendLock) {
+			flush();
+			designerTransport.updateIndexAttribute(indexValue);
+		}
+	}
+	
+	@Override
+	public synchronized void updateInputAttribute(RealVector inputValue) {
+		// replace any pending (superseded) input with a copy of the latest
+		pendingInput = inputValue.copy();
+		numberReceived++;
+		schedule();
+	}
+	
+	@Override
+	public void updateStateAttribute(boolean readyValue) throws Exception {
+		synchronized(sendLock) {
+			flush();
+			designerTransport.updateStateAttribute(readyValue);
+		}
+	}
+}
@@ -0,0 +1,90 @@
+/******************************************************************************
+ * Copyright 2020 Paul T. Grogan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package edu.mit.collab.transport;
+
+import org.apache.commons.math3.linear.RealVector;
+
+import edu.mit.collab.event.ManagerListener;
+
+/**
+ * The interface between a designer application and the manager. 
+ * Implementations publish the designer's index, input, and ready attributes 
+ * and notify manager listeners as managers are discovered, update their 
+ * model or outputs, and are removed.
+ * 
+ * @author Paul T. Grogan
+ */
+public interface DesignerTransport {
+	
+	/**
+	 * Adds the manager listener.
+	 *
+	 * @param listener the listener
+	 */
+	public void addManagerListener(ManagerListener listener);
+	
+	/**
+	 * Gets the instance name of the designer object.
+	 *
+	 * @return the instance name
+	 */
+	public String getInstanceName();
+	
+	/**
+	 * Removes the manager listener.
+	 *
+	 * @param listener the listener
+	 */
+	public void removeManagerListener(ManagerListener listener);
+	
+	/**
+	 * Shuts down the transport and removes the designer object.
+	 *
+	 * @throws Exception if the transport cannot be shut down
+	 */
+	public void shutDown() throws Exception;
+	
+	/**
+	 * Starts up the transport and registers the designer object.
+	 *
+	 * @throws Exception if the transport cannot be started
+	 */
+	public void startUp() throws Exception;
+	
+	/**
+	 * Updates the index attribute.
+	 *
+	 * @param indexValue the index value
+	 * @throws Exception if the update cannot be sent
+	 */
+	public void updateIndexAttribute(int indexValue) throws Exception;
+	
+	/**
+	 * Updates the input attribute.
+	 *
+	 * @param inputValue the input value
+	 * @throws Exception if the update cannot be sent
+	 */
+	public void updateInputAttribute(RealVector inputValue) throws Exception;
+	
+	/**
+	 * Updates the ready attribute.
+	 *
+	 * @param readyValue the ready value
+	 * @throws Exception if the update cannot be sent
+	 */
+	public void updateStateAttribute(boolean readyValue) throws Exception;
+}
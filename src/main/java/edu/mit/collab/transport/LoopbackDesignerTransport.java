@@ -0,0 +1,235 @@
+/******************************************************************************
+ * Copyright 2020 Paul T. Grogan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package edu.mit.collab.transport;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.swing.event.EventListenerList;
+
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.RealVector;
+
+import edu.mit.collab.core.Manager;
+import edu.mit.collab.event.ManagerEvent;
+import edu.mit.collab.event.ManagerListener;
+
+/**
+ * The designer transport for an in-process loopback federation. This class
+ * mirrors the behavior of the HLA designer ambassador without an RTI, which
+ * allows a manager and designers to run in a single JVM for debugging, 
+ * tests, and benchmarks.
+ * 
+ * @author Paul T. Grogan
+ */
+public class LoopbackDesignerTransport implements DesignerTransport {
+	private static enum ManagerAction {ADD, MODEL_UPDATE, 
+		OUTPUT_UPDATE, REMOVE};
+	
+	private transient String instanceName; // set upon joining federation
+	
+	private final LoopbackFederation federation; // immutable
+	
+	private int index; // mutable
+	private RealVector input = new ArrayRealVector(); // mutable
+	private boolean ready; // mutable
+	private final EventListenerList listenerList = new EventListenerList(); // mutable
+	
+	// synchronized mutable map to support multi-threaded application
+	private final Map<LoopbackManagerTransport, Manager> managers = 
+			Collections.synchronizedMap(
+					new HashMap<LoopbackManagerTransport, Manager>());
+	
+	/**
+	 * Instantiates a new loopback designer transport.
+	 *
+	 * @param federation the federation
+	 * @param designerIndex the designer index
+	 */
+	public LoopbackDesignerTransport(LoopbackFederation federation, 
+			int designerIndex) {
+		if(federation == null) {
+			throw new IllegalArgumentException(
+					"Federation cannot be null.");
+		}
+		this.federation = federation;
+		this.index = designerIndex;
+	}
+	
+	@Override
+	public void addManagerListener(ManagerListener listener) {
+		// add listener to list
+		listenerList.add(ManagerListener.class, listener);
+	}
+	
+	/**
+	 * Discovers a manager and requests its attribute values.
+	 *
+	 * @param theManager the manager transport
+	 */
+	void discoverManager(LoopbackManagerTransport theManager) {
+		// add manager object to thread-safe map
+		Manager manager = new Manager(theManager.getInstanceName());
+		synchronized(managers) {
+			managers.put(theManager, manager);
+		}
+		
+		// request attribute values of the manager
+		theManager.provideAttributeValues();
+		
+		// notify listeners that a manager has been discovered
+		fireManagerEvent(ManagerAction.ADD, 
+				new ManagerEvent(this, manager));
+	}
+	
+	/**
+	 * Fires a manager event corresponding to an observed action.
+	 *
+	 * @param action the action
+	 * @param event the event
+	 */
+	private void fireManagerEvent(ManagerAction action, ManagerEvent event) {
+		// get the list of manager listeners
+		ManagerListener[] listeners = listenerList.getListeners(
+				ManagerListener.class);
+
+		// for each listener, notify using the appropriate method
+		for(int i = 0; i < listeners.length; i++) {
+			switch(action) {
+			case ADD:
+				listeners[i].managerAdded(event);
+				break;
+			case MODEL_UPDATE:
+				listeners[i].managerModelModified(event);
+				break;
+			case OUTPUT_UPDATE:
+				listeners[i].managerOutputModified(event);
+				break;
+			case REMOVE:
+				listeners[i].managerRemoved(event);
+			}
+		}
+	}
+	
+	@Override
+	public synchronized String getInstanceName() {
+		return instanceName;
+	}
+	
+	/**
+	 * Provides the current attribute values to all joined managers.
+	 */
+	synchronized void provideAttributeValues() {
+		federation.reflect(this, index, input, ready);
+	}
+	
+	/**
+	 * Reflects manager attribute values. Null values correspond to 
+	 * attributes which are not updated.
+	 *
+	 * @param theManager the manager transport
+	 * @param model the model attributes
+	 * @param output the output value
+	 * @param solved the solved value
+	 */
+	void reflectAttributeValues(LoopbackManagerTransport theManager, 
+			ModelAttributes model, RealVector output, boolean solved) {
+		// check whether the manager has been previously discovered
+		Manager manager = null;
+		synchronized(managers) {
+			manager = managers.get(theManager);
+		}
+		
+		// if manager has not been discovered, simply return
+		if(manager == null) {
+			return;
+		}
+		
+		if(model != null) {
+			// active model has changed -- complete model update
+			model.applyTo(manager);
+			if(output != null) {
+				manager.setOutput(output);
+			}
+			manager.setSolved(solved);
+			fireManagerEvent(ManagerAction.MODEL_UPDATE, 
+					new ManagerEvent(this, manager));
+		} else if(output != null) {
+			// update manager output and solved state and fire update event
+			manager.setOutput(output);
+			manager.setSolved(solved);
+			fireManagerEvent(ManagerAction.OUTPUT_UPDATE, 
+					new ManagerEvent(this, manager));
+		}
+	}
+	
+	/**
+	 * Removes a previously-discovered manager.
+	 *
+	 * @param theManager the manager transport
+	 */
+	void removeManager(LoopbackManagerTransport theManager) {
+		// try to remove manager from the manager map
+		Manager manager = null;
+		synchronized(managers) {
+			manager = managers.remove(theManager);
+		}
+		if(manager != null) {
+			// notify listeners that manager has been removed
+			fireManagerEvent(ManagerAction.REMOVE, 
+					new ManagerEvent(this, manager));
+		}
+	}
+	
+	@Override
+	public void removeManagerListener(ManagerListener listener) {
+		// remove the listener from the list
+		listenerList.remove(ManagerListener.class, listener);
+	}
+	
+	@Override
+	public void shutDown() {
+		federation.resign(this);
+	}
+	
+	@Override
+	public synchronized void startUp() {
+		// join the federation; ignore if already joined
+		if(instanceName == null) {
+			instanceName = federation.join(this);
+		}
+	}
+	
+	@Override
+	public synchronized void updateIndexAttribute(int indexValue) {
+		index = indexValue;
+		federation.reflect(this, index, null, null);
+	}
+	
+	@Override
+	public synchronized void updateInputAttribute(RealVector inputValue) {
+		// copy the input so later changes by the caller are not reflected
+		input = inputValue.copy();
+		federation.reflect(this, null, input, null);
+	}
+	
+	@Override
+	public synchronized void updateStateAttribute(boolean readyValue) {
+		ready = readyValue;
+		federation.reflect(this, null, null, ready);
+	}
+}
@@ -0,0 +1,243 @@
+/******************************************************************************
+ * Copyright 2020 Paul T. Grogan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package edu.mit.collab.transport;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+
+import org.apache.commons.math3.linear.RealVector;
+import org.apache.log4j.Logger;
+
+/**
+ * An in-process federation which connects loopback manager and designer 
+ * transports without an RTI. Attribute updates are delivered to the other 
+ * members on an executor (by default, a single daemon thread) in the order 
+ * they are sent, in the same way that RTI callbacks are delivered to the 
+ * HLA ambassadors. Newly-joined members discover all existing members of 
+ * the other type and request their current attribute values.
+ * 
+ * @author Paul T. Grogan
+ */
+public class LoopbackFederation {
+	private static Logger logger = Logger.getLogger(LoopbackFederation.class);
+	
+	private final ExecutorService executor; // immutable
+	
+	private final List<LoopbackManagerTransport> managers = 
+			new ArrayList<LoopbackManagerTransport>(); // mutable
+	private final List<LoopbackDesignerTransport> designers = 
+			new ArrayList<LoopbackDesignerTransport>(); // mutable
+	private int managerCount, designerCount; // mutable
+	
+	/**
+	 * Instantiates a new loopback federation which delivers updates on a 
+	 * single daemon thread.
+	 */
+	public LoopbackFederation() {
+		this(Executors.newSingleThreadExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "LoopbackFederation");
+				thread.setDaemon(true);
+				return thread;
+			}
+		}));
+	}
+	
+	/**
+	 * Instantiates a new loopback federation which delivers updates on an 
+	 * executor. Updates are only delivered in the order sent if the 
+	 * executor runs tasks sequentially.
+	 *
+	 * @param executor the executor
+	 */
+	public LoopbackFederation(ExecutorService executor) {
+		if(executor == null) {
+			throw new IllegalArgumentException(
+					"Executor cannot be null.");
+		}
+		this.executor = executor;
+	}
+	
+	/**
+	 * Delivers a callback to a federation member on the executor. Exceptions
+	 * thrown by the callback are logged so they do not affect other members.
+	 *
+	 * @param callback the callback
+	 */
+	private void deliver(final Runnable callback) {
+		try {
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						callback.run();
+					} catch(Exception ex) {
+						logger.error("Exception while delivering callback.", ex);
+					}
+				}
+			});
+		} catch(RejectedExecutionException ex) {
+			logger.warn("Federation is shut down; dropping callback.");
+		}
+	}
+	
+	/**
+	 * Joins a designer to this federation. The designer discovers all 
+	 * joined managers and all joined managers discover the designer.
+	 *
+	 * @param designer the designer
+	 * @return the instance name of the designer object
+	 */
+	synchronized String join(final LoopbackDesignerTransport designer) {
+		designers.add(designer);
+		for(final LoopbackManagerTransport manager : managers) {
+			deliver(new Runnable() {
+				@Override
+				public void run() {
+					manager.discoverDesigner(designer);
+				}
+			});
+			deliver(new Runnable() {
+				@Override
+				public void run() {
+					designer.discoverManager(manager);
+				}
+			});
+		}
+		return "Designer " + (++designerCount);
+	}
+	
+	/**
+	 * Joins a manager to this federation. The manager discovers all 
+	 * joined designers and all joined designers discover the manager.
+	 *
+	 * @param manager the manager
+	 * @return the instance name of the manager object
+	 */
+	synchronized String join(final LoopbackManagerTransport manager) {
+		managers.add(manager);
+		for(final LoopbackDesignerTransport designer : designers) {
+			deliver(new Runnable() {
+				@Override
+				public void run() {
+					manager.discoverDesigner(designer);
+				}
+			});
+			deliver(new Runnable() {
+				@Override
+				public void run() {
+					designer.discoverManager(manager);
+				}
+			});
+		}
+		return "Manager " + (++managerCount);
+	}
+	
+	/**
+	 * Reflects designer attribute values to all joined managers. 
+	 * Null values correspond to attributes which are not updated.
+	 *
+	 * @param designer the designer
+	 * @param index the index value
+	 * @param input the input value
+	 * @param ready the ready value
+	 */
+	synchronized void reflect(final LoopbackDesignerTransport designer, 
+			final Integer index, final RealVector input, final Boolean ready) {
+		for(final LoopbackManagerTransport manager : managers) {
+			deliver(new Runnable() {
+				@Override
+				public void run() {
+					manager.reflectAttributeValues(designer, index, input, ready);
+				}
+			});
+		}
+	}
+	
+	/**
+	 * Reflects manager attribute values to all joined designers. 
+	 * Null values correspond to attributes which are not updated.
+	 *
+	 * @param manager the manager
+	 * @param model the model attributes
+	 * @param output the output value
+	 * @param solved the solved value
+	 */
+	synchronized void reflect(final LoopbackManagerTransport manager, 
+			final ModelAttributes model, final RealVector output, 
+			final boolean solved) {
+		for(final LoopbackDesignerTransport designer : designers) {
+			deliver(new Runnable() {
+				@Override
+				public void run() {
+					designer.reflectAttributeValues(manager, model, output, 
+							solved);
+				}
+			});
+		}
+	}
+	
+	/**
+	 * Resigns a designer from this federation. All joined managers 
+	 * remove the designer.
+	 *
+	 * @param designer the designer
+	 */
+	synchronized void resign(final LoopbackDesignerTransport designer) {
+		if(designers.remove(designer)) {
+			for(final LoopbackManagerTransport manager : managers) {
+				deliver(new Runnable() {
+					@Override
+					public void run() {
+						manager.removeDesigner(designer);
+					}
+				});
+			}
+		}
+	}
+	
+	/**
+	 * Resigns a manager from this federation. All joined designers 
+	 * remove the manager.
+	 *
+	 * @param manager the manager
+	 */
+	synchronized void resign(final LoopbackManagerTransport manager) {
+		if(managers.remove(manager)) {
+			for(final LoopbackDesignerTransport designer : designers) {
+				deliver(new Runnable() {
+					@Override
+					public void run() {
+						designer.removeManager(manager);
+					}
+				});
+			}
+		}
+	}
+	
+	/**
+	 * Shuts down this federation. Callbacks which have already been sent 
+	 * are delivered; later callbacks are dropped.
+	 */
+	public void shutDown() {
+		executor.shutdown();
+	}
+}
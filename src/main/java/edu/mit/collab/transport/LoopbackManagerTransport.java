@@ -0,0 +1,242 @@
+/******************************************************************************
+ * Copyright 2020 Paul T. Grogan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package edu.mit.collab.transport;
+
+import javax.swing.event.EventListenerList;
+
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.RealVector;
+import org.apache.log4j.Logger;
+
+import edu.mit.collab.core.Designer;
+import edu.mit.collab.core.DesignerRegistry;
+import edu.mit.collab.core.Experiment;
+import edu.mit.collab.core.SystemModel;
+import edu.mit.collab.event.DesignerEvent;
+import edu.mit.collab.event.DesignerListener;
+
+/**
+ * The manager transport for an in-process loopback federation. This class
+ * mirrors the behavior of the HLA manager ambassador without an RTI, which
+ * allows a manager and designers to run in a single JVM for debugging, 
+ * tests, and benchmarks.
+ * 
+ * @author Paul T. Grogan
+ */
+public class LoopbackManagerTransport implements ManagerTransport {
+	private static Logger logger = Logger.getLogger(
+			LoopbackManagerTransport.class);
+	
+	private static enum DesignerAction {ADD, INPUT_UPDATE, 
+		STATE_UPDATE, REMOVE};
+	
+	private transient String instanceName; // set upon joining federation
+	
+	private final LoopbackFederation federation; // immutable
+	
+	private ModelAttributes model = new ModelAttributes(null); // mutable
+	private RealVector output = new ArrayRealVector(); // mutable
+	private boolean solved; // mutable
+	private final EventListenerList listenerList = new EventListenerList(); // mutable
+	
+	// concurrent registry to support multi-threaded application
+	private final DesignerRegistry<LoopbackDesignerTransport> designers = 
+			new DesignerRegistry<LoopbackDesignerTransport>(); // mutable
+	
+	/**
+	 * Instantiates a new loopback manager transport.
+	 *
+	 * @param federation the federation
+	 */
+	public LoopbackManagerTransport(LoopbackFederation federation) {
+		if(federation == null) {
+			throw new IllegalArgumentException(
+					"Federation cannot be null.");
+		}
+		this.federation = federation;
+	}
+	
+	@Override
+	public void addDesignerListener(DesignerListener listener) {
+		// add listener to list
+		listenerList.add(DesignerListener.class, listener);
+	}
+	
+	/**
+	 * Discovers a designer and requests its attribute values.
+	 *
+	 * @param designer the designer
+	 */
+	void discoverDesigner(LoopbackDesignerTransport designer) {
+		// add designer object to thread-safe registry
+		designers.add(designer, new Designer(designer.getInstanceName()));
+		
+		// request attribute values of the designer
+		designer.provideAttributeValues();
+	}
+	
+	/**
+	 * Fires a designer event corresponding to an observed action.
+	 *
+	 * @param action the action
+	 * @param event the event
+	 */
+	private void fireDesignerEvent(DesignerAction action, 
+			DesignerEvent event) {
+		// get the list of designer listeners
+		DesignerListener[] listeners = listenerList.getListeners(
+				DesignerListener.class);
+		
+		// for each listener, notify using the appropriate method
+		for(int i = 0; i < listeners.length; i++) {
+			switch(action) {
+			case ADD:
+				listeners[i].designerAdded(event);
+				break;
+			case INPUT_UPDATE:
+				listeners[i].designerInputModified(event);
+				break;
+			case STATE_UPDATE:
+				listeners[i].designerStateModified(event);
+				break;
+			case REMOVE:
+				listeners[i].designerRemoved(event);
+			}
+		}
+	}
+	
+	@Override
+	public synchronized String getInstanceName() {
+		return instanceName;
+	}
+	
+	/**
+	 * Provides the current attribute values to all joined designers.
+	 */
+	synchronized void provideAttributeValues() {
+		federation.reflect(this, model, output, solved);
+	}
+	
+	/**
+	 * Reflects designer attribute values. Null values correspond to 
+	 * attributes which are not updated.
+	 *
+	 * @param theDesigner the designer transport
+	 * @param index the index value
+	 * @param input the input value
+	 * @param ready the ready value
+	 */
+	void reflectAttributeValues(LoopbackDesignerTransport theDesigner, 
+			Integer index, RealVector input, Boolean ready) {
+		// check whether the designer has been previously discovered
+		Designer designer = designers.get(theDesigner);
+		
+		if(designer != null) {
+			// designers can only update their index once; process
+			// update only if the current index is uninitialized
+			if(index != null && designer.initializeIndex(index)) {
+				if(!designers.isValidIndex(index)) {
+					// reject the designer without notifying listeners, 
+					// so its updates are ignored
+					logger.warn(designer.getInstanceName() 
+							+ " has an invalid index " + index 
+							+ " and did not join.");
+					return;
+				}
+				// claim the index slot; duplicates are still reported to 
+				// listeners to be rejected
+				designers.claimIndex(designer);
+				fireDesignerEvent(DesignerAction.ADD, 
+						new DesignerEvent(this, designer));
+			}
+			
+			if(input != null) {
+				// update input value and fire event to notify listeners
+				designer.setInputVector(input);
+				fireDesignerEvent(DesignerAction.INPUT_UPDATE, 
+						new DesignerEvent(this, designer));
+			}
+			
+			if(ready != null) {
+				// update ready value and fire event to notify listeners
+				designer.setReady(ready);
+				fireDesignerEvent(DesignerAction.STATE_UPDATE, 
+						new DesignerEvent(this, designer));
+			}
+		}
+	}
+	
+	/**
+	 * Removes a previously-discovered designer.
+	 *
+	 * @param theDesigner the designer transport
+	 */
+	void removeDesigner(LoopbackDesignerTransport theDesigner) {
+		// try to remove designer from the designer registry
+		Designer designer = designers.remove(theDesigner);
+		if(designer != null) {
+			// notify listeners that designer has been removed
+			fireDesignerEvent(DesignerAction.REMOVE, 
+					new DesignerEvent(this, designer));
+		}
+	}
+	
+	@Override
+	public void removeDesignerListener(DesignerListener listener) {
+		// remove the listener from the list
+		listenerList.remove(DesignerListener.class, listener);
+	}
+	
+	@Override
+	public void shutDown() {
+		federation.resign(this);
+	}
+	
+	@Override
+	public synchronized void startUp() {
+		// join the federation; ignore if already joined
+		if(instanceName == null) {
+			instanceName = federation.join(this);
+		}
+	}
+	
+	@Override
+	public synchronized void updateModelAttributes(Experiment experiment) {
+		// get the active model from the experiment
+		SystemModel activeModel = experiment==null ? 
+				null : experiment.getActiveModel();
+		
+		// store the model attributes and, if model is not null, set output
+		// to output of initial inputs
+		model = new ModelAttributes(experiment);
+		if(activeModel != null) {
+			output = activeModel.getOutputVector(
+					activeModel.getInitialVector());
+		}
+		// a new model is not solved until its outputs are updated
+		solved = false;
+		federation.reflect(this, model, output, solved);
+	}
+	
+	@Override
+	public synchronized void updateOutputAttributes(RealVector outputVector, 
+			boolean solved) {
+		// copy the output so later changes by the caller are not reflected
+		output = outputVector.copy();
+		this.solved = solved;
+		federation.reflect(this, null, output, solved);
+	}
+}
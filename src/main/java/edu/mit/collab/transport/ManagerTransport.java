@@ -0,0 +1,85 @@
+/******************************************************************************
+ * Copyright 2020 Paul T. Grogan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package edu.mit.collab.transport;
+
+import org.apache.commons.math3.linear.RealVector;
+
+import edu.mit.collab.core.Experiment;
+import edu.mit.collab.event.DesignerListener;
+
+/**
+ * The interface between the manager application and the designers it 
+ * coordinates. Implementations publish the manager's model and output 
+ * attributes and notify designer listeners as designers are discovered, 
+ * update their inputs or state, and are removed.
+ * 
+ * @author Paul T. Grogan
+ */
+public interface ManagerTransport {
+	
+	/**
+	 * Adds the designer listener.
+	 *
+	 * @param listener the listener
+	 */
+	public void addDesignerListener(DesignerListener listener);
+	
+	/**
+	 * Gets the instance name of the manager object.
+	 *
+	 * @return the instance name
+	 */
+	public String getInstanceName();
+	
+	/**
+	 * Removes the designer listener.
+	 *
+	 * @param listener the listener
+	 */
+	public void removeDesignerListener(DesignerListener listener);
+	
+	/**
+	 * Shuts down the transport and removes the manager object.
+	 *
+	 * @throws Exception if the transport cannot be shut down
+	 */
+	public void shutDown() throws Exception;
+	
+	/**
+	 * Starts up the transport and registers the manager object.
+	 *
+	 * @throws Exception if the transport cannot be started
+	 */
+	public void startUp() throws Exception;
+	
+	/**
+	 * Sends updates for a modified experiment (i.e. a new active model).
+	 *
+	 * @param experiment the experiment
+	 * @throws Exception if the update cannot be sent
+	 */
+	public void updateModelAttributes(Experiment experiment) throws Exception;
+	
+	/**
+	 * Updates the output and solved attributes.
+	 *
+	 * @param outputVector the output vector
+	 * @param solved true, if the outputs solve the active model
+	 * @throws Exception if the update cannot be sent
+	 */
+	public void updateOutputAttributes(RealVector outputVector, 
+			boolean solved) throws Exception;
+}
@@ -0,0 +1,103 @@
+/******************************************************************************
+ * Copyright 2020 Paul T. Grogan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package edu.mit.collab.transport;
+
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.RealVector;
+
+import edu.mit.collab.core.Experiment;
+import edu.mit.collab.core.Manager;
+import edu.mit.collab.core.SystemModel;
+
+/**
+ * An immutable snapshot of the manager model attributes (all attributes 
+ * except the output) exchanged over a loopback federation.
+ * 
+ * @author Paul T. Grogan
+ */
+final class ModelAttributes {
+	private final String activeModel; // immutable
+	private final RealVector initialInput, targetOutput; // immutable
+	private final int[][] inputIndices, outputIndices; // immutable
+	private final String[] inputLabels, outputLabels; // immutable
+	
+	/**
+	 * Instantiates a new model attributes snapshot for an experiment.
+	 *
+	 * @param experiment the experiment (null for no experiment)
+	 */
+	ModelAttributes(Experiment experiment) {
+		// get the active model from the experiment
+		SystemModel model = experiment==null ? 
+				null : experiment.getActiveModel();
+		
+		if(model == null) {
+			// if model is null, use empty vectors and labels
+			initialInput = new ArrayRealVector();
+			targetOutput = new ArrayRealVector();
+			inputLabels = new String[0];
+			outputLabels = new String[0];
+		} else {
+			// otherwise copy the model vectors and labels
+			initialInput = model.getInitialVector().copy();
+			targetOutput = model.getTargetVector().copy();
+			inputLabels = model.getInputLabels();
+			outputLabels = model.getOutputLabels();
+		}
+		
+		if(experiment == null) {
+			// if experiment is null, use empty string and trivial indices
+			activeModel = "";
+			inputIndices = new int[0][0];
+			outputIndices = new int[0][0];
+		} else {
+			if(experiment.isReady()) {
+				// if experiment is ready, set active model string
+				activeModel = "Ready...";
+			} else if(experiment.isComplete()) {
+				// if experiment is complete, set active model string
+				activeModel = "Complete!";
+			} else {
+				// otherwise, set active model to model name
+				activeModel = model.getName();
+			}
+			if(model == null) {
+				// if model is null, use nearly-trivial indices
+				inputIndices = new int[experiment.getNumberDesigners()][0];
+				outputIndices = new int[experiment.getNumberDesigners()][0];
+			} else {
+				// otherwise use model indices
+				inputIndices = model.getInputIndices();
+				outputIndices = model.getOutputIndices();
+			}
+		}
+	}
+	
+	/**
+	 * Applies these attributes to a local manager object.
+	 *
+	 * @param manager the manager
+	 */
+	void applyTo(Manager manager) {
+		manager.setActiveModel(activeModel);
+		manager.setInitialInput(initialInput);
+		manager.setTargetOutput(targetOutput);
+		manager.setInputIndices(inputIndices);
+		manager.setOutputIndices(outputIndices);
+		manager.setInputLabels(inputLabels);
+		manager.setOutputLabels(outputLabels);
+	}
+}
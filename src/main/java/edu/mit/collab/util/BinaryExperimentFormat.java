@@ -0,0 +1,497 @@
+/******************************************************************************
+ * Copyright 2020 Paul T. Grogan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package edu.mit.collab.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectStreamException;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.Charset;
+import java.nio.channels.FileChannel;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.RealMatrix;
+import org.apache.commons.math3.linear.RealVector;
+
+import edu.mit.collab.core.Experiment;
+import edu.mit.collab.core.SystemModel;
+
+/**
+ * A versioned binary container for experiments. Files are read by 
+ * memory-mapping and each system model is only materialized when the 
+ * experiment reaches it, so the time to open a file and the memory used 
+ * scale with the active model rather than with all models.
+ * 
+ * All values are little-endian. A file (version 1) contains:
+ * <ul>
+ * <li>a header: the magic bytes <code>CLBX</code>, the version, the 
+ * number of designers, the experiment name (string table index), and the 
+ * numbers of training and experiment models;</li>
+ * <li>a string table: the number of strings followed by the length and 
+ * UTF-8 bytes of each string (names and labels);</li>
+ * <li>a model index: the offset and length of each model block (training 
+ * models followed by experiment models);</li>
+ * <li>model blocks, each aligned to 8 bytes: the name (string table 
+ * index), the numbers of outputs, inputs, and designers, the coupling 
+ * matrix (row-major doubles), the target vector (doubles), the input and 
+ * output indices of each designer (counts followed by indices), and the 
+ * input and output labels (counts followed by string table indices).</li>
+ * </ul>
+ * A string table index of -1 denotes a null string.
+ * 
+ * @author Paul T. Grogan
+ */
+public abstract class BinaryExperimentFormat {
+	public static final String FILE_EXTENSION = "clb";
+	public static final int VERSION = 1;
+	
+	private static final byte[] magic = new byte[]{'C', 'L', 'B', 'X'};
+	private static final Charset charset = Charset.forName("UTF-8");
+	
+	/**
+	 * A read-only list of system models which are materialized from a 
+	 * memory-mapped file each time they are accessed. Models are not 
+	 * retained by the list.
+	 */
+	private static final class MappedModelList extends AbstractList<SystemModel> 
+			implements RandomAccess, Serializable {
+		private static final long serialVersionUID = 3297617328398862307L;
+		
+		private final transient ByteBuffer buffer; // immutable
+		private final transient String[] strings; // immutable
+		private final transient long[] offsets; // immutable
+		
+		/**
+		 * Instantiates a new mapped model list.
+		 *
+		 * @param buffer the mapped buffer
+		 * @param strings the string table
+		 * @param offsets the offsets of the model blocks
+		 */
+		private MappedModelList(ByteBuffer buffer, String[] strings, 
+				long[] offsets) {
+			this.buffer = buffer;
+			this.strings = strings;
+			this.offsets = offsets;
+		}
+		
+		@Override
+		public SystemModel get(int index) {
+			if(index < 0 || index >= offsets.length) {
+				throw new IndexOutOfBoundsException(
+						"Index: " + index + ", Size: " + offsets.length);
+			}
+			// use an independent view of the buffer so models can be 
+			// materialized concurrently
+			ByteBuffer block = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+			try {
+				block.position((int) offsets[index]);
+				return readModel(block, strings);
+			} catch(BufferUnderflowException | IllegalArgumentException ex) {
+				throw new IllegalStateException(
+						"Model " + index + " could not be read.", ex);
+			}
+		}
+		
+		@Override
+		public int size() {
+			return offsets.length;
+		}
+		
+		/**
+		 * Replaces this list with a materialized list for serialization.
+		 *
+		 * @return the replacement list
+		 * @throws ObjectStreamException the object stream exception
+		 */
+		private Object writeReplace() throws ObjectStreamException {
+			return new ArrayList<SystemModel>(this);
+		}
+	}
+	
+	/**
+	 * Adds a string to a string table if not already present.
+	 *
+	 * @param strings the string table
+	 * @param string the string
+	 */
+	private static void addString(Map<String, Integer> strings, 
+			String string) {
+		if(string != null && !strings.containsKey(string)) {
+			strings.put(string, strings.size());
+		}
+	}
+	
+	/**
+	 * Aligns a position to 8 bytes.
+	 *
+	 * @param position the position
+	 * @return the aligned position
+	 */
+	private static long align(long position) {
+		return (position + 7) & ~7L;
+	}
+	
+	/**
+	 * Gets the size of the block for a model, excluding alignment padding.
+	 *
+	 * @param model the model
+	 * @return the block size in bytes
+	 */
+	private static long getBlockSize(SystemModel model) {
+		long size = 16 + 8L*model.getNumberOutputs()*model.getNumberInputs() 
+				+ 8L*model.getNumberOutputs();
+		for(int[] indices : model.getInputIndices()) {
+			size += 4 + 4L*indices.length;
+		}
+		for(int[] indices : model.getOutputIndices()) {
+			size += 4 + 4L*indices.length;
+		}
+		size += 4 + 4L*model.getInputLabels().length;
+		size += 4 + 4L*model.getOutputLabels().length;
+		return size;
+	}
+	
+	/**
+	 * Checks if a file is an experiment in binary format, i.e. if it 
+	 * starts with the magic bytes.
+	 *
+	 * @param file the file
+	 * @return true, if is binary
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public static boolean isBinary(File file) throws IOException {
+		try(RandomAccessFile input = new RandomAccessFile(file, "r")) {
+			if(input.length() < magic.length) {
+				return false;
+			}
+			byte[] bytes = new byte[magic.length];
+			input.readFully(bytes);
+			for(int i = 0; i < magic.length; i++) {
+				if(bytes[i] != magic[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+	
+	/**
+	 * Reads an experiment from a binary file. The file is memory-mapped 
+	 * and only the header, string table, and model index are read; each 
+	 * model is materialized when it is accessed.
+	 *
+	 * @param file the file
+	 * @return the experiment
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public static Experiment readExperiment(File file) throws IOException {
+		ByteBuffer buffer;
+		try(RandomAccessFile input = new RandomAccessFile(file, "r"); 
+				FileChannel channel = input.getChannel()) {
+			if(channel.size() > Integer.MAX_VALUE) {
+				throw new IOException("Experiment file " + file 
+						+ " is too large to map.");
+			}
+			// the mapping remains valid after the channel is closed
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 
+					0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+		}
+		
+		try {
+			// read and check the header
+			byte[] bytes = new byte[magic.length];
+			buffer.get(bytes);
+			for(int i = 0; i < magic.length; i++) {
+				if(bytes[i] != magic[i]) {
+					throw new IOException(file + " is not a binary experiment.");
+				}
+			}
+			int version = buffer.getInt();
+			if(version != VERSION) {
+				throw new IOException("Unsupported binary experiment version " 
+						+ version + " in " + file + ".");
+			}
+			int numberDesigners = buffer.getInt();
+			int nameIndex = buffer.getInt();
+			int numberTrainingModels = buffer.getInt();
+			int numberExperimentModels = buffer.getInt();
+			
+			// read the string table
+			String[] strings = new String[buffer.getInt()];
+			for(int i = 0; i < strings.length; i++) {
+				bytes = new byte[buffer.getInt()];
+				buffer.get(bytes);
+				strings[i] = new String(bytes, charset);
+			}
+			buffer.position((int) align(buffer.position()));
+			
+			// read the model index
+			long[] trainingOffsets = new long[numberTrainingModels];
+			for(int i = 0; i < numberTrainingModels; i++) {
+				trainingOffsets[i] = buffer.getLong();
+				buffer.getLong(); // length
+			}
+			long[] experimentOffsets = new long[numberExperimentModels];
+			for(int i = 0; i < numberExperimentModels; i++) {
+				experimentOffsets[i] = buffer.getLong();
+				buffer.getLong(); // length
+			}
+			
+			return Experiment.wrap(getString(strings, nameIndex), 
+					numberDesigners, 
+					new MappedModelList(buffer, strings, trainingOffsets), 
+					new MappedModelList(buffer, strings, experimentOffsets));
+		} catch(BufferUnderflowException | IllegalArgumentException 
+				| NegativeArraySizeException ex) {
+			throw new IOException("Binary experiment " + file 
+					+ " is corrupt.", ex);
+		}
+	}
+	
+	/**
+	 * Gets a string from the string table.
+	 *
+	 * @param strings the string table
+	 * @param index the index, or -1 for null
+	 * @return the string
+	 */
+	private static String getString(String[] strings, int index) {
+		return index < 0 ? null : strings[index];
+	}
+	
+	/**
+	 * Reads the indices of each designer.
+	 *
+	 * @param block the block buffer
+	 * @param numberDesigners the number of designers
+	 * @return the indices
+	 */
+	private static int[][] readIndices(ByteBuffer block, int numberDesigners) {
+		int[][] indices = new int[numberDesigners][];
+		for(int d = 0; d < numberDesigners; d++) {
+			indices[d] = new int[block.getInt()];
+			IntBuffer values = block.asIntBuffer();
+			values.get(indices[d]);
+			block.position(block.position() + 4*indices[d].length);
+		}
+		return indices;
+	}
+	
+	/**
+	 * Reads labels from string table indices.
+	 *
+	 * @param block the block buffer
+	 * @param strings the string table
+	 * @return the labels
+	 */
+	private static String[] readLabels(ByteBuffer block, String[] strings) {
+		String[] labels = new String[block.getInt()];
+		for(int i = 0; i < labels.length; i++) {
+			labels[i] = getString(strings, block.getInt());
+		}
+		return labels;
+	}
+	
+	/**
+	 * Materializes a model from its block.
+	 *
+	 * @param block the block buffer, positioned at the start of the block
+	 * @param strings the string table
+	 * @return the system model
+	 */
+	private static SystemModel readModel(ByteBuffer block, String[] strings) {
+		String name = getString(strings, block.getInt());
+		int numberOutputs = block.getInt();
+		int numberInputs = block.getInt();
+		int numberDesigners = block.getInt();
+		
+		// read the coupling matrix and target vector directly from the 
+		// double blocks
+		DoubleBuffer values = block.asDoubleBuffer();
+		double[][] matrix = new double[numberOutputs][numberInputs];
+		for(int i = 0; i < numberOutputs; i++) {
+			values.get(matrix[i]);
+		}
+		double[] target = new double[numberOutputs];
+		values.get(target);
+		block.position(block.position() 
+				+ 8*(numberOutputs*numberInputs + numberOutputs));
+		
+		int[][] inputIndices = readIndices(block, numberDesigners);
+		int[][] outputIndices = readIndices(block, numberDesigners);
+		String[] inputLabels = readLabels(block, strings);
+		String[] outputLabels = readLabels(block, strings);
+		
+		return new SystemModel(name, new Array2DRowRealMatrix(matrix, false), 
+				new ArrayRealVector(target, false), inputIndices, 
+				outputIndices, inputLabels, outputLabels);
+	}
+	
+	/**
+	 * Writes the indices of each designer.
+	 *
+	 * @param block the block buffer
+	 * @param indices the indices
+	 */
+	private static void writeIndices(ByteBuffer block, int[][] indices) {
+		for(int[] designerIndices : indices) {
+			block.putInt(designerIndices.length);
+			for(int index : designerIndices) {
+				block.putInt(index);
+			}
+		}
+	}
+	
+	/**
+	 * Writes labels as string table indices.
+	 *
+	 * @param block the block buffer
+	 * @param labels the labels
+	 * @param strings the string table
+	 */
+	private static void writeLabels(ByteBuffer block, String[] labels, 
+			Map<String, Integer> strings) {
+		block.putInt(labels.length);
+		for(String label : labels) {
+			block.putInt(label == null ? -1 : strings.get(label));
+		}
+	}
+	
+	/**
+	 * Writes an experiment to a binary file. Models are written in order 
+	 * of presentation (training models followed by experiment models), 
+	 * one model at a time.
+	 *
+	 * @param experiment the experiment
+	 * @param file the file
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public static void writeExperiment(Experiment experiment, File file) 
+			throws IOException {
+		List<SystemModel> models = experiment.getModels();
+		int numberTrainingModels = experiment.getNumberTrainingModels();
+		
+		// build the string table and model index in a first pass
+		Map<String, Integer> strings = new LinkedHashMap<String, Integer>();
+		addString(strings, experiment.getName());
+		long[] blockSizes = new long[models.size()];
+		for(int i = 0; i < models.size(); i++) {
+			SystemModel model = models.get(i);
+			addString(strings, model.getName());
+			for(String label : model.getInputLabels()) {
+				addString(strings, label);
+			}
+			for(String label : model.getOutputLabels()) {
+				addString(strings, label);
+			}
+			blockSizes[i] = getBlockSize(model);
+		}
+		
+		// encode the header and string table
+		List<byte[]> encodedStrings = new ArrayList<byte[]>(strings.size());
+		long headerSize = magic.length + 5*4 + 4;
+		for(String string : strings.keySet()) {
+			byte[] bytes = string.getBytes(charset);
+			encodedStrings.add(bytes);
+			headerSize += 4 + bytes.length;
+		}
+		long position = align(headerSize) + 16L*models.size();
+		long[] offsets = new long[models.size()];
+		for(int i = 0; i < models.size(); i++) {
+			position = align(position);
+			offsets[i] = position;
+			position += blockSizes[i];
+		}
+		if(position > Integer.MAX_VALUE) {
+			throw new IOException("Experiment is too large to write.");
+		}
+		
+		ByteBuffer header = ByteBuffer.allocate(
+				(int) (align(headerSize) + 16L*models.size()))
+				.order(ByteOrder.LITTLE_ENDIAN);
+		header.put(magic);
+		header.putInt(VERSION);
+		header.putInt(experiment.getNumberDesigners());
+		header.putInt(experiment.getName() == null ? 
+				-1 : strings.get(experiment.getName()));
+		header.putInt(numberTrainingModels);
+		header.putInt(models.size() - numberTrainingModels);
+		header.putInt(encodedStrings.size());
+		for(byte[] bytes : encodedStrings) {
+			header.putInt(bytes.length);
+			header.put(bytes);
+		}
+		header.position((int) align(header.position()));
+		for(int i = 0; i < models.size(); i++) {
+			header.putLong(offsets[i]);
+			header.putLong(blockSizes[i]);
+		}
+		header.flip();
+		
+		try(RandomAccessFile output = new RandomAccessFile(file, "rw"); 
+				FileChannel channel = output.getChannel()) {
+			channel.truncate(0);
+			while(header.hasRemaining()) {
+				channel.write(header);
+			}
+			// write each model block in a second pass
+			for(int i = 0; i < models.size(); i++) {
+				SystemModel model = models.get(i);
+				ByteBuffer block = ByteBuffer.allocate((int) blockSizes[i])
+						.order(ByteOrder.LITTLE_ENDIAN);
+				block.putInt(model.getName() == null ? 
+						-1 : strings.get(model.getName()));
+				block.putInt(model.getNumberOutputs());
+				block.putInt(model.getNumberInputs());
+				block.putInt(model.getNumberDesigners());
+				RealMatrix matrix = model.getCouplingMatrix();
+				for(int r = 0; r < matrix.getRowDimension(); r++) {
+					for(int c = 0; c < matrix.getColumnDimension(); c++) {
+						block.putDouble(matrix.getEntry(r, c));
+					}
+				}
+				RealVector target = model.getTargetVector();
+				for(int r = 0; r < target.getDimension(); r++) {
+					block.putDouble(target.getEntry(r));
+				}
+				writeIndices(block, model.getInputIndices());
+				writeIndices(block, model.getOutputIndices());
+				writeLabels(block, model.getInputLabels(), strings);
+				writeLabels(block, model.getOutputLabels(), strings);
+				block.flip();
+				
+				channel.position(offsets[i]);
+				while(block.hasRemaining()) {
+					channel.write(block);
+				}
+			}
+		}
+	}
+}
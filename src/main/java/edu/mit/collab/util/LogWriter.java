@@ -0,0 +1,234 @@
+/******************************************************************************
+ * Copyright 2020 Paul T. Grogan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package edu.mit.collab.util;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Logger;
+
+/**
+ * An asynchronous writer for session log files. Lines are added to a 
+ * bounded queue which is drained by a background thread that writes 
+ * through a single open buffered writer, so callers (e.g. the Swing event 
+ * thread) never perform file operations. The buffered writer is flushed 
+ * according to a configurable flush policy and all queued lines are 
+ * written when the writer is closed.
+ * 
+ * @author Paul T. Grogan
+ */
+public class LogWriter {
+	private static Logger logger = Logger.getLogger(LogWriter.class);
+	
+	/**
+	 * The policy used to decide when buffered lines are flushed to disk.
+	 */
+	public static enum FlushPolicy {
+		/** flush after every line */
+		EVERY_EVENT, 
+		/** flush when the flush interval has elapsed since the last flush */
+		TIME, 
+		/** flush when the number of unflushed characters exceeds the flush size */
+		SIZE
+	};
+	
+	public static final int DEFAULT_CAPACITY = 4096;
+	public static final long DEFAULT_FLUSH_INTERVAL = 1000;
+	public static final int DEFAULT_FLUSH_SIZE = 8192;
+	
+	// sentinel line used to signal the writer thread to stop
+	private static final String END_OF_LOG = new String();
+	
+	private final BlockingQueue<String> queue; // immutable
+	private final BufferedWriter writer; // immutable
+	private final FlushPolicy flushPolicy; // immutable
+	private final long flushInterval; // immutable
+	private final int flushSize; // immutable
+	private final Thread writerThread; // immutable
+	
+	private volatile boolean closed; // mutable
+	
+	/**
+	 * Instantiates a new log writer with a time-based flush policy and 
+	 * default capacity and flush interval.
+	 *
+	 * @param file the file to append to
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public LogWriter(File file) throws IOException {
+		this(file, FlushPolicy.TIME, DEFAULT_CAPACITY, 
+				DEFAULT_FLUSH_INTERVAL, DEFAULT_FLUSH_SIZE);
+	}
+	
+	/**
+	 * Instantiates a new log writer.
+	 *
+	 * @param file the file to append to
+	 * @param flushPolicy the flush policy
+	 * @param capacity the maximum number of queued lines
+	 * @param flushInterval the flush interval (milliseconds) for time-based flushes
+	 * @param flushSize the number of characters for size-based flushes
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public LogWriter(File file, FlushPolicy flushPolicy, int capacity, 
+			long flushInterval, int flushSize) throws IOException {
+		if(capacity < 1) {
+			throw new IllegalArgumentException(
+					"Capacity must be at least 1.");
+		}
+		if(flushInterval < 1) {
+			throw new IllegalArgumentException(
+					"Flush interval must be at least 1 millisecond.");
+		}
+		if(flushSize < 1) {
+			throw new IllegalArgumentException(
+					"Flush size must be at least 1 character.");
+		}
+		this.flushPolicy = flushPolicy;
+		this.flushInterval = flushInterval;
+		this.flushSize = flushSize;
+		queue = new ArrayBlockingQueue<String>(capacity);
+		writer = new BufferedWriter(new OutputStreamWriter(
+				new FileOutputStream(file, true), Charset.defaultCharset()));
+		
+		// start a daemon thread to drain the queue
+		writerThread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				drain();
+			}
+		}, "LogWriter-" + file.getName());
+		writerThread.setDaemon(true);
+		writerThread.start();
+	}
+	
+	/**
+	 * Closes this log writer, waiting for all queued lines to be written
+	 * and flushed before closing the file.
+	 */
+	public synchronized void close() {
+		if(closed) {
+			return;
+		}
+		closed = true;
+		enqueue(END_OF_LOG);
+		try {
+			writerThread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	/**
+	 * Drains the queue, writing lines until the end of the log is reached.
+	 * This method is run by the writer thread.
+	 */
+	private void drain() {
+		List<String> batch = new ArrayList<String>();
+		long lastFlush = System.currentTimeMillis();
+		int unflushed = 0;
+		boolean running = true;
+		try {
+			while(running) {
+				// wait for the next line (at most until the next time-based 
+				// flush) and then take all other available lines as a batch
+				String line = queue.poll(flushInterval, TimeUnit.MILLISECONDS);
+				if(line != null) {
+					batch.add(line);
+					queue.drainTo(batch);
+				}
+				for(String entry : batch) {
+					if(entry == END_OF_LOG) {
+						running = false;
+						break;
+					}
+					writer.write(entry);
+					writer.newLine();
+					unflushed += entry.length() + 1;
+					if(flushPolicy == FlushPolicy.EVERY_EVENT) {
+						writer.flush();
+						unflushed = 0;
+					}
+				}
+				batch.clear();
+				
+				long time = System.currentTimeMillis();
+				if(unflushed > 0 
+						&& (flushPolicy == FlushPolicy.TIME 
+								&& time - lastFlush >= flushInterval
+						|| flushPolicy == FlushPolicy.SIZE 
+								&& unflushed >= flushSize)) {
+					writer.flush();
+					unflushed = 0;
+					lastFlush = time;
+				}
+			}
+		} catch(InterruptedException e) {
+			logger.warn("Log writer interrupted; remaining lines discarded.");
+		} catch(IOException e) {
+			logger.error(e);
+		} finally {
+			try {
+				writer.close();
+			} catch(IOException e) {
+				logger.error(e);
+			}
+		}
+	}
+	
+	/**
+	 * Adds a line to the queue, waiting for space if the queue is full 
+	 * as long as the writer thread is running.
+	 *
+	 * @param line the line
+	 * @return true, if the line was queued
+	 */
+	private boolean enqueue(String line) {
+		try {
+			while(writerThread.isAlive()) {
+				if(queue.offer(line, flushInterval, TimeUnit.MILLISECONDS)) {
+					return true;
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return false;
+	}
+	
+	/**
+	 * Queues a line to be written to the log. If the queue is full, this 
+	 * method waits for space rather than discarding the line.
+	 *
+	 * @param line the line
+	 * @return true, if the line was queued
+	 */
+	public boolean log(String line) {
+		if(closed) {
+			return false;
+		}
+		return enqueue(line);
+	}
+}
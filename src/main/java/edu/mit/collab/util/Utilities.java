@@ -26,7 +26,9 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import javax.swing.ImageIcon;
 
@@ -37,15 +39,12 @@ import org.apache.commons.math3.linear.RealVector;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import com.google.gson.InstanceCreator;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonDeserializationContext;
-import com.google.gson.JsonDeserializer;
-import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
 import com.google.gson.JsonParseException;
-import com.google.gson.JsonPrimitive;
-import com.google.gson.JsonSerializationContext;
-import com.google.gson.JsonSerializer;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 
 import edu.mit.collab.core.Experiment;
 
@@ -83,117 +82,127 @@ public abstract class Utilities {
 			new Rectangle(-4,-4,8,8),
 			new Polygon(new int[]{-4,0,4}, new int[]{3,-6,3},3)};
 	
+	// a shared gson object configured for vector and matrix classes; gson 
+	// objects are thread-safe so it is only built once
+	private static final Gson gson = createGson();
+	
 	/**
-	 * Gets the gson.
+	 * Formats a vector of values as a string like {0.00; 1.00} for logging,
+	 * using a format string for each value.
+	 *
+	 * @param values the values
+	 * @param format the format string for each value, e.g. %.2f
+	 * @return the formatted string
+	 */
+	public static String formatVector(double[] values, String format) {
+		StringBuilder builder = new StringBuilder();
+		builder.append("{");
+		for(int i = 0; i < values.length; i++) {
+			builder.append(String.format(format, values[i]));
+			if(i < values.length - 1) {
+				builder.append("; ");
+			}
+		}
+		builder.append("}");
+		return builder.toString();
+	}
+	
+	/**
+	 * Creates the gson object which is configured to work with the 
+	 * mathematical vector and matrix classes. Vectors and matrices are 
+	 * streamed directly to and from primitive arrays without building an 
+	 * intermediate JSON tree.
 	 *
 	 * @return the gson
 	 */
-	public static Gson getGson() {
-	  // a Gson builder object which is configured to work with the
-	  // mathematical vector and matrix classes
+	private static Gson createGson() {
 	  return new GsonBuilder()
-	      // register a type adapter to serialize RealMatrix objects
+	      // register a type adapter to stream RealMatrix objects
 	      .registerTypeAdapter(RealMatrix.class, 
-	          new JsonSerializer<RealMatrix>() {
+	          new TypeAdapter<RealMatrix>() {
 	        @Override
-	        public JsonElement serialize(RealMatrix src, Type typeOfSrc,
-	            JsonSerializationContext context) {
-	          // create empty JSON data array for rows
-	          JsonArray matrix = new JsonArray();
+	        public void write(JsonWriter out, RealMatrix src) 
+	            throws IOException {
+	          if(src == null) {
+	            out.nullValue();
+	            return;
+	          }
+	          // write each row as a nested array
+	          out.beginArray();
 	          for(int i = 0; i < src.getRowDimension(); i++) {
-	            // create empty JSON data array for column
-	            JsonArray vector = new JsonArray();
+	            out.beginArray();
 	            for(int j = 0; j < src.getColumnDimension(); j++) {
-	              // set row i, column j from source matrix
-	              vector.add(new JsonPrimitive(src.getEntry(i, j)));
+	              out.value(src.getEntry(i, j));
 	            }
-	            // add row vector to matrix
-	            matrix.add(vector);
+	            out.endArray();
 	          }
-	          return matrix;
+	          out.endArray();
 	        }
-	      })
-	      // register a type adapter to deserialize RealMatrix objects
-	      .registerTypeAdapter(RealMatrix.class, 
-	          new JsonDeserializer<RealMatrix>() {
+	        
 	        @Override
-	        public RealMatrix deserialize(JsonElement json, Type typeOfT,
-	            JsonDeserializationContext context)
-	                throws JsonParseException {
-	          // convert JSON element to JSON array
-	          JsonArray matrix = json.getAsJsonArray();
-	          // create empty double matrix with same number of rows
-	          double[][] data = new double[matrix.size()][];
-	          for(int i = 0; i < matrix.size(); i++) {
-	            // get the ith row in the JSON array
-	            JsonArray vector = matrix.get(i).getAsJsonArray();
-	            // create empty double array with same number of columns
-	            data[i] = new double[vector.size()];
-	            for(int j = 0; j < vector.size(); j++) {
-	              // set row i, column j from row vector entry
-	              data[i][j] = vector.get(j).getAsDouble();
-	            }
+	        public RealMatrix read(JsonReader in) throws IOException {
+	          if(in.peek() == JsonToken.NULL) {
+	            in.nextNull();
+	            return null;
 	          }
-	          // return properly-typed RealMatrix object
-	          return new Array2DRowRealMatrix(data);
-	        }
-	      })
-	      // register a type adapter to create RealMatrix objects
-	      .registerTypeAdapter(RealMatrix.class, 
-	          new InstanceCreator<RealMatrix>() {
-	        @Override
-	        public RealMatrix createInstance(Type type) {
-	          // return a new RealMatrix object
-	          return new Array2DRowRealMatrix();
+	          // read each row directly into a double array
+	          List<double[]> rows = new ArrayList<double[]>();
+	          in.beginArray();
+	          while(in.hasNext()) {
+	            rows.add(readDoubleArray(in));
+	          }
+	          in.endArray();
+	          if(rows.isEmpty()) {
+	            // a matrix with no rows has no data
+	            return new Array2DRowRealMatrix();
+	          }
+	          // return properly-typed RealMatrix object (without copying)
+	          return new Array2DRowRealMatrix(
+	              rows.toArray(new double[rows.size()][]), false);
 	        }
 	      })
-	      // register a type adapter to serialize RealVector objects
+	      // register a type adapter to stream RealVector objects
 	      .registerTypeAdapter(RealVector.class, 
-	          new JsonSerializer<RealVector>() {
+	          new TypeAdapter<RealVector>() {
 	        @Override
-	        public JsonElement serialize(RealVector src, Type typeOfSrc,
-	            JsonSerializationContext context) {
-	          // create an empty JSON array
-	          JsonArray vector = new JsonArray();
+	        public void write(JsonWriter out, RealVector src) 
+	            throws IOException {
+	          if(src == null) {
+	            out.nullValue();
+	            return;
+	          }
+	          out.beginArray();
 	          for(int i = 0; i < src.getDimension(); i++) {
-	            // set ith entry from source vector
-	            vector.add(new JsonPrimitive(src.getEntry(i)));
+	            out.value(src.getEntry(i));
 	          }
-	          return vector;
+	          out.endArray();
 	        }
-	      })
-	      // register a type adapter to deserialize RealVector objects
-	      .registerTypeAdapter(RealVector.class, 
-	          new JsonDeserializer<RealVector>() {
+	        
 	        @Override
-	        public RealVector deserialize(JsonElement json, Type typeOfT,
-	            JsonDeserializationContext context)
-	                throws JsonParseException {
-	          // parse the JSON element as a JSON array
-	          JsonArray vector = json.getAsJsonArray();
-	          // create a new double array with the same size
-	          double[] data = new double[vector.size()];
-	          for(int i = 0; i < vector.size(); i++) {
-	            // set the ith vector entry from the JSON array
-	            data[i] = vector.get(i).getAsDouble();
+	        public RealVector read(JsonReader in) throws IOException {
+	          if(in.peek() == JsonToken.NULL) {
+	            in.nextNull();
+	            return null;
 	          }
-	          // return a properly-typed RealVector object
-	          return new ArrayRealVector(data);
-	        }
-	      })
-	      // register a type adapter to create RealVector objects
-	      .registerTypeAdapter(RealVector.class, 
-	          new InstanceCreator<RealVector>() {
-	        @Override
-	        public RealVector createInstance(Type type) {
-	          // return a new RealVector object
-	          return new ArrayRealVector();
+	          // return a properly-typed RealVector object (without copying)
+	          return new ArrayRealVector(readDoubleArray(in), false);
 	        }
 	      })
 	      // create gson object
 	      .create();
 	}
 	
+	/**
+	 * Gets the gson object which is configured to work with the 
+	 * mathematical vector and matrix classes. The object is shared and 
+	 * thread-safe.
+	 *
+	 * @return the gson
+	 */
+	public static Gson getGson() {
+		return gson;
+	}
+	
 	/**
 	 * Gets the series shape.
 	 *
@@ -234,33 +243,56 @@ public abstract class Utilities {
 	}
 	
 	/**
-	 * Reads a JSON-formatted experiment object from file.
+	 * Reads a JSON array of numbers directly into a double array.
+	 *
+	 * @param in the JSON reader
+	 * @return the double array
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private static double[] readDoubleArray(JsonReader in) throws IOException {
+		double[] data = new double[16];
+		int size = 0;
+		in.beginArray();
+		while(in.hasNext()) {
+			if(size == data.length) {
+				// grow the array to fit more values
+				data = Arrays.copyOf(data, 2*data.length);
+			}
+			data[size++] = in.nextDouble();
+		}
+		in.endArray();
+		return size == data.length ? data : Arrays.copyOf(data, size);
+	}
+	
+	/**
+	 * Reads an experiment object from file. Binary experiments (see 
+	 * {@link BinaryExperimentFormat}) are memory-mapped; otherwise the 
+	 * file is parsed as JSON as a stream so it is never held in memory 
+	 * as a string.
 	 *
 	 * @param file the file
 	 * @return the experiment
 	 * @throws IOException Signals that an I/O exception has occurred.
 	 */
 	public static Experiment readExperiment(File file) throws IOException {
-		// create a string-builder to efficiently read in JSON data
-		StringBuilder jsonBuilder = new StringBuilder();
-		// create file reader and buffered reader
-		FileReader fr = new FileReader(file);
-		BufferedReader br = new BufferedReader(fr);
-		String line;
-		// do while the next line is not null (not reached end of file)
-		while((line = br.readLine()) != null) {
-			// append line to string builder
-			jsonBuilder.append(line);
+		if(BinaryExperimentFormat.isBinary(file)) {
+			return BinaryExperimentFormat.readExperiment(file);
+		}
+		// create a buffered JSON reader; leniency allows unquoted labels
+		try(JsonReader reader = new JsonReader(
+				new BufferedReader(new FileReader(file)))) {
+			reader.setLenient(true);
+			// parse JSON into Experiment object using custom GSON object
+			return gson.fromJson(reader, Experiment.class);
+		} catch(JsonParseException e) {
+			throw new IOException("Could not read experiment from " 
+					+ file + ".", e);
 		}
-		// closer readers
-		br.close();
-		fr.close();
-		// parse JSON into Experiment object using custom GSON object
-		return getGson().fromJson(jsonBuilder.toString(), Experiment.class);
 	}
 	
 	/**
-	 * Writes an Experiment object to a JSON-formatted file.
+	 * Writes an Experiment object to a JSON-formatted file. The experiment 
+	 * is written as a stream so it is never held in memory as a string.
 	 *
 	 * @param experiment the experiment
 	 * @param file the file
@@ -268,14 +300,14 @@ public abstract class Utilities {
 	 */
 	public static void writeExperiment(Experiment experiment, File file) 
 			throws IOException {
-		// create a file writer and buffered writer
-		FileWriter fw = new FileWriter(file);
-		BufferedWriter bw = new BufferedWriter(fw);
-		// write the JSON-ified experiment to file
-		bw.write(getGson().toJson(experiment));
-		// flush and close writers
-		bw.flush();
-		bw.close();
-		fw.close();
+		// create a buffered JSON writer
+		try(JsonWriter writer = new JsonWriter(
+				new BufferedWriter(new FileWriter(file)))) {
+			// write the JSON-ified experiment to file
+			gson.toJson(experiment, Experiment.class, writer);
+		} catch(JsonIOException e) {
+			throw new IOException("Could not write experiment to " 
+					+ file + ".", e);
+		}
 	}
 }
\ No newline at end of file
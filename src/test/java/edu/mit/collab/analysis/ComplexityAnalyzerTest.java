@@ -0,0 +1,136 @@
+/******************************************************************************
+ * Copyright 2020 Paul T. Grogan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package edu.mit.collab.analysis;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import edu.mit.collab.core.Complexity;
+import edu.mit.collab.core.Experiment;
+import edu.mit.collab.generator.ComplexityAnalyzer;
+import edu.mit.collab.util.Utilities;
+
+/**
+ * Tests the technical, social, and total complexity of the experiment 
+ * models of several bundled experiments against the reference values 
+ * reported by the MATLAB generator (experiments.txt), which are rounded to 
+ * integers.
+ * 
+ * @author Paul T. Grogan
+ */
+public class ComplexityAnalyzerTest {
+	private static final String experimentPath = 
+			"src/generator/matlab/experiment%03d.json";
+	private static final String referencePath = 
+			"src/generator/matlab/experiments.txt";
+	private static final int[] experimentNumbers = new int[]{5, 8, 12};
+	private static final double tolerance = 0.5;
+	
+	// reference complexity (technical, social, total) of each task number
+	private static Map<Integer, double[]> referenceValues;
+	// task numbers of the experiment models of each experiment
+	private static Map<String, int[]> referenceOrders;
+	
+	/**
+	 * Reads the reference values and task orders.
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	@BeforeClass
+	public static void readReference() throws IOException {
+		referenceValues = new HashMap<Integer, double[]>();
+		referenceOrders = new HashMap<String, int[]>();
+		try(BufferedReader reader = new BufferedReader(
+				new FileReader(referencePath))) {
+			String line;
+			while((line = reader.readLine()) != null) {
+				line = line.trim();
+				if(line.isEmpty() || line.startsWith("#")) {
+					continue;
+				}
+				if(line.contains(":")) {
+					// experiment name followed by bracketed task numbers
+					String[] tokens = line.substring(line.indexOf('[') + 1, 
+							line.indexOf(']')).trim().split("\\s+");
+					int[] order = new int[tokens.length];
+					for(int i = 0; i < tokens.length; i++) {
+						order[i] = Integer.parseInt(tokens[i]);
+					}
+					referenceOrders.put(
+							line.substring(0, line.indexOf(':')), order);
+				} else {
+					// task number, ..., C_t, C_s, C
+					String[] tokens = line.split("\\s+");
+					int n = tokens.length;
+					referenceValues.put(Integer.parseInt(tokens[0]), 
+							new double[]{
+								Double.parseDouble(tokens[n-3]), 
+								Double.parseDouble(tokens[n-2]), 
+								Double.parseDouble(tokens[n-1])});
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Tests the complexity of each experiment model against the reference 
+	 * values of its task.
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	@Test
+	public void testReferenceValues() throws IOException {
+		List<Experiment> experiments = new ArrayList<Experiment>();
+		for(int number : experimentNumbers) {
+			experiments.add(Utilities.readExperiment(new File(
+					String.format(experimentPath, number))));
+		}
+		Map<Experiment, List<Complexity>> complexities = 
+				new ComplexityAnalyzer().analyze(experiments);
+		
+		for(int e = 0; e < experiments.size(); e++) {
+			Experiment experiment = experiments.get(e);
+			String name = String.format("experiment%03d", 
+					experimentNumbers[e]);
+			int[] order = referenceOrders.get(name);
+			List<Complexity> values = complexities.get(experiment);
+			int numberTraining = experiment.getNumberTrainingModels();
+			assertEquals(name, order.length, values.size() - numberTraining);
+			for(int i = 0; i < order.length; i++) {
+				Complexity complexity = values.get(numberTraining + i);
+				double[] reference = referenceValues.get(order[i]);
+				String message = name + " task " + order[i];
+				assertEquals(message, reference[0], 
+						complexity.getTechnical(), tolerance);
+				assertEquals(message, reference[1], 
+						complexity.getSocial(), tolerance);
+				assertEquals(message, reference[2], 
+						complexity.getTotal(), tolerance);
+			}
+		}
+	}
+}
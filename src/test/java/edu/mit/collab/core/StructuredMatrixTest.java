@@ -0,0 +1,124 @@
+/******************************************************************************
+ * Copyright 2020 Paul T. Grogan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package edu.mit.collab.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.commons.math3.linear.LUDecomposition;
+import org.apache.commons.math3.linear.RealMatrix;
+import org.apache.commons.math3.linear.RealVector;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import edu.mit.collab.util.Utilities;
+
+/**
+ * Tests the structured (sparse, block-factorized) coupling matrix against 
+ * dense products and LU solves for every model of the bundled experiments.
+ * 
+ * @author Paul T. Grogan
+ */
+public class StructuredMatrixTest {
+	private static final String experimentPath = 
+			"src/generator/matlab/experiment%03d.json";
+	private static final int numberExperiments = 12;
+	private static final double tolerance = 1e-9;
+	
+	private static List<SystemModel> models;
+	
+	/**
+	 * Reads the models of the bundled experiments.
+	 *
+	 * @throws IOException if an experiment cannot be read
+	 */
+	@BeforeClass
+	public static void readModels() throws IOException {
+		models = new ArrayList<SystemModel>();
+		for(int i = 1; i <= numberExperiments; i++) {
+			models.addAll(Utilities.readExperiment(new File(
+					String.format(experimentPath, i))).getModels());
+		}
+		assertTrue(models.size() > 0);
+	}
+	
+	/**
+	 * Tests that adding scaled columns matches a product with the 
+	 * accumulated vector.
+	 */
+	@Test
+	public void testAddColumn() {
+		Random random = new Random(0);
+		for(SystemModel model : models) {
+			RealMatrix matrix = model.getCouplingMatrix();
+			StructuredMatrix structure = new StructuredMatrix(matrix);
+			double[] x = new double[matrix.getColumnDimension()];
+			double[] y = new double[matrix.getRowDimension()];
+			for(int j = 0; j < x.length; j++) {
+				double scale = 2*random.nextDouble() - 1;
+				x[j] += scale;
+				structure.addColumn(j, scale, y);
+			}
+			assertArrayEquals(model.getName(), 
+					matrix.operate(x), y, tolerance);
+		}
+	}
+	
+	/**
+	 * Tests that products match dense matrix products.
+	 */
+	@Test
+	public void testOperate() {
+		Random random = new Random(0);
+		for(SystemModel model : models) {
+			RealMatrix matrix = model.getCouplingMatrix();
+			StructuredMatrix structure = new StructuredMatrix(matrix);
+			double[] x = new double[matrix.getColumnDimension()];
+			for(int j = 0; j < x.length; j++) {
+				x[j] = 2*random.nextDouble() - 1;
+			}
+			double[] y = new double[matrix.getRowDimension()];
+			structure.operate(x, y);
+			assertArrayEquals(model.getName(), 
+					matrix.operate(x), y, tolerance);
+		}
+	}
+	
+	/**
+	 * Tests that block solves match LU solves of the full matrix.
+	 */
+	@Test
+	public void testSolve() {
+		for(SystemModel model : models) {
+			RealMatrix matrix = model.getCouplingMatrix();
+			RealVector target = model.getTargetVector();
+			RealVector expected = new LUDecomposition(matrix)
+					.getSolver().solve(target);
+			RealVector actual = new StructuredMatrix(matrix).solve(target);
+			assertEquals(model.getName(), expected.getDimension(), 
+					actual.getDimension());
+			assertArrayEquals(model.getName(), expected.toArray(), 
+					actual.toArray(), tolerance);
+		}
+	}
+}
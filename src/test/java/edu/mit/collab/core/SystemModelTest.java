@@ -0,0 +1,113 @@
+/******************************************************************************
+ * Copyright 2020 Paul T. Grogan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package edu.mit.collab.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import edu.mit.collab.util.Utilities;
+
+/**
+ * Tests incremental output evaluation against full output recomputation 
+ * for every model of the bundled experiments.
+ * 
+ * @author Paul T. Grogan
+ */
+public class SystemModelTest {
+	private static final String experimentPath = 
+			"src/generator/matlab/experiment%03d.json";
+	private static final int numberExperiments = 12;
+	private static final int numberUpdates = 50;
+	private static final double tolerance = 1e-9;
+	
+	private static List<SystemModel> models;
+	
+	/**
+	 * Reads the models of the bundled experiments.
+	 *
+	 * @throws IOException if an experiment cannot be read
+	 */
+	@BeforeClass
+	public static void readModels() throws IOException {
+		models = new ArrayList<SystemModel>();
+		for(int i = 1; i <= numberExperiments; i++) {
+			models.addAll(Utilities.readExperiment(new File(
+					String.format(experimentPath, i))).getModels());
+		}
+		assertTrue(models.size() > 0);
+	}
+	
+	/**
+	 * Tests that successive incremental updates of one designer's inputs 
+	 * match a full recomputation after each update.
+	 */
+	@Test
+	public void testIncrementalDesignerUpdates() {
+		Random random = new Random(0);
+		for(SystemModel model : models) {
+			SystemModel.Evaluator evaluator = model.newEvaluator();
+			evaluator.setRefreshInterval(Integer.MAX_VALUE);
+			int[][] indices = model.getInputIndices();
+			double[] inputs = model.getInitialVector().toArray();
+			double[] outputs = new double[model.getNumberOutputs()];
+			evaluator.evaluate(null, inputs, outputs);
+			for(int k = 0; k < numberUpdates; k++) {
+				int[] changed = indices[random.nextInt(indices.length)];
+				for(int j : changed) {
+					inputs[j] = 2*random.nextDouble() - 1;
+				}
+				evaluator.evaluate(changed, inputs, outputs);
+				assertArrayEquals(model.getName() + " update " + k, 
+						model.getOutputVector(new ArrayRealVector(inputs))
+								.toArray(), outputs, tolerance);
+			}
+		}
+	}
+	
+	/**
+	 * Tests that successive incremental updates of a single input match a 
+	 * full recomputation after each update.
+	 */
+	@Test
+	public void testIncrementalInputUpdates() {
+		Random random = new Random(0);
+		for(SystemModel model : models) {
+			SystemModel.Evaluator evaluator = model.newEvaluator();
+			evaluator.setRefreshInterval(Integer.MAX_VALUE);
+			double[] inputs = new double[model.getNumberInputs()];
+			double[] outputs = new double[model.getNumberOutputs()];
+			evaluator.evaluate(null, inputs, outputs);
+			for(int k = 0; k < numberUpdates; k++) {
+				int j = random.nextInt(inputs.length);
+				inputs[j] = 2*random.nextDouble() - 1;
+				evaluator.evaluate(new int[]{j}, inputs, outputs);
+				assertArrayEquals(model.getName() + " update " + k, 
+						model.getOutputVector(new ArrayRealVector(inputs))
+								.toArray(), outputs, tolerance);
+			}
+		}
+	}
+}
@@ -0,0 +1,90 @@
+/******************************************************************************
+ * Copyright 2020 Paul T. Grogan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package edu.mit.collab.generator;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Tests that the matrix generator is deterministic for a fixed seed 
+ * regardless of the size of its fork-join pool.
+ * 
+ * @author Paul T. Grogan
+ */
+public class MatrixGeneratorTest {
+	private static final int[] number = new int[]{2, 3, 4, 1};
+	private static final boolean[] coupled = 
+			new boolean[]{true, true, true, false};
+	private static final int numberSeeds = 5;
+	private static final int[] poolSizes = new int[]{1, 2, 4};
+	private static final int batchSize = 8;
+	
+	private static ForkJoinPool[] pools;
+	
+	/**
+	 * Creates the fork-join pools.
+	 */
+	@BeforeClass
+	public static void createPools() {
+		pools = new ForkJoinPool[poolSizes.length];
+		for(int i = 0; i < poolSizes.length; i++) {
+			pools[i] = new ForkJoinPool(poolSizes[i]);
+		}
+	}
+	
+	/**
+	 * Shuts down the fork-join pools.
+	 */
+	@AfterClass
+	public static void shutdownPools() {
+		for(ForkJoinPool pool : pools) {
+			pool.shutdown();
+		}
+	}
+	
+	/**
+	 * Tests that each pool size generates an identical matrix and target 
+	 * for the same seed.
+	 */
+	@Test
+	public void testDeterministicAcrossPools() {
+		for(long seed = 0; seed < numberSeeds; seed++) {
+			MatrixGenerator.Result expected = new MatrixGenerator(pools[0], 
+					MatrixGenerator.DEFAULT_MINIMUM_SOLUTION, batchSize)
+					.generate(number, coupled, new SplittableRandom(seed));
+			for(int i = 1; i < pools.length; i++) {
+				MatrixGenerator.Result actual = new MatrixGenerator(pools[i], 
+						MatrixGenerator.DEFAULT_MINIMUM_SOLUTION, batchSize)
+						.generate(number, coupled, new SplittableRandom(seed));
+				double[][] expectedData = expected.getMatrix().getData();
+				double[][] actualData = actual.getMatrix().getData();
+				assertEquals(expectedData.length, actualData.length);
+				for(int j = 0; j < expectedData.length; j++) {
+					assertArrayEquals(expectedData[j], actualData[j], 0);
+				}
+				assertArrayEquals(expected.getTarget().toArray(), 
+						actual.getTarget().toArray(), 0);
+			}
+		}
+	}
+}
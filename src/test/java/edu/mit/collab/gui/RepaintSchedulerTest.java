@@ -0,0 +1,111 @@
+/******************************************************************************
+ * Copyright 2020 Paul T. Grogan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package edu.mit.collab.gui;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.swing.SwingUtilities;
+
+import org.junit.Test;
+
+/**
+ * Tests that the repaint scheduler runs a task marked dirty several times 
+ * once, rendering the final model state.
+ * 
+ * @author Paul T. Grogan
+ */
+public class RepaintSchedulerTest {
+	private static final int numberUpdates = 100;
+	private static final long timeout = 60;
+	
+	/**
+	 * Tests that a burst of updates runs the task once in the next frame.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testFinalValueInNextFrame() throws Exception {
+		final AtomicInteger value = new AtomicInteger();
+		final AtomicInteger rendered = new AtomicInteger();
+		final AtomicInteger runs = new AtomicInteger();
+		final CountDownLatch latch = new CountDownLatch(1);
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				RepaintScheduler scheduler = new RepaintScheduler();
+				Runnable task = new Runnable() {
+					@Override
+					public void run() {
+						rendered.set(value.get());
+						runs.incrementAndGet();
+						latch.countDown();
+					}
+				};
+				for(int i = 1; i <= numberUpdates; i++) {
+					value.set(i);
+					scheduler.markDirty(task);
+				}
+			}
+		});
+		assertTrue(latch.await(timeout, TimeUnit.SECONDS));
+		
+		// wait for any (unexpected) further frames on the event thread
+		Thread.sleep(2*1000/RepaintScheduler.DEFAULT_FRAMES_PER_SECOND);
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() { }
+		});
+		assertEquals(numberUpdates, rendered.get());
+		assertEquals(1, runs.get());
+	}
+	
+	/**
+	 * Tests that a burst of updates runs the task once when flushed.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testFinalValueOnFlush() throws Exception {
+		final AtomicInteger value = new AtomicInteger();
+		final AtomicInteger rendered = new AtomicInteger();
+		final AtomicInteger runs = new AtomicInteger();
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				RepaintScheduler scheduler = new RepaintScheduler();
+				Runnable task = new Runnable() {
+					@Override
+					public void run() {
+						rendered.set(value.get());
+						runs.incrementAndGet();
+					}
+				};
+				for(int i = 1; i <= numberUpdates; i++) {
+					value.set(i);
+					scheduler.markDirty(task);
+				}
+				scheduler.flush();
+			}
+		});
+		assertEquals(numberUpdates, rendered.get());
+		assertEquals(1, runs.get());
+	}
+}
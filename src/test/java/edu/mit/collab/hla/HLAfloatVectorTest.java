@@ -0,0 +1,91 @@
+/******************************************************************************
+ * Copyright 2020 Paul T. Grogan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package edu.mit.collab.hla;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import hla.rti1516e.encoding.ByteWrapper;
+import hla.rti1516e.encoding.DecoderException;
+import hla.rti1516e.encoding.EncoderException;
+
+/**
+ * Tests encoding and decoding of <code>HLAfloatVector</code> values.
+ * 
+ * @author Paul T. Grogan
+ */
+public class HLAfloatVectorTest {
+	private static final double[] values = new double[] {
+		0, -1, 1.5, Math.PI, -Double.MAX_VALUE, Double.MIN_VALUE, 
+		Double.NaN, Double.POSITIVE_INFINITY};
+	
+	/**
+	 * Tests decoding a length which exceeds the encoded data.
+	 *
+	 * @throws DecoderException the decoder exception
+	 */
+	@Test(expected = DecoderException.class)
+	public void testDecodeInvalidLength() throws DecoderException {
+		ByteWrapper byteWrapper = new ByteWrapper(12);
+		byteWrapper.putInt(2);
+		new HLAfloatVector().decode(byteWrapper.array());
+	}
+	
+	/**
+	 * Tests decoding truncated data.
+	 *
+	 * @throws EncoderException the encoder exception
+	 * @throws DecoderException the decoder exception
+	 */
+	@Test(expected = DecoderException.class)
+	public void testDecodeTruncated() throws EncoderException, DecoderException {
+		HLAfloatVector vector = new HLAfloatVector();
+		vector.setValue(values);
+		byte[] bytes = vector.toByteArray();
+		new HLAfloatVector().decode(Arrays.copyOf(bytes, bytes.length - 1));
+	}
+	
+	/**
+	 * Tests that encoded values decode to the same values, including 
+	 * decoding a shorter vector into a previously-used data element.
+	 *
+	 * @throws EncoderException the encoder exception
+	 * @throws DecoderException the decoder exception
+	 */
+	@Test
+	public void testRoundTrip() throws EncoderException, DecoderException {
+		HLAfloatVector vector = new HLAfloatVector();
+		vector.setValue(values);
+		byte[] bytes = vector.toByteArray();
+		assertEquals(vector.getEncodedLength(), bytes.length);
+		
+		HLAfloatVector decoded = new HLAfloatVector();
+		decoded.decode(bytes);
+		assertEquals(values.length, decoded.size());
+		assertArrayEquals(values, decoded.getValue().toArray(), 0);
+		
+		vector.setValue(new double[] {2, 3});
+		decoded.decode(vector.toByteArray());
+		double[] buffer = new double[values.length];
+		assertEquals(2, decoded.getValue(buffer));
+		assertArrayEquals(new double[] {2, 3}, 
+				Arrays.copyOf(buffer, 2), 0);
+	}
+}
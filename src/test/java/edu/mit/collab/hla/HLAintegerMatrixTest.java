@@ -0,0 +1,73 @@
+/******************************************************************************
+ * Copyright 2020 Paul T. Grogan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package edu.mit.collab.hla;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import hla.rti1516e.encoding.DecoderException;
+import hla.rti1516e.encoding.EncoderException;
+
+/**
+ * Tests encoding and decoding of <code>HLAintegerMatrix</code> values.
+ * 
+ * @author Paul T. Grogan
+ */
+public class HLAintegerMatrixTest {
+	private static final int[][] values = new int[][] {
+		new int[] {0, 1, 2}, new int[0], new int[] {-1}, 
+		new int[] {Integer.MAX_VALUE, Integer.MIN_VALUE}};
+	
+	/**
+	 * Tests decoding truncated data.
+	 *
+	 * @throws EncoderException the encoder exception
+	 * @throws DecoderException the decoder exception
+	 */
+	@Test(expected = DecoderException.class)
+	public void testDecodeTruncated() throws EncoderException, DecoderException {
+		HLAintegerMatrix matrix = new HLAintegerMatrix();
+		matrix.setValue(values);
+		byte[] bytes = matrix.toByteArray();
+		new HLAintegerMatrix().decode(Arrays.copyOf(bytes, bytes.length - 1));
+	}
+	
+	/**
+	 * Tests that encoded values decode to the same (jagged) values.
+	 *
+	 * @throws EncoderException the encoder exception
+	 * @throws DecoderException the decoder exception
+	 */
+	@Test
+	public void testRoundTrip() throws EncoderException, DecoderException {
+		HLAintegerMatrix matrix = new HLAintegerMatrix();
+		matrix.setValue(values);
+		byte[] bytes = matrix.toByteArray();
+		assertEquals(matrix.getEncodedLength(), bytes.length);
+		
+		HLAintegerMatrix decoded = new HLAintegerMatrix();
+		decoded.decode(bytes);
+		int[][] value = decoded.getValue();
+		assertEquals(values.length, value.length);
+		for(int i = 0; i < values.length; i++) {
+			assertArrayEquals(values[i], value[i]);
+		}
+	}
+}
@@ -0,0 +1,154 @@
+/******************************************************************************
+ * Copyright 2020 Paul T. Grogan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package edu.mit.collab.hla;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.RealVector;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import hla.rti1516e.RtiFactoryFactory;
+import hla.rti1516e.encoding.DecoderException;
+import hla.rti1516e.encoding.EncoderException;
+import hla.rti1516e.encoding.EncoderFactory;
+import hla.rti1516e.exceptions.RTIinternalError;
+
+/**
+ * Tests encoding and decoding of <code>HLAoutputDelta</code> keyframes and 
+ * deltas. Requires an RTI (on the test classpath) for its encoder factory.
+ * 
+ * @author Paul T. Grogan
+ */
+public class HLAoutputDeltaTest {
+	private static EncoderFactory encoderFactory;
+	
+	/**
+	 * Gets the encoder factory of the default RTI.
+	 *
+	 * @throws RTIinternalError the RTI internal error
+	 */
+	@BeforeClass
+	public static void createEncoderFactory() throws RTIinternalError {
+		encoderFactory = RtiFactoryFactory.getRtiFactory().getEncoderFactory();
+	}
+	
+	/**
+	 * Tests decoding truncated data.
+	 *
+	 * @throws EncoderException the encoder exception
+	 * @throws DecoderException the decoder exception
+	 */
+	@Test(expected = DecoderException.class)
+	public void testDecodeTruncated() throws EncoderException, DecoderException {
+		HLAoutputDelta delta = new HLAoutputDelta(encoderFactory);
+		delta.setValue(3, new int[] {0, 2}, new double[] {0.5, -0.5});
+		byte[] bytes = delta.toByteArray();
+		new HLAoutputDelta(encoderFactory).decode(
+				Arrays.copyOf(bytes, bytes.length - 1));
+	}
+	
+	/**
+	 * Tests that a delta with an out-of-range index is rejected.
+	 *
+	 * @throws EncoderException the encoder exception
+	 * @throws DecoderException the decoder exception
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testDeltaOutOfRange() throws EncoderException, DecoderException {
+		HLAoutputDelta delta = new HLAoutputDelta(encoderFactory);
+		delta.setValue(1, new int[] {3}, new double[] {1});
+		
+		HLAoutputDelta decoded = new HLAoutputDelta(encoderFactory);
+		decoded.decode(delta.toByteArray());
+		decoded.getValue(new ArrayRealVector(3));
+	}
+	
+	/**
+	 * Tests that a decoded delta is applied in place to a caller-owned 
+	 * buffer, which is left unchanged by a delta with an out-of-range index.
+	 *
+	 * @throws EncoderException the encoder exception
+	 * @throws DecoderException the decoder exception
+	 */
+	@Test
+	public void testDeltaInPlace() throws EncoderException, DecoderException {
+		HLAoutputDelta delta = new HLAoutputDelta(encoderFactory);
+		delta.setValue(2, new int[] {1}, new double[] {-1});
+		HLAoutputDelta decoded = new HLAoutputDelta(encoderFactory);
+		decoded.decode(delta.toByteArray());
+		double[] buffer = new double[] {1, 2, 3};
+		assertEquals(1, decoded.getValue(buffer));
+		assertArrayEquals(new double[] {1, -1, 3}, buffer, 0);
+		
+		delta.setValue(3, new int[] {0, 3}, new double[] {5, 5});
+		decoded.decode(delta.toByteArray());
+		try {
+			decoded.getValue(buffer);
+			fail("Expected an out-of-range index to be rejected.");
+		} catch(IllegalArgumentException ex) {
+			assertArrayEquals(new double[] {1, -1, 3}, buffer, 0);
+		}
+	}
+	
+	/**
+	 * Tests that an encoded delta decodes to the changed entries applied 
+	 * to the previous output vector.
+	 *
+	 * @throws EncoderException the encoder exception
+	 * @throws DecoderException the decoder exception
+	 */
+	@Test
+	public void testDeltaRoundTrip() throws EncoderException, DecoderException {
+		HLAoutputDelta delta = new HLAoutputDelta(encoderFactory);
+		delta.setValue(8, new int[] {0, 2}, new double[] {0.5, -0.5});
+		
+		HLAoutputDelta decoded = new HLAoutputDelta(encoderFactory);
+		decoded.decode(delta.toByteArray());
+		assertEquals(8, decoded.getSequenceNumber());
+		assertFalse(decoded.isKeyframe());
+		RealVector previous = new ArrayRealVector(new double[] {1, 2, 3});
+		assertArrayEquals(new double[] {0.5, 2, -0.5}, 
+				decoded.getValue(previous).toArray(), 0);
+		assertArrayEquals(new double[] {1, 2, 3}, previous.toArray(), 0);
+	}
+	
+	/**
+	 * Tests that an encoded keyframe decodes to the complete output vector.
+	 *
+	 * @throws EncoderException the encoder exception
+	 * @throws DecoderException the decoder exception
+	 */
+	@Test
+	public void testKeyframeRoundTrip() throws EncoderException, DecoderException {
+		HLAoutputDelta delta = new HLAoutputDelta(encoderFactory);
+		delta.setValue(7, new double[] {1, 2, 3});
+		
+		HLAoutputDelta decoded = new HLAoutputDelta(encoderFactory);
+		decoded.decode(delta.toByteArray());
+		assertEquals(7, decoded.getSequenceNumber());
+		assertTrue(decoded.isKeyframe());
+		assertArrayEquals(new double[] {1, 2, 3}, 
+				decoded.getValue(new ArrayRealVector()).toArray(), 0);
+	}
+}
@@ -0,0 +1,208 @@
+/******************************************************************************
+ * Copyright 2020 Paul T. Grogan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package edu.mit.collab.transport;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.RealVector;
+import org.junit.Test;
+
+import edu.mit.collab.event.ManagerListener;
+import edu.mit.collab.transport.CoalescingDesignerTransport.CoalescingPolicy;
+
+/**
+ * Tests that the coalescing designer transport always sends the final 
+ * input value of a burst of input updates.
+ * 
+ * @author Paul T. Grogan
+ */
+public class CoalescingDesignerTransportTest {
+	private static final int numberUpdates = 100;
+	private static final long timeout = 60000;
+	
+	/**
+	 * A designer transport which records the updates it is sent.
+	 */
+	private static class RecordingTransport implements DesignerTransport {
+		private final List<Object> updates = new ArrayList<Object>(); // mutable
+		private boolean shutDown; // mutable
+		
+		@Override
+		public void addManagerListener(ManagerListener listener) { }
+		
+		@Override
+		public String getInstanceName() {
+			return "Recording";
+		}
+		
+		/**
+		 * Gets the last input value sent.
+		 *
+		 * @return the last input value, or null if none was sent
+		 */
+		public synchronized RealVector getLastInput() {
+			for(int i = updates.size() - 1; i >= 0; i--) {
+				if(updates.get(i) instanceof RealVector) {
+					return (RealVector) updates.get(i);
+				}
+			}
+			return null;
+		}
+		
+		/**
+		 * Gets the updates sent, in order.
+		 *
+		 * @return the updates
+		 */
+		public synchronized List<Object> getUpdates() {
+			return new ArrayList<Object>(updates);
+		}
+		
+		@Override
+		public void removeManagerListener(ManagerListener listener) { }
+		
+		@Override
+		public synchronized void shutDown() {
+			shutDown = true;
+		}
+		
+		@Override
+		public void startUp() { }
+		
+		@Override
+		public synchronized void updateIndexAttribute(int indexValue) {
+			updates.add(indexValue);
+		}
+		
+		@Override
+		public synchronized void updateInputAttribute(RealVector inputValue) {
+			updates.add(inputValue.copy());
+		}
+		
+		@Override
+		public synchronized void updateStateAttribute(boolean readyValue) {
+			updates.add(readyValue);
+		}
+	}
+	
+	/**
+	 * Sends a burst of input updates.
+	 *
+	 * @param transport the transport
+	 * @return the final input value
+	 */
+	private static RealVector sendBurst(CoalescingDesignerTransport transport) {
+		RealVector input = new ArrayRealVector(2);
+		for(int i = 1; i <= numberUpdates; i++) {
+			input.setEntry(0, i);
+			input.setEntry(1, -i);
+			transport.updateInputAttribute(input);
+		}
+		return input.copy();
+	}
+	
+	/**
+	 * Tests that the final input of a burst is sent in the background 
+	 * once the minimum interval has elapsed, without flushing.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testFinalValueAfterInterval() throws Exception {
+		RecordingTransport recorder = new RecordingTransport();
+		CoalescingDesignerTransport transport = new CoalescingDesignerTransport(
+				recorder, CoalescingPolicy.INTERVAL, 10, timeout);
+		RealVector input = sendBurst(transport);
+		long start = System.currentTimeMillis();
+		while(!input.equals(recorder.getLastInput()) 
+				&& System.currentTimeMillis() - start < timeout) {
+			Thread.sleep(10);
+		}
+		
+		assertEquals(input, recorder.getLastInput());
+		assertEquals(numberUpdates, transport.getNumberReceived());
+		transport.shutDown();
+	}
+	
+	/**
+	 * Tests that the final input of a burst is sent before a later state 
+	 * update.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testFinalValueBeforeState() throws Exception {
+		RecordingTransport recorder = new RecordingTransport();
+		CoalescingDesignerTransport transport = new CoalescingDesignerTransport(
+				recorder, CoalescingPolicy.INTERVAL, timeout, timeout);
+		RealVector input = sendBurst(transport);
+		transport.updateStateAttribute(true);
+		
+		List<Object> updates = recorder.getUpdates();
+		assertEquals(Boolean.TRUE, updates.get(updates.size() - 1));
+		assertArrayEquals(input.toArray(), 
+				((RealVector) updates.get(updates.size() - 2)).toArray(), 0);
+		transport.shutDown();
+	}
+	
+	/**
+	 * Tests that the final input of a burst is sent when the transport 
+	 * is flushed, before the acknowledgement of the first update.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testFinalValueOnFlush() throws Exception {
+		RecordingTransport recorder = new RecordingTransport();
+		CoalescingDesignerTransport transport = new CoalescingDesignerTransport(
+				recorder, CoalescingPolicy.ACKNOWLEDGEMENT, 0, timeout);
+		RealVector input = sendBurst(transport);
+		transport.flush();
+		
+		assertEquals(numberUpdates, transport.getNumberReceived());
+		assertTrue(transport.getNumberSent() <= numberUpdates);
+		assertArrayEquals(input.toArray(), 
+				recorder.getLastInput().toArray(), 0);
+		transport.shutDown();
+	}
+	
+	/**
+	 * Tests that the final input of a burst is sent when the transport 
+	 * is shut down, before the underlying transport is shut down.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testFinalValueOnShutDown() throws Exception {
+		RecordingTransport recorder = new RecordingTransport();
+		CoalescingDesignerTransport transport = new CoalescingDesignerTransport(
+				recorder, CoalescingPolicy.INTERVAL, timeout, timeout);
+		RealVector input = sendBurst(transport);
+		assertFalse(recorder.shutDown);
+		transport.shutDown();
+		
+		assertTrue(recorder.shutDown);
+		assertArrayEquals(input.toArray(), 
+				recorder.getLastInput().toArray(), 0);
+	}
+}
@@ -0,0 +1,95 @@
+/******************************************************************************
+ * Copyright 2020 Paul T. Grogan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package edu.mit.collab.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.gson.Gson;
+
+import edu.mit.collab.core.Experiment;
+
+/**
+ * Tests that the bundled experiments survive a JSON to binary to JSON 
+ * round trip unchanged.
+ * 
+ * @author Paul T. Grogan
+ */
+public class BinaryExperimentFormatTest {
+	private static final String experimentPath = 
+			"src/generator/matlab/experiment%03d.json";
+	private static final int numberExperiments = 12;
+	
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	
+	/**
+	 * Tests that a truncated binary file is rejected.
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	@Test(expected = IOException.class)
+	public void testReadTruncated() throws IOException {
+		Experiment experiment = Utilities.readExperiment(new File(
+				String.format(experimentPath, 1)));
+		File binaryFile = folder.newFile("truncated." 
+				+ BinaryExperimentFormat.FILE_EXTENSION);
+		BinaryExperimentFormat.writeExperiment(experiment, binaryFile);
+		try(RandomAccessFile file = new RandomAccessFile(binaryFile, "rw")) {
+			// models are read lazily, so cut the file within the header
+			file.setLength(16);
+		}
+		BinaryExperimentFormat.readExperiment(binaryFile);
+	}
+	
+	/**
+	 * Tests that each bundled experiment written in the binary format and 
+	 * written back to JSON matches the original experiment.
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	@Test
+	public void testRoundTrip() throws IOException {
+		Gson gson = Utilities.getGson();
+		for(int i = 1; i <= numberExperiments; i++) {
+			File jsonFile = new File(String.format(experimentPath, i));
+			Experiment experiment = Utilities.readExperiment(jsonFile);
+			assertFalse(BinaryExperimentFormat.isBinary(jsonFile));
+			
+			File binaryFile = folder.newFile("experiment" + i + "." 
+					+ BinaryExperimentFormat.FILE_EXTENSION);
+			BinaryExperimentFormat.writeExperiment(experiment, binaryFile);
+			assertTrue(BinaryExperimentFormat.isBinary(binaryFile));
+			Experiment binaryExperiment = Utilities.readExperiment(binaryFile);
+			assertEquals(jsonFile.getName(), gson.toJson(experiment), 
+					gson.toJson(binaryExperiment));
+			
+			File roundTripFile = folder.newFile("experiment" + i + ".json");
+			Utilities.writeExperiment(binaryExperiment, roundTripFile);
+			assertEquals(jsonFile.getName(), gson.toJson(experiment), 
+					gson.toJson(Utilities.readExperiment(roundTripFile)));
+		}
+	}
+}